@@ -1,7 +1,26 @@
 import http from './index'
 import type { ApiResponse } from '@/types/alert'
 import type { BacktestParams, BacktestResult } from '@/types/backtest'
+import { SERIES_FRAME_ACCEPT, decodeSeriesFrame, epochDayToIso } from '@/utils/seriesFrame'
 
 export function runBacktest(params: BacktestParams) {
   return http.post<ApiResponse<BacktestResult>>('/api/predict/backtest', params)
 }
+
+type BacktestFields = Omit<BacktestResult, 'dates' | 'actual' | 'predicted'>
+
+/** Same result as runBacktest, transferred as a binary series frame */
+export async function runBacktestFrame(params: BacktestParams): Promise<BacktestResult> {
+  const res = await http.post<ArrayBuffer | ApiResponse<BacktestResult>>('/api/predict/backtest', params, {
+    responseType: 'arraybuffer',
+    headers: { Accept: SERIES_FRAME_ACCEPT },
+  })
+  if (!(res.data instanceof ArrayBuffer)) return res.data.data
+  const frame = decodeSeriesFrame<BacktestFields>(res.data)
+  return {
+    ...frame.fields,
+    dates: Array.from(frame.dates.dates, epochDayToIso),
+    actual: Array.from(frame.values.actual),
+    predicted: Array.from(frame.values.predicted),
+  }
+}
@@ -1,6 +1,7 @@
 import http from './index'
 import type { ApiResponse } from '@/types/alert'
-import type { FactorDetail, RadarScore, WeightConfig } from '@/types/factor'
+import type { FactorDetail, RadarScore, RadarTimeseries, WeightConfig } from '@/types/factor'
+import type { TimeseriesParams } from './risk'
 
 export function getFactorExplanation(date: string) {
   return http.get<ApiResponse<FactorDetail[]>>(`/api/explain/${date}`)
@@ -10,6 +11,10 @@ export function getRadarScores() {
   return http.get<ApiResponse<RadarScore[]>>('/api/risk/radar')
 }
 
+export function getRadarTimeseries(params?: TimeseriesParams) {
+  return http.get<ApiResponse<RadarTimeseries>>('/api/risk/radar/timeseries', { params })
+}
+
 export function updateWeights(weights: WeightConfig, signal?: AbortSignal) {
   return http.put<ApiResponse<unknown>>('/api/config/weights', weights, { signal })
 }
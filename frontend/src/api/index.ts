@@ -11,6 +11,14 @@ const http = axios.create({
 
 http.interceptors.response.use(
   (response) => {
+    // Binary series frames carry no envelope; JSON errors still arrive as bytes
+    if (response.data instanceof ArrayBuffer) {
+      const contentType = String(response.headers['content-type'] ?? '')
+      if (!contentType.startsWith('application/json')) {
+        return response
+      }
+      response.data = JSON.parse(new TextDecoder().decode(response.data))
+    }
     const data = response.data as ApiResponse<unknown>
     if (data.code !== 200) {
       return Promise.reject(new Error(data.message || 'Request failed'))
@@ -1,6 +1,7 @@
 import http from './index'
 import type { ApiResponse } from '@/types/alert'
-import type { CurrentRisk, TimeseriesData } from '@/types/risk'
+import type { CurrentRisk, TimeseriesData, TimeseriesPoint } from '@/types/risk'
+import { SERIES_FRAME_ACCEPT, decodeSeriesFrame, epochDayToIso } from '@/utils/seriesFrame'
 
 export interface TimeseriesParams {
   start?: string
@@ -14,3 +15,25 @@ export function getCurrentRisk() {
 export function getTimeseries(params?: TimeseriesParams) {
   return http.get<ApiResponse<TimeseriesData>>('/api/factors/timeseries', { params })
 }
+
+/** Same data as getTimeseries, transferred as a binary series frame */
+export async function getTimeseriesFrame(params?: TimeseriesParams): Promise<TimeseriesData> {
+  const res = await http.get<ArrayBuffer | ApiResponse<TimeseriesData>>('/api/factors/timeseries', {
+    params,
+    responseType: 'arraybuffer',
+    headers: { Accept: SERIES_FRAME_ACCEPT },
+  })
+  if (!(res.data instanceof ArrayBuffer)) return res.data.data
+  const frame = decodeSeriesFrame(res.data)
+  const alerts = frame.tables.alerts
+  return {
+    dates: Array.from(frame.dates.dates, epochDayToIso),
+    oilPrice: Array.from(frame.values.oilPrice),
+    riskIndex: Array.from(frame.values.riskIndex),
+    alerts: Array.from(alerts.dates.date, (day, i): TimeseriesPoint => ({
+      date: epochDayToIso(day),
+      level: alerts.categories.level[i] ?? '',
+      riskIndex: alerts.values.riskIndex[i],
+    })),
+  }
+}
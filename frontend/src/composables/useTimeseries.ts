@@ -1,5 +1,5 @@
 import { ref, watch } from 'vue'
-import { getTimeseries } from '@/api/risk'
+import { getTimeseriesFrame } from '@/api/risk'
 import { useRiskStore } from '@/stores/risk'
 import { useAppStore } from '@/stores/app'
 import type { TimeseriesData } from '@/types/risk'
@@ -15,12 +15,12 @@ export function useTimeseries() {
     loading.value = true
     error.value = null
     try {
-      const res = await getTimeseries({
+      const timeseries = await getTimeseriesFrame({
         start: appStore.timeRange.start,
         end: appStore.timeRange.end,
       })
-      data.value = res.data.data
-      riskStore.setTimeseries(res.data.data)
+      data.value = timeseries
+      riskStore.setTimeseries(timeseries)
     } catch (e) {
       error.value = e instanceof Error ? e.message : 'Unknown error'
     } finally {
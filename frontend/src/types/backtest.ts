@@ -2,6 +2,19 @@ export interface BacktestParams {
   startDate: string
   endDate: string
   model: 'XGBoost' | 'ARIMA' | 'LSTM'
+  trainWindow?: number
+  step?: number
+  horizon?: number
+}
+
+export interface BacktestFold {
+  trainStart: string
+  trainEnd: string
+  testStart: string
+  testEnd: string
+  mae: number
+  hitRate: number
+  directionAccuracy: number
 }
 
 export interface BacktestResult {
@@ -12,4 +25,5 @@ export interface BacktestResult {
   falseAlarmRate: number
   mae: number
   directionAccuracy: number
+  folds?: BacktestFold[] | null
 }
@@ -29,6 +29,14 @@ export interface RadarScore {
   topFactors: FactorDetail[]
 }
 
+export interface RadarTimeseries {
+  categories: string[]
+  categoriesZh: string[]
+  dates: string[]
+  /** scores[c][i]: category c on dates[i] */
+  scores: number[][]
+}
+
 export interface WeightConfig {
   supplyDemand: number
   macro: number
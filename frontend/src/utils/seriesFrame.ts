@@ -0,0 +1,135 @@
+/**
+ * Decoder for the binary series frame served to clients that send
+ * `Accept: application/vnd.oilrisk.series-frame`. Layout (little-endian):
+ *
+ *   "ORSF" | u8 version | u8 columns | u16 0 | u32 rows
+ *   column descriptors, columns (see below)
+ *   per extra table: "ORST" | u8 columns | u8 name length | u16 0 | u32 rows | UTF-8 name
+ *                    column descriptors, columns
+ *   UTF-8 JSON object with the non-columnar fields, up to the end of the body
+ *
+ * Column descriptors: u8 type | u8 scale | u8 name length | UTF-8 name, and for type 3 also
+ * u8 count | per category (u8 length | UTF-8 label); zero padding to a multiple of 4 follows.
+ * Columns: rows x i32 each (type 1: first epoch day then day deltas, type 2: value x 10^scale,
+ * type 3: category index or -1).
+ */
+export const SERIES_FRAME_TYPE = 'application/vnd.oilrisk.series-frame'
+
+/** Accept header that still lets JSON error responses through */
+export const SERIES_FRAME_ACCEPT = `${SERIES_FRAME_TYPE}, application/json;q=0.5`
+
+const DATE = 1
+const DECIMAL = 2
+const CATEGORY = 3
+const LITTLE_ENDIAN = new Uint8Array(new Uint32Array([1]).buffer)[0] === 1
+const utf8 = new TextDecoder()
+
+export interface SeriesTable {
+  rows: number
+  /** Epoch days per date column */
+  dates: Record<string, Int32Array>
+  values: Record<string, Float64Array>
+  categories: Record<string, (string | null)[]>
+}
+
+export interface SeriesFrame<F = Record<string, unknown>> extends SeriesTable {
+  tables: Record<string, SeriesTable>
+  fields: F
+}
+
+interface Column {
+  name: string
+  type: number
+  scale: number
+  labels: string[]
+}
+
+export function decodeSeriesFrame<F = Record<string, unknown>>(buffer: ArrayBuffer): SeriesFrame<F> {
+  const view = new DataView(buffer)
+  const bytes = new Uint8Array(buffer)
+  if (utf8.decode(bytes.subarray(0, 4)) !== 'ORSF' || view.getUint8(4) !== 1) {
+    throw new Error('Unsupported series frame')
+  }
+  const reader = { offset: 12 }
+  const main = readTable(buffer, view, bytes, reader, view.getUint8(5), view.getUint32(8, true))
+
+  const tables: Record<string, SeriesTable> = {}
+  while (reader.offset + 4 <= bytes.length && utf8.decode(bytes.subarray(reader.offset, reader.offset + 4)) === 'ORST') {
+    const columnCount = view.getUint8(reader.offset + 4)
+    const nameLength = view.getUint8(reader.offset + 5)
+    const rows = view.getUint32(reader.offset + 8, true)
+    const name = utf8.decode(bytes.subarray(reader.offset + 12, reader.offset + 12 + nameLength))
+    reader.offset += 12 + nameLength
+    tables[name] = readTable(buffer, view, bytes, reader, columnCount, rows)
+  }
+
+  const fields = JSON.parse(utf8.decode(bytes.subarray(reader.offset))) as F
+  return { ...main, tables, fields }
+}
+
+/** Epoch day to "yyyy-MM-dd", matching the JSON date strings */
+export function epochDayToIso(day: number): string {
+  return new Date(day * 86_400_000).toISOString().slice(0, 10)
+}
+
+function readTable(
+  buffer: ArrayBuffer,
+  view: DataView,
+  bytes: Uint8Array,
+  reader: { offset: number },
+  columnCount: number,
+  rows: number,
+): SeriesTable {
+  let offset = reader.offset
+  const readString = () => {
+    const length = view.getUint8(offset)
+    const value = utf8.decode(bytes.subarray(offset + 1, offset + 1 + length))
+    offset += 1 + length
+    return value
+  }
+  const columns: Column[] = []
+  for (let c = 0; c < columnCount; c++) {
+    const type = view.getUint8(offset)
+    const scale = view.getUint8(offset + 1)
+    offset += 2
+    const name = readString()
+    const labels: string[] = []
+    if (type === CATEGORY) {
+      const count = view.getUint8(offset++)
+      for (let i = 0; i < count; i++) labels.push(readString())
+    }
+    columns.push({ name, type, scale, labels })
+  }
+  offset = (offset + 3) & ~3
+
+  const table: SeriesTable = { rows, dates: {}, values: {}, categories: {} }
+  for (const column of columns) {
+    const raw = readInt32(buffer, view, offset, rows)
+    offset += rows * 4
+    if (column.type === DATE) {
+      const days = new Int32Array(rows)
+      let day = 0
+      for (let i = 0; i < rows; i++) {
+        day = i === 0 ? raw[0] : day + raw[i]
+        days[i] = day
+      }
+      table.dates[column.name] = days
+    } else if (column.type === DECIMAL) {
+      const divisor = 10 ** column.scale
+      const values = new Float64Array(rows)
+      for (let i = 0; i < rows; i++) values[i] = raw[i] / divisor
+      table.values[column.name] = values
+    } else if (column.type === CATEGORY) {
+      table.categories[column.name] = Array.from(raw, (index) => column.labels[index] ?? null)
+    }
+  }
+  reader.offset = offset
+  return table
+}
+
+function readInt32(buffer: ArrayBuffer, view: DataView, offset: number, count: number): Int32Array {
+  if (LITTLE_ENDIAN) return new Int32Array(buffer, offset, count)
+  const out = new Int32Array(count)
+  for (let i = 0; i < count; i++) out[i] = view.getInt32(offset + i * 4, true)
+  return out
+}
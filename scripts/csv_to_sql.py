@@ -1,6 +1,7 @@
 #!/usr/bin/env python3
 """
-csv_to_sql.py — Convert Final_Oil_Dataset_Cleaned.csv to data.sql
+csv_to_sql.py — Convert Final_Oil_Dataset_Cleaned.csv to the V2 seed migration
+Flyway checksums applied migrations: once V2 has run somewhere, ship changes as a new V<n>__*.sql.
 Uses only Python standard library (no pandas).
 """
 
@@ -14,7 +15,7 @@ from collections import defaultdict
 # ── Paths ────────────────────────────────────────────────────────────────────
 BASE = os.path.dirname(os.path.dirname(os.path.abspath(__file__)))
 CSV_PATH = os.path.join(BASE, 'data', 'Final_Oil_Dataset_Cleaned.csv')
-OUT_PATH = os.path.join(BASE, 'src', 'main', 'resources', 'data.sql')
+OUT_PATH = os.path.join(BASE, 'src', 'main', 'resources', 'db', 'migration', 'V2__seed_data.sql')
 
 # ── Column indices (0-based) ─────────────────────────────────────────────────
 COL = {
@@ -383,7 +384,7 @@ def _build_alert_detail(m, thresholds, prev):
 # ── Step 5: Write SQL ────────────────────────────────────────────────────────
 
 def write_sql(months, alerts):
-    """Write the complete data.sql file."""
+    """Write the complete seed migration."""
     lines = []
     w = lines.append
 
@@ -392,11 +393,6 @@ def write_sql(months, alerts):
     w('-- Generated from Final_Oil_Dataset_Cleaned.csv')
     w('-- ============================================')
     w('')
-    w('-- Clear existing data')
-    w('TRUNCATE TABLE alert;')
-    w('TRUNCATE TABLE risk_factor;')
-    w('TRUNCATE TABLE risk_index;')
-    w('')
 
     # ── risk_index ───────────────────────────────────────────────────────────
     w('-- risk_index data')
@@ -419,7 +415,7 @@ def write_sql(months, alerts):
 
     for i in range(0, len(all_factors), batch_size):
         batch = all_factors[i:i + batch_size]
-        w('INSERT INTO risk_factor (date, factor_name, factor_name_zh, category, "value", shap_value) VALUES')
+        w('INSERT INTO risk_factor (date, factor_name, factor_name_zh, category, `value`, shap_value) VALUES')
         for j, (dt, f) in enumerate(batch):
             sep = ',' if j < len(batch) - 1 else ';'
             w(f"('{dt}', '{f['factor_name']}', '{f['factor_name_zh']}', "
@@ -0,0 +1,73 @@
+#!/usr/bin/env bash
+# startup-bench.sh — Startup time of the prod build in each launch mode
+#
+#   mvn -Pprod package -DskipTests && scripts/startup-bench.sh [runs] [-- app args...]
+#
+# Modes, each started <runs> times (default 5) with the prod profile:
+#   jar      the repackaged fat jar
+#   extract  the extracted jar (target/app), classes from plain jars
+#   cds      extract + the AppCDS archive from the build's training run
+#   cds+aot  cds + the AOT-generated bean definitions (-Dspring.aot.enabled=true)
+# For each run it records Spring's "Started ... in" time and the wall time until
+# /actuator/health/readiness answers UP, which includes the startup warmup. Prints the median.
+#
+# The database defaults to an H2 file under target/startup-bench, migrated and seeded by one untimed
+# run first, as a running deployment's database would be. Pass --spring.datasource.* after "--" to
+# use another one, and --warmup.enabled=false to measure the context alone.
+set -euo pipefail
+
+BASE="$(cd "$(dirname "${BASH_SOURCE[0]}")/.." && pwd)"
+RUNS=5
+if [[ $# -gt 0 && "$1" != "--" ]]; then RUNS="$1"; shift; fi
+[[ "${1:-}" == "--" ]] && shift
+PORT="${PORT:-18090}"
+
+JAR="$(ls "$BASE"/target/OilRisk_Alert-*.jar | grep -v original | head -1)"
+APP="$BASE/target/app/$(basename "$JAR")"
+JSA="$BASE/target/app/application.jsa"
+[[ -f "$APP" && -f "$JSA" ]] || { echo "Build first: mvn -Pprod package -DskipTests" >&2; exit 1; }
+
+APP_ARGS=(--spring.profiles.active=prod --server.port="$PORT"
+    "--spring.datasource.url=jdbc:h2:file:$BASE/target/startup-bench/db;MODE=MySQL;NON_KEYWORDS=VALUE,DATE"
+    --spring.datasource.driver-class-name=org.h2.Driver --spring.datasource.username=sa
+    --spring.datasource.password= --snapshot.path= --archive.columnar.path="$BASE/target/columnar-bench"
+    "$@")
+
+now_ms() { date +%s%3N; }
+
+# run <mode> <java args...>: prints "<started ms> <ready ms>"
+run() {
+    local log; log="$(mktemp)"
+    local t0; t0="$(now_ms)"
+    java "$@" "${APP_ARGS[@]}" >"$log" 2>&1 &
+    local pid=$!
+    until curl -sf "http://localhost:$PORT/actuator/health/readiness" >/dev/null 2>&1; do
+        if ! kill -0 "$pid" 2>/dev/null; then echo "Startup failed, log: $log" >&2; exit 1; fi
+        sleep 0.02
+    done
+    local ready=$(( $(now_ms) - t0 ))
+    kill "$pid"; wait "$pid" 2>/dev/null || true
+    local started
+    started="$(grep -o 'Started [A-Za-z]* in [0-9.]* seconds' "$log" | awk '{printf "%d", $4 * 1000}')"
+    rm -f "$log"
+    echo "$started $ready"
+}
+
+median() { sort -n | awk '{a[NR]=$1} END {print a[int((NR+1)/2)]}'; }
+
+bench() {
+    local mode="$1"; shift
+    local results=()
+    for ((i = 0; i < RUNS; i++)); do results+=("$(run "$@")"); done
+    local started ready
+    started="$(printf '%s\n' "${results[@]}" | awk '{print $1}' | median)"
+    ready="$(printf '%s\n' "${results[@]}" | awk '{print $2}' | median)"
+    printf '%-10s %12s %12s\n' "$mode" "$started" "$ready"
+}
+
+run -jar "$APP" >/dev/null
+printf '%-10s %12s %12s\n' "mode" "started ms" "ready ms"
+bench jar -jar "$JAR"
+bench extract -jar "$APP"
+bench cds -XX:SharedArchiveFile="$JSA" -jar "$APP"
+bench cds+aot -XX:SharedArchiveFile="$JSA" -Dspring.aot.enabled=true -jar "$APP"
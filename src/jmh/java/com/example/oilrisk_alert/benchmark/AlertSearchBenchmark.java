@@ -0,0 +1,106 @@
+package com.example.oilrisk_alert.benchmark;
+
+import com.example.oilrisk_alert.cache.DataVersionClock;
+import com.example.oilrisk_alert.cluster.InMemoryClusterBus;
+import com.example.oilrisk_alert.engine.RiskSnapshot;
+import com.example.oilrisk_alert.entity.Alert;
+import com.example.oilrisk_alert.entity.DataVersion;
+import com.example.oilrisk_alert.loadtest.SyntheticHistory;
+import com.example.oilrisk_alert.mapper.AlertMapper;
+import com.example.oilrisk_alert.mapper.DataVersionMapper;
+import com.example.oilrisk_alert.search.AlertSearchIndex;
+import org.openjdk.jmh.annotations.*;
+import tools.jackson.databind.ObjectMapper;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * A search for {@code query} with facets and the first page of 20, over the alerts of
+ * {@code years} of synthetic daily history (every fifth with an AI report): the inverted index
+ * against the scan a {@code LIKE '%query%'} query does, over the same rows in memory.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(value = 1, jvmArgsAppend = "-Xmx2g")
+public class AlertSearchBenchmark {
+
+    private static final String[] FILTERS = new String[3];
+
+    @Param({"10", "100"})
+    public int years;
+
+    @Param({"中东紧张", "vix"})
+    public String query;
+
+    private List<Alert> alerts;
+    private AlertSearchIndex index;
+
+    @Setup
+    public void setUp() {
+        SyntheticHistory history = new SyntheticHistory(SyntheticData.START, 10, 42, new ObjectMapper());
+        alerts = new ArrayList<>();
+        for (int day = 0; day < years * 365; day++) {
+            RiskSnapshot snapshot = history.next();
+            Alert alert = snapshot.getAlert();
+            if (alert == null) continue;
+            alert.setId((long) alerts.size() + 1);
+            alert.setRevision(0);
+            if (alerts.size() % 5 == 0) {
+                alert.setAiReport("## 风险研判\n" + alert.getSummary() + "。" + alert.getTriggerFactorZh()
+                        + "是主要驱动因素，建议关注库存、OPEC产量与美元指数的联动，并复核套期保值头寸。\n"
+                        + alert.getSummaryEn() + ". Review hedges against inventory and OPEC output.");
+            }
+            alerts.add(alert);
+        }
+        AlertMapper alertMapper = MapperStubs.stub(AlertMapper.class, Map.of("scanAll", MapperStubs.scan(alerts)));
+        DataVersionMapper dataVersionMapper = MapperStubs.stub(DataVersionMapper.class, Map.of(
+                "findAll", args -> {
+                    DataVersion row = new DataVersion();
+                    row.setTableName("alert");
+                    row.setVersion(1L);
+                    return List.of(row);
+                }));
+        index = new AlertSearchIndex(alertMapper, new DataVersionClock(dataVersionMapper, new InMemoryClusterBus(event -> {
+        })));
+        index.search(null, FILTERS, false, false, 0, 1);
+    }
+
+    @Benchmark
+    public AlertSearchIndex.Hits invertedIndex() {
+        return index.search(query, FILTERS, false, false, 0, 20);
+    }
+
+    @Benchmark
+    public List<Alert> likeScan() {
+        String needle = query.toLowerCase();
+        List<Alert> matches = new ArrayList<>();
+        Map<String, Long> levels = new HashMap<>();
+        Map<String, Long> types = new HashMap<>();
+        Map<Integer, Long> byYear = new HashMap<>();
+        for (Alert a : alerts) {
+            if (contains(a.getSummary(), needle) || contains(a.getSummaryEn(), needle)
+                    || contains(a.getTriggerFactor(), needle) || contains(a.getTriggerType(), needle)
+                    || contains(a.getAiReport(), needle)) {
+                matches.add(a);
+                levels.merge(a.getLevel(), 1L, Long::sum);
+                types.merge(a.getTriggerType(), 1L, Long::sum);
+                byYear.merge(a.getDate().getYear(), 1L, Long::sum);
+            }
+        }
+        matches.sort(Comparator.comparing(Alert::getDate).reversed());
+        return matches.subList(0, Math.min(20, matches.size()));
+    }
+
+    // Case-insensitive like MySQL's default collation
+    private static boolean contains(String text, String needle) {
+        return text != null && text.toLowerCase().contains(needle);
+    }
+}
@@ -0,0 +1,54 @@
+package com.example.oilrisk_alert.benchmark;
+
+import com.example.oilrisk_alert.engine.AnomalyDetector;
+import com.example.oilrisk_alert.engine.RuleMatch;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.util.SplittableRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * One observation through AnomalyDetector: every factor updated once. {@code history} values per
+ * factor are fed first, to show the cost per observation does not grow with the stream.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class AnomalyDetectorBenchmark {
+
+    private static final int VALUES = 1 << 16;
+
+    @Param({"10", "200"})
+    public int factors;
+
+    @Param({"100", "1000000"})
+    public int history;
+
+    private AnomalyDetector detector;
+    private double[] values;
+    private int next;
+
+    @Setup
+    public void setUp() {
+        SplittableRandom random = new SplittableRandom(42);
+        values = new double[VALUES];
+        for (int i = 0; i < VALUES; i++) values[i] = 50 + 10 * random.nextDouble(-1, 1) + random.nextDouble();
+        detector = new AnomalyDetector(factors);
+        for (int i = 0; i < history; i++) {
+            for (int f = 0; f < factors; f++) detector.update(f, values[(i + f) & (VALUES - 1)], "f", "f");
+        }
+    }
+
+    @Benchmark
+    public void observation(Blackhole bh) {
+        int i = next++;
+        for (int f = 0; f < factors; f++) {
+            RuleMatch match = detector.update(f, values[(i + f) & (VALUES - 1)], "f", "f");
+            bh.consume(match);
+        }
+    }
+}
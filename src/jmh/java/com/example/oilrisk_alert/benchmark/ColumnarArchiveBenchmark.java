@@ -0,0 +1,115 @@
+package com.example.oilrisk_alert.benchmark;
+
+import com.example.oilrisk_alert.cache.RadarEntry;
+import com.example.oilrisk_alert.columnar.ColumnarArchive;
+import com.example.oilrisk_alert.columnar.ColumnarTable;
+import com.example.oilrisk_alert.columnar.ColumnarTableWriter;
+import com.example.oilrisk_alert.engine.RadarSeriesAccumulator;
+import com.example.oilrisk_alert.entity.RiskFactor;
+import com.example.oilrisk_alert.ingest.RiskFactorDef;
+import org.openjdk.jmh.annotations.*;
+
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDate;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.SplittableRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Stream;
+
+/**
+ * Radar timeseries aggregation over {@code days} x 10 archived factor rows. {@code columnar} scans
+ * the memory-mapped copy as FactorServiceImpl does; {@code materialized} decodes the same rows into
+ * RiskFactor objects first, the per-row allocation a database scan has before any JDBC cost. Run
+ * with {@code -prof gc} to compare gc.alloc.rate.norm.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(value = 1, jvmArgsAppend = "-Xmx4g")
+public class ColumnarArchiveBenchmark {
+
+    @Param({"3650", "36500"})
+    public int days;
+
+    private Path dir;
+    private ColumnarTable table;
+    private LocalDate start;
+    private LocalDate end;
+    private int[] category;
+    private final double[] weights = new double[RadarEntry.CATEGORIES.size()];
+
+    @Setup
+    public void setUp() throws IOException {
+        dir = Files.createTempDirectory("columnar-bench");
+        start = SyntheticData.START;
+        end = start.plusDays(days - 1);
+        SplittableRandom random = new SplittableRandom(42);
+        RiskFactorDef[] defs = RiskFactorDef.values();
+        double[] values = new double[defs.length];
+        try (ColumnarTableWriter writer = new ColumnarTableWriter(dir, null, null)) {
+            for (int d = 0; d < days; d++) {
+                LocalDate date = start.plusDays(d);
+                for (int k = 0; k < defs.length; k++) {
+                    // Daily factor inputs mostly hold or drift a little; SHAP moves every day
+                    if (random.nextInt(3) == 0) {
+                        values[k] = BigDecimal.valueOf(values[k] + random.nextDouble(-1, 1))
+                                .setScale(4, RoundingMode.HALF_UP).doubleValue();
+                    }
+                    double shap = BigDecimal.valueOf(random.nextDouble(-0.15, 0.15))
+                            .setScale(6, RoundingMode.HALF_UP).doubleValue();
+                    writer.append(date, defs[k].getFactorName() + '\t' + defs[k].getFactorNameZh()
+                            + '\t' + defs[k].getCategory(), values[k], shap);
+                }
+            }
+            table = ColumnarTable.open(dir, writer.commit(), end.plusDays(1));
+        }
+        category = new int[table.dictionarySize()];
+        for (int k = 0; k < category.length; k++) {
+            category[k] = RadarEntry.CATEGORIES.indexOf(table.entry(k)[ColumnarArchive.FACTOR_CATEGORY]);
+        }
+        Arrays.fill(weights, 0.2);
+    }
+
+    @TearDown
+    public void tearDown() throws IOException {
+        try (Stream<Path> files = Files.walk(dir)) {
+            files.sorted(Comparator.reverseOrder()).forEach(p -> p.toFile().delete());
+        }
+    }
+
+    @Benchmark
+    public int columnar() {
+        RadarSeriesAccumulator accumulator = new RadarSeriesAccumulator(weights, (date, scores) -> { });
+        int[] lastDay = {Integer.MIN_VALUE};
+        LocalDate[] date = new LocalDate[1];
+        table.scan(start, end, (day, key, value, shap) -> {
+            if (day != lastDay[0]) {
+                lastDay[0] = day;
+                date[0] = LocalDate.ofEpochDay(day);
+            }
+            accumulator.add(date[0], category[key], shap);
+            return true;
+        });
+        accumulator.finish();
+        return accumulator.getDateCount();
+    }
+
+    @Benchmark
+    public int materialized() {
+        RadarSeriesAccumulator accumulator = new RadarSeriesAccumulator(weights, (date, scores) -> { });
+        table.scan(start, end, (day, key, value, shap) -> {
+            RiskFactor f = ColumnarArchive.toRiskFactor(table, day, key, value, shap);
+            accumulator.add(f);
+            return true;
+        });
+        accumulator.finish();
+        return accumulator.getDateCount();
+    }
+}
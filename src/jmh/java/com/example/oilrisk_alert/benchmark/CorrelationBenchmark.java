@@ -0,0 +1,96 @@
+package com.example.oilrisk_alert.benchmark;
+
+import com.example.oilrisk_alert.engine.CorrelationKernels;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * The correlation kernels behind /api/factors/correlation over {@code factors} x {@code days}
+ * columns: the blocked parallel Gram matrix against one full-length dot product per pair, and
+ * the sliding-sum rolling correlation against recomputing each window.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(value = 1, jvmArgsAppend = "-Xmx4g")
+public class CorrelationBenchmark {
+
+    private static final int WINDOW = 90;
+
+    @Param({"50"})
+    public int factors;
+
+    @Param({"3650", "36500"})
+    public int days;
+
+    private double[][] z;
+    private double[] y;
+    private int[] ends;
+
+    @Setup
+    public void setUp() {
+        Random random = new Random(42);
+        double[][] x = new double[factors][days];
+        double[] risk = new double[days];
+        for (int i = 0; i < days; i++) {
+            double common = random.nextGaussian();
+            risk[i] = 50 + 10 * common + random.nextGaussian();
+            for (int f = 0; f < factors; f++) x[f][i] = common * (f % 5) + random.nextGaussian();
+        }
+        z = CorrelationKernels.normalize(x, days);
+        y = CorrelationKernels.normalize(risk, days);
+        int points = Math.min(1000, days - WINDOW + 1);
+        ends = new int[points];
+        for (int k = 0; k < points; k++) {
+            ends[k] = WINDOW - 1 + (int) ((long) k * (days - WINDOW) / (points - 1));
+        }
+    }
+
+    @Benchmark
+    public double[][] gramBlocked() {
+        return CorrelationKernels.gram(z, days);
+    }
+
+    @Benchmark
+    public double[][] gramPairwise() {
+        double[][] result = new double[factors][factors];
+        for (int i = 0; i < factors; i++) {
+            for (int j = i; j < factors; j++) {
+                double s = 0;
+                for (int r = 0; r < days; r++) s += z[i][r] * z[j][r];
+                result[i][j] = s;
+                result[j][i] = s;
+            }
+        }
+        return result;
+    }
+
+    @Benchmark
+    public double[][] rollingSliding() {
+        return CorrelationKernels.rolling(z, y, days, WINDOW, ends);
+    }
+
+    @Benchmark
+    public double[][] rollingPerWindow() {
+        double[][] result = new double[factors][ends.length];
+        for (int f = 0; f < factors; f++) {
+            for (int k = 0; k < ends.length; k++) {
+                double sx = 0, sy = 0, sxx = 0, syy = 0, sxy = 0;
+                for (int r = ends[k] - WINDOW + 1; r <= ends[k]; r++) {
+                    sx += z[f][r];
+                    sy += y[r];
+                    sxx += z[f][r] * z[f][r];
+                    syy += y[r] * y[r];
+                    sxy += z[f][r] * y[r];
+                }
+                double cov = sxy - sx * sy / WINDOW;
+                result[f][k] = cov / Math.sqrt((sxx - sx * sx / WINDOW) * (syy - sy * sy / WINDOW));
+            }
+        }
+        return result;
+    }
+}
@@ -0,0 +1,81 @@
+package com.example.oilrisk_alert.benchmark;
+
+import com.example.oilrisk_alert.cache.DataVersionClock;
+import com.example.oilrisk_alert.cache.RadarScoreCache;
+import com.example.oilrisk_alert.cluster.InMemoryClusterBus;
+import com.example.oilrisk_alert.config.WeightsConfig;
+import com.example.oilrisk_alert.entity.DataVersion;
+import com.example.oilrisk_alert.entity.RiskFactor;
+import com.example.oilrisk_alert.mapper.DataVersionMapper;
+import com.example.oilrisk_alert.mapper.FactorMapper;
+import com.example.oilrisk_alert.service.PartitionService;
+import com.example.oilrisk_alert.service.impl.FactorServiceImpl;
+import com.example.oilrisk_alert.vo.RadarScoreVO;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.openjdk.jmh.annotations.*;
+
+import java.time.LocalDate;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * getRadarScores over {@code size} factor rows for one date. {@code cached=false} advances the
+ * risk_factor data version before every call so each invocation pays the full aggregation; {@code cached=true} measures
+ * the materialised path. 10M rows needs roughly 6 GB of heap: run with
+ * {@code -p size=10000000 -jvmArgsAppend -Xmx8g}.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(value = 1, jvmArgsAppend = "-Xmx4g")
+public class FactorServiceBenchmark {
+
+    @Param({"100", "10000", "1000000"})
+    public int size;
+
+    @Param({"false", "true"})
+    public boolean cached;
+
+    private FactorServiceImpl factorService;
+    private DataVersionClock clock;
+    private long version;
+    private LocalDate date;
+
+    @Setup
+    public void setUp() {
+        date = SyntheticData.START;
+        List<RiskFactor> factors = SyntheticData.factors(size, date, 42);
+        FactorMapper factorMapper = MapperStubs.stub(FactorMapper.class, Map.of(
+                "findByDate", args -> factors,
+                "findLatestDate", args -> date));
+        DataVersionMapper dataVersionMapper = MapperStubs.stub(DataVersionMapper.class, Map.of(
+                "findAll", args -> {
+                    DataVersion row = new DataVersion();
+                    row.setTableName("risk_factor");
+                    row.setVersion(version);
+                    return List.of(row);
+                }));
+        clock = new DataVersionClock(dataVersionMapper, new InMemoryClusterBus(event -> {
+        }));
+        PartitionService partitionService = MapperStubs.stub(PartitionService.class,
+                Map.of("getFactorArchiveBoundary", args -> null));
+        factorService = new FactorServiceImpl(factorMapper, null, new WeightsConfig(),
+                new RadarScoreCache(new SimpleMeterRegistry(), clock), null, partitionService, null);
+    }
+
+    @Setup(Level.Invocation)
+    public void evict() {
+        if (!cached) {
+            version++;
+            clock.refresh();
+        }
+    }
+
+    @Benchmark
+    public List<RadarScoreVO> getRadarScores() {
+        return factorService.getRadarScores(date);
+    }
+}
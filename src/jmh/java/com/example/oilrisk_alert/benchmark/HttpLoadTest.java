@@ -0,0 +1,199 @@
+package com.example.oilrisk_alert.benchmark;
+
+import tools.jackson.databind.JsonNode;
+import tools.jackson.databind.ObjectMapper;
+
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.SplittableRandom;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Reproducible HTTP load test against a running instance (typically the loadtest profile).
+ * <p>
+ * The request sequence is generated up front from --seed over the span from the first alert to the
+ * latest risk date, so two runs with the same seed and data issue identical requests; --concurrency workers then drain it in a
+ * closed loop. Prints count, errors and p50/p90/p99/max latency per endpoint.
+ * <pre>
+ * mvn -Pjmh test-compile exec:exec@loadtest -Dloadtest.args="--requests 20000 --concurrency 16"
+ * </pre>
+ * Options: --base-url (http://localhost:8080), --requests (10000), --warmup (1000),
+ * --concurrency (8), --seed (42).
+ */
+public class HttpLoadTest {
+
+    private record Call(String endpoint, String method, String path, String body) {
+    }
+
+    private static final String[] LEVELS = {"", "Low", "Medium", "High"};
+
+    public static void main(String[] args) throws Exception {
+        Map<String, String> options = parseOptions(args);
+        String baseUrl = options.getOrDefault("base-url", "http://localhost:8080");
+        int requests = Integer.parseInt(options.getOrDefault("requests", "10000"));
+        int warmup = Integer.parseInt(options.getOrDefault("warmup", "1000"));
+        int concurrency = Integer.parseInt(options.getOrDefault("concurrency", "8"));
+        long seed = Long.parseLong(options.getOrDefault("seed", "42"));
+
+        HttpClient client = HttpClient.newBuilder()
+                .connectTimeout(Duration.ofSeconds(5))
+                .build();
+        ObjectMapper objectMapper = new ObjectMapper();
+
+        JsonNode current = objectMapper.readTree(send(client, baseUrl, new Call("", "GET", "/api/risk/current", null)).body());
+        LocalDate last = LocalDate.parse(current.path("data").path("date").asString());
+        JsonNode alertPage = objectMapper.readTree(
+                send(client, baseUrl, new Call("", "GET", "/api/alerts?page=1&size=1&sort=date&order=asc", null)).body());
+        long alertCount = alertPage.path("data").path("total").asLong();
+        long firstAlertId = alertPage.path("data").path("records").path(0).path("id").asLong(1);
+        LocalDate first = LocalDate.parse(alertPage.path("data").path("records").path(0).path("date").asString(last.toString()))
+                .withDayOfMonth(1);
+        System.out.printf("Target %s, data %s..%s, %d alerts, seed %d%n", baseUrl, first, last, alertCount, seed);
+
+        List<Call> warmupCalls = scenario(new SplittableRandom(seed ^ 0x5DEECE66DL), warmup, first, last, firstAlertId, alertCount);
+        List<Call> calls = scenario(new SplittableRandom(seed), requests, first, last, firstAlertId, alertCount);
+
+        run(client, baseUrl, warmupCalls, concurrency, null, null);
+        long[] latencies = new long[calls.size()];
+        boolean[] errors = new boolean[calls.size()];
+        long startNanos = System.nanoTime();
+        run(client, baseUrl, calls, concurrency, latencies, errors);
+        double seconds = (System.nanoTime() - startNanos) / 1e9;
+
+        report(calls, latencies, errors, seconds);
+    }
+
+    /**
+     * Weighted request mix: 20% current risk, 25% timeseries, 25% alert pages, 10% alert detail,
+     * 10% radar, 10% backtest.
+     */
+    private static List<Call> scenario(SplittableRandom random, int n, LocalDate first, LocalDate last,
+                                       long firstAlertId, long alertCount) {
+        long span = Math.max(1, last.toEpochDay() - first.toEpochDay());
+        List<Call> calls = new ArrayList<>(n);
+        for (int i = 0; i < n; i++) {
+            int pick = random.nextInt(100);
+            if (pick < 20) {
+                calls.add(new Call("GET /api/risk/current", "GET", "/api/risk/current", null));
+            } else if (pick < 45) {
+                long days = 30 + random.nextLong(Math.min(span, 3650));
+                LocalDate end = first.plusDays(random.nextLong(span + 1));
+                LocalDate start = end.minusDays(days);
+                calls.add(new Call("GET /api/factors/timeseries", "GET",
+                        "/api/factors/timeseries?start=" + start + "&end=" + end, null));
+            } else if (pick < 70) {
+                String level = LEVELS[random.nextInt(LEVELS.length)];
+                calls.add(new Call("GET /api/alerts", "GET",
+                        "/api/alerts?page=" + (1 + random.nextInt(50)) + "&size=20&level=" + level, null));
+            } else if (pick < 80) {
+                long id = firstAlertId + random.nextLong(Math.max(1, alertCount));
+                calls.add(new Call("GET /api/alerts/{id}", "GET", "/api/alerts/" + id, null));
+            } else if (pick < 90) {
+                LocalDate date = first.plusDays(random.nextLong(span + 1));
+                calls.add(new Call("GET /api/risk/radar", "GET", "/api/risk/radar?date=" + date, null));
+            } else {
+                LocalDate start = first.plusDays(random.nextLong(span + 1));
+                String body = String.format(
+                        "{\"startDate\":\"%s\",\"endDate\":\"%s\",\"model\":\"XGBoost\"}", start, start.plusDays(365));
+                calls.add(new Call("POST /api/predict/backtest", "POST", "/api/predict/backtest", body));
+            }
+        }
+        return calls;
+    }
+
+    private static void run(HttpClient client, String baseUrl, List<Call> calls, int concurrency,
+                            long[] latencies, boolean[] errors) throws InterruptedException {
+        AtomicInteger next = new AtomicInteger();
+        ExecutorService workers = Executors.newFixedThreadPool(concurrency);
+        for (int w = 0; w < concurrency; w++) {
+            workers.submit(() -> {
+                int i;
+                while ((i = next.getAndIncrement()) < calls.size()) {
+                    long t0 = System.nanoTime();
+                    boolean failed;
+                    try {
+                        failed = send(client, baseUrl, calls.get(i)).statusCode() >= 500;
+                    } catch (Exception e) {
+                        failed = true;
+                    }
+                    if (latencies != null) {
+                        latencies[i] = System.nanoTime() - t0;
+                        errors[i] = failed;
+                    }
+                }
+            });
+        }
+        workers.shutdown();
+        workers.awaitTermination(1, TimeUnit.HOURS);
+    }
+
+    private static HttpResponse<String> send(HttpClient client, String baseUrl, Call call) throws Exception {
+        HttpRequest.Builder builder = HttpRequest.newBuilder(URI.create(baseUrl + call.path()))
+                .timeout(Duration.ofSeconds(60));
+        if ("POST".equals(call.method())) {
+            builder.header("Content-Type", "application/json")
+                    .POST(HttpRequest.BodyPublishers.ofString(call.body()));
+        }
+        return client.send(builder.build(), HttpResponse.BodyHandlers.ofString());
+    }
+
+    private static void report(List<Call> calls, long[] latencies, boolean[] errors, double seconds) {
+        Map<String, List<Integer>> byEndpoint = new LinkedHashMap<>();
+        for (int i = 0; i < calls.size(); i++) {
+            byEndpoint.computeIfAbsent(calls.get(i).endpoint(), k -> new ArrayList<>()).add(i);
+        }
+        System.out.printf("%n%-30s %8s %7s %10s %10s %10s %10s%n",
+                "endpoint", "count", "errors", "p50 ms", "p90 ms", "p99 ms", "max ms");
+        for (Map.Entry<String, List<Integer>> e : byEndpoint.entrySet()) {
+            printRow(e.getKey(), e.getValue().stream().mapToInt(Integer::intValue).toArray(), latencies, errors);
+        }
+        int[] all = new int[calls.size()];
+        Arrays.setAll(all, i -> i);
+        printRow("ALL", all, latencies, errors);
+        System.out.printf("%nThroughput: %.1f req/s over %.1f s%n", calls.size() / seconds, seconds);
+    }
+
+    private static void printRow(String name, int[] indices, long[] latencies, boolean[] errors) {
+        long[] sorted = new long[indices.length];
+        int errorCount = 0;
+        for (int i = 0; i < indices.length; i++) {
+            sorted[i] = latencies[indices[i]];
+            if (errors[indices[i]]) errorCount++;
+        }
+        Arrays.sort(sorted);
+        System.out.printf("%-30s %8d %7d %10.2f %10.2f %10.2f %10.2f%n", name, sorted.length, errorCount,
+                percentile(sorted, 50), percentile(sorted, 90), percentile(sorted, 99),
+                sorted[sorted.length - 1] / 1e6);
+    }
+
+    /**
+     * Nearest-rank percentile in milliseconds.
+     */
+    private static double percentile(long[] sorted, double p) {
+        int rank = (int) Math.ceil(p / 100 * sorted.length);
+        return sorted[Math.max(0, rank - 1)] / 1e6;
+    }
+
+    private static Map<String, String> parseOptions(String[] args) {
+        Map<String, String> options = new LinkedHashMap<>();
+        for (int i = 0; i + 1 < args.length; i += 2) {
+            if (!args[i].startsWith("--")) {
+                throw new IllegalArgumentException("Expected --option value, got " + args[i]);
+            }
+            options.put(args[i].substring(2), args[i + 1]);
+        }
+        return options;
+    }
+}
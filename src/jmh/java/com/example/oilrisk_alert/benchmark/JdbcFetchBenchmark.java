@@ -0,0 +1,163 @@
+package com.example.oilrisk_alert.benchmark;
+
+import com.example.oilrisk_alert.entity.RiskIndex;
+import com.example.oilrisk_alert.mapper.RiskMapper;
+import com.zaxxer.hikari.HikariDataSource;
+import org.apache.ibatis.builder.xml.XMLMapperBuilder;
+import org.apache.ibatis.io.Resources;
+import org.apache.ibatis.mapping.Environment;
+import org.apache.ibatis.mapping.MappedStatement;
+import org.apache.ibatis.session.Configuration;
+import org.apache.ibatis.session.ExecutorType;
+import org.apache.ibatis.session.LocalCacheScope;
+import org.apache.ibatis.session.SqlSession;
+import org.apache.ibatis.session.SqlSessionFactory;
+import org.apache.ibatis.session.SqlSessionFactoryBuilder;
+import org.apache.ibatis.transaction.jdbc.JdbcTransactionFactory;
+import org.flywaydb.core.Flyway;
+import org.h2.tools.Server;
+import org.openjdk.jmh.annotations.*;
+
+import java.io.InputStream;
+import java.net.ServerSocket;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.time.LocalDate;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * RiskMapper.findByDateRange over the whole table through MyBatis and a Hikari pool, against an
+ * H2 TCP server on loopback so each fetch is a network round trip, as it is to MySQL. The XML
+ * statement is re-registered with each {@code fetchSize}; 0 leaves the driver default, which for
+ * H2 is 100 rows per round trip (MySQL without useCursorFetch instead buffers the whole result).
+ * <p>
+ * {@code findLatest*} compares preparing the point lookup for every call (a fresh SqlSession, as
+ * mapper calls outside a transaction do) with re-executing an already prepared statement, which
+ * is what the driver's prepared-statement cache gives every session. They do not depend on the
+ * parameters; run them alone with {@code -p rows=10000 -p fetchSize=0}.
+ * <p>
+ * H2 decodes rows at the same cost whatever the batch size, so on loopback the fetch sizes come
+ * out within noise of each other. To measure MySQL, point the benchmark at a scratch database
+ * (risk_index there is replaced) with the application's driver settings, e.g.
+ * {@code -jvmArgsAppend "-Djdbc.url=jdbc:mysql://host/scratch?useServerPrepStmts=true&cachePrepStmts=true&useCursorFetch=true -Djdbc.username=... -Djdbc.password=..."}.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = "-Xmx4g")
+public class JdbcFetchBenchmark {
+
+    private static final String FIND_BY_DATE_RANGE = RiskMapper.class.getName() + ".findByDateRange";
+    private static final String FIND_LATEST = RiskMapper.class.getName() + ".findLatest";
+
+    @Param({"10000", "200000"})
+    public int rows;
+
+    @Param({"0", "1000", "10000"})
+    public int fetchSize;
+
+    private Server server;
+    private HikariDataSource dataSource;
+    private SqlSessionFactory sessionFactory;
+    private SqlSession reuseSession;
+    private String statementId;
+    private Map<String, Object> range;
+
+    @Setup
+    public void setUp() throws Exception {
+        String url = System.getProperty("jdbc.url");
+        if (url == null) {
+            int port;
+            try (ServerSocket socket = new ServerSocket(0)) {
+                port = socket.getLocalPort();
+            }
+            server = Server.createTcpServer("-tcpPort", String.valueOf(port), "-ifNotExists").start();
+            url = "jdbc:h2:tcp://localhost:" + port + "/mem:fetch;MODE=MySQL;DB_CLOSE_DELAY=-1;NON_KEYWORDS=VALUE,DATE";
+        }
+
+        dataSource = new HikariDataSource();
+        dataSource.setJdbcUrl(url);
+        dataSource.setUsername(System.getProperty("jdbc.username", "sa"));
+        dataSource.setPassword(System.getProperty("jdbc.password", ""));
+        dataSource.setMaximumPoolSize(4);
+        Flyway.configure().dataSource(dataSource).load().migrate();
+        List<RiskIndex> data = SyntheticData.riskIndices(rows, 42);
+        load(data);
+
+        Configuration configuration = new Configuration(
+                new Environment("benchmark", new JdbcTransactionFactory(), dataSource));
+        configuration.setMapUnderscoreToCamelCase(true);
+        // As with Spring-managed sessions: no result caching across calls on the reused session
+        configuration.setLocalCacheScope(LocalCacheScope.STATEMENT);
+        try (InputStream xml = Resources.getResourceAsStream("mapper/RiskMapper.xml")) {
+            new XMLMapperBuilder(xml, configuration, "mapper/RiskMapper.xml", configuration.getSqlFragments()).parse();
+        }
+        MappedStatement base = configuration.getMappedStatement(FIND_BY_DATE_RANGE);
+        statementId = FIND_BY_DATE_RANGE + "-" + fetchSize;
+        configuration.addMappedStatement(new MappedStatement.Builder(
+                configuration, statementId, base.getSqlSource(), base.getSqlCommandType())
+                .resultMaps(base.getResultMaps())
+                .resultSetType(base.getResultSetType())
+                .fetchSize(fetchSize > 0 ? fetchSize : null)
+                .build());
+        sessionFactory = new SqlSessionFactoryBuilder().build(configuration);
+        reuseSession = sessionFactory.openSession(ExecutorType.REUSE, true);
+
+        LocalDate start = data.get(0).getDate();
+        LocalDate end = data.get(data.size() - 1).getDate();
+        range = Map.of("param1", start, "param2", end);
+    }
+
+    private void load(List<RiskIndex> data) throws Exception {
+        try (Connection connection = dataSource.getConnection()) {
+            connection.createStatement().execute("DELETE FROM risk_index");
+            try (PreparedStatement ps = connection.prepareStatement(
+                    "INSERT INTO risk_index (date, risk_index, risk_level, oil_price) VALUES (?, ?, ?, ?)")) {
+                for (int i = 0; i < data.size(); i++) {
+                    RiskIndex r = data.get(i);
+                    ps.setObject(1, r.getDate());
+                    ps.setBigDecimal(2, r.getRiskIndex());
+                    ps.setString(3, r.getRiskLevel());
+                    ps.setBigDecimal(4, r.getOilPrice());
+                    ps.addBatch();
+                    if (i % 5000 == 4999) ps.executeBatch();
+                }
+                ps.executeBatch();
+            }
+        }
+    }
+
+    @TearDown
+    public void tearDown() {
+        reuseSession.close();
+        dataSource.close();
+        if (server != null) {
+            server.stop();
+        }
+    }
+
+    @Benchmark
+    public List<RiskIndex> findByDateRange() {
+        try (SqlSession session = sessionFactory.openSession(true)) {
+            return session.selectList(statementId, range);
+        }
+    }
+
+    @Benchmark
+    @OutputTimeUnit(TimeUnit.MICROSECONDS)
+    public RiskIndex findLatestPreparedPerCall() {
+        try (SqlSession session = sessionFactory.openSession(true)) {
+            return session.selectOne(FIND_LATEST);
+        }
+    }
+
+    @Benchmark
+    @OutputTimeUnit(TimeUnit.MICROSECONDS)
+    public RiskIndex findLatestStatementReused() {
+        return reuseSession.selectOne(FIND_LATEST);
+    }
+}
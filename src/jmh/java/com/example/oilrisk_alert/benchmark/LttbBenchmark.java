@@ -0,0 +1,34 @@
+package com.example.oilrisk_alert.benchmark;
+
+import com.example.oilrisk_alert.util.LttbUtil;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(value = 1, jvmArgsAppend = "-Xmx4g")
+public class LttbBenchmark {
+
+    @Param({"100", "10000", "1000000", "10000000"})
+    public int size;
+
+    @Param({"2000"})
+    public int threshold;
+
+    private List<double[]> points;
+
+    @Setup
+    public void setUp() {
+        points = SyntheticData.points(size, 42);
+    }
+
+    @Benchmark
+    public List<double[]> downsample() {
+        return LttbUtil.downsample(points, threshold);
+    }
+}
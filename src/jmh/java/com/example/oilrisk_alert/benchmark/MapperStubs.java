@@ -0,0 +1,84 @@
+package com.example.oilrisk_alert.benchmark;
+
+import org.apache.ibatis.executor.result.DefaultResultContext;
+import org.apache.ibatis.session.ResultHandler;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.TransactionStatus;
+import org.springframework.transaction.support.SimpleTransactionStatus;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.lang.reflect.Proxy;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Function;
+
+/**
+ * In-memory mapper implementations, so benchmarks measure service code rather than JDBC or a
+ * mocking framework.
+ */
+public final class MapperStubs {
+
+    private MapperStubs() {
+    }
+
+    /**
+     * @param answers method name to result, given the call arguments; other methods throw
+     */
+    @SuppressWarnings("unchecked")
+    public static <T> T stub(Class<T> mapperType, Map<String, Function<Object[], Object>> answers) {
+        return (T) Proxy.newProxyInstance(mapperType.getClassLoader(), new Class<?>[]{mapperType},
+                (proxy, method, args) -> {
+                    if (method.getDeclaringClass() == Object.class) {
+                        return switch (method.getName()) {
+                            case "hashCode" -> System.identityHashCode(proxy);
+                            case "equals" -> proxy == args[0];
+                            default -> mapperType.getSimpleName() + "Stub";
+                        };
+                    }
+                    Function<Object[], Object> answer = answers.get(method.getName());
+                    if (answer == null) {
+                        throw new UnsupportedOperationException(mapperType.getSimpleName() + "." + method.getName());
+                    }
+                    return answer.apply(args);
+                });
+    }
+
+    /**
+     * Answer for {@code ResultHandler} statements: feeds {@code rows} to the handler passed as the
+     * last argument until it stops.
+     */
+    @SuppressWarnings("unchecked")
+    public static <T> Function<Object[], Object> scan(List<T> rows) {
+        return args -> {
+            ResultHandler<T> handler = (ResultHandler<T>) args[args.length - 1];
+            DefaultResultContext<T> context = new DefaultResultContext<>();
+            for (T row : rows) {
+                context.nextResultObject(row);
+                handler.handleResult(context);
+                if (context.isStopped()) break;
+            }
+            return null;
+        };
+    }
+
+    /**
+     * Template whose transactions do nothing, for services that wrap mapper calls.
+     */
+    public static TransactionTemplate noTransactions() {
+        return new TransactionTemplate(new PlatformTransactionManager() {
+            @Override
+            public TransactionStatus getTransaction(TransactionDefinition definition) {
+                return new SimpleTransactionStatus();
+            }
+
+            @Override
+            public void commit(TransactionStatus status) {
+            }
+
+            @Override
+            public void rollback(TransactionStatus status) {
+            }
+        });
+    }
+}
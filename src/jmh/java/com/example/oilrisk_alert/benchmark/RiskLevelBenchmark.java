@@ -0,0 +1,37 @@
+package com.example.oilrisk_alert.benchmark;
+
+import com.example.oilrisk_alert.common.RiskLevel;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.math.BigDecimal;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Classifies {@code size} index values per invocation; divide the score by size for the per-call cost.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(value = 1, jvmArgsAppend = "-Xmx4g")
+public class RiskLevelBenchmark {
+
+    @Param({"100", "10000", "1000000", "10000000"})
+    public int size;
+
+    private BigDecimal[] values;
+
+    @Setup
+    public void setUp() {
+        values = SyntheticData.indexValues(size, 42);
+    }
+
+    @Benchmark
+    public void fromIndex(Blackhole bh) {
+        for (BigDecimal value : values) {
+            bh.consume(RiskLevel.fromIndex(value));
+        }
+    }
+}
@@ -0,0 +1,110 @@
+package com.example.oilrisk_alert.benchmark;
+
+import com.example.oilrisk_alert.common.RiskLevel;
+import com.example.oilrisk_alert.entity.Alert;
+import com.example.oilrisk_alert.entity.RiskFactor;
+import com.example.oilrisk_alert.entity.RiskIndex;
+import com.example.oilrisk_alert.ingest.RiskFactorDef;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.SplittableRandom;
+
+/**
+ * Seeded generators shaped like the real tables (daily rows from 2000-01-01), so any size from
+ * 100 to 10M points can be produced without a database.
+ */
+public final class SyntheticData {
+
+    public static final LocalDate START = LocalDate.of(2000, 1, 1);
+
+    private SyntheticData() {
+    }
+
+    /**
+     * Random-walk [x, y] points as consumed by LttbUtil.
+     */
+    public static List<double[]> points(int n, long seed) {
+        SplittableRandom random = new SplittableRandom(seed);
+        List<double[]> points = new ArrayList<>(n);
+        double y = 50;
+        for (int i = 0; i < n; i++) {
+            y += random.nextDouble(-1, 1);
+            points.add(new double[]{i, y});
+        }
+        return points;
+    }
+
+    /**
+     * Mean-reverting risk index in [0, 100] with a random-walk oil price, one row per day.
+     */
+    public static List<RiskIndex> riskIndices(int n, long seed) {
+        SplittableRandom random = new SplittableRandom(seed);
+        List<RiskIndex> rows = new ArrayList<>(n);
+        double risk = 40;
+        double price = 70;
+        for (int i = 0; i < n; i++) {
+            risk = Math.max(0, Math.min(100, risk + 0.05 * (40 - risk) + random.nextDouble(-4, 4)));
+            price = Math.max(10, price * (1 + random.nextDouble(-0.02, 0.02)));
+            RiskIndex r = new RiskIndex();
+            r.setId((long) i + 1);
+            r.setDate(START.plusDays(i));
+            r.setRiskIndex(BigDecimal.valueOf(risk).setScale(2, RoundingMode.HALF_UP));
+            r.setRiskLevel(RiskLevel.fromIndex(r.getRiskIndex()).getLabel());
+            r.setOilPrice(BigDecimal.valueOf(price).setScale(2, RoundingMode.HALF_UP));
+            rows.add(r);
+        }
+        return rows;
+    }
+
+    /**
+     * n factor rows for one date, cycling through the ten model factors.
+     */
+    public static List<RiskFactor> factors(int n, LocalDate date, long seed) {
+        SplittableRandom random = new SplittableRandom(seed);
+        RiskFactorDef[] defs = RiskFactorDef.values();
+        List<RiskFactor> rows = new ArrayList<>(n);
+        for (int i = 0; i < n; i++) {
+            RiskFactorDef def = defs[i % defs.length];
+            RiskFactor f = new RiskFactor();
+            f.setId((long) i + 1);
+            f.setDate(date);
+            f.setFactorName(def.getFactorName());
+            f.setFactorNameZh(def.getFactorNameZh());
+            f.setCategory(def.getCategory());
+            f.setValue(BigDecimal.valueOf(random.nextDouble(0, 100)).setScale(4, RoundingMode.HALF_UP));
+            f.setShapValue(BigDecimal.valueOf(random.nextDouble(-0.15, 0.15)).setScale(6, RoundingMode.HALF_UP));
+            rows.add(f);
+        }
+        return rows;
+    }
+
+    /**
+     * One alert for every row at Medium level or above.
+     */
+    public static List<Alert> alerts(List<RiskIndex> riskIndices) {
+        List<Alert> alerts = new ArrayList<>();
+        for (RiskIndex r : riskIndices) {
+            if (RiskLevel.fromIndex(r.getRiskIndex()) == RiskLevel.LOW) continue;
+            Alert a = new Alert();
+            a.setId((long) alerts.size() + 1);
+            a.setDate(r.getDate());
+            a.setLevel(r.getRiskLevel());
+            a.setRiskIndex(r.getRiskIndex());
+            alerts.add(a);
+        }
+        return alerts;
+    }
+
+    public static BigDecimal[] indexValues(int n, long seed) {
+        SplittableRandom random = new SplittableRandom(seed);
+        BigDecimal[] values = new BigDecimal[n];
+        for (int i = 0; i < n; i++) {
+            values[i] = BigDecimal.valueOf(random.nextDouble(0, 100)).setScale(2, RoundingMode.HALF_UP);
+        }
+        return values;
+    }
+}
@@ -0,0 +1,90 @@
+package com.example.oilrisk_alert.benchmark;
+
+import com.example.oilrisk_alert.entity.Alert;
+import com.example.oilrisk_alert.entity.RiskIndex;
+import com.example.oilrisk_alert.mapper.AlertMapper;
+import com.example.oilrisk_alert.mapper.RiskMapper;
+import com.example.oilrisk_alert.series.FrameSeriesSink;
+import com.example.oilrisk_alert.series.JsonSeriesSink;
+import com.example.oilrisk_alert.service.PartitionService;
+import com.example.oilrisk_alert.service.impl.RiskServiceImpl;
+import com.example.oilrisk_alert.vo.TimeseriesVO;
+import org.openjdk.jmh.annotations.*;
+import tools.jackson.core.JsonGenerator;
+import tools.jackson.databind.ObjectMapper;
+
+import java.io.OutputStream;
+
+import java.time.LocalDate;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Entity-to-VO mapping (RiskServiceImpl.getTimeseries, LTTB included above 2000 rows) and Jackson
+ * serialization of the resulting TimeseriesVO, against the streaming path that writes the same
+ * JSON (or binary frame) from result handlers; compare {@code gc.alloc.rate.norm}. For 10M rows run with
+ * {@code -p size=10000000 -jvmArgsAppend -Xmx8g}.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(value = 1, jvmArgsAppend = "-Xmx4g")
+public class TimeseriesBenchmark {
+
+    @Param({"100", "10000", "1000000"})
+    public int size;
+
+    private RiskServiceImpl riskService;
+    private ObjectMapper objectMapper;
+    private TimeseriesVO timeseries;
+    private LocalDate start;
+    private LocalDate end;
+
+    @Setup
+    public void setUp() {
+        List<RiskIndex> rows = SyntheticData.riskIndices(size, 42);
+        List<Alert> alerts = SyntheticData.alerts(rows);
+        RiskMapper riskMapper = MapperStubs.stub(RiskMapper.class, Map.of(
+                "findByDateRange", args -> rows,
+                "countByDateRange", args -> rows.size(),
+                "scanByDateRange", MapperStubs.scan(rows)));
+        AlertMapper alertMapper = MapperStubs.stub(AlertMapper.class, Map.of(
+                "findByDateRange", args -> alerts,
+                "countByDateRange", args -> alerts.size(),
+                "scanMarkersByDateRange", MapperStubs.scan(alerts)));
+        PartitionService partitionService = MapperStubs.stub(PartitionService.class,
+                Map.of("getFactorArchiveBoundary", args -> null));
+        riskService = new RiskServiceImpl(riskMapper, null, alertMapper, MapperStubs.noTransactions(),
+                partitionService, null);
+        objectMapper = new ObjectMapper();
+        start = rows.get(0).getDate();
+        end = rows.get(rows.size() - 1).getDate();
+        timeseries = riskService.getTimeseries(start, end);
+    }
+
+    @Benchmark
+    public TimeseriesVO mapTimeseries() {
+        return riskService.getTimeseries(start, end);
+    }
+
+    @Benchmark
+    public byte[] serializeTimeseries() {
+        return objectMapper.writeValueAsBytes(timeseries);
+    }
+
+    @Benchmark
+    public void streamTimeseries() {
+        try (JsonGenerator gen = objectMapper.createGenerator(OutputStream.nullOutputStream())) {
+            riskService.streamTimeseries(start, end).accept(new JsonSeriesSink(gen));
+        }
+    }
+
+    @Benchmark
+    public void streamTimeseriesFrame() {
+        riskService.streamTimeseries(start, end)
+                .accept(new FrameSeriesSink(OutputStream.nullOutputStream(), objectMapper));
+    }
+}
@@ -0,0 +1,43 @@
+package com.example.oilrisk_alert.cache;
+
+/**
+ * Tables whose version is tracked in data_version, with the mapper that writes each one.
+ */
+public enum DataTable {
+    RISK_INDEX("risk_index", "RiskMapper"),
+    RISK_FACTOR("risk_factor", "FactorMapper"),
+    ALERT("alert", "AlertMapper");
+
+    private final String tableName;
+    private final String mapper;
+
+    DataTable(String tableName, String mapper) {
+        this.tableName = tableName;
+        this.mapper = mapper;
+    }
+
+    public String getTableName() {
+        return tableName;
+    }
+
+    /**
+     * @param statementId full MyBatis id, e.g. com.example.oilrisk_alert.mapper.RiskMapper.upsertBatch
+     * @return the table written by that mapper, or null when it is not tracked
+     */
+    public static DataTable ofStatement(String statementId) {
+        int method = statementId.lastIndexOf('.');
+        int type = statementId.lastIndexOf('.', method - 1);
+        String mapper = statementId.substring(type + 1, method);
+        for (DataTable table : values()) {
+            if (table.mapper.equals(mapper)) return table;
+        }
+        return null;
+    }
+
+    public static DataTable ofTableName(String tableName) {
+        for (DataTable table : values()) {
+            if (table.tableName.equals(tableName)) return table;
+        }
+        return null;
+    }
+}
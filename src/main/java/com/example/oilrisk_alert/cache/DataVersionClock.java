@@ -0,0 +1,89 @@
+package com.example.oilrisk_alert.cache;
+
+import com.example.oilrisk_alert.cluster.ClusterBus;
+import com.example.oilrisk_alert.cluster.ClusterMessage;
+import com.example.oilrisk_alert.entity.DataVersion;
+import com.example.oilrisk_alert.mapper.DataVersionMapper;
+import jakarta.annotation.PostConstruct;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * Per-table data versions backed by the data_version table. Writers increment their table's row
+ * in the same transaction as the data ({@link DataVersionInterceptor}), so the version is durable
+ * across restarts and shared by every instance on the database. Readers use this local copy:
+ * refreshed right after each local write commits, on the {@link ClusterBus} message the writing
+ * instance then broadcasts, and by a slow poll in case a message was lost.
+ * ETags and caches key off it instead of expiring on a timer.
+ */
+@Slf4j
+@Component
+public class DataVersionClock {
+
+    private final DataVersionMapper dataVersionMapper;
+    private final ClusterBus clusterBus;
+    private final AtomicLongArray versions = new AtomicLongArray(DataTable.values().length);
+    private volatile boolean loaded;
+
+    public DataVersionClock(DataVersionMapper dataVersionMapper, ClusterBus clusterBus) {
+        this.dataVersionMapper = dataVersionMapper;
+        this.clusterBus = clusterBus;
+    }
+
+    public long current(DataTable table) {
+        if (!loaded) {
+            refresh();
+        }
+        return versions.get(table.ordinal());
+    }
+
+    /**
+     * Re-reads every version; a local copy never moves backwards.
+     */
+    @Scheduled(fixedDelayString = "${data-version.poll-ms:30000}")
+    public void refresh() {
+        for (DataVersion row : dataVersionMapper.findAll()) {
+            DataTable table = DataTable.ofTableName(row.getTableName());
+            if (table != null) {
+                versions.accumulateAndGet(table.ordinal(), row.getVersion(), Math::max);
+            }
+        }
+        loaded = true;
+    }
+
+    @EventListener(condition = "#message.topic == 'data-version' && !#message.local")
+    public void onRemoteWrite(ClusterMessage message) {
+        refresh();
+    }
+
+    /**
+     * Called after a local write transaction committed.
+     */
+    void committed() {
+        refresh();
+        clusterBus.publish(ClusterBus.TOPIC_DATA_VERSION, "");
+    }
+
+    /**
+     * Called inside a write transaction, before it commits.
+     */
+    void increment(DataTable table) {
+        dataVersionMapper.increment(table.getTableName());
+    }
+
+    /**
+     * Runs at startup, outside any request transaction, so the update cannot be rolled back with
+     * one or hit a read-only connection.
+     */
+    @PostConstruct
+    public void initialize() {
+        if (dataVersionMapper.initialize(System.currentTimeMillis()) > 0) {
+            log.info("Initialised data versions");
+        }
+        refresh();
+    }
+}
@@ -0,0 +1,73 @@
+package com.example.oilrisk_alert.cache;
+
+import org.apache.ibatis.executor.Executor;
+import org.apache.ibatis.mapping.MappedStatement;
+import org.apache.ibatis.plugin.Interceptor;
+import org.apache.ibatis.plugin.Intercepts;
+import org.apache.ibatis.plugin.Invocation;
+import org.apache.ibatis.plugin.Signature;
+import org.springframework.context.annotation.Lazy;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.EnumSet;
+
+/**
+ * Increments the {@link DataVersionClock} row of every tracked table an insert, update or delete
+ * touches. Inside a transaction the increments run once per table just before commit, in enum
+ * order so concurrent writers lock the version rows in the same order; the local clock is
+ * refreshed after completion. Refreshing earlier would let a concurrent reader tag pre-commit
+ * data with the new version, and that stale response would keep validating until the next write.
+ */
+@Component
+@Intercepts(@Signature(type = Executor.class, method = "update", args = {MappedStatement.class, Object.class}))
+public class DataVersionInterceptor implements Interceptor {
+
+    private final DataVersionClock clock;
+
+    // Lazy: the clock's mapper needs the SqlSessionFactory this interceptor is plugged into
+    public DataVersionInterceptor(@Lazy DataVersionClock clock) {
+        this.clock = clock;
+    }
+
+    @Override
+    public Object intercept(Invocation invocation) throws Throwable {
+        Object result = invocation.proceed();
+        DataTable table = DataTable.ofStatement(((MappedStatement) invocation.getArgs()[0]).getId());
+        if (table != null) {
+            afterWrite(table);
+        }
+        return result;
+    }
+
+    private void afterWrite(DataTable table) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            clock.increment(table);
+            clock.committed();
+            return;
+        }
+        @SuppressWarnings("unchecked")
+        EnumSet<DataTable> written = (EnumSet<DataTable>) TransactionSynchronizationManager.getResource(this);
+        if (written == null) {
+            EnumSet<DataTable> tables = EnumSet.noneOf(DataTable.class);
+            TransactionSynchronizationManager.bindResource(this, tables);
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void beforeCommit(boolean readOnly) {
+                    tables.forEach(clock::increment);
+                }
+
+                @Override
+                public void afterCompletion(int status) {
+                    TransactionSynchronizationManager.unbindResourceIfPossible(DataVersionInterceptor.this);
+                    if (status == STATUS_COMMITTED) {
+                        clock.committed();
+                    }
+                }
+            });
+            written = tables;
+        }
+        written.add(table);
+    }
+}
@@ -0,0 +1,83 @@
+package com.example.oilrisk_alert.cache;
+
+import com.example.oilrisk_alert.entity.RiskFactor;
+import com.example.oilrisk_alert.vo.FactorVO;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.List;
+
+/**
+ * Weight-independent radar inputs for one date: per-category mean |SHAP| and top-3 factors.
+ * A radar score is then one multiply per category plus a max-normalisation. Instances are never
+ * modified after construction.
+ */
+public final class RadarEntry {
+
+    public static final List<String> CATEGORIES = List.of(
+            "SUPPLY_DEMAND", "MACRO", "FINANCIAL", "GEOPOLITICAL", "SENTIMENT");
+
+    private static final int TOP_N = 3;
+
+    private final double[] avgAbsShap;
+    private final List<List<FactorVO>> topFactors;
+
+    private RadarEntry(double[] avgAbsShap, List<List<FactorVO>> topFactors) {
+        this.avgAbsShap = avgAbsShap;
+        this.topFactors = topFactors;
+    }
+
+    /**
+     * @param factors all factor rows of one date
+     */
+    public static RadarEntry of(List<RiskFactor> factors) {
+        int n = CATEGORIES.size();
+        double[] sums = new double[n];
+        int[] counts = new int[n];
+        List<List<RiskFactor>> byCategory = new ArrayList<>(n);
+        for (int c = 0; c < n; c++) byCategory.add(new ArrayList<>());
+
+        for (RiskFactor f : factors) {
+            int c = CATEGORIES.indexOf(f.getCategory());
+            if (c < 0) continue;
+            sums[c] += Math.abs(f.getShapValue().doubleValue());
+            counts[c]++;
+            byCategory.get(c).add(f);
+        }
+
+        double[] avg = new double[n];
+        List<List<FactorVO>> top = new ArrayList<>(n);
+        for (int c = 0; c < n; c++) {
+            avg[c] = counts[c] > 0 ? sums[c] / counts[c] : 0.0;
+            if (counts[c] == 0) {
+                top.add(Collections.emptyList());
+                continue;
+            }
+            top.add(byCategory.get(c).stream()
+                    .sorted(Comparator.comparingDouble(
+                            (RiskFactor f) -> Math.abs(f.getShapValue().doubleValue())).reversed())
+                    .limit(TOP_N)
+                    .map(RadarEntry::toFactorVO)
+                    .toList());
+        }
+        return new RadarEntry(avg, Collections.unmodifiableList(top));
+    }
+
+    public double getAvgAbsShap(int category) {
+        return avgAbsShap[category];
+    }
+
+    public List<FactorVO> getTopFactors(int category) {
+        return topFactors.get(category);
+    }
+
+    private static FactorVO toFactorVO(RiskFactor f) {
+        FactorVO vo = new FactorVO();
+        vo.setName(f.getFactorName());
+        vo.setNameZh(f.getFactorNameZh());
+        vo.setShap(f.getShapValue());
+        vo.setCategory(f.getCategory());
+        return vo;
+    }
+}
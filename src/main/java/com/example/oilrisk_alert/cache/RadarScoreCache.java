@@ -0,0 +1,80 @@
+package com.example.oilrisk_alert.cache;
+
+import com.example.oilrisk_alert.entity.RiskFactor;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.stereotype.Component;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Function;
+
+/**
+ * Per-date {@link RadarEntry} map. Populated by ingest as rows are written and read-through for
+ * older dates. Entries belong to one risk_factor version of the {@link DataVersionClock}; the map
+ * is dropped as soon as that version moves, whichever instance wrote.
+ * Hit ratio is exposed as {@code cache.gets{cache=radar, result=hit|miss}}.
+ */
+@Component
+public class RadarScoreCache {
+
+    private final Map<LocalDate, RadarEntry> entries = new ConcurrentHashMap<>();
+    private final DataVersionClock clock;
+    private final Counter hits;
+    private final Counter misses;
+    private long version = -1;
+
+    public RadarScoreCache(MeterRegistry registry, DataVersionClock clock) {
+        this.clock = clock;
+        hits = Counter.builder("cache.gets").tag("cache", "radar").tag("result", "hit").register(registry);
+        misses = Counter.builder("cache.gets").tag("cache", "radar").tag("result", "miss").register(registry);
+        Gauge.builder("cache.size", entries, Map::size).tag("cache", "radar").register(registry);
+    }
+
+    /**
+     * Returns the entry for a date, loading it on a miss. A loaded entry is only kept if the
+     * version did not move while it was read, so a load racing a write cannot outlive it.
+     */
+    public RadarEntry get(LocalDate date, Function<LocalDate, RadarEntry> loader) {
+        long before = sync();
+        RadarEntry entry = entries.get(date);
+        if (entry != null) {
+            hits.increment();
+            return entry;
+        }
+        misses.increment();
+        entry = loader.apply(date);
+        synchronized (this) {
+            if (sync() == before) {
+                entries.put(date, entry);
+            }
+        }
+        return entry;
+    }
+
+    /**
+     * Materialises every date in a batch of freshly written factor rows; call after they commit.
+     */
+    public synchronized void putAll(List<RiskFactor> factors) {
+        sync();
+        Map<LocalDate, List<RiskFactor>> byDate = new TreeMap<>();
+        for (RiskFactor f : factors) {
+            byDate.computeIfAbsent(f.getDate(), d -> new ArrayList<>()).add(f);
+        }
+        byDate.forEach((date, rows) -> entries.put(date, RadarEntry.of(rows)));
+    }
+
+    private synchronized long sync() {
+        long current = clock.current(DataTable.RISK_FACTOR);
+        if (current != version) {
+            entries.clear();
+            version = current;
+        }
+        return current;
+    }
+}
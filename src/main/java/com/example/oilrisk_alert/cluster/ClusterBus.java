@@ -0,0 +1,40 @@
+package com.example.oilrisk_alert.cluster;
+
+import java.time.Duration;
+
+/**
+ * Messages and leases shared by every instance of the application. Published messages reach
+ * every instance, this one included, as {@link ClusterMessage} application events, so listeners
+ * are plain {@code @EventListener} methods filtered by topic. Delivery is at most once: messages
+ * are hints (refresh this, apply that) and state they refer to lives in the database.
+ */
+public interface ClusterBus {
+
+    /** A data_version row moved; payload is empty */
+    String TOPIC_DATA_VERSION = "data-version";
+    /** Factor weights changed; payload is the {@link WeightsSync} JSON */
+    String TOPIC_WEIGHTS = "weights";
+    /** An alert was raised; payload is the AlertVO JSON sent to SSE subscribers */
+    String TOPIC_ALERT = "alert";
+    /** Report generation for an alert finished, successfully or not; payload is the alert id */
+    String TOPIC_REPORT = "report";
+
+    String getNodeId();
+
+    void publish(String topic, String payload);
+
+    /**
+     * @return the most recent payload published on the topic by any instance, or null
+     */
+    String latest(String topic);
+
+    /**
+     * Takes a named lease for {@code ttl} unless another holder's lease is still live. Each call
+     * gets its own token, so two requests on the same instance also exclude each other.
+     *
+     * @return the holder token to release with, or null when someone else holds the lease
+     */
+    String tryAcquireLease(String name, Duration ttl);
+
+    void releaseLease(String name, String token);
+}
@@ -0,0 +1,22 @@
+package com.example.oilrisk_alert.cluster;
+
+import lombok.Data;
+
+@Data
+public class ClusterMessage {
+    private Long id;
+    private String topic;
+    private String payload;
+    private String origin;
+    /** Published by this instance (not stored) */
+    private boolean local;
+
+    public static ClusterMessage of(String topic, String payload, String origin) {
+        ClusterMessage message = new ClusterMessage();
+        message.setTopic(topic);
+        message.setPayload(payload);
+        message.setOrigin(origin);
+        message.setLocal(true);
+        return message;
+    }
+}
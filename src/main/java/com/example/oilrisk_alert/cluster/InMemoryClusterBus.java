@@ -0,0 +1,69 @@
+package com.example.oilrisk_alert.cluster;
+
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Single-instance {@link ClusterBus}: messages go straight to local listeners and leases live in a
+ * map. Used by tests ({@code cluster.bus=memory}) and by deployments with one instance.
+ */
+@Component
+@ConditionalOnProperty(name = "cluster.bus", havingValue = "memory")
+public class InMemoryClusterBus implements ClusterBus {
+
+    private final ApplicationEventPublisher eventPublisher;
+    private final String nodeId = UUID.randomUUID().toString();
+    private final Map<String, String> latest = new ConcurrentHashMap<>();
+    private final Map<String, String> leaseOwners = new HashMap<>();
+    private final Map<String, Long> leaseExpiry = new HashMap<>();
+    private final AtomicLong tokens = new AtomicLong();
+
+    public InMemoryClusterBus(ApplicationEventPublisher eventPublisher) {
+        this.eventPublisher = eventPublisher;
+    }
+
+    @Override
+    public String getNodeId() {
+        return nodeId;
+    }
+
+    @Override
+    public void publish(String topic, String payload) {
+        latest.put(topic, payload);
+        eventPublisher.publishEvent(ClusterMessage.of(topic, payload, nodeId));
+    }
+
+    @Override
+    public String latest(String topic) {
+        return latest.get(topic);
+    }
+
+    @Override
+    public synchronized String tryAcquireLease(String name, Duration ttl) {
+        long now = System.nanoTime();
+        Long expiry = leaseExpiry.get(name);
+        if (expiry != null && expiry - now > 0) {
+            return null;
+        }
+        String token = nodeId + '/' + tokens.incrementAndGet();
+        leaseOwners.put(name, token);
+        leaseExpiry.put(name, now + ttl.toNanos());
+        return token;
+    }
+
+    @Override
+    public synchronized void releaseLease(String name, String token) {
+        if (token.equals(leaseOwners.get(name))) {
+            leaseOwners.remove(name);
+            leaseExpiry.remove(name);
+        }
+    }
+}
@@ -0,0 +1,151 @@
+package com.example.oilrisk_alert.cluster;
+
+import com.example.oilrisk_alert.mapper.ClusterMapper;
+import jakarta.annotation.PostConstruct;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.dao.DuplicateKeyException;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Queue;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * {@link ClusterBus} over the shared database, the default. Messages are delivered locally at once
+ * and queued; every {@code cluster.poll-ms} the queue is flushed to cluster_message and messages
+ * from other instances are read back. Publishing therefore never touches the caller's
+ * transaction or blocks on the database. Ids are re-read over a short lookback because
+ * AUTO_INCREMENT ids can commit out of order. Leases are rows in cluster_lease with expiry taken
+ * from the database clock, so instance clock skew does not matter.
+ * MySQL has no LISTEN/NOTIFY; polling an indexed id range is the portable equivalent.
+ */
+@Slf4j
+@Component
+@ConditionalOnProperty(name = "cluster.bus", havingValue = "jdbc", matchIfMissing = true)
+public class JdbcClusterBus implements ClusterBus {
+
+    private static final int BATCH = 500;
+    private static final int LOOKBACK = 64;
+    private static final int SEEN_CAPACITY = 4096;
+
+    private final ClusterMapper clusterMapper;
+    private final ApplicationEventPublisher eventPublisher;
+    private final String nodeId;
+    private final Queue<ClusterMessage> outbox = new ConcurrentLinkedQueue<>();
+    private final AtomicLong tokens = new AtomicLong();
+
+    // Guarded by poll()
+    private long lastSeenId = -1;
+    private final Set<Long> seen = new LinkedHashSet<>();
+
+    @Value("${cluster.retention-seconds:600}")
+    private int retentionSeconds;
+
+    public JdbcClusterBus(ClusterMapper clusterMapper, ApplicationEventPublisher eventPublisher,
+                          @Value("${cluster.node-id:}") String nodeId) {
+        this.clusterMapper = clusterMapper;
+        this.eventPublisher = eventPublisher;
+        this.nodeId = nodeId == null || nodeId.isBlank() ? UUID.randomUUID().toString() : nodeId;
+    }
+
+    /**
+     * Only messages published after startup are delivered; state is read from the tables. The
+     * messages within the lookback of the latest are marked seen, or the first poll would
+     * deliver them again.
+     */
+    @PostConstruct
+    public synchronized void start() {
+        lastSeenId = clusterMapper.findMaxId();
+        for (ClusterMessage message : clusterMapper.findAfter(Math.max(0, lastSeenId - LOOKBACK), LOOKBACK)) {
+            if (message.getId() <= lastSeenId) seen.add(message.getId());
+        }
+        log.info("Cluster bus node {} starting after message {}", nodeId, lastSeenId);
+    }
+
+    @Override
+    public String getNodeId() {
+        return nodeId;
+    }
+
+    @Override
+    public void publish(String topic, String payload) {
+        ClusterMessage message = ClusterMessage.of(topic, payload, nodeId);
+        outbox.add(message);
+        eventPublisher.publishEvent(message);
+    }
+
+    @Override
+    public String latest(String topic) {
+        return clusterMapper.findLatestPayload(topic);
+    }
+
+    @Scheduled(fixedDelayString = "${cluster.poll-ms:500}")
+    public synchronized void poll() {
+        List<ClusterMessage> pending = new ArrayList<>();
+        for (ClusterMessage m; (m = outbox.poll()) != null; ) pending.add(m);
+        for (int from = 0; from < pending.size(); from += BATCH) {
+            clusterMapper.insertMessages(pending.subList(from, Math.min(pending.size(), from + BATCH)));
+        }
+
+        List<ClusterMessage> batch;
+        do {
+            batch = clusterMapper.findAfter(Math.max(0, lastSeenId - LOOKBACK), BATCH + LOOKBACK);
+            int fresh = 0;
+            for (ClusterMessage message : batch) {
+                if (!seen.add(message.getId())) continue;
+                fresh++;
+                lastSeenId = Math.max(lastSeenId, message.getId());
+                if (!nodeId.equals(message.getOrigin())) {
+                    eventPublisher.publishEvent(message);
+                }
+            }
+            trimSeen();
+            if (fresh == 0) break;
+        } while (batch.size() == BATCH + LOOKBACK);
+    }
+
+    @Scheduled(fixedDelayString = "${cluster.cleanup-ms:60000}")
+    public void cleanup() {
+        int deleted = clusterMapper.deleteExpired(-retentionSeconds);
+        if (deleted > 0) log.debug("Deleted {} cluster messages", deleted);
+    }
+
+    @Override
+    public String tryAcquireLease(String name, Duration ttl) {
+        String token = nodeId + '/' + tokens.incrementAndGet();
+        long seconds = Math.max(1, ttl.toSeconds());
+        if (clusterMapper.takeExpiredLease(name, token, seconds) > 0) {
+            return token;
+        }
+        try {
+            clusterMapper.insertLease(name, token, seconds);
+            return token;
+        } catch (DuplicateKeyException e) {
+            return null;
+        }
+    }
+
+    @Override
+    public void releaseLease(String name, String token) {
+        clusterMapper.deleteLease(name, token);
+    }
+
+    private void trimSeen() {
+        Iterator<Long> it = seen.iterator();
+        for (int excess = seen.size() - SEEN_CAPACITY; excess > 0; excess--) {
+            it.next();
+            it.remove();
+        }
+    }
+}
@@ -0,0 +1,92 @@
+package com.example.oilrisk_alert.cluster;
+
+import com.example.oilrisk_alert.config.WeightsConfig;
+import lombok.Data;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.event.ApplicationStartedEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+import tools.jackson.databind.ObjectMapper;
+
+/**
+ * Keeps {@link WeightsConfig} equal on every instance. Updates are broadcast with a version
+ * (update time, then node id as tie-break) and each instance keeps the highest it has seen, so
+ * concurrent updates converge on one winner instead of swapping. New instances start from the
+ * latest broadcast.
+ */
+@Slf4j
+@Component
+public class WeightsSync {
+
+    private final ClusterBus clusterBus;
+    private final WeightsConfig weightsConfig;
+    private final ObjectMapper objectMapper;
+    private long version;
+    private String versionNode = "";
+
+    public WeightsSync(ClusterBus clusterBus, WeightsConfig weightsConfig, ObjectMapper objectMapper) {
+        this.clusterBus = clusterBus;
+        this.weightsConfig = weightsConfig;
+        this.objectMapper = objectMapper;
+    }
+
+    /**
+     * Broadcasts the current local weights; call after changing them.
+     */
+    public synchronized void broadcast() {
+        Update update = new Update();
+        update.setVersion(Math.max(System.currentTimeMillis(), version + 1));
+        update.setNode(clusterBus.getNodeId());
+        update.setWeights(copy(weightsConfig));
+        version = update.getVersion();
+        versionNode = update.getNode();
+        clusterBus.publish(ClusterBus.TOPIC_WEIGHTS, objectMapper.writeValueAsString(update));
+    }
+
+    @EventListener(condition = "#message.topic == 'weights' && !#message.local")
+    public void onWeights(ClusterMessage message) {
+        apply(message.getPayload());
+    }
+
+    @EventListener(ApplicationStartedEvent.class)
+    public void onStarted() {
+        String latest = clusterBus.latest(ClusterBus.TOPIC_WEIGHTS);
+        if (latest != null) {
+            apply(latest);
+        }
+    }
+
+    synchronized void apply(String payload) {
+        Update update = objectMapper.readValue(payload, Update.class);
+        int order = Long.compare(update.getVersion(), version);
+        if (order < 0 || (order == 0 && update.getNode().compareTo(versionNode) <= 0)) {
+            return;
+        }
+        WeightsConfig w = update.getWeights();
+        weightsConfig.setSupplyDemand(w.getSupplyDemand());
+        weightsConfig.setMacro(w.getMacro());
+        weightsConfig.setFinancial(w.getFinancial());
+        weightsConfig.setGeopolitical(w.getGeopolitical());
+        weightsConfig.setSentiment(w.getSentiment());
+        version = update.getVersion();
+        versionNode = update.getNode();
+        log.info("Applied factor weights from node {}", update.getNode());
+    }
+
+    private static WeightsConfig copy(WeightsConfig source) {
+        WeightsConfig w = new WeightsConfig();
+        w.setSupplyDemand(source.getSupplyDemand());
+        w.setMacro(source.getMacro());
+        w.setFinancial(source.getFinancial());
+        w.setGeopolitical(source.getGeopolitical());
+        w.setSentiment(source.getSentiment());
+        return w;
+    }
+
+    @Data
+    static class Update {
+        private long version;
+        private String node;
+        private WeightsConfig weights;
+    }
+}
@@ -0,0 +1,108 @@
+package com.example.oilrisk_alert.columnar;
+
+import java.nio.ByteBuffer;
+import java.util.Arrays;
+
+/**
+ * Encodings shared by {@link ColumnarTableWriter} and {@link ColumnarTable}.
+ * <ul>
+ * <li>Unsigned varints (7 bits per byte, low groups first) for date deltas and dictionary ids.</li>
+ * <li>Doubles XOR'ed with the previous value of the same key: a control byte holds the count of
+ * leading (high nibble) and trailing (low nibble) zero bytes of the XOR, followed by the bytes in
+ * between, most significant first. An unchanged value is the single byte {@code 0x80}.</li>
+ * </ul>
+ * Null is stored as NaN; decimal columns never hold NaN otherwise.
+ */
+final class ColumnCodec {
+
+    static final int UNCHANGED = 0x80;
+
+    private ColumnCodec() {
+    }
+
+    /** Growable byte array a block is encoded into before it is appended to its column file */
+    static final class Bytes {
+        private byte[] data = new byte[1 << 12];
+        private int length;
+
+        void put(int b) {
+            if (length == data.length) {
+                data = Arrays.copyOf(data, length * 2);
+            }
+            data[length++] = (byte) b;
+        }
+
+        void putVarInt(int value) {
+            while ((value & ~0x7F) != 0) {
+                put((value & 0x7F) | 0x80);
+                value >>>= 7;
+            }
+            put(value);
+        }
+
+        void putXor(long bits, long previous) {
+            long xor = bits ^ previous;
+            if (xor == 0) {
+                put(UNCHANGED);
+                return;
+            }
+            int leading = Long.numberOfLeadingZeros(xor) >>> 3;
+            int trailing = Long.numberOfTrailingZeros(xor) >>> 3;
+            put(leading << 4 | trailing);
+            for (int i = 7 - leading; i >= trailing; i--) {
+                put((int) (xor >>> (i << 3)));
+            }
+        }
+
+        ByteBuffer wrap() {
+            return ByteBuffer.wrap(data, 0, length);
+        }
+
+        int length() {
+            return length;
+        }
+
+        void clear() {
+            length = 0;
+        }
+    }
+
+    /**
+     * Sequential reader over one column of a mapped block. Absolute gets only, so any number of
+     * cursors can share the mapping.
+     */
+    static final class Cursor {
+        private final ByteBuffer buffer;
+        private int position;
+
+        Cursor(ByteBuffer buffer, int position) {
+            this.buffer = buffer;
+            this.position = position;
+        }
+
+        int varInt() {
+            int value = 0;
+            for (int shift = 0; ; shift += 7) {
+                int b = buffer.get(position++);
+                value |= (b & 0x7F) << shift;
+                if (b >= 0) return value;
+            }
+        }
+
+        long xor(long previous) {
+            int control = buffer.get(position++) & 0xFF;
+            if (control == UNCHANGED) return previous;
+            int leading = control >>> 4;
+            int trailing = control & 0x0F;
+            long xor = 0;
+            for (int i = 7 - leading; i >= trailing; i--) {
+                xor |= (buffer.get(position++) & 0xFFL) << (i << 3);
+            }
+            return previous ^ xor;
+        }
+    }
+
+    static long toBits(double value) {
+        return Double.doubleToRawLongBits(Double.isNaN(value) ? Double.NaN : value);
+    }
+}
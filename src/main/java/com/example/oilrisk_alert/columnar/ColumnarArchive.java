@@ -0,0 +1,292 @@
+package com.example.oilrisk_alert.columnar;
+
+import com.example.oilrisk_alert.entity.ArchiveBoundary;
+import com.example.oilrisk_alert.entity.RiskFactor;
+import com.example.oilrisk_alert.entity.RiskIndex;
+import com.example.oilrisk_alert.mapper.FactorMapper;
+import com.example.oilrisk_alert.mapper.RiskMapper;
+import jakarta.annotation.PostConstruct;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.time.LocalDate;
+import java.util.Comparator;
+import java.util.Properties;
+import java.util.stream.Stream;
+
+/**
+ * Local columnar copy of the archived span: every risk_factor_archive row and the risk_index rows
+ * dated before the same boundary, as two {@link ColumnarTable}s under {@code archive.columnar.path}.
+ * Long-range reads of old dates scan the mapped files instead of pulling rows from the database
+ * onto the heap.
+ * <p>
+ * A copy is used only while its boundary and generation equal archive_boundary's. Moving the
+ * boundary forward appends the newly archived dates to the existing files; a new generation (old
+ * dates re-ingested) or a missing copy rebuilds it into a fresh directory. The CURRENT manifest
+ * names the directory and the committed length of every file, and is replaced atomically, so a
+ * crash mid-write leaves the previous copy readable. Each instance keeps its own copy.
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class ColumnarArchive {
+
+    public static final int FACTOR_NAME = 0;
+    public static final int FACTOR_NAME_ZH = 1;
+    public static final int FACTOR_CATEGORY = 2;
+
+    private static final String FACTORS = "risk_factor";
+    private static final String RISK_INDEX = "risk_index";
+    private static final String MANIFEST = "CURRENT";
+    // Earliest date MySQL's DATE type accepts
+    private static final LocalDate MIN_DATE = LocalDate.of(1000, 1, 1);
+
+    private final FactorMapper factorMapper;
+    private final RiskMapper riskMapper;
+
+    @Value("${archive.columnar.enabled:true}")
+    private boolean enabled = true;
+
+    @Value("${archive.columnar.path:data/columnar}")
+    private String path = "data/columnar";
+
+    private volatile Copy current;
+
+    /** An opened copy; immutable, so readers holding one are unaffected by later syncs */
+    private static final class Copy {
+        final String build;
+        final long generation;
+        final LocalDate before;
+        final TableState factorState;
+        final TableState indexState;
+        final ColumnarTable factors;
+        final ColumnarTable riskIndex;
+
+        Copy(Path root, String build, long generation, LocalDate before,
+             TableState factorState, TableState indexState) throws IOException {
+            this.build = build;
+            this.generation = generation;
+            this.before = before;
+            this.factorState = factorState;
+            this.indexState = indexState;
+            this.factors = ColumnarTable.open(root.resolve(build).resolve(FACTORS), factorState, before);
+            this.riskIndex = ColumnarTable.open(root.resolve(build).resolve(RISK_INDEX), indexState, before);
+        }
+
+        boolean matches(ArchiveBoundary boundary) {
+            return boundary != null && boundary.getGeneration() == generation
+                    && before.equals(boundary.getArchivedBefore());
+        }
+    }
+
+    @PostConstruct
+    public void open() {
+        if (!enabled) return;
+        Path root = Paths.get(path);
+        Path manifestFile = root.resolve(MANIFEST);
+        if (!Files.isRegularFile(manifestFile)) return;
+        try (InputStream in = Files.newInputStream(manifestFile)) {
+            Properties manifest = new Properties();
+            manifest.load(in);
+            current = new Copy(root, manifest.getProperty("build"),
+                    Long.parseLong(manifest.getProperty("generation")),
+                    LocalDate.parse(manifest.getProperty("before")),
+                    TableState.read(manifest, FACTORS), TableState.read(manifest, RISK_INDEX));
+            deleteBuildsExcept(root, current.build);
+            log.info("Opened columnar archive {} ({} factor rows, {} risk_index rows before {})",
+                    current.build, current.factors.getRows(), current.riskIndex.getRows(), current.before);
+        } catch (IOException | RuntimeException e) {
+            log.warn("Ignoring columnar archive at {}: {}", root, e.getMessage());
+        }
+    }
+
+    /**
+     * @return archived risk_factor rows, or null when the local copy is not current for the boundary
+     */
+    public ColumnarTable factors(ArchiveBoundary boundary) {
+        Copy copy = current;
+        return copy != null && copy.matches(boundary) ? copy.factors : null;
+    }
+
+    /**
+     * @return risk_index rows dated before the boundary, or null when the local copy is not
+     * current for it
+     */
+    public ColumnarTable riskIndex(ArchiveBoundary boundary) {
+        Copy copy = current;
+        return copy != null && copy.matches(boundary) ? copy.riskIndex : null;
+    }
+
+    /**
+     * Brings the local copy up to {@code boundary}, which must have been read before the call so
+     * a concurrent rewrite shows up as a newer generation. Failures are logged and leave reads on
+     * the database.
+     */
+    public synchronized void sync(ArchiveBoundary boundary) {
+        if (!enabled) return;
+        Copy copy = current;
+        if (copy != null && copy.matches(boundary)) return;
+        Path root = Paths.get(path);
+        long startNanos = System.nanoTime();
+        try {
+            if (boundary == null || boundary.getArchivedBefore() == null) {
+                if (copy != null) {
+                    Files.deleteIfExists(root.resolve(MANIFEST));
+                    current = null;
+                    deleteBuildsExcept(root, null);
+                    log.info("Dropped columnar archive {}: nothing is archived", copy.build);
+                }
+                return;
+            }
+            boolean append = copy != null && copy.generation == boundary.getGeneration()
+                    && copy.before.isBefore(boundary.getArchivedBefore());
+            current = append ? append(root, copy, boundary) : rebuild(root, boundary);
+            if (!append) {
+                deleteBuildsExcept(root, current.build);
+            }
+            log.info("{} columnar archive {} up to {} in {} ms: {} factor rows, {} risk_index rows",
+                    append ? "Appended to" : "Rebuilt", current.build, current.before,
+                    (System.nanoTime() - startNanos) / 1_000_000,
+                    current.factors.getRows(), current.riskIndex.getRows());
+        } catch (IOException | RuntimeException e) {
+            log.warn("Columnar archive sync failed, archived reads stay on the database: {}", e.toString());
+        }
+    }
+
+    private Copy append(Path root, Copy copy, ArchiveBoundary boundary) throws IOException {
+        Path dir = root.resolve(copy.build);
+        LocalDate last = copy.before.minusDays(1);
+        LocalDate end = boundary.getArchivedBefore().minusDays(1);
+        TableState factorState = writeFactors(dir.resolve(FACTORS), copy.factorState, last, copy.before, end);
+        TableState indexState = writeRiskIndex(dir.resolve(RISK_INDEX), copy.indexState, last, copy.before, end);
+        return commit(root, copy.build, boundary, factorState, indexState);
+    }
+
+    private Copy rebuild(Path root, ArchiveBoundary boundary) throws IOException {
+        String build = "b" + System.currentTimeMillis();
+        Path dir = root.resolve(build);
+        LocalDate end = boundary.getArchivedBefore().minusDays(1);
+        TableState factorState = writeFactors(dir.resolve(FACTORS), null, null, MIN_DATE, end);
+        TableState indexState = writeRiskIndex(dir.resolve(RISK_INDEX), null, null, MIN_DATE, end);
+        return commit(root, build, boundary, factorState, indexState);
+    }
+
+    private TableState writeFactors(Path dir, TableState state, LocalDate last,
+                                    LocalDate start, LocalDate end) throws IOException {
+        try (ColumnarTableWriter writer = new ColumnarTableWriter(dir, state, last)) {
+            try {
+                factorMapper.scanArchivedRows(start, end, context -> {
+                    RiskFactor f = context.getResultObject();
+                    append(writer, f.getDate(),
+                            f.getFactorName() + '\t' + f.getFactorNameZh() + '\t' + f.getCategory(),
+                            f.getValue(), f.getShapValue());
+                });
+            } catch (UncheckedIOException e) {
+                throw e.getCause();
+            }
+            return writer.commit();
+        }
+    }
+
+    private TableState writeRiskIndex(Path dir, TableState state, LocalDate last,
+                                      LocalDate start, LocalDate end) throws IOException {
+        try (ColumnarTableWriter writer = new ColumnarTableWriter(dir, state, last)) {
+            try {
+                riskMapper.scanByDateRange(start, end, context -> {
+                    RiskIndex r = context.getResultObject();
+                    append(writer, r.getDate(), r.getRiskLevel(), r.getRiskIndex(), r.getOilPrice());
+                });
+            } catch (UncheckedIOException e) {
+                throw e.getCause();
+            }
+            return writer.commit();
+        }
+    }
+
+    private static void append(ColumnarTableWriter writer, LocalDate date, String key,
+                               BigDecimal a, BigDecimal b) {
+        try {
+            writer.append(date, key, a != null ? a.doubleValue() : Double.NaN,
+                    b != null ? b.doubleValue() : Double.NaN);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private Copy commit(Path root, String build, ArchiveBoundary boundary,
+                        TableState factorState, TableState indexState) throws IOException {
+        Properties manifest = new Properties();
+        manifest.setProperty("build", build);
+        manifest.setProperty("generation", Long.toString(boundary.getGeneration()));
+        manifest.setProperty("before", boundary.getArchivedBefore().toString());
+        factorState.write(manifest, FACTORS);
+        indexState.write(manifest, RISK_INDEX);
+        Path temp = root.resolve(MANIFEST + ".tmp");
+        try (OutputStream out = Files.newOutputStream(temp)) {
+            manifest.store(out, "Columnar archive manifest");
+        }
+        Files.move(temp, root.resolve(MANIFEST), StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        return new Copy(root, build, boundary.getGeneration(), boundary.getArchivedBefore(), factorState, indexState);
+    }
+
+    /**
+     * Removes build directories other than {@code keep}. Open mappings of a deleted file stay valid
+     * on POSIX systems; where deletion fails it is retried on the next sync or startup.
+     */
+    private static void deleteBuildsExcept(Path root, String keep) {
+        try (Stream<Path> builds = Files.list(root)) {
+            builds.filter(p -> Files.isDirectory(p) && !p.getFileName().toString().equals(keep))
+                    .forEach(ColumnarArchive::deleteTree);
+        } catch (IOException e) {
+            log.debug("Could not list {}: {}", root, e.getMessage());
+        }
+    }
+
+    private static void deleteTree(Path dir) {
+        try (Stream<Path> files = Files.walk(dir)) {
+            files.sorted(Comparator.reverseOrder()).forEach(p -> p.toFile().delete());
+        } catch (IOException e) {
+            log.debug("Could not delete {}: {}", dir, e.getMessage());
+        }
+    }
+
+    public static RiskFactor toRiskFactor(ColumnarTable table, int epochDay, int key, double value, double shap) {
+        String[] entry = table.entry(key);
+        RiskFactor f = new RiskFactor();
+        f.setDate(LocalDate.ofEpochDay(epochDay));
+        f.setFactorName(entry[FACTOR_NAME]);
+        f.setFactorNameZh(entry[FACTOR_NAME_ZH]);
+        f.setCategory(entry[FACTOR_CATEGORY]);
+        f.setValue(decimal(value, 4));
+        f.setShapValue(decimal(shap, 6));
+        return f;
+    }
+
+    public static RiskIndex toRiskIndex(ColumnarTable table, int epochDay, int key, double riskIndex, double oilPrice) {
+        RiskIndex r = new RiskIndex();
+        r.setDate(LocalDate.ofEpochDay(epochDay));
+        r.setRiskLevel(table.entry(key)[0]);
+        r.setRiskIndex(decimal(riskIndex, 2));
+        r.setOilPrice(decimal(oilPrice, 2));
+        return r;
+    }
+
+    /**
+     * Back to the column's DECIMAL scale; exact, since the stored double is the nearest to it.
+     */
+    private static BigDecimal decimal(double value, int scale) {
+        return Double.isNaN(value) ? null : BigDecimal.valueOf(value).setScale(scale, RoundingMode.HALF_UP);
+    }
+}
@@ -0,0 +1,182 @@
+package com.example.oilrisk_alert.columnar;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.LocalDate;
+import java.util.Arrays;
+
+/**
+ * Read-only view of a table written by {@link ColumnarTableWriter}. Column files are memory-mapped
+ * up to their committed length and decoded in place, so scans allocate nothing per row and the
+ * data stays in the page cache rather than on the heap. Only the block index (a few ints per
+ * {@value ColumnarTableWriter#BLOCK_ROWS} rows) and the dictionary are loaded. Instances are
+ * immutable and safe to share between threads.
+ */
+public class ColumnarTable {
+
+    @FunctionalInterface
+    public interface RowVisitor {
+        /**
+         * @param key dictionary id, see {@link #entry}; {@code a} and {@code b} are NaN for null
+         * @return false to stop the scan
+         */
+        boolean accept(int epochDay, int key, double a, double b);
+    }
+
+    private final LocalDate before;
+    private final long rows;
+    private final int blocks;
+    private final int[] blockRows;
+    private final int[] firstDay;
+    private final int[] lastDay;
+    private final int[][] offsets = new int[4][];
+    private final ByteBuffer[] columns = new ByteBuffer[4];
+    private final String[][] dictionary;
+
+    private ColumnarTable(Path dir, TableState state, LocalDate before) throws IOException {
+        this.before = before;
+        this.rows = state.rows;
+        this.blocks = state.blocks;
+        for (int c = 0; c < columns.length; c++) {
+            columns[c] = map(dir, c, state);
+            offsets[c] = new int[blocks];
+        }
+        blockRows = new int[blocks];
+        firstDay = new int[blocks];
+        lastDay = new int[blocks];
+        ByteBuffer index = map(dir, TableState.BLOCKS, state);
+        for (int i = 0; i < blocks; i++) {
+            int base = i * TableState.BLOCK_ENTRY_BYTES;
+            blockRows[i] = index.getInt(base);
+            firstDay[i] = index.getInt(base + 4);
+            lastDay[i] = index.getInt(base + 8);
+            for (int c = 0; c < columns.length; c++) {
+                offsets[c][i] = index.getInt(base + 12 + 4 * c);
+            }
+        }
+        ByteBuffer dict = map(dir, TableState.DICTIONARY, state);
+        byte[] text = new byte[dict.remaining()];
+        dict.get(0, text);
+        String[] entries = text.length == 0 ? new String[0]
+                : new String(text, StandardCharsets.UTF_8).split("\n");
+        dictionary = new String[entries.length][];
+        for (int i = 0; i < entries.length; i++) {
+            dictionary[i] = entries[i].split("\t", -1);
+        }
+    }
+
+    /**
+     * @param before exclusive upper bound of the dates the table covers
+     */
+    public static ColumnarTable open(Path dir, TableState state, LocalDate before) throws IOException {
+        return new ColumnarTable(dir, state, before);
+    }
+
+    private static ByteBuffer map(Path dir, int file, TableState state) throws IOException {
+        try (FileChannel channel = FileChannel.open(dir.resolve(TableState.FILES[file]), StandardOpenOption.READ)) {
+            long length = state.lengths[file];
+            if (channel.size() < length) {
+                throw new IOException(TableState.FILES[file] + " is shorter than its committed length");
+            }
+            return channel.map(FileChannel.MapMode.READ_ONLY, 0, length);
+        }
+    }
+
+    /** Dates before this are covered; the table holds nothing on or after it */
+    public LocalDate getBefore() {
+        return before;
+    }
+
+    public long getRows() {
+        return rows;
+    }
+
+    public int dictionarySize() {
+        return dictionary.length;
+    }
+
+    /**
+     * @return the tab-separated fields of a dictionary entry
+     */
+    public String[] entry(int key) {
+        return dictionary[key];
+    }
+
+    /**
+     * Visits rows dated in [start, end] in the order they were appended.
+     */
+    public void scan(LocalDate start, LocalDate end, RowVisitor visitor) {
+        int startDay = (int) start.toEpochDay();
+        int endDay = (int) end.toEpochDay();
+        long[] previousA = new long[dictionary.length];
+        long[] previousB = new long[dictionary.length];
+        for (int block = firstBlock(startDay); block < blocks && firstDay[block] <= endDay; block++) {
+            ColumnCodec.Cursor dates = cursor(TableState.DATE, block);
+            ColumnCodec.Cursor keys = cursor(TableState.KEY, block);
+            ColumnCodec.Cursor as = cursor(TableState.A, block);
+            ColumnCodec.Cursor bs = cursor(TableState.B, block);
+            Arrays.fill(previousA, 0L);
+            Arrays.fill(previousB, 0L);
+            int day = firstDay[block];
+            for (int r = 0; r < blockRows[block]; r++) {
+                day += dates.varInt();
+                int key = keys.varInt();
+                long a = as.xor(previousA[key]);
+                previousA[key] = a;
+                long b = bs.xor(previousB[key]);
+                previousB[key] = b;
+                if (day > endDay) return;
+                if (day >= startDay
+                        && !visitor.accept(day, key, Double.longBitsToDouble(a), Double.longBitsToDouble(b))) {
+                    return;
+                }
+            }
+        }
+    }
+
+    /**
+     * Rows dated in [start, end]; only blocks straddling either end are decoded, and only their
+     * date column.
+     */
+    public int count(LocalDate start, LocalDate end) {
+        int startDay = (int) start.toEpochDay();
+        int endDay = (int) end.toEpochDay();
+        int count = 0;
+        for (int block = firstBlock(startDay); block < blocks && firstDay[block] <= endDay; block++) {
+            if (firstDay[block] >= startDay && lastDay[block] <= endDay) {
+                count += blockRows[block];
+                continue;
+            }
+            ColumnCodec.Cursor dates = cursor(TableState.DATE, block);
+            int day = firstDay[block];
+            for (int r = 0; r < blockRows[block]; r++) {
+                day += dates.varInt();
+                if (day > endDay) break;
+                if (day >= startDay) count++;
+            }
+        }
+        return count;
+    }
+
+    private ColumnCodec.Cursor cursor(int column, int block) {
+        return new ColumnCodec.Cursor(columns[column], offsets[column][block]);
+    }
+
+    /** First block whose last date is on or after {@code day} */
+    private int firstBlock(int day) {
+        int low = 0, high = blocks;
+        while (low < high) {
+            int mid = (low + high) >>> 1;
+            if (lastDay[mid] < day) {
+                low = mid + 1;
+            } else {
+                high = mid;
+            }
+        }
+        return low;
+    }
+}
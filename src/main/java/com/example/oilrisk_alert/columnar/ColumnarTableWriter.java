@@ -0,0 +1,180 @@
+package com.example.oilrisk_alert.columnar;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.LocalDate;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Appends date-ordered rows of (date, dictionary key, two doubles) to a table directory, one file
+ * per column. Rows are encoded in blocks of {@link #BLOCK_ROWS}, each decodable on its own: dates
+ * as varint deltas from the block's first date, keys as varint dictionary ids, the doubles XOR'ed
+ * against the previous value of the same key (see {@link ColumnCodec}). Existing bytes are never
+ * rewritten; {@link #commit} makes the appended rows part of the returned {@link TableState}.
+ */
+public class ColumnarTableWriter implements Closeable {
+
+    static final int BLOCK_ROWS = 4096;
+
+    private final FileChannel[] files = new FileChannel[TableState.FILES.length];
+    private final Map<String, Integer> dictionary = new HashMap<>();
+    private final TableState state;
+
+    private final int[] days = new int[BLOCK_ROWS];
+    private final int[] keys = new int[BLOCK_ROWS];
+    private final double[] a = new double[BLOCK_ROWS];
+    private final double[] b = new double[BLOCK_ROWS];
+    private int pending;
+    private int lastDay = Integer.MIN_VALUE;
+
+    private long[] previousA = new long[16];
+    private long[] previousB = new long[16];
+    private final ColumnCodec.Bytes[] encoded = {
+            new ColumnCodec.Bytes(), new ColumnCodec.Bytes(), new ColumnCodec.Bytes(), new ColumnCodec.Bytes()};
+
+    /**
+     * @param committed state to append after, or null for a new table
+     * @param lastDate  date of the last committed row; appended rows may not precede it
+     */
+    public ColumnarTableWriter(Path dir, TableState committed, LocalDate lastDate) throws IOException {
+        Files.createDirectories(dir);
+        state = new TableState();
+        if (committed != null) {
+            state.rows = committed.rows;
+            state.blocks = committed.blocks;
+            System.arraycopy(committed.lengths, 0, state.lengths, 0, state.lengths.length);
+        }
+        for (int i = 0; i < files.length; i++) {
+            files[i] = FileChannel.open(dir.resolve(TableState.FILES[i]),
+                    StandardOpenOption.CREATE, StandardOpenOption.READ, StandardOpenOption.WRITE);
+            // Drop whatever an interrupted append left past the committed end
+            files[i].truncate(state.lengths[i]);
+            files[i].position(state.lengths[i]);
+        }
+        readDictionary();
+        if (lastDate != null) {
+            lastDay = (int) lastDate.toEpochDay();
+        }
+    }
+
+    /**
+     * Buffers one row; NaN stands for a null value.
+     */
+    public void append(LocalDate date, String key, double a, double b) throws IOException {
+        int day = (int) date.toEpochDay();
+        if (day < lastDay) {
+            throw new IllegalStateException("Rows must be appended in date order: " + date);
+        }
+        lastDay = day;
+        days[pending] = day;
+        keys[pending] = keyId(key);
+        this.a[pending] = a;
+        this.b[pending] = b;
+        if (++pending == BLOCK_ROWS) {
+            flushBlock();
+        }
+    }
+
+    /**
+     * Writes out the partial block and forces every file to disk.
+     */
+    public TableState commit() throws IOException {
+        flushBlock();
+        for (FileChannel file : files) {
+            file.force(false);
+        }
+        TableState committed = new TableState();
+        committed.rows = state.rows;
+        committed.blocks = state.blocks;
+        System.arraycopy(state.lengths, 0, committed.lengths, 0, state.lengths.length);
+        return committed;
+    }
+
+    @Override
+    public void close() throws IOException {
+        for (FileChannel file : files) {
+            if (file != null) file.close();
+        }
+    }
+
+    private void readDictionary() throws IOException {
+        int length = (int) state.lengths[TableState.DICTIONARY];
+        if (length == 0) return;
+        ByteBuffer content = ByteBuffer.allocate(length);
+        while (content.hasRemaining()) {
+            files[TableState.DICTIONARY].read(content, content.position());
+        }
+        String text = new String(content.array(), StandardCharsets.UTF_8);
+        for (String entry : text.split("\n")) {
+            dictionary.put(entry, dictionary.size());
+        }
+    }
+
+    private int keyId(String key) throws IOException {
+        Integer id = dictionary.get(key);
+        if (id != null) return id;
+        if (key.indexOf('\n') >= 0) {
+            throw new IllegalArgumentException("Dictionary entries must not contain newlines");
+        }
+        id = dictionary.size();
+        dictionary.put(key, id);
+        write(TableState.DICTIONARY, ByteBuffer.wrap((key + "\n").getBytes(StandardCharsets.UTF_8)));
+        if (id == previousA.length) {
+            previousA = Arrays.copyOf(previousA, id * 2);
+            previousB = Arrays.copyOf(previousB, id * 2);
+        }
+        return id;
+    }
+
+    private void flushBlock() throws IOException {
+        if (pending == 0) return;
+        Arrays.fill(previousA, 0L);
+        Arrays.fill(previousB, 0L);
+        for (ColumnCodec.Bytes column : encoded) {
+            column.clear();
+        }
+        int day = days[0];
+        for (int r = 0; r < pending; r++) {
+            int key = keys[r];
+            encoded[TableState.DATE].putVarInt(days[r] - day);
+            day = days[r];
+            encoded[TableState.KEY].putVarInt(key);
+            long bitsA = ColumnCodec.toBits(a[r]);
+            encoded[TableState.A].putXor(bitsA, previousA[key]);
+            previousA[key] = bitsA;
+            long bitsB = ColumnCodec.toBits(b[r]);
+            encoded[TableState.B].putXor(bitsB, previousB[key]);
+            previousB[key] = bitsB;
+        }
+
+        ByteBuffer entry = ByteBuffer.allocate(TableState.BLOCK_ENTRY_BYTES)
+                .putInt(pending).putInt(days[0]).putInt(days[pending - 1]);
+        for (int c = 0; c < encoded.length; c++) {
+            long offset = state.lengths[c];
+            if (offset + encoded[c].length() > Integer.MAX_VALUE) {
+                throw new IOException(TableState.FILES[c] + " would exceed 2 GB");
+            }
+            entry.putInt((int) offset);
+            write(c, encoded[c].wrap());
+        }
+        write(TableState.BLOCKS, entry.flip());
+        state.rows += pending;
+        state.blocks++;
+        pending = 0;
+    }
+
+    private void write(int file, ByteBuffer bytes) throws IOException {
+        state.lengths[file] += bytes.remaining();
+        while (bytes.hasRemaining()) {
+            files[file].write(bytes);
+        }
+    }
+}
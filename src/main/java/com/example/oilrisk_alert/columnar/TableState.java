@@ -0,0 +1,43 @@
+package com.example.oilrisk_alert.columnar;
+
+import java.util.Properties;
+
+/**
+ * Committed extent of one table: row and block counts and the length of every file. Files may be
+ * longer after an interrupted append; readers map and writers truncate to these lengths.
+ */
+public final class TableState {
+
+    static final int DATE = 0;
+    static final int KEY = 1;
+    static final int A = 2;
+    static final int B = 3;
+    static final int BLOCKS = 4;
+    static final int DICTIONARY = 5;
+    static final String[] FILES = {"date.col", "key.col", "a.col", "b.col", "blocks.idx", "dictionary.txt"};
+
+    /** rows, firstDay, lastDay, then the start offset of each of the four columns */
+    static final int BLOCK_ENTRY_BYTES = 7 * Integer.BYTES;
+
+    long rows;
+    int blocks;
+    final long[] lengths = new long[FILES.length];
+
+    static TableState read(Properties manifest, String table) {
+        TableState state = new TableState();
+        state.rows = Long.parseLong(manifest.getProperty(table + ".rows"));
+        state.blocks = Integer.parseInt(manifest.getProperty(table + ".blocks"));
+        for (int i = 0; i < FILES.length; i++) {
+            state.lengths[i] = Long.parseLong(manifest.getProperty(table + "." + FILES[i]));
+        }
+        return state;
+    }
+
+    void write(Properties manifest, String table) {
+        manifest.setProperty(table + ".rows", Long.toString(rows));
+        manifest.setProperty(table + ".blocks", Integer.toString(blocks));
+        for (int i = 0; i < FILES.length; i++) {
+            manifest.setProperty(table + "." + FILES[i], Long.toString(lengths[i]));
+        }
+    }
+}
@@ -0,0 +1,22 @@
+package com.example.oilrisk_alert.common;
+
+import com.example.oilrisk_alert.cache.DataTable;
+
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * Marks a GET endpoint whose response is fully determined by the listed tables (and the factor
+ * weights, when {@link #weights()} is set), so it can be served with an ETag and answered with 304
+ * before the handler runs. See ConditionalGetInterceptor.
+ */
+@Target(ElementType.METHOD)
+@Retention(RetentionPolicy.RUNTIME)
+public @interface ETagged {
+
+    DataTable[] value();
+
+    boolean weights() default false;
+}
@@ -0,0 +1,35 @@
+package com.example.oilrisk_alert.common;
+
+import java.time.LocalDate;
+
+/**
+ * Width of the date partitions added ahead of the data and of the archival cutoff.
+ */
+public enum PartitionGranularity {
+
+    MONTHLY,
+    YEARLY;
+
+    /**
+     * @return the first day of the period containing date
+     */
+    public LocalDate floor(LocalDate date) {
+        return this == MONTHLY ? date.withDayOfMonth(1) : date.withDayOfYear(1);
+    }
+
+    /**
+     * @return the first day of the period after the one starting on periodStart
+     */
+    public LocalDate next(LocalDate periodStart) {
+        return this == MONTHLY ? periodStart.plusMonths(1) : periodStart.plusYears(1);
+    }
+
+    /**
+     * Partition name for the period starting on periodStart: p2024 or p202405.
+     */
+    public String partitionName(LocalDate periodStart) {
+        return this == MONTHLY
+                ? String.format("p%04d%02d", periodStart.getYear(), periodStart.getMonthValue())
+                : String.format("p%04d", periodStart.getYear());
+    }
+}
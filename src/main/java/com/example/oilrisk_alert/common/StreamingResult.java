@@ -0,0 +1,64 @@
+package com.example.oilrisk_alert.common;
+
+import com.example.oilrisk_alert.series.FrameSeriesSink;
+import com.example.oilrisk_alert.series.JsonSeriesSink;
+import com.example.oilrisk_alert.series.SeriesSink;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.InvalidMediaTypeException;
+import org.springframework.http.MediaType;
+import tools.jackson.core.JsonGenerator;
+import tools.jackson.databind.ObjectMapper;
+
+import java.io.IOException;
+import java.util.function.Consumer;
+
+/**
+ * Writes a streamed series response. By default this is the same envelope as
+ * {@link Result#success} with the series as {@code data}; clients that list
+ * {@link #SERIES_FRAME} in Accept get the binary {@link FrameSeriesSink} body instead, and should
+ * also accept JSON so error responses still reach them.
+ * Validation must happen before calling: once the body starts, errors can no longer become a
+ * {@link Result#fail} response.
+ */
+public final class StreamingResult {
+
+    public static final String SERIES_FRAME_VALUE = "application/vnd.oilrisk.series-frame";
+    public static final MediaType SERIES_FRAME = MediaType.parseMediaType(SERIES_FRAME_VALUE);
+
+    private StreamingResult() {
+    }
+
+    public static void writeSuccess(ObjectMapper objectMapper, HttpServletRequest request,
+                                    HttpServletResponse response, Consumer<SeriesSink> data) throws IOException {
+        response.setHeader(HttpHeaders.VARY, HttpHeaders.ACCEPT);
+        if (acceptsFrame(request.getHeader(HttpHeaders.ACCEPT))) {
+            response.setContentType(SERIES_FRAME_VALUE);
+            FrameSeriesSink sink = new FrameSeriesSink(response.getOutputStream(), objectMapper);
+            data.accept(sink);
+            return;
+        }
+
+        response.setContentType(MediaType.APPLICATION_JSON_VALUE);
+        response.setCharacterEncoding("UTF-8");
+        try (JsonGenerator gen = objectMapper.createGenerator(response.getOutputStream())) {
+            gen.writeStartObject();
+            gen.writeNumberProperty("code", 200);
+            gen.writeStringProperty("message", "ok");
+            gen.writeName("data");
+            data.accept(new JsonSeriesSink(gen));
+            gen.writeEndObject();
+        }
+    }
+
+    public static boolean acceptsFrame(String accept) {
+        if (accept == null || accept.isBlank()) return false;
+        try {
+            return MediaType.parseMediaTypes(accept).stream()
+                    .anyMatch(type -> type.equalsTypeAndSubtype(SERIES_FRAME) && type.getQualityValue() > 0);
+        } catch (InvalidMediaTypeException e) {
+            return false;
+        }
+    }
+}
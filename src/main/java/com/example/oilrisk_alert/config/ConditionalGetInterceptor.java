@@ -0,0 +1,80 @@
+package com.example.oilrisk_alert.config;
+
+import com.example.oilrisk_alert.cache.DataTable;
+import com.example.oilrisk_alert.cache.DataVersionClock;
+import com.example.oilrisk_alert.common.ETagged;
+import com.example.oilrisk_alert.common.StreamingResult;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.HttpHeaders;
+import org.springframework.stereotype.Component;
+import org.springframework.web.method.HandlerMethod;
+import org.springframework.web.servlet.HandlerInterceptor;
+
+import java.time.LocalDate;
+
+/**
+ * ETags for {@link ETagged} endpoints, derived from the {@link DataVersionClock} versions of the
+ * tables they read instead of the body, so that a matching If-None-Match is answered with 304
+ * before the controller (and any mapper) runs. A write only invalidates endpoints that read the
+ * table it touched.
+ * The tag also carries today's date, because endpoints without an explicit range default to one
+ * ending today, and the negotiated representation (JSON or series frame).
+ * Tags are weak: the same data goes out gzip-compressed or not, and Tomcat refuses to compress
+ * responses carrying a strong validator.
+ */
+@Component
+@RequiredArgsConstructor
+public class ConditionalGetInterceptor implements HandlerInterceptor {
+
+    private final DataVersionClock clock;
+    private final WeightsConfig weightsConfig;
+
+    @Override
+    public boolean preHandle(HttpServletRequest request, HttpServletResponse response, Object handler) {
+        if (!(handler instanceof HandlerMethod method)) {
+            return true;
+        }
+        ETagged tagged = method.getMethodAnnotation(ETagged.class);
+        if (tagged == null || !("GET".equals(request.getMethod()) || "HEAD".equals(request.getMethod()))) {
+            return true;
+        }
+        String etag = etag(tagged, request);
+        response.setHeader(HttpHeaders.ETAG, etag);
+        response.setHeader(HttpHeaders.CACHE_CONTROL, "no-cache");
+        if (matches(request.getHeader(HttpHeaders.IF_NONE_MATCH), etag)) {
+            response.setHeader(HttpHeaders.VARY, HttpHeaders.ACCEPT);
+            response.setStatus(HttpServletResponse.SC_NOT_MODIFIED);
+            return false;
+        }
+        return true;
+    }
+
+    String etag(ETagged tagged, HttpServletRequest request) {
+        StringBuilder tag = new StringBuilder("W/\"");
+        for (DataTable table : tagged.value()) {
+            tag.append(Long.toString(clock.current(table), 36)).append('.');
+        }
+        if (tagged.weights()) {
+            tag.append(Integer.toHexString(weightsConfig.hashCode())).append('.');
+        }
+        tag.append(LocalDate.now().toEpochDay());
+        if (StreamingResult.acceptsFrame(request.getHeader(HttpHeaders.ACCEPT))) {
+            tag.append(".f");
+        }
+        return tag.append('"').toString();
+    }
+
+    static boolean matches(String ifNoneMatch, String etag) {
+        if (ifNoneMatch == null) return false;
+        String opaque = etag.substring(2);
+        for (String candidate : ifNoneMatch.split(",")) {
+            String tag = candidate.trim();
+            if (tag.equals("*")) return true;
+            if (tag.startsWith("W/")) tag = tag.substring(2);
+            if (tag.equals(opaque)) return true;
+        }
+        return false;
+    }
+}
@@ -0,0 +1,69 @@
+package com.example.oilrisk_alert.config;
+
+import org.mybatis.spring.mapper.MapperFactoryBean;
+import org.mybatis.spring.mapper.MapperScannerConfigurer;
+import org.springframework.beans.factory.aot.BeanFactoryInitializationAotContribution;
+import org.springframework.beans.factory.aot.BeanFactoryInitializationAotProcessor;
+import org.springframework.beans.factory.aot.BeanRegistrationExcludeFilter;
+import org.springframework.beans.factory.config.ConfigurableListableBeanFactory;
+import org.springframework.beans.factory.config.ConstructorArgumentValues;
+import org.springframework.beans.factory.support.MergedBeanDefinitionPostProcessor;
+import org.springframework.beans.factory.support.RegisteredBean;
+import org.springframework.beans.factory.support.RootBeanDefinition;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.ResolvableType;
+
+/**
+ * Makes the mapper beans survive Spring AOT processing (the prod build), which MyBatis does not
+ * support by itself:
+ * <ul>
+ *     <li>the mapper scanner is left out of the generated context; the mapper bean definitions it
+ *     registered at build time are generated instead, and scanning again at startup would
+ *     conflict with them</li>
+ *     <li>each MapperFactoryBean definition gets its mapper interface as a resolved generic, so
+ *     the generated code can match injection points by type without instantiating it</li>
+ * </ul>
+ * Both are no-ops on a regular startup.
+ */
+@Configuration(proxyBeanMethods = false)
+public class MybatisAotConfig {
+
+    @Bean
+    static MapperScannerExcludeFilter mapperScannerExcludeFilter() {
+        return new MapperScannerExcludeFilter();
+    }
+
+    @Bean
+    static MergedBeanDefinitionPostProcessor mapperFactoryBeanTypeResolver() {
+        return new MergedBeanDefinitionPostProcessor() {
+            @Override
+            public void postProcessMergedBeanDefinition(RootBeanDefinition definition, Class<?> beanType, String beanName) {
+                if (!definition.hasBeanClass() || !MapperFactoryBean.class.isAssignableFrom(definition.getBeanClass())
+                        || !definition.getResolvableType().hasUnresolvableGenerics()) {
+                    return;
+                }
+                if (definition.getPropertyValues().get("mapperInterface") instanceof Class<?> mapperInterface) {
+                    ConstructorArgumentValues arguments = new ConstructorArgumentValues();
+                    arguments.addGenericArgumentValue(mapperInterface);
+                    definition.setConstructorArgumentValues(arguments);
+                    definition.setTargetType(ResolvableType.forClassWithGenerics(definition.getBeanClass(), mapperInterface));
+                }
+            }
+        };
+    }
+
+    // Spring only honours exclude filters registered as beans when they are also AOT processors
+    static class MapperScannerExcludeFilter implements BeanRegistrationExcludeFilter, BeanFactoryInitializationAotProcessor {
+
+        @Override
+        public boolean isExcludedFromAotProcessing(RegisteredBean registeredBean) {
+            return MapperScannerConfigurer.class.equals(registeredBean.getBeanClass());
+        }
+
+        @Override
+        public BeanFactoryInitializationAotContribution processAheadOfTime(ConfigurableListableBeanFactory beanFactory) {
+            return null;
+        }
+    }
+}
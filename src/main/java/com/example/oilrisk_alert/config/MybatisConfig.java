@@ -0,0 +1,26 @@
+package com.example.oilrisk_alert.config;
+
+import org.apache.ibatis.mapping.DatabaseIdProvider;
+import org.apache.ibatis.mapping.VendorDatabaseIdProvider;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import java.util.Properties;
+
+/**
+ * Lets mapper XML carry vendor-specific statements ({@code databaseId="mysql"}) next to the
+ * portable ones, which every other database uses.
+ */
+@Configuration
+public class MybatisConfig {
+
+    @Bean
+    public DatabaseIdProvider databaseIdProvider() {
+        Properties vendors = new Properties();
+        vendors.setProperty("MySQL", "mysql");
+        vendors.setProperty("H2", "h2");
+        VendorDatabaseIdProvider provider = new VendorDatabaseIdProvider();
+        provider.setProperties(vendors);
+        return provider;
+    }
+}
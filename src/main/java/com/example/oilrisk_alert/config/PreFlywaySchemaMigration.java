@@ -0,0 +1,113 @@
+package com.example.oilrisk_alert.config;
+
+import lombok.extern.slf4j.Slf4j;
+import org.flywaydb.core.api.MigrationVersion;
+import org.flywaydb.core.api.migration.Context;
+import org.flywaydb.core.api.migration.JavaMigration;
+import org.springframework.stereotype.Component;
+
+import java.sql.Connection;
+import java.sql.DatabaseMetaData;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeSet;
+import java.util.stream.Collectors;
+
+/**
+ * V10: brings databases created by the old schema.sql/data.sql init up to the V1 schema. Those
+ * are baselined at version 2 (spring.flyway.baseline-version), so V3 onwards run on them, but
+ * they lack what V1 added to schema.sql: the unique keys the upserts rely on and market_data.
+ * Duplicate rows are dropped before each key is added, keeping the newest (highest id), which
+ * is the one an upsert would have written. On databases migrated from V1 this finds everything
+ * in place and does nothing, which is why it is a Java migration rather than SQL: neither
+ * MySQL nor H2 has a portable "add this unique key if missing".
+ */
+@Slf4j
+@Component
+public class PreFlywaySchemaMigration implements JavaMigration {
+
+    private static final String MARKET_DATA = """
+            CREATE TABLE IF NOT EXISTS market_data (
+                `date` DATE NOT NULL PRIMARY KEY,
+                cpi DOUBLE,
+                oil_price DOUBLE,
+                brent_chg DOUBLE,
+                inventory DOUBLE,
+                opec_output DOUBLE,
+                vix DOUBLE,
+                geo_total DOUBLE,
+                russia_ukraine DOUBLE,
+                middle_east DOUBLE,
+                gpr DOUBLE,
+                sentiment DOUBLE,
+                usd_index DOUBLE,
+                created_at TIMESTAMP DEFAULT CURRENT_TIMESTAMP
+            ) ENGINE=InnoDB DEFAULT CHARSET=utf8mb4""";
+
+    @Override
+    public MigrationVersion getVersion() {
+        return MigrationVersion.fromVersion("10");
+    }
+
+    @Override
+    public String getDescription() {
+        return "adopt pre flyway schema";
+    }
+
+    @Override
+    public Integer getChecksum() {
+        return null;
+    }
+
+    @Override
+    public boolean canExecuteInTransaction() {
+        return true;
+    }
+
+    @Override
+    public void migrate(Context context) throws SQLException {
+        Connection connection = context.getConnection();
+        addUniqueKey(connection, "risk_factor", "uk_risk_factor_date_name", "date", "factor_name");
+        addUniqueKey(connection, "alert", "uk_alert_date", "date");
+        try (Statement st = connection.createStatement()) {
+            st.execute(MARKET_DATA);
+        }
+    }
+
+    private static void addUniqueKey(Connection connection, String table, String name,
+                                     String... columns) throws SQLException {
+        if (hasUniqueKey(connection, table, columns)) return;
+        String quoted = Arrays.stream(columns).map(c -> "`" + c + "`").collect(Collectors.joining(", "));
+        try (Statement st = connection.createStatement()) {
+            // The derived table lets MySQL delete from the table the subquery reads
+            int removed = st.executeUpdate("DELETE FROM " + table + " WHERE id NOT IN (SELECT id FROM ("
+                    + "SELECT MAX(id) AS id FROM " + table + " GROUP BY " + quoted + ") newest)");
+            st.execute("ALTER TABLE " + table + " ADD CONSTRAINT " + name + " UNIQUE (" + quoted + ")");
+            log.info("Added {} on {}, removing {} duplicate rows", name, table, removed);
+        }
+    }
+
+    private static boolean hasUniqueKey(Connection connection, String table, String... columns) throws SQLException {
+        DatabaseMetaData meta = connection.getMetaData();
+        String stored = meta.storesUpperCaseIdentifiers() ? table.toUpperCase(Locale.ROOT) : table;
+        Set<String> wanted = new TreeSet<>(String.CASE_INSENSITIVE_ORDER);
+        wanted.addAll(List.of(columns));
+        Map<String, Set<String>> keys = new HashMap<>();
+        try (ResultSet rs = meta.getIndexInfo(connection.getCatalog(), connection.getSchema(), stored, true, false)) {
+            while (rs.next()) {
+                String column = rs.getString("COLUMN_NAME");
+                if (column == null) continue;
+                keys.computeIfAbsent(rs.getString("INDEX_NAME"), k -> new TreeSet<>(String.CASE_INSENSITIVE_ORDER))
+                        .add(column);
+            }
+        }
+        return keys.values().stream().anyMatch(wanted::equals);
+    }
+}
@@ -0,0 +1,47 @@
+package com.example.oilrisk_alert.controller;
+
+import com.example.oilrisk_alert.common.Result;
+import com.example.oilrisk_alert.metrics.SlowQueryInterceptor;
+import com.example.oilrisk_alert.service.PartitionService;
+import com.example.oilrisk_alert.vo.ArchiveResultVO;
+import com.example.oilrisk_alert.vo.SlowQueryVO;
+import lombok.RequiredArgsConstructor;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.web.bind.annotation.DeleteMapping;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.time.LocalDate;
+import java.util.List;
+
+@RestController
+@RequestMapping("/api/admin")
+@RequiredArgsConstructor
+public class AdminController {
+
+    private final SlowQueryInterceptor slowQueryInterceptor;
+    private final PartitionService partitionService;
+
+    @GetMapping("/slow-queries")
+    public Result<List<SlowQueryVO>> getSlowQueries(@RequestParam(required = false) Integer limit) {
+        return Result.success(slowQueryInterceptor.top(limit));
+    }
+
+    @DeleteMapping("/slow-queries")
+    public Result<Void> resetSlowQueries() {
+        slowQueryInterceptor.reset();
+        return Result.success(null);
+    }
+
+    /**
+     * Moves risk_factor rows dated before {@code before} to the compressed archive table.
+     */
+    @PostMapping("/archive/factors")
+    public Result<ArchiveResultVO> archiveFactors(
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate before) {
+        return Result.success(partitionService.archiveFactors(before));
+    }
+}
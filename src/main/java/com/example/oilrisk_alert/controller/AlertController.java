@@ -1,16 +1,23 @@
 package com.example.oilrisk_alert.controller;
 
+import com.example.oilrisk_alert.cache.DataTable;
+import com.example.oilrisk_alert.common.ETagged;
 import com.example.oilrisk_alert.common.Result;
 import com.example.oilrisk_alert.dto.AlertQueryDTO;
+import com.example.oilrisk_alert.dto.AlertSearchDTO;
 import com.example.oilrisk_alert.service.AlertService;
 import com.example.oilrisk_alert.vo.AlertDetailVO;
+import com.example.oilrisk_alert.vo.AlertSearchVO;
 import com.example.oilrisk_alert.vo.AlertVO;
 import com.example.oilrisk_alert.vo.PageVO;
 import lombok.RequiredArgsConstructor;
+import org.springframework.http.MediaType;
 import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
 
 @RestController
 @RequestMapping("/api")
@@ -19,11 +26,29 @@ public class AlertController {
 
     private final AlertService alertService;
 
+    @ETagged(DataTable.ALERT)
     @GetMapping("/alerts")
     public Result<PageVO<AlertVO>> getAlerts(AlertQueryDTO query) {
         return Result.success(alertService.getAlerts(query));
     }
 
+    @ETagged(DataTable.ALERT)
+    @GetMapping("/alerts/search")
+    public Result<AlertSearchVO> searchAlerts(AlertSearchDTO query) {
+        return Result.success(alertService.search(query));
+    }
+
+    @GetMapping(value = "/alerts/stream", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    public SseEmitter streamAlerts() {
+        return alertService.subscribe();
+    }
+
+    @PostMapping("/alert-rules/reload")
+    public Result<Integer> reloadRules() {
+        return Result.success(alertService.reloadRules());
+    }
+
+    @ETagged(DataTable.ALERT)
     @GetMapping("/alerts/{id}")
     public Result<AlertDetailVO> getAlertDetail(@PathVariable Long id) {
         return Result.success(alertService.getAlertDetail(id));
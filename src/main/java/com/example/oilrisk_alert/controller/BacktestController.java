@@ -1,24 +1,35 @@
 package com.example.oilrisk_alert.controller;
 
-import com.example.oilrisk_alert.common.Result;
+import com.example.oilrisk_alert.common.StreamingResult;
 import com.example.oilrisk_alert.dto.BacktestRequestDTO;
 import com.example.oilrisk_alert.service.BacktestService;
-import com.example.oilrisk_alert.vo.BacktestResultVO;
-import lombok.RequiredArgsConstructor;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.context.annotation.Lazy;
 import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.RequestBody;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RestController;
+import tools.jackson.databind.ObjectMapper;
+
+import java.io.IOException;
 
 @RestController
 @RequestMapping("/api")
-@RequiredArgsConstructor
 public class BacktestController {
 
     private final BacktestService backtestService;
+    private final ObjectMapper objectMapper;
+
+    // Lazy: the backtest service is created on the first backtest, not at startup
+    public BacktestController(@Lazy BacktestService backtestService, ObjectMapper objectMapper) {
+        this.backtestService = backtestService;
+        this.objectMapper = objectMapper;
+    }
 
     @PostMapping("/predict/backtest")
-    public Result<BacktestResultVO> runBacktest(@RequestBody BacktestRequestDTO request) {
-        return Result.success(backtestService.runBacktest(request));
+    public void runBacktest(@RequestBody BacktestRequestDTO dto, HttpServletRequest request,
+                            HttpServletResponse response) throws IOException {
+        StreamingResult.writeSuccess(objectMapper, request, response, backtestService.streamBacktest(dto));
     }
 }
@@ -1,10 +1,15 @@
 package com.example.oilrisk_alert.controller;
 
+import com.example.oilrisk_alert.cache.DataTable;
+import com.example.oilrisk_alert.common.ETagged;
 import com.example.oilrisk_alert.common.Result;
+import com.example.oilrisk_alert.dto.TimeseriesQueryDTO;
 import com.example.oilrisk_alert.dto.WeightDTO;
 import com.example.oilrisk_alert.service.FactorService;
+import com.example.oilrisk_alert.vo.FactorCorrelationVO;
 import com.example.oilrisk_alert.vo.FactorVO;
 import com.example.oilrisk_alert.vo.RadarScoreVO;
+import com.example.oilrisk_alert.vo.RadarTimeseriesVO;
 import com.example.oilrisk_alert.vo.WeightUpdateResultVO;
 import lombok.RequiredArgsConstructor;
 import org.springframework.format.annotation.DateTimeFormat;
@@ -20,18 +25,33 @@ public class FactorController {
 
     private final FactorService factorService;
 
+    @ETagged(value = DataTable.RISK_FACTOR, weights = true)
     @GetMapping("/risk/radar")
     public Result<List<RadarScoreVO>> getRadarScores(
             @RequestParam(required = false) @DateTimeFormat(pattern = "yyyy-MM-dd") LocalDate date) {
         return Result.success(factorService.getRadarScores(date));
     }
 
+    @ETagged(value = DataTable.RISK_FACTOR, weights = true)
+    @GetMapping("/risk/radar/timeseries")
+    public Result<RadarTimeseriesVO> getRadarTimeseries(TimeseriesQueryDTO query) {
+        return Result.success(factorService.getRadarTimeseries(query.getStart(), query.getEnd()));
+    }
+
+    @ETagged(DataTable.RISK_FACTOR)
     @GetMapping("/explain/{date}")
     public Result<List<FactorVO>> getExplain(
             @PathVariable @DateTimeFormat(pattern = "yyyy-MM-dd") LocalDate date) {
         return Result.success(factorService.getExplain(date));
     }
 
+    @ETagged({DataTable.RISK_FACTOR, DataTable.RISK_INDEX})
+    @GetMapping("/factors/correlation")
+    public Result<FactorCorrelationVO> getCorrelation(TimeseriesQueryDTO query,
+                                                      @RequestParam(required = false) Integer window) {
+        return Result.success(factorService.getCorrelation(query.getStart(), query.getEnd(), window));
+    }
+
     @PutMapping("/config/weights")
     public Result<WeightUpdateResultVO> updateWeights(@RequestBody WeightDTO dto) {
         return Result.success(factorService.updateWeights(dto));
@@ -0,0 +1,24 @@
+package com.example.oilrisk_alert.controller;
+
+import com.example.oilrisk_alert.common.Result;
+import com.example.oilrisk_alert.dto.ObservationDTO;
+import com.example.oilrisk_alert.service.IngestService;
+import com.example.oilrisk_alert.vo.ObservationResultVO;
+import lombok.RequiredArgsConstructor;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+@RestController
+@RequestMapping("/api")
+@RequiredArgsConstructor
+public class IngestController {
+
+    private final IngestService ingestService;
+
+    @PostMapping("/ingest/observations")
+    public Result<ObservationResultVO> ingestObservation(@RequestBody ObservationDTO dto) {
+        return Result.success(ingestService.ingestObservation(dto));
+    }
+}
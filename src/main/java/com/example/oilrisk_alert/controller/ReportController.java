@@ -1,7 +1,7 @@
 package com.example.oilrisk_alert.controller;
 
 import com.example.oilrisk_alert.service.ReportService;
-import lombok.RequiredArgsConstructor;
+import org.springframework.context.annotation.Lazy;
 import org.springframework.http.MediaType;
 import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.PathVariable;
@@ -11,11 +11,15 @@ import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
 
 @RestController
 @RequestMapping("/api")
-@RequiredArgsConstructor
 public class ReportController {
 
     private final ReportService reportService;
 
+    // Lazy: the LLM client is created on the first report, not at startup
+    public ReportController(@Lazy ReportService reportService) {
+        this.reportService = reportService;
+    }
+
     @GetMapping(value = "/report/{alertId}", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
     public SseEmitter getReport(@PathVariable Long alertId) {
         return reportService.generateReport(alertId);
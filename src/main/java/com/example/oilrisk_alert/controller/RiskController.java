@@ -1,14 +1,21 @@
 package com.example.oilrisk_alert.controller;
 
+import com.example.oilrisk_alert.cache.DataTable;
+import com.example.oilrisk_alert.common.ETagged;
 import com.example.oilrisk_alert.common.Result;
+import com.example.oilrisk_alert.common.StreamingResult;
 import com.example.oilrisk_alert.dto.TimeseriesQueryDTO;
 import com.example.oilrisk_alert.service.RiskService;
 import com.example.oilrisk_alert.vo.RiskCurrentVO;
-import com.example.oilrisk_alert.vo.TimeseriesVO;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
 import lombok.RequiredArgsConstructor;
 import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RestController;
+import tools.jackson.databind.ObjectMapper;
+
+import java.io.IOException;
 
 @RestController
 @RequestMapping("/api")
@@ -16,14 +23,19 @@ import org.springframework.web.bind.annotation.RestController;
 public class RiskController {
 
     private final RiskService riskService;
+    private final ObjectMapper objectMapper;
 
+    @ETagged({DataTable.RISK_INDEX, DataTable.RISK_FACTOR})
     @GetMapping("/risk/current")
     public Result<RiskCurrentVO> getCurrentRisk() {
         return Result.success(riskService.getCurrentRisk());
     }
 
+    @ETagged({DataTable.RISK_INDEX, DataTable.ALERT})
     @GetMapping("/factors/timeseries")
-    public Result<TimeseriesVO> getTimeseries(TimeseriesQueryDTO query) {
-        return Result.success(riskService.getTimeseries(query.getStart(), query.getEnd()));
+    public void getTimeseries(TimeseriesQueryDTO query, HttpServletRequest request,
+                              HttpServletResponse response) throws IOException {
+        StreamingResult.writeSuccess(objectMapper, request, response,
+                riskService.streamTimeseries(query.getStart(), query.getEnd()));
     }
 }
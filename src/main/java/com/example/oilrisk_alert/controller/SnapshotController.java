@@ -0,0 +1,41 @@
+package com.example.oilrisk_alert.controller;
+
+import com.example.oilrisk_alert.common.BusinessException;
+import com.example.oilrisk_alert.common.Result;
+import com.example.oilrisk_alert.service.SnapshotService;
+import com.example.oilrisk_alert.vo.SnapshotResultVO;
+import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.nio.file.Path;
+
+@RestController
+@RequestMapping("/api")
+@RequiredArgsConstructor
+public class SnapshotController {
+
+    private final SnapshotService snapshotService;
+
+    @Value("${snapshot.path:}")
+    private String snapshotPath;
+
+    @PostMapping("/snapshot/export")
+    public Result<SnapshotResultVO> export() {
+        return Result.success(snapshotService.export(configuredPath()));
+    }
+
+    @PostMapping("/snapshot/restore")
+    public Result<SnapshotResultVO> restore() {
+        return Result.success(snapshotService.restore(configuredPath()));
+    }
+
+    private Path configuredPath() {
+        if (snapshotPath == null || snapshotPath.isEmpty()) {
+            throw new BusinessException(400, "snapshot.path is not configured");
+        }
+        return Path.of(snapshotPath);
+    }
+}
@@ -0,0 +1,9 @@
+package com.example.oilrisk_alert.datasource;
+
+/**
+ * Pools a connection can be routed to by {@link RoutingDataSource}.
+ */
+public enum DataSourceRole {
+    PRIMARY,
+    REPLICA
+}
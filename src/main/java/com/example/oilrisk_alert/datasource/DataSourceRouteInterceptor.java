@@ -0,0 +1,63 @@
+package com.example.oilrisk_alert.datasource;
+
+import org.apache.ibatis.cache.CacheKey;
+import org.apache.ibatis.executor.Executor;
+import org.apache.ibatis.mapping.BoundSql;
+import org.apache.ibatis.mapping.MappedStatement;
+import org.apache.ibatis.plugin.Interceptor;
+import org.apache.ibatis.plugin.Intercepts;
+import org.apache.ibatis.plugin.Invocation;
+import org.apache.ibatis.plugin.Signature;
+import org.apache.ibatis.session.ResultHandler;
+import org.apache.ibatis.session.RowBounds;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Exposes the statement being executed to {@link RoutingDataSource}. MyBatis only asks Spring
+ * for a connection when the executor prepares the first statement, which is inside this call.
+ */
+@Component
+@ConditionalOnProperty(name = "datasource.replica.enabled", havingValue = "true")
+@Intercepts({
+        @Signature(type = Executor.class, method = "query",
+                args = {MappedStatement.class, Object.class, RowBounds.class, ResultHandler.class}),
+        @Signature(type = Executor.class, method = "query",
+                args = {MappedStatement.class, Object.class, RowBounds.class, ResultHandler.class,
+                        CacheKey.class, BoundSql.class}),
+        @Signature(type = Executor.class, method = "update",
+                args = {MappedStatement.class, Object.class})
+})
+public class DataSourceRouteInterceptor implements Interceptor {
+
+    private static final ThreadLocal<StatementRoute> CURRENT = new ThreadLocal<>();
+
+    private final Map<String, StatementRoute> routes = new ConcurrentHashMap<>();
+
+    @Override
+    public Object intercept(Invocation invocation) throws Throwable {
+        MappedStatement ms = (MappedStatement) invocation.getArgs()[0];
+        StatementRoute outer = CURRENT.get();
+        CURRENT.set(routes.computeIfAbsent(ms.getId(), id -> StatementRoute.of(ms)));
+        try {
+            return invocation.proceed();
+        } finally {
+            // Restore rather than clear: routing may itself run a statement (the clock's refresh)
+            if (outer != null) {
+                CURRENT.set(outer);
+            } else {
+                CURRENT.remove();
+            }
+        }
+    }
+
+    /**
+     * @return the statement executing on this thread, or null outside MyBatis
+     */
+    static StatementRoute current() {
+        return CURRENT.get();
+    }
+}
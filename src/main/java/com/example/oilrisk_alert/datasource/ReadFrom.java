@@ -0,0 +1,22 @@
+package com.example.oilrisk_alert.datasource;
+
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * Where a mapper's SELECT statements read from when they run outside a transaction. On the
+ * mapper type it sets the default for every method; a method annotation overrides it. Statements
+ * without one read from the primary.
+ * <p>
+ * {@link DataSourceRole#REPLICA} is a preference: the read still goes to the primary while the
+ * replica has not caught up with the statement's table (see {@link ReplicaLagMonitor}).
+ * {@link DataSourceRole#PRIMARY} also holds inside read-only transactions.
+ */
+@Target({ElementType.TYPE, ElementType.METHOD})
+@Retention(RetentionPolicy.RUNTIME)
+public @interface ReadFrom {
+
+    DataSourceRole value();
+}
@@ -0,0 +1,87 @@
+package com.example.oilrisk_alert.datasource;
+
+import com.example.oilrisk_alert.cache.DataTable;
+import com.example.oilrisk_alert.cache.DataVersionClock;
+import jakarta.annotation.PostConstruct;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Lazy;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * Tracks how far the replica has replayed the data_version table. A table is fresh on the replica
+ * once its replicated version has reached the version this instance knows from the primary
+ * ({@link DataVersionClock}). That clock moves as soon as a local write commits, so a request
+ * that just wrote a table keeps reading it from the primary until the replica has applied the
+ * write: read-your-writes without a fixed lag allowance.
+ */
+@Slf4j
+@Component
+@ConditionalOnProperty(name = "datasource.replica.enabled", havingValue = "true")
+public class ReplicaLagMonitor {
+
+    private static final String SQL = "SELECT table_name, version FROM data_version";
+
+    private final DataSource replica;
+    private final DataVersionClock clock;
+    // -1 until read, and after a failed read: never fresh
+    private final AtomicLongArray replicaVersions = new AtomicLongArray(DataTable.values().length);
+
+    // Lazy: the clock's mapper runs on the routing DataSource that consults this monitor
+    public ReplicaLagMonitor(@Qualifier("replicaDataSource") DataSource replica, @Lazy DataVersionClock clock) {
+        this.replica = replica;
+        this.clock = clock;
+        markUnavailable();
+    }
+
+    /**
+     * Re-reads the replica's data versions. Runs on a plain replica connection, not through
+     * MyBatis, so the read cannot itself be routed to the primary.
+     */
+    @PostConstruct
+    @Scheduled(fixedDelayString = "${datasource.replica.lag-poll-ms:1000}")
+    public void refresh() {
+        try (Connection connection = replica.getConnection();
+             PreparedStatement ps = connection.prepareStatement(SQL);
+             ResultSet rs = ps.executeQuery()) {
+            while (rs.next()) {
+                DataTable table = DataTable.ofTableName(rs.getString(1));
+                if (table != null) {
+                    replicaVersions.set(table.ordinal(), rs.getLong(2));
+                }
+            }
+        } catch (SQLException e) {
+            log.warn("Replica data versions unavailable, reading from the primary: {}", e.getMessage());
+            markUnavailable();
+        }
+    }
+
+    public boolean isFresh(DataTable table) {
+        return replicaVersions.get(table.ordinal()) >= clock.current(table);
+    }
+
+    /**
+     * @return whether every tracked table is fresh, for connections that may read any of them
+     */
+    public boolean isFresh() {
+        for (DataTable table : DataTable.values()) {
+            if (!isFresh(table)) return false;
+        }
+        return true;
+    }
+
+    private void markUnavailable() {
+        for (int i = 0; i < replicaVersions.length(); i++) {
+            replicaVersions.set(i, -1);
+        }
+    }
+}
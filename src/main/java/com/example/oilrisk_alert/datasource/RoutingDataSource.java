@@ -0,0 +1,62 @@
+package com.example.oilrisk_alert.datasource;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.jdbc.datasource.lookup.AbstractRoutingDataSource;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.EnumMap;
+import java.util.Map;
+
+/**
+ * Hands out primary or replica connections. Wrapped in a LazyConnectionDataSourceProxy, so the
+ * choice is made when the first statement runs: by then a transaction's read-only flag is set
+ * and {@link DataSourceRouteInterceptor} has published the statement.
+ * <ul>
+ *   <li>Read-write transactions, writes and statements from outside MyBatis use the primary.</li>
+ *   <li>Read-only transactions use the replica when every tracked table is fresh there, since
+ *       the one connection serves all their statements.</li>
+ *   <li>Other SELECTs use the replica when their mapper asks for it with {@link ReadFrom} and
+ *       their table is fresh.</li>
+ * </ul>
+ * Decisions are counted as {@code datasource.route}, tagged with the chosen role.
+ */
+public class RoutingDataSource extends AbstractRoutingDataSource {
+
+    public static final String METRIC = "datasource.route";
+
+    private final ReplicaLagMonitor lagMonitor;
+    private final Map<DataSourceRole, Counter> counters = new EnumMap<>(DataSourceRole.class);
+
+    public RoutingDataSource(ReplicaLagMonitor lagMonitor, MeterRegistry meterRegistry) {
+        this.lagMonitor = lagMonitor;
+        for (DataSourceRole role : DataSourceRole.values()) {
+            counters.put(role, Counter.builder(METRIC)
+                    .description("Physical connections opened per routing target")
+                    .tag("role", role.name().toLowerCase())
+                    .register(meterRegistry));
+        }
+    }
+
+    @Override
+    protected Object determineCurrentLookupKey() {
+        DataSourceRole role = route(DataSourceRouteInterceptor.current());
+        counters.get(role).increment();
+        return role;
+    }
+
+    private DataSourceRole route(StatementRoute statement) {
+        if (statement == null || statement.getReadFrom() == DataSourceRole.PRIMARY) {
+            return DataSourceRole.PRIMARY;
+        }
+        if (TransactionSynchronizationManager.isActualTransactionActive()) {
+            return TransactionSynchronizationManager.isCurrentTransactionReadOnly() && lagMonitor.isFresh()
+                    ? DataSourceRole.REPLICA : DataSourceRole.PRIMARY;
+        }
+        if (statement.isWrite() || statement.getReadFrom() != DataSourceRole.REPLICA) {
+            return DataSourceRole.PRIMARY;
+        }
+        boolean fresh = statement.getTable() != null ? lagMonitor.isFresh(statement.getTable()) : lagMonitor.isFresh();
+        return fresh ? DataSourceRole.REPLICA : DataSourceRole.PRIMARY;
+    }
+}
@@ -0,0 +1,67 @@
+package com.example.oilrisk_alert.datasource;
+
+import com.example.oilrisk_alert.cache.DataTable;
+import org.apache.ibatis.mapping.MappedStatement;
+import org.apache.ibatis.mapping.SqlCommandType;
+
+import java.lang.reflect.Method;
+
+/**
+ * What {@link RoutingDataSource} needs to know about the mapper statement opening a connection.
+ */
+final class StatementRoute {
+
+    private final boolean write;
+    private final DataSourceRole readFrom;
+    private final DataTable table;
+
+    private StatementRoute(boolean write, DataSourceRole readFrom, DataTable table) {
+        this.write = write;
+        this.readFrom = readFrom;
+        this.table = table;
+    }
+
+    static StatementRoute of(MappedStatement ms) {
+        return new StatementRoute(ms.getSqlCommandType() != SqlCommandType.SELECT,
+                readFrom(ms.getId()), DataTable.ofStatement(ms.getId()));
+    }
+
+    boolean isWrite() {
+        return write;
+    }
+
+    /**
+     * @return the {@link ReadFrom} role of the mapper method or type, or null when neither has one
+     */
+    DataSourceRole getReadFrom() {
+        return readFrom;
+    }
+
+    /**
+     * @return the tracked table behind the statement's mapper, or null when it is not tracked
+     */
+    DataTable getTable() {
+        return table;
+    }
+
+    private static DataSourceRole readFrom(String statementId) {
+        int dot = statementId.lastIndexOf('.');
+        if (dot < 0) return null;
+        String methodName = statementId.substring(dot + 1);
+        Class<?> mapper;
+        try {
+            mapper = Class.forName(statementId.substring(0, dot));
+        } catch (ClassNotFoundException e) {
+            // XML-only namespace
+            return null;
+        }
+        for (Method method : mapper.getMethods()) {
+            ReadFrom annotation = method.getAnnotation(ReadFrom.class);
+            if (annotation != null && method.getName().equals(methodName)) {
+                return annotation.value();
+            }
+        }
+        ReadFrom annotation = mapper.getAnnotation(ReadFrom.class);
+        return annotation != null ? annotation.value() : null;
+    }
+}
@@ -0,0 +1,16 @@
+package com.example.oilrisk_alert.dto;
+
+import lombok.Data;
+
+@Data
+public class AlertSearchDTO {
+    /** Words and Chinese phrases that must all occur; blank matches every alert */
+    private String q;
+    private String level;
+    private String triggerType;
+    private Integer year;
+    private Integer page = 1;
+    private Integer size = 20;
+    private String sort = "date";
+    private String order = "desc";
+}
@@ -15,4 +15,9 @@ public class BacktestRequestDTO {
     private LocalDate endDate;
 
     private String model;
+
+    // Walk-forward mode (enabled when trainWindow is set), all counted in observations
+    private Integer trainWindow;
+    private Integer step;
+    private Integer horizon;
 }
@@ -0,0 +1,15 @@
+package com.example.oilrisk_alert.dto;
+
+import lombok.Data;
+
+import java.time.LocalDate;
+import java.util.Map;
+
+@Data
+public class ObservationDTO {
+
+    private LocalDate date;
+
+    // Keyed by MarketSeries name (e.g. VIX, OIL_PRICE); missing series are forward-filled
+    private Map<String, Double> values;
+}
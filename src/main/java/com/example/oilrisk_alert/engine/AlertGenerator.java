@@ -0,0 +1,198 @@
+package com.example.oilrisk_alert.engine;
+
+import com.example.oilrisk_alert.common.RiskLevel;
+import com.example.oilrisk_alert.entity.Alert;
+import com.example.oilrisk_alert.entity.RiskFactor;
+import com.example.oilrisk_alert.entity.RiskIndex;
+import com.example.oilrisk_alert.vo.TriggerRuleVO;
+import tools.jackson.databind.ObjectMapper;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Port of generate_alerts/_build_alert_detail from scripts/csv_to_sql.py.
+ * High always alerts, Medium alerts from 55 up, Low alerts when the level falls back from Medium/High.
+ * Any fired {@link AlertRuleEngine} rule also raises an alert, lifts its level to the rule's severity
+ * and becomes the rule chain; without fired rules the chain is derived from SHAP as in the script.
+ */
+public class AlertGenerator {
+
+    private static final double MEDIUM_ALERT_FLOOR = 55.0;
+    private static final double NOTABLE_SHAP = 0.03;
+    private static final int MAX_RULES = 3;
+
+    private final ObjectMapper objectMapper;
+
+    public AlertGenerator(ObjectMapper objectMapper) {
+        this.objectMapper = objectMapper;
+    }
+
+    /**
+     * @param prev        previous observation's index, or null for the first one
+     * @param prevFactors previous observation's factors, empty for the first one
+     * @param matches     fired compiled rules, most severe first
+     * @return the alert for this observation, or null if none is raised
+     */
+    public Alert generate(RiskIndex current, List<RiskFactor> factors,
+                          RiskIndex prev, List<RiskFactor> prevFactors, List<RuleMatch> matches) {
+        String level = current.getRiskLevel();
+        double ri = current.getRiskIndex().doubleValue();
+        boolean raise = "High".equals(level)
+                || ("Medium".equals(level) && ri >= MEDIUM_ALERT_FLOOR)
+                || ("Low".equals(level) && prev != null && !"Low".equals(prev.getRiskLevel()));
+        if (!raise && matches.isEmpty()) {
+            return null;
+        }
+
+        List<TriggerRuleVO> rules = new ArrayList<>();
+        String triggerType = "THRESHOLD";
+        String triggerFactor = "risk_index";
+        String triggerFactorZh = "综合风险指数";
+        RiskFactor trigger = null;
+        if (!matches.isEmpty()) {
+            RuleMatch primary = matches.get(0);
+            triggerType = primary.getRuleType();
+            triggerFactor = primary.getFactor();
+            triggerFactorZh = primary.getFactorZh();
+            RiskLevel currentLevel = RiskLevel.valueOf(level.toUpperCase());
+            if (primary.getSeverity().compareTo(currentLevel) > 0) {
+                level = primary.getSeverity().getLabel();
+            }
+            for (int i = 0; i < matches.size() && i < MAX_RULES; i++) {
+                rules.add(toTriggerRule(matches.get(i)));
+            }
+        } else {
+            trigger = buildRules(factors, prevFactors, rules);
+        }
+        if (trigger != null) {
+            triggerFactor = trigger.getFactorName();
+            triggerFactorZh = trigger.getFactorNameZh();
+            for (TriggerRuleVO r : rules) {
+                if (r.getFactor().equals(triggerFactor)) {
+                    triggerType = r.getRuleType();
+                    break;
+                }
+            }
+        }
+        if (rules.isEmpty()) {
+            TriggerRuleVO r = new TriggerRuleVO();
+            r.setRuleType("THRESHOLD");
+            r.setFactor("risk_index");
+            r.setFactorZh("综合风险指数");
+            r.setCurrentValue(current.getRiskIndex());
+            r.setThreshold(new BigDecimal("40.0"));
+            r.setDescription("综合风险指数达" + format(current.getRiskIndex()));
+            rules.add(r);
+        }
+
+        String riText = format(current.getRiskIndex());
+        Alert alert = new Alert();
+        alert.setDate(current.getDate());
+        alert.setLevel(level);
+        alert.setRiskIndex(current.getRiskIndex());
+        alert.setTriggerFactor(triggerFactor);
+        alert.setTriggerFactorZh(triggerFactorZh);
+        switch (level) {
+            case "High" -> {
+                alert.setTriggerType(triggerType);
+                alert.setSummary("风险指数达" + riText + "，" + triggerFactorZh + "异常，触发高风险预警");
+                alert.setSummaryEn("Risk index at " + riText + ", " + triggerFactor
+                        + " abnormal, high risk alert triggered");
+            }
+            case "Medium" -> {
+                alert.setTriggerType(triggerType);
+                alert.setSummary(triggerFactorZh + "触发中等风险预警，风险指数" + riText);
+                alert.setSummaryEn(triggerFactor + " triggers medium risk alert, risk index " + riText);
+            }
+            default -> {
+                alert.setTriggerType("TREND");
+                alert.setSummary("风险指数回落至" + riText + "，" + triggerFactorZh + "趋势缓解");
+                alert.setSummaryEn("Risk index falls to " + riText + ", " + triggerFactor + " trend easing");
+            }
+        }
+        alert.setDetail(objectMapper.writeValueAsString(rules));
+        return alert;
+    }
+
+    /**
+     * Fills the rule chain and returns the factor with the largest |SHAP| (the primary trigger).
+     */
+    private RiskFactor buildRules(List<RiskFactor> factors, List<RiskFactor> prevFactors,
+                                  List<TriggerRuleVO> rules) {
+        Map<String, RiskFactor> prevByName = new HashMap<>();
+        for (RiskFactor pf : prevFactors) {
+            prevByName.put(pf.getFactorName(), pf);
+        }
+
+        RiskFactor best = null;
+        double bestShap = 0;
+        for (RiskFactor f : factors) {
+            double val = f.getValue().doubleValue();
+            double signedShap = f.getShapValue().doubleValue();
+            double shap = Math.abs(signedShap);
+            if (shap > bestShap) {
+                bestShap = shap;
+                best = f;
+            }
+            if (shap < NOTABLE_SHAP) continue;
+
+            String ruleType = "THRESHOLD";
+            RiskFactor pf = prevByName.get(f.getFactorName());
+            if (pf != null) {
+                double prevVal = pf.getValue().doubleValue();
+                if (prevVal != 0 && Math.abs(val - prevVal) / Math.max(Math.abs(prevVal), 0.01) > 0.15) {
+                    ruleType = "ANOMALY";
+                } else if ((val > prevVal && signedShap > 0) || (val < prevVal && signedShap < 0)) {
+                    ruleType = "TREND";
+                }
+            }
+
+            TriggerRuleVO r = new TriggerRuleVO();
+            r.setRuleType(ruleType);
+            r.setFactor(f.getFactorName());
+            r.setFactorZh(f.getFactorNameZh());
+            r.setCurrentValue(BigDecimal.valueOf(val).setScale(2, RoundingMode.HALF_UP));
+            r.setThreshold(BigDecimal.valueOf(val * 0.85).setScale(2, RoundingMode.HALF_UP));
+            r.setDescription(String.format("%s当前值%.2f，SHAP贡献%.4f", f.getFactorNameZh(), val, signedShap));
+            rules.add(r);
+        }
+
+        rules.sort(Comparator.comparing((TriggerRuleVO r) -> r.getCurrentValue().abs()).reversed());
+        if (rules.size() > MAX_RULES) {
+            rules.subList(MAX_RULES, rules.size()).clear();
+        }
+        return best;
+    }
+
+    private TriggerRuleVO toTriggerRule(RuleMatch m) {
+        TriggerRuleVO r = new TriggerRuleVO();
+        r.setRuleType(m.getRuleType());
+        r.setFactor(m.getFactor());
+        r.setFactorZh(m.getFactorZh());
+        r.setCurrentValue(BigDecimal.valueOf(m.getCurrentValue()).setScale(2, RoundingMode.HALF_UP));
+        r.setThreshold(BigDecimal.valueOf(m.getThreshold()).setScale(2, RoundingMode.HALF_UP));
+        if (m.getDescription() != null) {
+            r.setDescription(m.getDescription());
+            return r;
+        }
+        String what = switch (m.getRuleType()) {
+            case "ANOMALY" -> "变化幅度超过";
+            case "TREND" -> "上升幅度超过";
+            default -> "超过";
+        };
+        String grade = m.getSeverity() == RiskLevel.HIGH ? "高风险" : "中风险";
+        r.setDescription(String.format("%s当前值%.2f，%s%s阈值%s", m.getFactorZh(), m.getCurrentValue(),
+                what, grade, format(r.getThreshold())));
+        return r;
+    }
+
+    static String format(BigDecimal value) {
+        return value.stripTrailingZeros().toPlainString();
+    }
+}
@@ -0,0 +1,19 @@
+package com.example.oilrisk_alert.engine;
+
+import com.example.oilrisk_alert.entity.Alert;
+
+/**
+ * Published after an alert row has been written (alert carries its database id).
+ */
+public class AlertRaisedEvent {
+
+    private final Alert alert;
+
+    public AlertRaisedEvent(Alert alert) {
+        this.alert = alert;
+    }
+
+    public Alert getAlert() {
+        return alert;
+    }
+}
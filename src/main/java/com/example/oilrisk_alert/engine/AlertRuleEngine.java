@@ -0,0 +1,146 @@
+package com.example.oilrisk_alert.engine;
+
+import com.example.oilrisk_alert.common.RiskLevel;
+import com.example.oilrisk_alert.entity.AlertRule;
+import com.example.oilrisk_alert.ingest.MarketObservation;
+import com.example.oilrisk_alert.ingest.MarketSeries;
+import com.example.oilrisk_alert.mapper.AlertRuleMapper;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * Evaluates the alert_rule table against each observation.
+ * <p>
+ * Rules are compiled into parallel primitive arrays (series slot, type, med/high thresholds), so a
+ * snapshot is checked with one branch-light pass and no allocation unless a rule fires.
+ * <ul>
+ *     <li>THRESHOLD: value &gt;= threshold</li>
+ *     <li>ANOMALY: |value - prev| / max(|prev|, 0.01) &gt;= threshold</li>
+ *     <li>TREND: value - prev &gt;= threshold</li>
+ * </ul>
+ */
+@Slf4j
+@Component
+public class AlertRuleEngine {
+
+    static final byte THRESHOLD = 0;
+    static final byte ANOMALY = 1;
+    static final byte TREND = 2;
+    private static final String[] TYPE_NAMES = {"THRESHOLD", "ANOMALY", "TREND"};
+
+    private final AlertRuleMapper alertRuleMapper;
+    private volatile CompiledRules compiled;
+
+    public AlertRuleEngine(AlertRuleMapper alertRuleMapper) {
+        this.alertRuleMapper = alertRuleMapper;
+    }
+
+    /**
+     * Recompiles from alert_rule; returns the number of active rules.
+     */
+    public int reload() {
+        compiled = compile(alertRuleMapper.findEnabled());
+        log.info("Compiled {} alert rules", compiled.size);
+        return compiled.size;
+    }
+
+    public void setRules(List<AlertRule> rules) {
+        compiled = compile(rules);
+    }
+
+    /**
+     * @param prev previous observation, or null for the first one (ANOMALY/TREND rules are skipped)
+     * @return fired rules, most severe first
+     */
+    public List<RuleMatch> evaluate(MarketObservation current, MarketObservation prev) {
+        CompiledRules rules = compiled;
+        if (rules == null) {
+            reload();
+            rules = compiled;
+        }
+        double[] values = current.getValues();
+        double[] prevValues = prev != null ? prev.getValues() : null;
+
+        List<RuleMatch> matches = null;
+        for (int i = 0; i < rules.size; i++) {
+            double value = values[rules.series[i]];
+            double measure;
+            switch (rules.types[i]) {
+                case THRESHOLD -> measure = value;
+                case ANOMALY -> {
+                    if (prevValues == null) continue;
+                    double p = prevValues[rules.series[i]];
+                    measure = Math.abs(value - p) / Math.max(Math.abs(p), 0.01);
+                }
+                default -> {
+                    if (prevValues == null) continue;
+                    measure = value - prevValues[rules.series[i]];
+                }
+            }
+            if (measure < rules.med[i]) continue;
+
+            boolean high = measure >= rules.high[i];
+            RuleMatch match = new RuleMatch();
+            match.setRuleId(rules.ids[i]);
+            match.setRuleType(TYPE_NAMES[rules.types[i]]);
+            match.setFactor(rules.factors[i]);
+            match.setFactorZh(rules.factorsZh[i]);
+            match.setCurrentValue(value);
+            match.setThreshold(high ? rules.high[i] : rules.med[i]);
+            match.setSeverity(high ? RiskLevel.HIGH : RiskLevel.MEDIUM);
+            if (matches == null) matches = new ArrayList<>();
+            matches.add(match);
+        }
+        if (matches == null) {
+            return Collections.emptyList();
+        }
+        matches.sort((a, b) -> b.getSeverity().compareTo(a.getSeverity()));
+        return matches;
+    }
+
+    static CompiledRules compile(List<AlertRule> rules) {
+        CompiledRules c = new CompiledRules(rules.size());
+        for (AlertRule r : rules) {
+            int i = c.size;
+            c.ids[i] = r.getId() != null ? r.getId() : i;
+            c.series[i] = MarketSeries.valueOf(r.getSourceSeries()).ordinal();
+            c.types[i] = switch (r.getRuleType()) {
+                case "THRESHOLD" -> THRESHOLD;
+                case "ANOMALY" -> ANOMALY;
+                case "TREND" -> TREND;
+                default -> throw new IllegalArgumentException("Unknown rule type: " + r.getRuleType());
+            };
+            c.med[i] = r.getMedThreshold().doubleValue();
+            c.high[i] = r.getHighThreshold().doubleValue();
+            c.factors[i] = r.getFactorName();
+            c.factorsZh[i] = r.getFactorNameZh();
+            c.size++;
+        }
+        return c;
+    }
+
+    static final class CompiledRules {
+        final long[] ids;
+        final int[] series;
+        final byte[] types;
+        final double[] med;
+        final double[] high;
+        final String[] factors;
+        final String[] factorsZh;
+        int size;
+
+        CompiledRules(int capacity) {
+            ids = new long[capacity];
+            series = new int[capacity];
+            types = new byte[capacity];
+            med = new double[capacity];
+            high = new double[capacity];
+            factors = new String[capacity];
+            factorsZh = new String[capacity];
+        }
+    }
+}
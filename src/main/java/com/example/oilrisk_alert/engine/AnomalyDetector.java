@@ -0,0 +1,172 @@
+package com.example.oilrisk_alert.engine;
+
+import com.example.oilrisk_alert.common.RiskLevel;
+import com.example.oilrisk_alert.ingest.RiskFactorDef;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.Arrays;
+
+/**
+ * Streaming anomaly detection over each factor's values, replacing the static ANOMALY thresholds of
+ * scripts/csv_to_sql.py with statistics of the factor's own history. Per factor, in parallel
+ * primitive arrays:
+ * <ul>
+ *     <li>robust z-score: distance from the streaming median in units of 1.4826 x MAD, both
+ *     estimated by {@link StreamingMedians}. Medium from {@code anomaly.z-medium}, High from
+ *     {@code anomaly.z-high}</li>
+ *     <li>EWMA mean and variance ({@code anomaly.ewma-alpha}), the reference level for CUSUM. A slow
+ *     alpha keeps the reference from chasing a shift before CUSUM has accumulated it</li>
+ *     <li>two-sided CUSUM of the EWMA z-score, clipped so one outlier cannot trip it alone. Crossing
+ *     {@code anomaly.cusum-h} is a change point (Medium); the sums restart and the EWMA mean
+ *     moves to CUSUM's estimate of the new level</li>
+ * </ul>
+ * Each value is scored against the state before it, then added, so an update is O(1) with no
+ * allocation unless something is flagged. Nothing is flagged during the first
+ * {@code anomaly.min-observations} values of a factor. Not thread-safe; {@link RiskEngine} calls
+ * it under its own lock.
+ */
+@Component
+public class AnomalyDetector {
+
+    static final double MAD_TO_SIGMA = 1.4826;
+    private static final double CUSUM_CLIP = 4;
+
+    @Value("${anomaly.enabled:true}")
+    private boolean enabled = true;
+
+    @Value("${anomaly.ewma-alpha:0.05}")
+    private double alpha = 0.05;
+
+    @Value("${anomaly.z-medium:3.5}")
+    private double zMedium = 3.5;
+
+    @Value("${anomaly.z-high:5}")
+    private double zHigh = 5;
+
+    @Value("${anomaly.cusum-k:0.5}")
+    private double cusumK = 0.5;
+
+    @Value("${anomaly.cusum-h:5}")
+    private double cusumH = 5;
+
+    @Value("${anomaly.min-observations:24}")
+    private int minObservations = 24;
+
+    private final long[] counts;
+    private final double[] ewmaMean;
+    private final double[] ewmaVar;
+    private final double[] cusumUp;
+    private final double[] cusumDown;
+    /** Values since both CUSUM sums were last zero */
+    private final int[] cusumRun;
+    /** Sketch 2f is factor f's median, 2f + 1 the median of its absolute deviations */
+    private final StreamingMedians medians;
+
+    public AnomalyDetector() {
+        this(RiskFactorDef.values().length);
+    }
+
+    public AnomalyDetector(int factors) {
+        counts = new long[factors];
+        ewmaMean = new double[factors];
+        ewmaVar = new double[factors];
+        cusumUp = new double[factors];
+        cusumDown = new double[factors];
+        cusumRun = new int[factors];
+        medians = new StreamingMedians(factors * 2);
+    }
+
+    /**
+     * Scores {@code value} for factor {@code factor}, then adds it. NaN is ignored.
+     *
+     * @return the ANOMALY match when the value is an outlier or a change point, otherwise null
+     */
+    public RuleMatch update(int factor, double value, String name, String nameZh) {
+        if (!enabled || Double.isNaN(value)) return null;
+        long n = counts[factor];
+        double median = medians.median(2 * factor);
+        double robustScale = MAD_TO_SIGMA * medians.median(2 * factor + 1);
+        double mean = ewmaMean[factor];
+        double sd = Math.sqrt(ewmaVar[factor]);
+
+        RuleMatch match = null;
+        boolean changePoint = false;
+        double shifted = mean;
+        if (sd > 0) {
+            double u = Math.max(-CUSUM_CLIP, Math.min(CUSUM_CLIP, (value - mean) / sd));
+            cusumUp[factor] = Math.max(0, cusumUp[factor] + u - cusumK);
+            cusumDown[factor] = Math.max(0, cusumDown[factor] - u - cusumK);
+            cusumRun[factor] = cusumUp[factor] == 0 && cusumDown[factor] == 0 ? 0 : cusumRun[factor] + 1;
+            changePoint = cusumUp[factor] > cusumH || cusumDown[factor] > cusumH;
+            if (changePoint) {
+                // The usual CUSUM estimate of the new level: k + S / run sigmas from the old one
+                shifted = cusumUp[factor] > cusumH
+                        ? mean + sd * (cusumK + cusumUp[factor] / cusumRun[factor])
+                        : mean - sd * (cusumK + cusumDown[factor] / cusumRun[factor]);
+            }
+        }
+        if (n >= minObservations) {
+            double z = robustScale > 0 ? (value - median) / robustScale : 0;
+            if (Math.abs(z) >= zMedium) {
+                boolean high = Math.abs(z) >= zHigh;
+                match = match(name, nameZh, value, median + Math.signum(z) * (high ? zHigh : zMedium) * robustScale,
+                        high ? RiskLevel.HIGH : RiskLevel.MEDIUM, String.format("%s当前值%.2f，稳健Z分数%.1f（中位数%.2f，MAD %.2f）",
+                                nameZh, value, z, median, robustScale / MAD_TO_SIGMA));
+            } else if (changePoint) {
+                match = match(name, nameZh, value, mean, RiskLevel.MEDIUM, String.format(
+                        "%s当前值%.2f，CUSUM检测到均值%s移（此前均值%.2f）", nameZh, value,
+                        cusumUp[factor] > cusumH ? "上" : "下", mean));
+            }
+        }
+
+        medians.add(2 * factor, value);
+        if (n == 0) {
+            ewmaMean[factor] = value;
+        } else {
+            medians.add(2 * factor + 1, Math.abs(value - median));
+            double delta = value - mean;
+            ewmaMean[factor] = mean + alpha * delta;
+            ewmaVar[factor] = (1 - alpha) * (ewmaVar[factor] + alpha * delta * delta);
+        }
+        if (changePoint) {
+            cusumUp[factor] = 0;
+            cusumDown[factor] = 0;
+            cusumRun[factor] = 0;
+            ewmaMean[factor] = shifted;
+        }
+        counts[factor] = n + 1;
+        return match;
+    }
+
+    private static RuleMatch match(String name, String nameZh, double value, double threshold,
+                                   RiskLevel severity, String description) {
+        RuleMatch m = new RuleMatch();
+        m.setRuleType("ANOMALY");
+        m.setFactor(name);
+        m.setFactorZh(nameZh);
+        m.setCurrentValue(value);
+        m.setThreshold(threshold);
+        m.setSeverity(severity);
+        m.setDescription(description);
+        return m;
+    }
+
+    public void reset() {
+        Arrays.fill(counts, 0);
+        Arrays.fill(ewmaMean, 0);
+        Arrays.fill(ewmaVar, 0);
+        Arrays.fill(cusumUp, 0);
+        Arrays.fill(cusumDown, 0);
+        Arrays.fill(cusumRun, 0);
+        medians.reset();
+    }
+
+    public void setEnabled(boolean enabled) {
+        this.enabled = enabled;
+    }
+
+    public void setMinObservations(int minObservations) {
+        this.minObservations = minObservations;
+    }
+}
@@ -0,0 +1,203 @@
+package com.example.oilrisk_alert.engine;
+
+import java.util.stream.IntStream;
+
+/**
+ * Correlation kernels over primitive columns ({@code x[f][0..n)} per factor), parallel over
+ * factors or factor tiles on the common fork-join pool.
+ * <p>
+ * A missing value (NaN) is replaced by its column's mean, so it adds nothing to the covariance.
+ * A column without variance correlates 0 with everything, itself included.
+ */
+public final class CorrelationKernels {
+
+    /** Factors per tile side; a tile's two row chunks of factors (2 x 8 x 8 KB) stay in L2 */
+    static final int FACTOR_BLOCK = 8;
+    static final int ROW_BLOCK = 1024;
+
+    private CorrelationKernels() {
+    }
+
+    /**
+     * Centres each column on its mean and scales it to unit length, so the dot product of two
+     * results is their Pearson correlation.
+     */
+    public static double[][] normalize(double[][] x, int n) {
+        double[][] z = new double[x.length][];
+        IntStream.range(0, x.length).parallel().forEach(f -> z[f] = normalize(x[f], n));
+        return z;
+    }
+
+    public static double[] normalize(double[] x, int n) {
+        double sum = 0;
+        int count = 0;
+        for (int i = 0; i < n; i++) {
+            if (!Double.isNaN(x[i])) {
+                sum += x[i];
+                count++;
+            }
+        }
+        double mean = count > 0 ? sum / count : 0;
+        double[] z = new double[n];
+        double squares = 0;
+        for (int i = 0; i < n; i++) {
+            double d = Double.isNaN(x[i]) ? 0 : x[i] - mean;
+            z[i] = d;
+            squares += d * d;
+        }
+        // Rounding leaves a constant column with tiny residuals; treat those as no variance
+        if (count < 2 || Math.sqrt(squares / count) <= 1e-12 * Math.max(1, Math.abs(mean))) {
+            return new double[n];
+        }
+        double scale = 1 / Math.sqrt(squares);
+        for (int i = 0; i < n; i++) z[i] *= scale;
+        return z;
+    }
+
+    /**
+     * {@code z zᵀ}: the correlation matrix of normalised columns. Tiles of FACTOR_BLOCK x
+     * FACTOR_BLOCK factor pairs on and above the diagonal run in parallel; each walks the rows
+     * in ROW_BLOCK chunks so a chunk of every column in the tile is reused from cache for all
+     * of the tile's pairs instead of being streamed from memory once per pair.
+     */
+    public static double[][] gram(double[][] z, int n) {
+        int f = z.length;
+        int blocks = (f + FACTOR_BLOCK - 1) / FACTOR_BLOCK;
+        double[][] result = new double[f][f];
+        IntStream.range(0, blocks * (blocks + 1) / 2).parallel().forEach(t -> {
+            int bi = 0;
+            int rest = t;
+            while (rest >= blocks - bi) {
+                rest -= blocks - bi;
+                bi++;
+            }
+            int bj = bi + rest;
+            tile(z, n, bi * FACTOR_BLOCK, Math.min(f, (bi + 1) * FACTOR_BLOCK),
+                    bj * FACTOR_BLOCK, Math.min(f, (bj + 1) * FACTOR_BLOCK), result);
+        });
+        return result;
+    }
+
+    private static void tile(double[][] z, int n, int i0, int i1, int j0, int j1, double[][] result) {
+        double[] sums = new double[FACTOR_BLOCK * FACTOR_BLOCK];
+        for (int r0 = 0; r0 < n; r0 += ROW_BLOCK) {
+            int r1 = Math.min(n, r0 + ROW_BLOCK);
+            for (int i = i0; i < i1; i++) {
+                for (int j = Math.max(i, j0); j < j1; j++) {
+                    sums[(i - i0) * FACTOR_BLOCK + j - j0] += dot(z[i], z[j], r0, r1);
+                }
+            }
+        }
+        // Tiles cover disjoint cells, so no two threads write the same one
+        for (int i = i0; i < i1; i++) {
+            for (int j = Math.max(i, j0); j < j1; j++) {
+                double r = Math.max(-1, Math.min(1, sums[(i - i0) * FACTOR_BLOCK + j - j0]));
+                result[i][j] = r;
+                result[j][i] = r;
+            }
+        }
+    }
+
+    /**
+     * Four independent partial sums, so consecutive adds do not wait on one another.
+     */
+    static double dot(double[] a, double[] b, int from, int to) {
+        double s0 = 0, s1 = 0, s2 = 0, s3 = 0;
+        int i = from;
+        for (; i + 3 < to; i += 4) {
+            s0 += a[i] * b[i];
+            s1 += a[i + 1] * b[i + 1];
+            s2 += a[i + 2] * b[i + 2];
+            s3 += a[i + 3] * b[i + 3];
+        }
+        for (; i < to; i++) s0 += a[i] * b[i];
+        return (s0 + s1) + (s2 + s3);
+    }
+
+    /**
+     * Correlation of each column of {@code z} with {@code y}, all normalised.
+     */
+    public static double[] correlationWith(double[][] z, double[] y, int n) {
+        double[] result = new double[z.length];
+        IntStream.range(0, z.length).parallel()
+                .forEach(f -> result[f] = Math.max(-1, Math.min(1, dot(z[f], y, 0, n))));
+        return result;
+    }
+
+    /**
+     * Correlation of each column with {@code y} over the {@code window} rows ending at each row
+     * in {@code ends} (ascending, each at least window - 1). Inputs are the normalised columns:
+     * correlation does not depend on the scale, and centring on the whole range's mean keeps
+     * the sliding sums from cancelling. Windowed sums slide one row at a time, so a factor costs
+     * O(n) whatever the window; when the windows are sparse enough to cover fewer rows than
+     * that, each one is summed on its own instead.
+     */
+    public static double[][] rolling(double[][] z, double[] y, int n, int window, int[] ends) {
+        double[][] result = new double[z.length][ends.length];
+        if ((long) ends.length * window < n) {
+            IntStream.range(0, z.length).parallel().forEach(f -> {
+                for (int k = 0; k < ends.length; k++) {
+                    double sx = 0, sy = 0, sxx = 0, syy = 0, sxy = 0;
+                    for (int r = ends[k] - window + 1; r <= ends[k]; r++) {
+                        sx += z[f][r];
+                        sy += y[r];
+                        sxx += z[f][r] * z[f][r];
+                        syy += y[r] * y[r];
+                        sxy += z[f][r] * y[r];
+                    }
+                    result[f][k] = windowCorrelation(sx, sy, sxx, syy, sxy, window);
+                }
+            });
+            return result;
+        }
+        IntStream.range(0, z.length).parallel().forEach(f -> {
+            double[] x = z[f];
+            double sx = 0, sy = 0, sxx = 0, syy = 0, sxy = 0;
+            int next = 0;
+            for (int r = 0; r < n && next < ends.length; r++) {
+                sx += x[r];
+                sy += y[r];
+                sxx += x[r] * x[r];
+                syy += y[r] * y[r];
+                sxy += x[r] * y[r];
+                int out = r - window;
+                if (out >= 0) {
+                    sx -= x[out];
+                    sy -= y[out];
+                    sxx -= x[out] * x[out];
+                    syy -= y[out] * y[out];
+                    sxy -= x[out] * y[out];
+                }
+                if (r == ends[next]) {
+                    result[f][next++] = windowCorrelation(sx, sy, sxx, syy, sxy, window);
+                }
+            }
+        });
+        return result;
+    }
+
+    private static double windowCorrelation(double sx, double sy, double sxx, double syy, double sxy, int window) {
+        double cov = sxy - sx * sy / window;
+        double vx = sxx - sx * sx / window;
+        double vy = syy - sy * sy / window;
+        // A window where either side is flat (up to sliding-sum residue) has no correlation
+        boolean flat = vx <= 1e-10 * sxx || vy <= 1e-10 * syy;
+        return flat ? 0 : Math.max(-1, Math.min(1, cov / Math.sqrt(vx * vy)));
+    }
+
+    /**
+     * Running sum of each column, NaN counted as 0, at each row in {@code ends} (ascending).
+     */
+    public static double[][] cumulative(double[][] x, int n, int[] ends) {
+        double[][] result = new double[x.length][ends.length];
+        IntStream.range(0, x.length).parallel().forEach(f -> {
+            double sum = 0;
+            int next = 0;
+            for (int r = 0; r < n && next < ends.length; r++) {
+                if (!Double.isNaN(x[f][r])) sum += x[f][r];
+                if (r == ends[next]) result[f][next++] = sum;
+            }
+        });
+        return result;
+    }
+}
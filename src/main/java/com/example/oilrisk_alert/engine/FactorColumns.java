@@ -0,0 +1,122 @@
+package com.example.oilrisk_alert.engine;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Factor history as primitive columns: one row per date, one value and one SHAP column per factor
+ * and a risk_index column, NaN where a row has no value. Filled from date-ordered scans: factor
+ * rows first, which define the dates, then risk_index rows, which are matched to them.
+ */
+public class FactorColumns {
+
+    private static final int INITIAL_CAPACITY = 1024;
+
+    private final Map<String, Integer> index = new HashMap<>();
+    private final List<String[]> factors = new ArrayList<>();
+    private int[] days = new int[INITIAL_CAPACITY];
+    private double[] riskIndex = nanColumn(INITIAL_CAPACITY);
+    private double[][] values = new double[0][];
+    private double[][] shap = new double[0][];
+    private int rows;
+    private int riskCursor;
+
+    /**
+     * @return the column of a factor, added on first sight
+     */
+    public int factor(String name, String nameZh, String category) {
+        Integer column = index.get(name);
+        if (column != null) return column;
+        column = factors.size();
+        index.put(name, column);
+        factors.add(new String[]{name, nameZh, category});
+        values = Arrays.copyOf(values, column + 1);
+        shap = Arrays.copyOf(shap, column + 1);
+        values[column] = nanColumn(days.length);
+        shap[column] = nanColumn(days.length);
+        return column;
+    }
+
+    /**
+     * Adds a factor row; days must not decrease.
+     */
+    public void add(int epochDay, int column, double value, double shapValue) {
+        if (rows == 0 || days[rows - 1] != epochDay) {
+            if (rows > 0 && epochDay < days[rows - 1]) {
+                throw new IllegalStateException("Factor rows out of date order at " + LocalDate.ofEpochDay(epochDay));
+            }
+            if (rows == days.length) grow();
+            days[rows++] = epochDay;
+        }
+        values[column][rows - 1] = value;
+        shap[column][rows - 1] = shapValue;
+    }
+
+    /**
+     * Sets risk_index on the row of its date; dates without factor rows are skipped. Days must
+     * not decrease.
+     */
+    public void addRiskIndex(int epochDay, double value) {
+        while (riskCursor < rows && days[riskCursor] < epochDay) riskCursor++;
+        if (riskCursor < rows && days[riskCursor] == epochDay) {
+            riskIndex[riskCursor] = value;
+        }
+    }
+
+    private void grow() {
+        int capacity = days.length * 2;
+        days = Arrays.copyOf(days, capacity);
+        riskIndex = Arrays.copyOf(riskIndex, capacity);
+        Arrays.fill(riskIndex, rows, capacity, Double.NaN);
+        for (int f = 0; f < values.length; f++) {
+            values[f] = Arrays.copyOf(values[f], capacity);
+            shap[f] = Arrays.copyOf(shap[f], capacity);
+            Arrays.fill(values[f], rows, capacity, Double.NaN);
+            Arrays.fill(shap[f], rows, capacity, Double.NaN);
+        }
+    }
+
+    private static double[] nanColumn(int length) {
+        double[] column = new double[length];
+        Arrays.fill(column, Double.NaN);
+        return column;
+    }
+
+    public int rows() {
+        return rows;
+    }
+
+    public int factorCount() {
+        return factors.size();
+    }
+
+    /**
+     * @return name, name_zh and category of a factor column
+     */
+    public String[] factorFields(int column) {
+        return factors.get(column);
+    }
+
+    public int day(int row) {
+        return days[row];
+    }
+
+    /**
+     * Value columns; each may be longer than {@link #rows()}.
+     */
+    public double[][] values() {
+        return values;
+    }
+
+    public double[][] shap() {
+        return shap;
+    }
+
+    public double[] riskIndex() {
+        return riskIndex;
+    }
+}
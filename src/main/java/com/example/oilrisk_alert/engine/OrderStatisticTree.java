@@ -0,0 +1,124 @@
+package com.example.oilrisk_alert.engine;
+
+import java.util.Arrays;
+import java.util.SplittableRandom;
+
+/**
+ * Size-augmented treap over primitive doubles (duplicates allowed).
+ * Insert and k-th smallest selection are O(log n) expected; nodes live in parallel arrays.
+ */
+public class OrderStatisticTree {
+
+    private static final int NIL = -1;
+
+    private double[] keys = new double[64];
+    private int[] priorities = new int[64];
+    private int[] left = new int[64];
+    private int[] right = new int[64];
+    private int[] sizes = new int[64];
+    private int nodeCount;
+    private int root = NIL;
+    private final SplittableRandom random = new SplittableRandom(42);
+
+    public int size() {
+        return root == NIL ? 0 : sizes[root];
+    }
+
+    public void insert(double key) {
+        if (nodeCount == keys.length) grow();
+        int node = nodeCount++;
+        keys[node] = key;
+        priorities[node] = random.nextInt();
+        left[node] = NIL;
+        right[node] = NIL;
+        sizes[node] = 1;
+        root = insert(root, node);
+    }
+
+    /**
+     * @param k zero-based rank, 0 &lt;= k &lt; size()
+     */
+    public double select(int k) {
+        if (k < 0 || k >= size()) {
+            throw new IndexOutOfBoundsException("rank " + k + " of " + size());
+        }
+        int node = root;
+        while (true) {
+            int leftSize = sizeOf(left[node]);
+            if (k < leftSize) {
+                node = left[node];
+            } else if (k == leftSize) {
+                return keys[node];
+            } else {
+                k -= leftSize + 1;
+                node = right[node];
+            }
+        }
+    }
+
+    /**
+     * Linear-interpolated percentile (0-100) over the stored values, matching _percentile in csv_to_sql.py.
+     */
+    public double percentile(double pct) {
+        int n = size();
+        if (n == 0) return 0.0;
+        double idx = pct / 100.0 * (n - 1);
+        int lo = (int) idx;
+        int hi = Math.min(lo + 1, n - 1);
+        double frac = idx - lo;
+        return select(lo) * (1 - frac) + select(hi) * frac;
+    }
+
+    public void clear() {
+        nodeCount = 0;
+        root = NIL;
+    }
+
+    private int insert(int subtree, int node) {
+        if (subtree == NIL) return node;
+        if (keys[node] < keys[subtree]) {
+            left[subtree] = insert(left[subtree], node);
+            if (priorities[left[subtree]] > priorities[subtree]) subtree = rotateRight(subtree);
+        } else {
+            right[subtree] = insert(right[subtree], node);
+            if (priorities[right[subtree]] > priorities[subtree]) subtree = rotateLeft(subtree);
+        }
+        update(subtree);
+        return subtree;
+    }
+
+    private int rotateRight(int node) {
+        int pivot = left[node];
+        left[node] = right[pivot];
+        right[pivot] = node;
+        update(node);
+        update(pivot);
+        return pivot;
+    }
+
+    private int rotateLeft(int node) {
+        int pivot = right[node];
+        right[node] = left[pivot];
+        left[pivot] = node;
+        update(node);
+        update(pivot);
+        return pivot;
+    }
+
+    private void update(int node) {
+        sizes[node] = 1 + sizeOf(left[node]) + sizeOf(right[node]);
+    }
+
+    private int sizeOf(int node) {
+        return node == NIL ? 0 : sizes[node];
+    }
+
+    private void grow() {
+        int capacity = keys.length * 2;
+        keys = Arrays.copyOf(keys, capacity);
+        priorities = Arrays.copyOf(priorities, capacity);
+        left = Arrays.copyOf(left, capacity);
+        right = Arrays.copyOf(right, capacity);
+        sizes = Arrays.copyOf(sizes, capacity);
+    }
+}
@@ -0,0 +1,96 @@
+package com.example.oilrisk_alert.engine;
+
+import com.example.oilrisk_alert.cache.RadarEntry;
+import com.example.oilrisk_alert.entity.RiskFactor;
+import org.apache.ibatis.session.ResultContext;
+import org.apache.ibatis.session.ResultHandler;
+
+import java.time.LocalDate;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Turns a date-ordered stream of factor rows into one radar score vector per date, holding only
+ * the current date's per-category sums. Scores follow {@code getRadarScores}: mean |SHAP| times
+ * category weight, normalised so the largest category is 100, rounded to one decimal.
+ */
+public class RadarSeriesAccumulator implements ResultHandler<RiskFactor> {
+
+    @FunctionalInterface
+    public interface DateScoresConsumer {
+        /**
+         * @param scores one score per {@link RadarEntry#CATEGORIES} entry; reused between calls
+         */
+        void accept(LocalDate date, double[] scores);
+    }
+
+    private static final List<String> CATEGORIES = RadarEntry.CATEGORIES;
+
+    private final double[] weights;
+    private final DateScoresConsumer consumer;
+    private final double[] sums = new double[CATEGORIES.size()];
+    private final int[] counts = new int[CATEGORIES.size()];
+    private final double[] scores = new double[CATEGORIES.size()];
+    private LocalDate current;
+    private int dates;
+
+    /**
+     * @param weights category weights in {@link RadarEntry#CATEGORIES} order, fixed for the pass
+     */
+    public RadarSeriesAccumulator(double[] weights, DateScoresConsumer consumer) {
+        this.weights = weights;
+        this.consumer = consumer;
+    }
+
+    @Override
+    public void handleResult(ResultContext<? extends RiskFactor> context) {
+        add(context.getResultObject());
+    }
+
+    public void add(RiskFactor f) {
+        int c = CATEGORIES.indexOf(f.getCategory());
+        add(f.getDate(), c, c < 0 ? 0 : f.getShapValue().doubleValue());
+    }
+
+    /**
+     * @param category index into {@link RadarEntry#CATEGORIES}, negative for rows outside them
+     */
+    public void add(LocalDate date, int category, double shap) {
+        if (!date.equals(current)) {
+            emit();
+            current = date;
+        }
+        if (category < 0) return;
+        sums[category] += Math.abs(shap);
+        counts[category]++;
+    }
+
+    /**
+     * Emits the last date. Must be called once the row stream is exhausted.
+     */
+    public void finish() {
+        emit();
+        current = null;
+    }
+
+    public int getDateCount() {
+        return dates;
+    }
+
+    private void emit() {
+        if (current == null) return;
+        double max = 0;
+        for (int c = 0; c < scores.length; c++) {
+            scores[c] = counts[c] > 0 ? sums[c] / counts[c] * weights[c] : 0.0;
+            max = Math.max(max, scores[c]);
+        }
+        if (max == 0) max = 1.0;
+        for (int c = 0; c < scores.length; c++) {
+            scores[c] = Math.round(scores[c] / max * 1000) / 10.0;
+        }
+        consumer.accept(current, scores);
+        dates++;
+        Arrays.fill(sums, 0);
+        Arrays.fill(counts, 0);
+    }
+}
@@ -0,0 +1,188 @@
+package com.example.oilrisk_alert.engine;
+
+import com.example.oilrisk_alert.common.BusinessException;
+import com.example.oilrisk_alert.common.RiskLevel;
+import com.example.oilrisk_alert.entity.Alert;
+import com.example.oilrisk_alert.entity.RiskFactor;
+import com.example.oilrisk_alert.entity.RiskIndex;
+import com.example.oilrisk_alert.ingest.MarketObservation;
+import com.example.oilrisk_alert.ingest.MarketSeries;
+import com.example.oilrisk_alert.ingest.RiskFactorDef;
+import tools.jackson.databind.ObjectMapper;
+import org.springframework.stereotype.Component;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * Incremental port of compute_risk_index/compute_shap/generate_alerts from scripts/csv_to_sql.py.
+ * <p>
+ * Percentile bounds (p10/p85) come from one order-statistic tree per risk component and z-score
+ * statistics from one Welford accumulator per factor, both over the history up to and including
+ * the observation being appended (no look-ahead). Appending is O(log n); stored history is never
+ * recomputed. Observations must arrive in date order. Alerts come from {@link AlertGenerator}
+ * combined with the compiled rules of {@link AlertRuleEngine} and the per-factor findings of
+ * {@link AnomalyDetector}.
+ */
+@Component
+public class RiskEngine {
+
+    static final MarketSeries[] RISK_COMPONENTS = {
+            MarketSeries.VIX, MarketSeries.GEO_TOTAL, MarketSeries.SENTIMENT_INV,
+            MarketSeries.INVENTORY_CHG, MarketSeries.GPR, MarketSeries.MIDDLE_EAST,
+            MarketSeries.RUSSIA_UKRAINE};
+    static final double[] RISK_WEIGHTS = {0.25, 0.25, 0.15, 0.10, 0.10, 0.08, 0.07};
+
+    static final double PERCENTILE_LOW = 10;
+    static final double PERCENTILE_HIGH = 85;
+    static final double SHAP_SCALE = 0.04;
+    static final double SHAP_CLIP = 0.15;
+
+    private static final RiskFactorDef[] FACTORS = RiskFactorDef.values();
+
+    private final AlertGenerator alertGenerator;
+    private final AlertRuleEngine alertRuleEngine;
+    private final AnomalyDetector anomalyDetector;
+    private final OrderStatisticTree[] componentTrees = new OrderStatisticTree[RISK_COMPONENTS.length];
+    private final WelfordStats[] factorStats = new WelfordStats[FACTORS.length];
+    private final double[] lastRaw = new double[MarketSeries.values().length];
+
+    private LocalDate lastDate;
+    private MarketObservation prevObservation;
+    private RiskIndex prevIndex;
+    private List<RiskFactor> prevFactors = Collections.emptyList();
+
+    public RiskEngine(ObjectMapper objectMapper, AlertRuleEngine alertRuleEngine, AnomalyDetector anomalyDetector) {
+        this.alertGenerator = new AlertGenerator(objectMapper);
+        this.alertRuleEngine = alertRuleEngine;
+        this.anomalyDetector = anomalyDetector;
+        for (int k = 0; k < componentTrees.length; k++) componentTrees[k] = new OrderStatisticTree();
+        for (int k = 0; k < factorStats.length; k++) factorStats[k] = new WelfordStats();
+    }
+
+    public synchronized RiskSnapshot append(MarketObservation obs) {
+        if (lastDate != null && !obs.getDate().isAfter(lastDate)) {
+            throw new BusinessException(400, "Observation " + obs.getDate()
+                    + " must be after the latest observation " + lastDate);
+        }
+        fillDerived(obs);
+
+        for (int k = 0; k < RISK_COMPONENTS.length; k++) {
+            componentTrees[k].insert(obs.get(RISK_COMPONENTS[k]));
+        }
+        double score = 0;
+        for (int k = 0; k < RISK_COMPONENTS.length; k++) {
+            double lo = componentTrees[k].percentile(PERCENTILE_LOW);
+            double hi = componentTrees[k].percentile(PERCENTILE_HIGH);
+            double range = hi - lo;
+            double norm = range > 0 ? (obs.get(RISK_COMPONENTS[k]) - lo) / range * 100.0 : 50.0;
+            score += Math.max(0.0, Math.min(100.0, norm)) * RISK_WEIGHTS[k];
+        }
+        RiskIndex riskIndex = toRiskIndex(obs, Math.max(0.0, Math.min(100.0, score)));
+
+        List<RiskFactor> factors = new ArrayList<>(FACTORS.length);
+        List<RuleMatch> anomalies = null;
+        for (int k = 0; k < FACTORS.length; k++) {
+            double value = obs.get(FACTORS[k].getSource());
+            WelfordStats stats = factorStats[k];
+            stats.add(value);
+            // As in the script: fewer than two points means mean 0 / stdev 1
+            double mean = stats.getCount() >= 2 ? stats.getMean() : 0.0;
+            double sd = stats.getSampleStdev() > 0 ? stats.getSampleStdev() : 1.0;
+            double shap = (value - mean) / sd * SHAP_SCALE * FACTORS[k].getDirection();
+            factors.add(toRiskFactor(obs, FACTORS[k], Math.max(-SHAP_CLIP, Math.min(SHAP_CLIP, shap))));
+            RuleMatch anomaly = anomalyDetector.update(k, value, FACTORS[k].getFactorName(), FACTORS[k].getFactorNameZh());
+            if (anomaly != null) {
+                if (anomalies == null) anomalies = new ArrayList<>();
+                anomalies.add(anomaly);
+            }
+        }
+
+        List<RuleMatch> matches = alertRuleEngine.evaluate(obs, prevObservation);
+        if (anomalies != null) {
+            // Configured rules stay ahead of detector findings of the same severity
+            List<RuleMatch> merged = new ArrayList<>(matches);
+            merged.addAll(anomalies);
+            merged.sort((a, b) -> b.getSeverity().compareTo(a.getSeverity()));
+            matches = merged;
+        }
+        Alert alert = alertGenerator.generate(riskIndex, factors, prevIndex, prevFactors, matches);
+
+        lastDate = obs.getDate();
+        prevObservation = obs;
+        prevIndex = riskIndex;
+        prevFactors = factors;
+
+        RiskSnapshot snapshot = new RiskSnapshot();
+        snapshot.setObservation(obs);
+        snapshot.setRiskIndex(riskIndex);
+        snapshot.setFactors(factors);
+        snapshot.setAlert(alert);
+        return snapshot;
+    }
+
+    public synchronized void reset() {
+        for (OrderStatisticTree tree : componentTrees) tree.clear();
+        for (WelfordStats stats : factorStats) stats.reset();
+        anomalyDetector.reset();
+        Arrays.fill(lastRaw, 0.0);
+        lastDate = null;
+        prevObservation = null;
+        prevIndex = null;
+        prevFactors = Collections.emptyList();
+    }
+
+    public synchronized int size() {
+        return componentTrees[0].size();
+    }
+
+    public synchronized LocalDate getLastDate() {
+        return lastDate;
+    }
+
+    /**
+     * Forward-fills missing raw series and computes inventory change and inverted sentiment.
+     */
+    private void fillDerived(MarketObservation obs) {
+        double prevInventory = lastRaw[MarketSeries.INVENTORY.ordinal()];
+        boolean hasPrev = lastDate != null;
+        for (MarketSeries s : MarketSeries.values()) {
+            if (!s.isRaw()) continue;
+            int i = s.ordinal();
+            if (Double.isNaN(obs.getValues()[i])) {
+                obs.getValues()[i] = lastRaw[i];
+            }
+            lastRaw[i] = obs.getValues()[i];
+        }
+        double inventory = obs.get(MarketSeries.INVENTORY);
+        obs.set(MarketSeries.INVENTORY_CHG, !hasPrev || prevInventory == 0
+                ? 0.0 : (inventory - prevInventory) / prevInventory * 100.0);
+        obs.set(MarketSeries.SENTIMENT_INV, -obs.get(MarketSeries.SENTIMENT));
+    }
+
+    private static RiskIndex toRiskIndex(MarketObservation o, double score) {
+        BigDecimal index = BigDecimal.valueOf(score).setScale(2, RoundingMode.HALF_UP);
+        RiskIndex ri = new RiskIndex();
+        ri.setDate(o.getDate());
+        ri.setRiskIndex(index);
+        ri.setRiskLevel(RiskLevel.fromIndex(index).getLabel());
+        ri.setOilPrice(BigDecimal.valueOf(o.get(MarketSeries.OIL_PRICE)).setScale(2, RoundingMode.HALF_UP));
+        return ri;
+    }
+
+    private static RiskFactor toRiskFactor(MarketObservation o, RiskFactorDef def, double shap) {
+        RiskFactor f = new RiskFactor();
+        f.setDate(o.getDate());
+        f.setFactorName(def.getFactorName());
+        f.setFactorNameZh(def.getFactorNameZh());
+        f.setCategory(def.getCategory());
+        f.setValue(BigDecimal.valueOf(o.get(def.getSource())).setScale(4, RoundingMode.HALF_UP));
+        f.setShapValue(BigDecimal.valueOf(shap).setScale(6, RoundingMode.HALF_UP));
+        return f;
+    }
+}
@@ -0,0 +1,20 @@
+package com.example.oilrisk_alert.engine;
+
+import com.example.oilrisk_alert.entity.Alert;
+import com.example.oilrisk_alert.entity.RiskFactor;
+import com.example.oilrisk_alert.entity.RiskIndex;
+import com.example.oilrisk_alert.ingest.MarketObservation;
+import lombok.Data;
+
+import java.util.List;
+
+/**
+ * Everything the engine derives from one observation; alert is null when no alert is raised.
+ */
+@Data
+public class RiskSnapshot {
+    private MarketObservation observation;
+    private RiskIndex riskIndex;
+    private List<RiskFactor> factors;
+    private Alert alert;
+}
@@ -0,0 +1,20 @@
+package com.example.oilrisk_alert.engine;
+
+import com.example.oilrisk_alert.common.RiskLevel;
+import lombok.Data;
+
+/**
+ * One compiled rule or {@link AnomalyDetector} finding that fired for a snapshot.
+ */
+@Data
+public class RuleMatch {
+    private long ruleId;
+    private String ruleType;
+    private String factor;
+    private String factorZh;
+    private double currentValue;
+    private double threshold;
+    private RiskLevel severity;
+    /** Overrides the description derived from the rule type when set */
+    private String description;
+}
@@ -0,0 +1,103 @@
+package com.example.oilrisk_alert.engine;
+
+import java.util.Arrays;
+
+/**
+ * A fixed number of streaming median estimates (the P² algorithm of Jain and Chlamtac), each five
+ * markers kept in flat parallel arrays. An update moves at most three markers, so it is O(1) in
+ * time and space whatever the number of values seen; the estimate is exact for the first five.
+ */
+public class StreamingMedians {
+
+    private static final int MARKERS = 5;
+    private static final double[] INCREMENTS = {0, 0.25, 0.5, 0.75, 1};
+
+    private final double[] heights;
+    private final double[] positions;
+    private final double[] desired;
+    private final long[] counts;
+
+    public StreamingMedians(int sketches) {
+        heights = new double[sketches * MARKERS];
+        positions = new double[sketches * MARKERS];
+        desired = new double[sketches * MARKERS];
+        counts = new long[sketches];
+    }
+
+    public void add(int sketch, double x) {
+        int o = sketch * MARKERS;
+        long n = counts[sketch]++;
+        if (n < MARKERS) {
+            // Insertion into the sorted first values; markers start at ranks 1..5
+            int i = o + (int) n;
+            while (i > o && heights[i - 1] > x) {
+                heights[i] = heights[i - 1];
+                i--;
+            }
+            heights[i] = x;
+            if (n == MARKERS - 1) {
+                for (int m = 0; m < MARKERS; m++) {
+                    positions[o + m] = m + 1;
+                    desired[o + m] = 1 + 4 * INCREMENTS[m];
+                }
+            }
+            return;
+        }
+
+        int k;
+        if (x < heights[o]) {
+            heights[o] = x;
+            k = 0;
+        } else if (x >= heights[o + 4]) {
+            heights[o + 4] = x;
+            k = 3;
+        } else {
+            k = 0;
+            while (x >= heights[o + k + 1]) k++;
+        }
+        for (int m = k + 1; m < MARKERS; m++) positions[o + m]++;
+        for (int m = 0; m < MARKERS; m++) desired[o + m] += INCREMENTS[m];
+
+        for (int m = 1; m < MARKERS - 1; m++) {
+            int i = o + m;
+            double d = desired[i] - positions[i];
+            if ((d >= 1 && positions[i + 1] - positions[i] > 1) || (d <= -1 && positions[i - 1] - positions[i] < -1)) {
+                int s = d > 0 ? 1 : -1;
+                double q = parabolic(i, s);
+                if (heights[i - 1] < q && q < heights[i + 1]) {
+                    heights[i] = q;
+                } else {
+                    heights[i] += s * (heights[i + s] - heights[i]) / (positions[i + s] - positions[i]);
+                }
+                positions[i] += s;
+            }
+        }
+    }
+
+    private double parabolic(int i, int s) {
+        double nLow = positions[i - 1], n = positions[i], nHigh = positions[i + 1];
+        return heights[i] + s / (nHigh - nLow)
+                * ((n - nLow + s) * (heights[i + 1] - heights[i]) / (nHigh - n)
+                + (nHigh - n - s) * (heights[i] - heights[i - 1]) / (n - nLow));
+    }
+
+    /**
+     * @return the median estimate, NaN before the first value
+     */
+    public double median(int sketch) {
+        int o = sketch * MARKERS;
+        long n = counts[sketch];
+        if (n == 0) return Double.NaN;
+        if (n >= MARKERS) return heights[o + 2];
+        int mid = (int) (n / 2);
+        return n % 2 == 1 ? heights[o + mid] : (heights[o + mid - 1] + heights[o + mid]) / 2;
+    }
+
+    public long count(int sketch) {
+        return counts[sketch];
+    }
+
+    public void reset() {
+        Arrays.fill(counts, 0);
+    }
+}
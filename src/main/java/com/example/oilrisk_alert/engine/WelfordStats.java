@@ -0,0 +1,39 @@
+package com.example.oilrisk_alert.engine;
+
+/**
+ * Running mean and variance (Welford's algorithm), O(1) per update and numerically stable.
+ */
+public class WelfordStats {
+
+    private long count;
+    private double mean;
+    private double m2;
+
+    public void add(double x) {
+        count++;
+        double delta = x - mean;
+        mean += delta / count;
+        m2 += delta * (x - mean);
+    }
+
+    public long getCount() {
+        return count;
+    }
+
+    public double getMean() {
+        return mean;
+    }
+
+    /**
+     * Sample standard deviation (n - 1), 0 with fewer than two values.
+     */
+    public double getSampleStdev() {
+        return count < 2 ? 0.0 : Math.sqrt(m2 / (count - 1));
+    }
+
+    public void reset() {
+        count = 0;
+        mean = 0;
+        m2 = 0;
+    }
+}
@@ -19,5 +19,6 @@ public class Alert {
     private String summaryEn;
     private String detail;
     private String aiReport;
+    private Integer revision;
     private LocalDateTime createdAt;
 }
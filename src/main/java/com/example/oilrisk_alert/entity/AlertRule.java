@@ -0,0 +1,19 @@
+package com.example.oilrisk_alert.entity;
+
+import lombok.Data;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+
+@Data
+public class AlertRule {
+    private Long id;
+    private String ruleType;
+    private String sourceSeries;
+    private String factorName;
+    private String factorNameZh;
+    private BigDecimal medThreshold;
+    private BigDecimal highThreshold;
+    private Boolean enabled;
+    private LocalDateTime createdAt;
+}
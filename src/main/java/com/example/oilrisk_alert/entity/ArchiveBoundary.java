@@ -0,0 +1,16 @@
+package com.example.oilrisk_alert.entity;
+
+import lombok.Data;
+
+import java.time.LocalDate;
+
+/**
+ * archive_boundary row: dates before {@code archivedBefore} live in the table's archive.
+ * {@code generation} changes whenever rows below the boundary are rewritten rather than appended.
+ */
+@Data
+public class ArchiveBoundary {
+    private String tableName;
+    private LocalDate archivedBefore;
+    private long generation;
+}
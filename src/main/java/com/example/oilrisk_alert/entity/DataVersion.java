@@ -0,0 +1,9 @@
+package com.example.oilrisk_alert.entity;
+
+import lombok.Data;
+
+@Data
+public class DataVersion {
+    private String tableName;
+    private Long version;
+}
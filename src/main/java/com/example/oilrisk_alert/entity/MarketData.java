@@ -0,0 +1,24 @@
+package com.example.oilrisk_alert.entity;
+
+import lombok.Data;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+
+@Data
+public class MarketData {
+    private LocalDate date;
+    private Double cpi;
+    private Double oilPrice;
+    private Double brentChg;
+    private Double inventory;
+    private Double opecOutput;
+    private Double vix;
+    private Double geoTotal;
+    private Double russiaUkraine;
+    private Double middleEast;
+    private Double gpr;
+    private Double sentiment;
+    private Double usdIndex;
+    private LocalDateTime createdAt;
+}
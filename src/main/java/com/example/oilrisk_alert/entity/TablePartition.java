@@ -0,0 +1,15 @@
+package com.example.oilrisk_alert.entity;
+
+import lombok.Data;
+
+import java.time.LocalDate;
+
+/**
+ * One RANGE COLUMNS(date) partition: rows with date before {@code lessThan}, or every later date
+ * when {@code lessThan} is null (the MAXVALUE partition).
+ */
+@Data
+public class TablePartition {
+    private String name;
+    private LocalDate lessThan;
+}
@@ -0,0 +1,102 @@
+package com.example.oilrisk_alert.ingest;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Line-by-line reader for Final_Oil_Dataset_Cleaned.csv. Rows are pushed into the aggregator
+ * as they are parsed; the file is never held in memory.
+ */
+public class CsvObservationReader {
+
+    private final LocalDate dateMin;
+    private final LocalDate dateMax;
+
+    public CsvObservationReader(LocalDate dateMin, LocalDate dateMax) {
+        this.dateMin = dateMin;
+        this.dateMax = dateMax;
+    }
+
+    /**
+     * @return number of daily rows accepted
+     */
+    public int read(Path csvPath, ObservationAggregator aggregator) throws IOException {
+        int rows = 0;
+        double[] raw = new double[MarketSeries.values().length];
+        try (BufferedReader reader = Files.newBufferedReader(csvPath, StandardCharsets.UTF_8)) {
+            String header = reader.readLine();
+            if (header == null) {
+                return 0;
+            }
+            String line;
+            while ((line = reader.readLine()) != null) {
+                List<String> cells = split(line);
+                if (cells.isEmpty() || cells.get(0).isBlank()) continue;
+
+                LocalDate date = LocalDate.parse(stripBom(cells.get(0).trim()));
+                if (date.isBefore(dateMin) || date.isAfter(dateMax)) continue;
+
+                Arrays.fill(raw, Double.NaN);
+                for (MarketSeries s : MarketSeries.values()) {
+                    if (s.isRaw() && s.getCsvColumn() < cells.size()) {
+                        raw[s.ordinal()] = parseDouble(cells.get(s.getCsvColumn()));
+                    }
+                }
+                aggregator.accept(date, raw);
+                rows++;
+            }
+        }
+        aggregator.finish();
+        return rows;
+    }
+
+    static double parseDouble(String s) {
+        if (s == null) return Double.NaN;
+        s = s.trim();
+        if (s.isEmpty()) return Double.NaN;
+        try {
+            double v = Double.parseDouble(s.replace(",", ""));
+            return Double.isInfinite(v) ? Double.NaN : v;
+        } catch (NumberFormatException e) {
+            return Double.NaN;
+        }
+    }
+
+    /**
+     * Splits one CSV record, honouring double-quoted cells (e.g. "1,234.5").
+     */
+    static List<String> split(String line) {
+        List<String> cells = new ArrayList<>();
+        StringBuilder cell = new StringBuilder();
+        boolean quoted = false;
+        for (int i = 0; i < line.length(); i++) {
+            char c = line.charAt(i);
+            if (c == '"') {
+                if (quoted && i + 1 < line.length() && line.charAt(i + 1) == '"') {
+                    cell.append('"');
+                    i++;
+                } else {
+                    quoted = !quoted;
+                }
+            } else if (c == ',' && !quoted) {
+                cells.add(cell.toString());
+                cell.setLength(0);
+            } else {
+                cell.append(c);
+            }
+        }
+        cells.add(cell.toString());
+        return cells;
+    }
+
+    private static String stripBom(String s) {
+        return !s.isEmpty() && s.charAt(0) == '\uFEFF' ? s.substring(1) : s;
+    }
+}
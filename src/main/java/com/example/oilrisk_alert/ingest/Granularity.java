@@ -0,0 +1,16 @@
+package com.example.oilrisk_alert.ingest;
+
+import java.time.LocalDate;
+
+public enum Granularity {
+
+    MONTHLY,
+    DAILY;
+
+    /**
+     * Bucket key: the first of the month for MONTHLY, the date itself for DAILY.
+     */
+    public LocalDate bucketOf(LocalDate date) {
+        return this == MONTHLY ? date.withDayOfMonth(1) : date;
+    }
+}
@@ -0,0 +1,41 @@
+package com.example.oilrisk_alert.ingest;
+
+import com.example.oilrisk_alert.service.IngestService;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.ApplicationArguments;
+import org.springframework.boot.ApplicationRunner;
+import org.springframework.stereotype.Component;
+
+import java.nio.file.Path;
+
+/**
+ * Loads ingest.csv.path in the background after startup, so boot time does not depend on history size.
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class IngestStartupRunner implements ApplicationRunner {
+
+    private final IngestService ingestService;
+
+    @Value("${ingest.csv.path:}")
+    private String csvPath;
+
+    @Override
+    public void run(ApplicationArguments args) {
+        if (csvPath == null || csvPath.isEmpty()) {
+            return;
+        }
+        Thread thread = new Thread(() -> {
+            try {
+                ingestService.ingestCsv(Path.of(csvPath));
+            } catch (Exception e) {
+                log.error("Startup ingest of {} failed", csvPath, e);
+            }
+        }, "csv-ingest");
+        thread.setDaemon(true);
+        thread.start();
+    }
+}
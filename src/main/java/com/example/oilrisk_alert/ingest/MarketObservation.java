@@ -0,0 +1,64 @@
+package com.example.oilrisk_alert.ingest;
+
+import com.example.oilrisk_alert.entity.MarketData;
+import lombok.Data;
+
+import java.time.LocalDate;
+
+/**
+ * One aggregated (monthly or daily) observation, values indexed by {@link MarketSeries} ordinal.
+ */
+@Data
+public class MarketObservation {
+
+    private LocalDate date;
+    private double[] values = new double[MarketSeries.values().length];
+
+    public double get(MarketSeries series) {
+        return values[series.ordinal()];
+    }
+
+    public void set(MarketSeries series, double value) {
+        values[series.ordinal()] = value;
+    }
+
+    public MarketData toMarketData() {
+        MarketData m = new MarketData();
+        m.setDate(date);
+        m.setCpi(get(MarketSeries.CPI));
+        m.setOilPrice(get(MarketSeries.OIL_PRICE));
+        m.setBrentChg(get(MarketSeries.BRENT_CHG));
+        m.setInventory(get(MarketSeries.INVENTORY));
+        m.setOpecOutput(get(MarketSeries.OPEC_OUTPUT));
+        m.setVix(get(MarketSeries.VIX));
+        m.setGeoTotal(get(MarketSeries.GEO_TOTAL));
+        m.setRussiaUkraine(get(MarketSeries.RUSSIA_UKRAINE));
+        m.setMiddleEast(get(MarketSeries.MIDDLE_EAST));
+        m.setGpr(get(MarketSeries.GPR));
+        m.setSentiment(get(MarketSeries.SENTIMENT));
+        m.setUsdIndex(get(MarketSeries.USD_INDEX));
+        return m;
+    }
+
+    public static MarketObservation fromMarketData(MarketData m) {
+        MarketObservation o = new MarketObservation();
+        o.setDate(m.getDate());
+        o.set(MarketSeries.CPI, orNaN(m.getCpi()));
+        o.set(MarketSeries.OIL_PRICE, orNaN(m.getOilPrice()));
+        o.set(MarketSeries.BRENT_CHG, orNaN(m.getBrentChg()));
+        o.set(MarketSeries.INVENTORY, orNaN(m.getInventory()));
+        o.set(MarketSeries.OPEC_OUTPUT, orNaN(m.getOpecOutput()));
+        o.set(MarketSeries.VIX, orNaN(m.getVix()));
+        o.set(MarketSeries.GEO_TOTAL, orNaN(m.getGeoTotal()));
+        o.set(MarketSeries.RUSSIA_UKRAINE, orNaN(m.getRussiaUkraine()));
+        o.set(MarketSeries.MIDDLE_EAST, orNaN(m.getMiddleEast()));
+        o.set(MarketSeries.GPR, orNaN(m.getGpr()));
+        o.set(MarketSeries.SENTIMENT, orNaN(m.getSentiment()));
+        o.set(MarketSeries.USD_INDEX, orNaN(m.getUsdIndex()));
+        return o;
+    }
+
+    private static double orNaN(Double v) {
+        return v == null ? Double.NaN : v;
+    }
+}
@@ -0,0 +1,39 @@
+package com.example.oilrisk_alert.ingest;
+
+/**
+ * Raw market series read from Final_Oil_Dataset_Cleaned.csv, plus the series derived after aggregation.
+ * The ordinal is the slot in {@link MarketObservation#getValues()}.
+ */
+public enum MarketSeries {
+
+    CPI(1),
+    OIL_PRICE(3),
+    BRENT_CHG(7),
+    INVENTORY(8),
+    OPEC_OUTPUT(11),
+    VIX(35),
+    GEO_TOTAL(88),
+    RUSSIA_UKRAINE(89),
+    MIDDLE_EAST(90),
+    GPR(119),
+    SENTIMENT(123),
+    USD_INDEX(137),
+
+    // Derived: month-over-month inventory % change, inverted sentiment
+    INVENTORY_CHG(-1),
+    SENTIMENT_INV(-1);
+
+    private final int csvColumn;
+
+    MarketSeries(int csvColumn) {
+        this.csvColumn = csvColumn;
+    }
+
+    public int getCsvColumn() {
+        return csvColumn;
+    }
+
+    public boolean isRaw() {
+        return csvColumn >= 0;
+    }
+}
@@ -0,0 +1,73 @@
+package com.example.oilrisk_alert.ingest;
+
+import java.time.LocalDate;
+import java.util.function.Consumer;
+
+/**
+ * Streaming mean aggregation of date-ordered daily rows into buckets.
+ * A bucket is emitted as soon as the first row of the next bucket arrives, so only one
+ * bucket is ever held in memory. Series missing from a bucket are forward-filled.
+ * Derived series are left to {@link com.example.oilrisk_alert.engine.RiskEngine}.
+ */
+public class ObservationAggregator {
+
+    private static final int RAW_COUNT = MarketSeries.values().length;
+
+    private final Granularity granularity;
+    private final Consumer<MarketObservation> downstream;
+
+    private final double[] sums = new double[RAW_COUNT];
+    private final int[] counts = new int[RAW_COUNT];
+    private final double[] lastValues = new double[RAW_COUNT];
+    private final boolean[] seen = new boolean[RAW_COUNT];
+    private LocalDate currentBucket;
+
+    public ObservationAggregator(Granularity granularity, Consumer<MarketObservation> downstream) {
+        this.granularity = granularity;
+        this.downstream = downstream;
+    }
+
+    /**
+     * @param raw values per {@link MarketSeries} ordinal, NaN when the cell was empty
+     */
+    public void accept(LocalDate date, double[] raw) {
+        LocalDate bucket = granularity.bucketOf(date);
+        if (currentBucket != null && !bucket.equals(currentBucket)) {
+            emit();
+        }
+        currentBucket = bucket;
+        for (MarketSeries s : MarketSeries.values()) {
+            if (!s.isRaw()) continue;
+            double v = raw[s.ordinal()];
+            if (!Double.isNaN(v)) {
+                sums[s.ordinal()] += v;
+                counts[s.ordinal()]++;
+            }
+        }
+    }
+
+    public void finish() {
+        if (currentBucket != null) {
+            emit();
+            currentBucket = null;
+        }
+    }
+
+    private void emit() {
+        MarketObservation obs = new MarketObservation();
+        obs.setDate(currentBucket);
+        for (MarketSeries s : MarketSeries.values()) {
+            if (!s.isRaw()) continue;
+            int i = s.ordinal();
+            if (counts[i] > 0) {
+                lastValues[i] = sums[i] / counts[i];
+                seen[i] = true;
+            }
+            obs.getValues()[i] = seen[i] ? lastValues[i] : 0.0;
+            sums[i] = 0;
+            counts[i] = 0;
+        }
+
+        downstream.accept(obs);
+    }
+}
@@ -0,0 +1,54 @@
+package com.example.oilrisk_alert.ingest;
+
+/**
+ * The ten explained factors: name, Chinese name, radar category, source series and SHAP direction
+ * (+1 high value means high risk, -1 high value means low risk).
+ */
+public enum RiskFactorDef {
+
+    CRUDE_INVENTORY("crude_inventory", "原油库存变化", "SUPPLY_DEMAND", MarketSeries.INVENTORY_CHG, -1),
+    OPEC_OUTPUT("opec_output", "OPEC产量", "SUPPLY_DEMAND", MarketSeries.OPEC_OUTPUT, -0.5),
+    US_DOLLAR_INDEX("us_dollar_index", "美元指数", "MACRO", MarketSeries.USD_INDEX, -0.3),
+    CPI_EXPECTATION("cpi_expectation", "CPI通胀预期", "MACRO", MarketSeries.CPI, 0.5),
+    VIX_INDEX("vix_index", "VIX恐慌指数", "FINANCIAL", MarketSeries.VIX, 1.0),
+    BRENT_CHANGE_RATE("brent_change_rate", "布伦特价格变化率", "FINANCIAL", MarketSeries.BRENT_CHG, 0.3),
+    MIDDLE_EAST_TENSION("middle_east_tension", "中东紧张指数", "GEOPOLITICAL", MarketSeries.MIDDLE_EAST, 1.0),
+    RUSSIA_UKRAINE_RISK("russia_ukraine_risk", "俄乌风险指数", "GEOPOLITICAL", MarketSeries.RUSSIA_UKRAINE, 1.0),
+    GPR_INDEX("gpr_index", "地缘政治风险指数", "SENTIMENT", MarketSeries.GPR, 0.8),
+    NEWS_SENTIMENT("news_sentiment", "新闻情绪指数", "SENTIMENT", MarketSeries.SENTIMENT, -1.0);
+
+    private final String factorName;
+    private final String factorNameZh;
+    private final String category;
+    private final MarketSeries source;
+    private final double direction;
+
+    RiskFactorDef(String factorName, String factorNameZh, String category,
+                  MarketSeries source, double direction) {
+        this.factorName = factorName;
+        this.factorNameZh = factorNameZh;
+        this.category = category;
+        this.source = source;
+        this.direction = direction;
+    }
+
+    public String getFactorName() {
+        return factorName;
+    }
+
+    public String getFactorNameZh() {
+        return factorNameZh;
+    }
+
+    public String getCategory() {
+        return category;
+    }
+
+    public MarketSeries getSource() {
+        return source;
+    }
+
+    public double getDirection() {
+        return direction;
+    }
+}
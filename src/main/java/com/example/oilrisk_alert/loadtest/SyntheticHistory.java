@@ -0,0 +1,122 @@
+package com.example.oilrisk_alert.loadtest;
+
+import com.example.oilrisk_alert.common.RiskLevel;
+import com.example.oilrisk_alert.engine.AlertGenerator;
+import com.example.oilrisk_alert.engine.RiskSnapshot;
+import com.example.oilrisk_alert.entity.RiskFactor;
+import com.example.oilrisk_alert.entity.RiskIndex;
+import com.example.oilrisk_alert.ingest.RiskFactorDef;
+import tools.jackson.databind.ObjectMapper;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.SplittableRandom;
+
+/**
+ * Seeded day-by-day history generator for load testing.
+ * <ul>
+ *     <li>Regimes: a two-state Markov chain (calm / stressed) shifts the risk index mean and volatility</li>
+ *     <li>Risk index: mean-reverting AR(1) clipped to [0, 100]</li>
+ *     <li>Oil price: log-normal walk whose volatility rises in the stressed regime and which moves
+ *     against risk shocks</li>
+ *     <li>Factors: the ten model factors plus optional synthetic ones; each value is an AR(1) pulled
+ *     by the risk index through its loading, and SHAP follows loading * risk deviation, clipped to ±0.15</li>
+ *     <li>Alerts: produced by the same {@link AlertGenerator} as live ingest</li>
+ * </ul>
+ * The same seed always yields the same history.
+ */
+public class SyntheticHistory {
+
+    private static final String[] CATEGORIES = {"SUPPLY_DEMAND", "MACRO", "FINANCIAL", "GEOPOLITICAL", "SENTIMENT"};
+    private static final double CALM_TO_STRESS = 0.01;
+    private static final double STRESS_TO_CALM = 0.05;
+
+    private final SplittableRandom random;
+    private final AlertGenerator alertGenerator;
+    private final String[] names;
+    private final String[] namesZh;
+    private final String[] categories;
+    private final double[] loadings;
+    private final double[] values;
+
+    private LocalDate date;
+    private boolean stressed;
+    private double risk = 35;
+    private double price = 60;
+    private RiskIndex prevIndex;
+    private List<RiskFactor> prevFactors = Collections.emptyList();
+
+    public SyntheticHistory(LocalDate start, int factorCount, long seed, ObjectMapper objectMapper) {
+        this.random = new SplittableRandom(seed);
+        this.alertGenerator = new AlertGenerator(objectMapper);
+        this.date = start;
+
+        RiskFactorDef[] defs = RiskFactorDef.values();
+        int count = Math.max(factorCount, defs.length);
+        names = new String[count];
+        namesZh = new String[count];
+        categories = new String[count];
+        loadings = new double[count];
+        values = new double[count];
+        for (int k = 0; k < count; k++) {
+            if (k < defs.length) {
+                names[k] = defs[k].getFactorName();
+                namesZh[k] = defs[k].getFactorNameZh();
+                categories[k] = defs[k].getCategory();
+                loadings[k] = defs[k].getDirection();
+            } else {
+                names[k] = String.format("synthetic_%03d", k);
+                namesZh[k] = "合成因子" + k;
+                categories[k] = CATEGORIES[k % CATEGORIES.length];
+                loadings[k] = random.nextDouble(-1, 1);
+            }
+            values[k] = 50;
+        }
+    }
+
+    public RiskSnapshot next() {
+        if (random.nextDouble() < (stressed ? STRESS_TO_CALM : CALM_TO_STRESS)) {
+            stressed = !stressed;
+        }
+        double target = stressed ? 68 : 32;
+        double shock = random.nextGaussian() * (stressed ? 4 : 2);
+        risk = Math.max(0, Math.min(100, risk + 0.1 * (target - risk) + shock));
+        double vol = stressed ? 0.03 : 0.015;
+        price = Math.max(5, price * Math.exp(random.nextGaussian() * vol - 0.002 * shock));
+
+        RiskIndex index = new RiskIndex();
+        index.setDate(date);
+        index.setRiskIndex(BigDecimal.valueOf(risk).setScale(2, RoundingMode.HALF_UP));
+        index.setRiskLevel(RiskLevel.fromIndex(index.getRiskIndex()).getLabel());
+        index.setOilPrice(BigDecimal.valueOf(price).setScale(2, RoundingMode.HALF_UP));
+
+        double deviation = (risk - 40) / 100;
+        List<RiskFactor> factors = new ArrayList<>(names.length);
+        for (int k = 0; k < names.length; k++) {
+            values[k] = 0.9 * values[k] + 0.1 * (50 + 40 * loadings[k] * deviation) + random.nextGaussian() * 2;
+            double shap = Math.max(-0.15, Math.min(0.15, 0.25 * loadings[k] * deviation + random.nextGaussian() * 0.01));
+            RiskFactor f = new RiskFactor();
+            f.setDate(date);
+            f.setFactorName(names[k]);
+            f.setFactorNameZh(namesZh[k]);
+            f.setCategory(categories[k]);
+            f.setValue(BigDecimal.valueOf(values[k]).setScale(4, RoundingMode.HALF_UP));
+            f.setShapValue(BigDecimal.valueOf(shap).setScale(6, RoundingMode.HALF_UP));
+            factors.add(f);
+        }
+
+        RiskSnapshot snapshot = new RiskSnapshot();
+        snapshot.setRiskIndex(index);
+        snapshot.setFactors(factors);
+        snapshot.setAlert(alertGenerator.generate(index, factors, prevIndex, prevFactors, Collections.emptyList()));
+
+        prevIndex = index;
+        prevFactors = factors;
+        date = date.plusDays(1);
+        return snapshot;
+    }
+}
@@ -0,0 +1,123 @@
+package com.example.oilrisk_alert.loadtest;
+
+import com.example.oilrisk_alert.engine.RiskSnapshot;
+import com.example.oilrisk_alert.entity.Alert;
+import com.example.oilrisk_alert.entity.RiskFactor;
+import com.example.oilrisk_alert.entity.RiskIndex;
+import com.example.oilrisk_alert.mapper.AlertMapper;
+import com.example.oilrisk_alert.mapper.FactorMapper;
+import com.example.oilrisk_alert.mapper.RiskMapper;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.ApplicationArguments;
+import org.springframework.boot.ApplicationRunner;
+import org.springframework.context.annotation.Profile;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionTemplate;
+import tools.jackson.databind.ObjectMapper;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Fills the database with {@link SyntheticHistory} under the loadtest profile. Skipped when the
+ * database already ends on the configured last day, so restarts against the same file are instant.
+ */
+@Slf4j
+@Component
+@Profile("loadtest")
+@Order(Ordered.HIGHEST_PRECEDENCE + 1)
+@RequiredArgsConstructor
+public class SyntheticHistoryLoader implements ApplicationRunner {
+
+    private final RiskMapper riskMapper;
+    private final FactorMapper factorMapper;
+    private final AlertMapper alertMapper;
+    private final TransactionTemplate transactionTemplate;
+    private final ObjectMapper objectMapper;
+
+    @Value("${loadtest.rows:9000}")
+    private int rows;
+
+    @Value("${loadtest.start-date:2000-01-01}")
+    private String startDate;
+
+    @Value("${loadtest.factors:10}")
+    private int factorCount;
+
+    @Value("${loadtest.seed:42}")
+    private long seed;
+
+    @Value("${ingest.batch-size:500}")
+    private int batchSize;
+
+    @Override
+    public void run(ApplicationArguments args) {
+        generate();
+    }
+
+    public void generate() {
+        LocalDate start = LocalDate.parse(startDate);
+        LocalDate last = start.plusDays(rows - 1L);
+        if (last.isAfter(LocalDate.now())) {
+            throw new IllegalStateException("loadtest.rows=" + rows + " from " + start + " runs to " + last
+                    + ", past today; raise loadtest.factors for more volume instead");
+        }
+        RiskIndex latest = riskMapper.findLatest();
+        if (latest != null && latest.getDate().equals(last)) {
+            log.info("Synthetic history up to {} already present, skipping generation", last);
+            return;
+        }
+
+        long startNanos = System.nanoTime();
+        transactionTemplate.executeWithoutResult(status -> {
+            alertMapper.deleteAll();
+            factorMapper.deleteAll();
+            riskMapper.deleteAll();
+        });
+
+        SyntheticHistory history = new SyntheticHistory(start, factorCount, seed, objectMapper);
+        List<RiskIndex> indices = new ArrayList<>(batchSize);
+        List<RiskFactor> factors = new ArrayList<>(batchSize * factorCount);
+        List<Alert> alerts = new ArrayList<>();
+        long alertCount = 0;
+        for (int i = 0; i < rows; i++) {
+            RiskSnapshot snapshot = history.next();
+            indices.add(snapshot.getRiskIndex());
+            factors.addAll(snapshot.getFactors());
+            if (snapshot.getAlert() != null) {
+                alerts.add(snapshot.getAlert());
+            }
+            if (indices.size() >= batchSize || i == rows - 1) {
+                alertCount += alerts.size();
+                flush(indices, factors, alerts);
+            }
+            if ((i + 1) % Math.max(1, rows / 10) == 0) {
+                log.info("Synthetic history: {}/{} days", i + 1, rows);
+            }
+        }
+        log.info("Generated {} days, {} factor rows, {} alerts ({} to {}) in {} ms",
+                rows, (long) rows * Math.max(factorCount, 10), alertCount, start, last,
+                (System.nanoTime() - startNanos) / 1_000_000);
+    }
+
+    private void flush(List<RiskIndex> indices, List<RiskFactor> factors, List<Alert> alerts) {
+        transactionTemplate.executeWithoutResult(status -> {
+            riskMapper.upsertBatch(indices);
+            // Keep each statement at about batchSize rows however many factors there are
+            for (int from = 0; from < factors.size(); from += batchSize) {
+                factorMapper.upsertBatch(factors.subList(from, Math.min(factors.size(), from + batchSize)));
+            }
+            if (!alerts.isEmpty()) {
+                alertMapper.upsertBatch(alerts);
+            }
+        });
+        indices.clear();
+        factors.clear();
+        alerts.clear();
+    }
+}
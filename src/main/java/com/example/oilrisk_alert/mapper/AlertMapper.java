@@ -1,8 +1,11 @@
 package com.example.oilrisk_alert.mapper;
 
+import com.example.oilrisk_alert.datasource.DataSourceRole;
+import com.example.oilrisk_alert.datasource.ReadFrom;
 import com.example.oilrisk_alert.entity.Alert;
 import org.apache.ibatis.annotations.Mapper;
 import org.apache.ibatis.annotations.Param;
+import org.apache.ibatis.session.ResultHandler;
 
 import java.time.LocalDate;
 import java.util.List;
@@ -10,17 +13,57 @@ import java.util.List;
 @Mapper
 public interface AlertMapper {
 
+    @ReadFrom(DataSourceRole.REPLICA)
     List<Alert> findByDateRange(LocalDate start, LocalDate end);
 
+    @ReadFrom(DataSourceRole.REPLICA)
+    int countByDateRange(@Param("start") LocalDate start, @Param("end") LocalDate end);
+
+    /**
+     * Streams date, level and risk_index of every alert in [start, end], ordered by date.
+     */
+    @ReadFrom(DataSourceRole.REPLICA)
+    void scanMarkersByDateRange(@Param("start") LocalDate start, @Param("end") LocalDate end,
+                                ResultHandler<Alert> handler);
+
+    @ReadFrom(DataSourceRole.REPLICA)
     long countByLevel(@Param("level") String level);
 
+    @ReadFrom(DataSourceRole.REPLICA)
     List<Alert> findPage(@Param("offset") int offset,
                          @Param("size") int size,
                          @Param("level") String level,
                          @Param("sort") String sort,
                          @Param("order") String order);
 
+    @ReadFrom(DataSourceRole.REPLICA)
     Alert findById(Long id);
 
+    @ReadFrom(DataSourceRole.REPLICA)
+    List<Alert> findByIds(@Param("ids") List<Long> ids);
+
+    /**
+     * Streams id and revision of every alert, for change detection without reading the text.
+     */
+    @ReadFrom(DataSourceRole.REPLICA)
+    void scanRevisions(ResultHandler<Alert> handler);
+
     void updateAiReport(@Param("id") Long id, @Param("aiReport") String aiReport);
+
+    int upsertBatch(@Param("list") List<Alert> list);
+
+    /**
+     * Streams every row in date order without materialising the table.
+     */
+    void scanAll(ResultHandler<Alert> handler);
+
+    int deleteAll();
+
+    Integer findMaxRevision();
+
+    /**
+     * Plain insert that keeps id and ai_report, writing every row at {@code revision}; used by
+     * snapshot restore.
+     */
+    int insertBatch(@Param("list") List<Alert> list, @Param("revision") int revision);
 }
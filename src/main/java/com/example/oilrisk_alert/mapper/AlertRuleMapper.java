@@ -0,0 +1,12 @@
+package com.example.oilrisk_alert.mapper;
+
+import com.example.oilrisk_alert.entity.AlertRule;
+import org.apache.ibatis.annotations.Mapper;
+
+import java.util.List;
+
+@Mapper
+public interface AlertRuleMapper {
+
+    List<AlertRule> findEnabled();
+}
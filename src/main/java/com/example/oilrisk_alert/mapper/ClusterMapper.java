@@ -0,0 +1,35 @@
+package com.example.oilrisk_alert.mapper;
+
+import com.example.oilrisk_alert.cluster.ClusterMessage;
+import com.example.oilrisk_alert.datasource.DataSourceRole;
+import com.example.oilrisk_alert.datasource.ReadFrom;
+import org.apache.ibatis.annotations.Mapper;
+import org.apache.ibatis.annotations.Param;
+
+import java.util.List;
+
+@Mapper
+@ReadFrom(DataSourceRole.PRIMARY)
+public interface ClusterMapper {
+
+    void insertMessages(@Param("messages") List<ClusterMessage> messages);
+
+    List<ClusterMessage> findAfter(@Param("after") long after, @Param("limit") int limit);
+
+    long findMaxId();
+
+    String findLatestPayload(@Param("topic") String topic);
+
+    /**
+     * Deletes messages older than the offset (negative seconds), keeping the latest of each topic.
+     */
+    int deleteExpired(@Param("offsetSeconds") int offsetSeconds);
+
+    int takeExpiredLease(@Param("name") String name, @Param("owner") String owner,
+                         @Param("ttlSeconds") long ttlSeconds);
+
+    void insertLease(@Param("name") String name, @Param("owner") String owner,
+                     @Param("ttlSeconds") long ttlSeconds);
+
+    void deleteLease(@Param("name") String name, @Param("owner") String owner);
+}
@@ -0,0 +1,23 @@
+package com.example.oilrisk_alert.mapper;
+
+import com.example.oilrisk_alert.datasource.DataSourceRole;
+import com.example.oilrisk_alert.datasource.ReadFrom;
+import com.example.oilrisk_alert.entity.DataVersion;
+import org.apache.ibatis.annotations.Mapper;
+import org.apache.ibatis.annotations.Param;
+
+import java.util.List;
+
+@Mapper
+@ReadFrom(DataSourceRole.PRIMARY)
+public interface DataVersionMapper {
+
+    List<DataVersion> findAll();
+
+    int increment(@Param("tableName") String tableName);
+
+    /**
+     * Moves rows still at 0 to the given starting version.
+     */
+    int initialize(@Param("version") long version);
+}
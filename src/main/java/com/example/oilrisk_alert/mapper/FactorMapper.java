@@ -1,7 +1,13 @@
 package com.example.oilrisk_alert.mapper;
 
+import com.example.oilrisk_alert.datasource.DataSourceRole;
+import com.example.oilrisk_alert.datasource.ReadFrom;
+import com.example.oilrisk_alert.entity.ArchiveBoundary;
 import com.example.oilrisk_alert.entity.RiskFactor;
+import com.example.oilrisk_alert.entity.TablePartition;
 import org.apache.ibatis.annotations.Mapper;
+import org.apache.ibatis.annotations.Param;
+import org.apache.ibatis.session.ResultHandler;
 
 import java.time.LocalDate;
 import java.util.List;
@@ -14,4 +20,98 @@ public interface FactorMapper {
     List<RiskFactor> findByDate(LocalDate date);
 
     List<RiskFactor> findTopByDateOrderByAbsShap(LocalDate date, int limit);
+
+    int upsertBatch(@Param("list") List<RiskFactor> list);
+
+    /**
+     * Streams every row in date order without materialising the table.
+     */
+    void scanAll(ResultHandler<RiskFactor> handler);
+
+    /**
+     * Streams date, category and shap_value of every row in [start, end], ordered by date.
+     */
+    @ReadFrom(DataSourceRole.REPLICA)
+    void scanByDateRange(@Param("start") LocalDate start, @Param("end") LocalDate end,
+                         ResultHandler<RiskFactor> handler);
+
+    /**
+     * Streams date, names, category, value and shap_value of every row in [start, end], ordered by date.
+     */
+    @ReadFrom(DataSourceRole.REPLICA)
+    void scanRowsByDateRange(@Param("start") LocalDate start, @Param("end") LocalDate end,
+                             ResultHandler<RiskFactor> handler);
+
+    int deleteAll();
+
+    /**
+     * @return risk_factor's date partitions in order, ending with the MAXVALUE one; empty when the
+     * table is not partitioned (H2)
+     */
+    List<TablePartition> findPartitions();
+
+    /**
+     * Splits the MAXVALUE partition so the given partitions precede it.
+     */
+    void addPartitions(@Param("partitions") List<TablePartition> partitions);
+
+    /**
+     * @return the date before which rows live in risk_factor_archive, or null when none do
+     */
+    LocalDate findArchivedBefore();
+
+    /**
+     * @return the risk_factor boundary row, or null when nothing is archived
+     */
+    ArchiveBoundary findArchiveBoundary();
+
+    /**
+     * @param generation generation of the row if this creates it; an existing row keeps its own
+     */
+    void updateArchivedBefore(@Param("before") LocalDate before, @Param("generation") long generation);
+
+    /**
+     * Marks the archived span as rewritten when {@code since} falls inside it.
+     */
+    int bumpArchiveGeneration(@Param("since") LocalDate since);
+
+    /**
+     * Copies one partition into the archive, replacing rows already archived for its dates.
+     */
+    int archivePartition(@Param("partition") String partition);
+
+    void dropPartition(@Param("partition") String partition);
+
+    /**
+     * Unpartitioned equivalent of {@link #archivePartition}: copies every row before the date.
+     */
+    int archiveBefore(@Param("before") LocalDate before);
+
+    int deleteBefore(@Param("before") LocalDate before);
+
+    /**
+     * Moves rows dated in [from, before) into the archive, replacing the archived rows of their
+     * dates; for rows written below the boundary after it was set.
+     */
+    int archiveBetween(@Param("from") LocalDate from, @Param("before") LocalDate before);
+
+    int deleteBetween(@Param("from") LocalDate from, @Param("before") LocalDate before);
+
+    int deleteArchive();
+
+    void deleteArchivedBefore();
+
+    List<RiskFactor> findArchivedByDate(LocalDate date);
+
+    @ReadFrom(DataSourceRole.REPLICA)
+    void scanArchivedByDateRange(@Param("start") LocalDate start, @Param("end") LocalDate end,
+                                 ResultHandler<RiskFactor> handler);
+
+    void scanArchivedAll(ResultHandler<RiskFactor> handler);
+
+    /**
+     * Every column of the archived rows dated in [start, end], in date order.
+     */
+    void scanArchivedRows(@Param("start") LocalDate start, @Param("end") LocalDate end,
+                          ResultHandler<RiskFactor> handler);
 }
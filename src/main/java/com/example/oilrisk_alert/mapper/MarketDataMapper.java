@@ -0,0 +1,29 @@
+package com.example.oilrisk_alert.mapper;
+
+import com.example.oilrisk_alert.entity.MarketData;
+import org.apache.ibatis.annotations.Mapper;
+import org.apache.ibatis.annotations.Param;
+import org.apache.ibatis.session.ResultHandler;
+
+import java.time.LocalDate;
+import java.util.List;
+
+@Mapper
+public interface MarketDataMapper {
+
+    int upsertBatch(@Param("list") List<MarketData> list);
+
+    /**
+     * Streams every row in date order without materialising the table.
+     */
+    void scanAll(ResultHandler<MarketData> handler);
+
+    /**
+     * Streams the rows dated after {@code after} in date order.
+     */
+    void scanAfter(@Param("after") LocalDate after, ResultHandler<MarketData> handler);
+
+    LocalDate findLatestDate();
+
+    int deleteAll();
+}
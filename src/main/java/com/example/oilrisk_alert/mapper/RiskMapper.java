@@ -1,7 +1,12 @@
 package com.example.oilrisk_alert.mapper;
 
+import com.example.oilrisk_alert.datasource.DataSourceRole;
+import com.example.oilrisk_alert.datasource.ReadFrom;
 import com.example.oilrisk_alert.entity.RiskIndex;
+import com.example.oilrisk_alert.entity.TablePartition;
 import org.apache.ibatis.annotations.Mapper;
+import org.apache.ibatis.annotations.Param;
+import org.apache.ibatis.session.ResultHandler;
 
 import java.time.LocalDate;
 import java.util.List;
@@ -11,5 +16,36 @@ public interface RiskMapper {
 
     RiskIndex findLatest();
 
+    @ReadFrom(DataSourceRole.REPLICA)
     List<RiskIndex> findByDateRange(LocalDate start, LocalDate end);
+
+    @ReadFrom(DataSourceRole.REPLICA)
+    int countByDateRange(@Param("start") LocalDate start, @Param("end") LocalDate end);
+
+    /**
+     * Streams date, risk_index and oil_price of every row in [start, end], ordered by date.
+     */
+    @ReadFrom(DataSourceRole.REPLICA)
+    void scanByDateRange(@Param("start") LocalDate start, @Param("end") LocalDate end,
+                         ResultHandler<RiskIndex> handler);
+
+    int upsertBatch(@Param("list") List<RiskIndex> list);
+
+    /**
+     * Streams every row in date order without materialising the table.
+     */
+    void scanAll(ResultHandler<RiskIndex> handler);
+
+    int deleteAll();
+
+    /**
+     * @return risk_index's date partitions in order, ending with the MAXVALUE one; empty when the
+     * table is not partitioned (H2)
+     */
+    List<TablePartition> findPartitions();
+
+    /**
+     * Splits the MAXVALUE partition so the given partitions precede it.
+     */
+    void addPartitions(@Param("partitions") List<TablePartition> partitions);
 }
@@ -0,0 +1,76 @@
+package com.example.oilrisk_alert.metrics;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import lombok.RequiredArgsConstructor;
+import org.apache.ibatis.cache.CacheKey;
+import org.apache.ibatis.executor.Executor;
+import org.apache.ibatis.mapping.BoundSql;
+import org.apache.ibatis.mapping.MappedStatement;
+import org.apache.ibatis.plugin.Interceptor;
+import org.apache.ibatis.plugin.Intercepts;
+import org.apache.ibatis.plugin.Invocation;
+import org.apache.ibatis.plugin.Signature;
+import org.apache.ibatis.session.ResultHandler;
+import org.apache.ibatis.session.RowBounds;
+import org.springframework.stereotype.Component;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Times every mapper statement as {@code mybatis.statement}, tagged with the statement
+ * ({@code RiskMapper.findByDateRange}), its command type and whether it threw.
+ */
+@Component
+@RequiredArgsConstructor
+@Intercepts({
+        @Signature(type = Executor.class, method = "query",
+                args = {MappedStatement.class, Object.class, RowBounds.class, ResultHandler.class}),
+        @Signature(type = Executor.class, method = "query",
+                args = {MappedStatement.class, Object.class, RowBounds.class, ResultHandler.class,
+                        CacheKey.class, BoundSql.class}),
+        @Signature(type = Executor.class, method = "update",
+                args = {MappedStatement.class, Object.class})
+})
+public class MapperMetricsInterceptor implements Interceptor {
+
+    public static final String METRIC = "mybatis.statement";
+
+    private final MeterRegistry meterRegistry;
+    private final Map<String, Timer> timers = new ConcurrentHashMap<>();
+
+    @Override
+    public Object intercept(Invocation invocation) throws Throwable {
+        MappedStatement ms = (MappedStatement) invocation.getArgs()[0];
+        long start = System.nanoTime();
+        String outcome = "success";
+        try {
+            return invocation.proceed();
+        } catch (Throwable t) {
+            outcome = "error";
+            throw t;
+        } finally {
+            timer(ms, outcome).record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+        }
+    }
+
+    private Timer timer(MappedStatement ms, String outcome) {
+        return timers.computeIfAbsent(ms.getId() + '#' + outcome, key -> Timer.builder(METRIC)
+                .description("MyBatis mapper statement execution time")
+                .tag("statement", shortId(ms.getId()))
+                .tag("command", ms.getSqlCommandType().name())
+                .tag("outcome", outcome)
+                .register(meterRegistry));
+    }
+
+    /**
+     * com.example.oilrisk_alert.mapper.RiskMapper.findLatest -> RiskMapper.findLatest
+     */
+    static String shortId(String id) {
+        int method = id.lastIndexOf('.');
+        int type = method > 0 ? id.lastIndexOf('.', method - 1) : -1;
+        return id.substring(type + 1);
+    }
+}
@@ -0,0 +1,324 @@
+package com.example.oilrisk_alert.metrics;
+
+import com.example.oilrisk_alert.vo.SlowQueryVO;
+import lombok.extern.slf4j.Slf4j;
+import org.apache.ibatis.cache.CacheKey;
+import org.apache.ibatis.executor.Executor;
+import org.apache.ibatis.mapping.BoundSql;
+import org.apache.ibatis.mapping.MappedStatement;
+import org.apache.ibatis.mapping.ParameterMapping;
+import org.apache.ibatis.mapping.SqlCommandType;
+import org.apache.ibatis.plugin.Interceptor;
+import org.apache.ibatis.plugin.Intercepts;
+import org.apache.ibatis.plugin.Invocation;
+import org.apache.ibatis.plugin.Signature;
+import org.apache.ibatis.reflection.MetaObject;
+import org.apache.ibatis.session.Configuration;
+import org.apache.ibatis.session.ResultHandler;
+import org.apache.ibatis.session.RowBounds;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.ResultSetMetaData;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * Times every mapper statement per mapper id and keeps rolling statistics over the current and
+ * previous window. Fast executions only add to counters; the SQL is built only for slow ones.
+ * <p>
+ * Executions over {@code mybatis.slow-query.threshold-ms} are logged with their bound parameters,
+ * and the slowest one's normalised SQL (multi-row VALUES lists collapsed) is kept with the
+ * statement. With {@code mybatis.slow-query.explain=true} the first slow execution of each SELECT
+ * statement is EXPLAINed once on a separate connection, off the request thread.
+ */
+@Slf4j
+@Component
+@Intercepts({
+        @Signature(type = Executor.class, method = "query",
+                args = {MappedStatement.class, Object.class, RowBounds.class, ResultHandler.class}),
+        @Signature(type = Executor.class, method = "query",
+                args = {MappedStatement.class, Object.class, RowBounds.class, ResultHandler.class,
+                        CacheKey.class, BoundSql.class}),
+        @Signature(type = Executor.class, method = "update",
+                args = {MappedStatement.class, Object.class})
+})
+public class SlowQueryInterceptor implements Interceptor {
+
+    private static final Pattern WHITESPACE = Pattern.compile("\\s+");
+    private static final Pattern VALUE_ROW = Pattern.compile("\\([?, ]+\\)");
+
+    private final DataSource dataSource;
+    private final ExecutorService explainExecutor = Executors.newSingleThreadExecutor(r -> {
+        Thread t = new Thread(r, "slow-query-explain");
+        t.setDaemon(true);
+        return t;
+    });
+
+    @Value("${mybatis.slow-query.threshold-ms:200}")
+    private long thresholdMillis = 200;
+
+    @Value("${mybatis.slow-query.explain:false}")
+    private boolean explain;
+
+    @Value("${mybatis.slow-query.top-n:20}")
+    private int topN = 20;
+
+    @Value("${mybatis.slow-query.window-minutes:10}")
+    private long windowMinutes = 10;
+
+    private volatile Map<String, StatementStats> current = new ConcurrentHashMap<>();
+    private volatile Map<String, StatementStats> previous = new ConcurrentHashMap<>();
+    private volatile long windowStart = System.currentTimeMillis();
+    private final Map<String, String> explained = new ConcurrentHashMap<>();
+
+    public SlowQueryInterceptor(DataSource dataSource) {
+        this.dataSource = dataSource;
+    }
+
+    @Override
+    public Object intercept(Invocation invocation) throws Throwable {
+        long start = System.nanoTime();
+        try {
+            return invocation.proceed();
+        } finally {
+            long elapsed = System.nanoTime() - start;
+            try {
+                record(invocation.getArgs(), elapsed);
+            } catch (RuntimeException e) {
+                log.debug("Slow query bookkeeping failed", e);
+            }
+        }
+    }
+
+    private void record(Object[] args, long elapsedNanos) {
+        MappedStatement ms = (MappedStatement) args[0];
+        String id = ms.getId();
+        StatementStats stats = window().computeIfAbsent(id, k -> new StatementStats(MapperMetricsInterceptor.shortId(k)));
+        if (elapsedNanos < thresholdMillis * 1_000_000) {
+            stats.add(elapsedNanos, null, null);
+            return;
+        }
+
+        Object parameter = args[1];
+        BoundSql boundSql = args.length == 6 ? (BoundSql) args[5] : ms.getBoundSql(parameter);
+        String sql = WHITESPACE.matcher(boundSql.getSql()).replaceAll(" ").trim();
+        List<Object> params = boundParameters(ms.getConfiguration(), boundSql, parameter);
+        stats.add(elapsedNanos, collapseValueRows(sql), params);
+
+        log.warn("Slow statement {} took {} ms: {} params={}", stats.statement,
+                elapsedNanos / 1_000_000, sql, params);
+        if (explain && ms.getSqlCommandType() == SqlCommandType.SELECT
+                && explained.putIfAbsent(id, "pending") == null) {
+            explainExecutor.submit(() -> explained.put(id, runExplain(sql, params)));
+        }
+    }
+
+    /**
+     * Same resolution order as MyBatis' DefaultParameterHandler.
+     */
+    private static List<Object> boundParameters(Configuration configuration, BoundSql boundSql, Object parameter) {
+        List<ParameterMapping> mappings = boundSql.getParameterMappings();
+        List<Object> values = new ArrayList<>(mappings.size());
+        MetaObject meta = null;
+        for (ParameterMapping mapping : mappings) {
+            String property = mapping.getProperty();
+            if (boundSql.hasAdditionalParameter(property)) {
+                values.add(boundSql.getAdditionalParameter(property));
+            } else if (parameter == null) {
+                values.add(null);
+            } else if (configuration.getTypeHandlerRegistry().hasTypeHandler(parameter.getClass())) {
+                values.add(parameter);
+            } else {
+                if (meta == null) meta = configuration.newMetaObject(parameter);
+                values.add(meta.getValue(property));
+            }
+        }
+        return values;
+    }
+
+    private String runExplain(String sql, List<Object> params) {
+        try (Connection connection = dataSource.getConnection();
+             PreparedStatement ps = connection.prepareStatement("EXPLAIN " + sql)) {
+            connection.setReadOnly(true);
+            for (int i = 0; i < params.size(); i++) {
+                ps.setObject(i + 1, params.get(i));
+            }
+            StringBuilder plan = new StringBuilder();
+            try (ResultSet rs = ps.executeQuery()) {
+                ResultSetMetaData md = rs.getMetaData();
+                while (rs.next()) {
+                    for (int c = 1; c <= md.getColumnCount(); c++) {
+                        if (c > 1) plan.append(" | ");
+                        if (md.getColumnCount() > 1) plan.append(md.getColumnLabel(c)).append('=');
+                        plan.append(rs.getString(c));
+                    }
+                    plan.append('\n');
+                }
+            }
+            return plan.toString().trim();
+        } catch (Exception e) {
+            return "EXPLAIN failed: " + e.getMessage();
+        }
+    }
+
+    private Map<String, StatementStats> window() {
+        long now = System.currentTimeMillis();
+        if (now - windowStart >= windowMinutes * 60_000) {
+            synchronized (this) {
+                if (now - windowStart >= windowMinutes * 60_000) {
+                    previous = current;
+                    current = new ConcurrentHashMap<>();
+                    windowStart = now;
+                }
+            }
+        }
+        return current;
+    }
+
+    /**
+     * Statements of the current and previous window, ordered by total time.
+     */
+    public List<SlowQueryVO> top(Integer limit) {
+        int n = limit != null && limit > 0 ? limit : topN;
+        Map<String, SlowQueryVO> merged = new HashMap<>();
+        for (Map<String, StatementStats> map : List.of(previous, current)) {
+            for (Map.Entry<String, StatementStats> e : map.entrySet()) {
+                merged.merge(e.getKey(), e.getValue().toVO(), SlowQueryInterceptor::combine);
+            }
+        }
+        for (Map.Entry<String, SlowQueryVO> e : merged.entrySet()) {
+            String plan = explained.get(e.getKey());
+            if (plan != null && !"pending".equals(plan)) e.getValue().setExplain(plan);
+        }
+        return merged.values().stream()
+                .sorted(Comparator.comparingDouble(SlowQueryVO::getTotalMillis).reversed())
+                .limit(n)
+                .toList();
+    }
+
+    public void setThresholdMillis(long thresholdMillis) {
+        this.thresholdMillis = thresholdMillis;
+    }
+
+    public synchronized void reset() {
+        current = new ConcurrentHashMap<>();
+        previous = new ConcurrentHashMap<>();
+        explained.clear();
+        windowStart = System.currentTimeMillis();
+    }
+
+    /**
+     * Rewrites "(?, ?), (?, ?), ..." runs to their first row plus ", ...". Scans row by row: a
+     * single regex with a repeated group recurses once per row and overflows on large batches.
+     */
+    static String collapseValueRows(String sql) {
+        Matcher m = VALUE_ROW.matcher(sql);
+        StringBuilder out = null;
+        int copied = 0;
+        int from = 0;
+        while (from < sql.length() && m.region(from, sql.length()).find()) {
+            int firstEnd = m.end();
+            int end = firstEnd;
+            int next;
+            while ((next = afterComma(sql, end)) >= 0 && m.region(next, sql.length()).lookingAt()) {
+                end = m.end();
+            }
+            if (end != firstEnd) {
+                if (out == null) out = new StringBuilder(sql.length());
+                out.append(sql, copied, firstEnd).append(", ...");
+                copied = end;
+            }
+            from = end;
+        }
+        return out == null ? sql : out.append(sql, copied, sql.length()).toString();
+    }
+
+    private static int afterComma(String sql, int i) {
+        while (i < sql.length() && sql.charAt(i) == ' ') i++;
+        if (i == sql.length() || sql.charAt(i) != ',') return -1;
+        i++;
+        while (i < sql.length() && sql.charAt(i) == ' ') i++;
+        return i;
+    }
+
+    private static SlowQueryVO combine(SlowQueryVO older, SlowQueryVO newer) {
+        long count = older.getCount() + newer.getCount();
+        newer.setTotalMillis(older.getTotalMillis() + newer.getTotalMillis());
+        newer.setAvgMillis(count > 0 ? newer.getTotalMillis() / count : 0);
+        newer.setSlowCount(older.getSlowCount() + newer.getSlowCount());
+        if (older.getMaxMillis() > newer.getMaxMillis()) {
+            newer.setMaxMillis(older.getMaxMillis());
+            if (older.getSql() != null) {
+                newer.setSql(older.getSql());
+                newer.setMaxParams(older.getMaxParams());
+            }
+        }
+        newer.setCount(count);
+        return newer;
+    }
+
+    private static final class StatementStats {
+        final String statement;
+        final LongAdder count = new LongAdder();
+        final LongAdder slowCount = new LongAdder();
+        final LongAdder totalNanos = new LongAdder();
+        long maxNanos;
+        /** SQL and parameters of the slowest slow execution */
+        String sql;
+        List<Object> maxParams;
+        long lastSeen;
+
+        StatementStats(String statement) {
+            this.statement = statement;
+        }
+
+        /**
+         * @param sql null for an execution under the threshold
+         */
+        void add(long nanos, String sql, List<Object> params) {
+            count.increment();
+            totalNanos.add(nanos);
+            if (sql != null) slowCount.increment();
+            synchronized (this) {
+                lastSeen = System.currentTimeMillis();
+                if (nanos > maxNanos) {
+                    maxNanos = nanos;
+                    if (sql != null) {
+                        this.sql = sql;
+                        maxParams = params;
+                    }
+                }
+            }
+        }
+
+        synchronized SlowQueryVO toVO() {
+            SlowQueryVO vo = new SlowQueryVO();
+            long n = count.sum();
+            vo.setStatement(statement);
+            vo.setSql(sql);
+            vo.setCount(n);
+            vo.setSlowCount(slowCount.sum());
+            vo.setTotalMillis(totalNanos.sum() / 1e6);
+            vo.setAvgMillis(n > 0 ? vo.getTotalMillis() / n : 0);
+            vo.setMaxMillis(maxNanos / 1e6);
+            vo.setMaxParams(maxParams != null ? String.valueOf(maxParams) : null);
+            vo.setLastSeen(Instant.ofEpochMilli(lastSeen).toString());
+            return vo;
+        }
+    }
+}
@@ -0,0 +1,90 @@
+package com.example.oilrisk_alert.metrics;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.springframework.stereotype.Component;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Meters for SSE streams and LLM report generation.
+ * <ul>
+ *     <li>{@code report.streams.active} / {@code alert.subscribers.active}: open SseEmitters</li>
+ *     <li>{@code report.cache}: cached ai_report served (hit) vs generated (miss)</li>
+ *     <li>{@code llm.time.to.first.token}, {@code llm.tokens.per.second}: one sample per LLM stream,
+ *     plus gauges holding the latest value of each</li>
+ * </ul>
+ */
+@Component
+public class StreamingMetrics {
+
+    private final AtomicInteger activeReportStreams = new AtomicInteger();
+    private final AtomicInteger alertSubscribers = new AtomicInteger();
+    private final AtomicLong lastTtftMillis = new AtomicLong();
+    private final AtomicLong lastTokensPerSecond = new AtomicLong();
+
+    private final Counter reportCacheHits;
+    private final Counter reportCacheMisses;
+    private final Counter llmTokens;
+    private final Timer timeToFirstToken;
+    private final DistributionSummary tokensPerSecond;
+
+    public StreamingMetrics(MeterRegistry registry) {
+        Gauge.builder("report.streams.active", activeReportStreams, AtomicInteger::get)
+                .description("Open AI report SSE streams").register(registry);
+        Gauge.builder("alert.subscribers.active", alertSubscribers, AtomicInteger::get)
+                .description("Open alert SSE subscriptions").register(registry);
+        Gauge.builder("llm.time.to.first.token.last", lastTtftMillis, AtomicLong::get)
+                .baseUnit("milliseconds").register(registry);
+        Gauge.builder("llm.tokens.per.second.last", lastTokensPerSecond, AtomicLong::get)
+                .register(registry);
+
+        reportCacheHits = Counter.builder("report.cache").tag("result", "hit").register(registry);
+        reportCacheMisses = Counter.builder("report.cache").tag("result", "miss").register(registry);
+        llmTokens = Counter.builder("llm.tokens").description("Tokens streamed from the LLM").register(registry);
+        timeToFirstToken = Timer.builder("llm.time.to.first.token")
+                .description("Request start to first streamed token").register(registry);
+        tokensPerSecond = DistributionSummary.builder("llm.tokens.per.second")
+                .description("Streaming rate after the first token").register(registry);
+    }
+
+    public void reportStreamOpened() {
+        activeReportStreams.incrementAndGet();
+    }
+
+    public void reportStreamClosed() {
+        activeReportStreams.decrementAndGet();
+    }
+
+    public void alertSubscriberAdded() {
+        alertSubscribers.incrementAndGet();
+    }
+
+    public void alertSubscriberRemoved() {
+        alertSubscribers.decrementAndGet();
+    }
+
+    public void reportCache(boolean hit) {
+        (hit ? reportCacheHits : reportCacheMisses).increment();
+    }
+
+    /**
+     * @param ttftNanos      request start to first token
+     * @param streamingNanos first token to last token
+     */
+    public void recordLlmStream(long ttftNanos, long streamingNanos, int tokens) {
+        timeToFirstToken.record(ttftNanos, TimeUnit.NANOSECONDS);
+        lastTtftMillis.set(TimeUnit.NANOSECONDS.toMillis(ttftNanos));
+        llmTokens.increment(tokens);
+        if (tokens > 1 && streamingNanos > 0) {
+            double rate = (tokens - 1) / (streamingNanos / 1e9);
+            tokensPerSecond.record(rate);
+            lastTokensPerSecond.set(Math.round(rate));
+        }
+    }
+}
@@ -0,0 +1,382 @@
+package com.example.oilrisk_alert.search;
+
+import com.example.oilrisk_alert.cache.DataTable;
+import com.example.oilrisk_alert.cache.DataVersionClock;
+import com.example.oilrisk_alert.entity.Alert;
+import com.example.oilrisk_alert.mapper.AlertMapper;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * In-process inverted index over the alert table's summary, summary_en, trigger_factor(_zh),
+ * trigger_type and ai_report, split by {@link CjkBigramTokenizer}, with facet counts by level,
+ * trigger type and year.
+ * <p>
+ * Alerts are numbered in the order they are indexed, and every term keeps the ascending list of
+ * numbers containing it, so a query is the intersection of its terms' lists. A changed alert
+ * gets a new number and its old one is only marked dead; once dead numbers outnumber live ones
+ * the index is rebuilt. Facet counts over all live alerts are kept up to date as alerts come and
+ * go; the counts for a query are taken from its matches.
+ * <p>
+ * The index follows the alert version of the {@link DataVersionClock}, whichever instance wrote.
+ * When it moved, a scan of (id, revision) finds the new, changed and deleted rows, and only the
+ * new and changed ones are read in full.
+ */
+@Slf4j
+@Component
+public class AlertSearchIndex {
+
+    public static final int LEVEL = 0;
+    public static final int TRIGGER_TYPE = 1;
+    public static final int YEAR = 2;
+    private static final int FACETS = 3;
+
+    private static final int ID_BATCH = 500;
+    private static final int COMPACT_MIN_DEAD = 1024;
+    private static final int ANY = -1;
+    private static final int NONE = -2;
+
+    private final AlertMapper alertMapper;
+    private final DataVersionClock clock;
+    private final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+    private State state = new State();
+    private long version = -1;
+
+    public AlertSearchIndex(AlertMapper alertMapper, DataVersionClock clock) {
+        this.alertMapper = alertMapper;
+        this.clock = clock;
+    }
+
+    /**
+     * @param total  matches after the filters
+     * @param ids    alert ids of the requested page, in order
+     * @param facets per facet (LEVEL, TRIGGER_TYPE, YEAR), value to count. Each counts the query's
+     *               matches under the other facets' filters, so a filtered facet still lists its
+     *               alternatives
+     */
+    public record Hits(int total, List<Long> ids, List<Map<String, Long>> facets) {
+    }
+
+    /**
+     * @param query   terms that must all occur, blank for every alert
+     * @param filters per facet the required value, or null for any
+     */
+    public Hits search(String query, String[] filters, boolean byRiskIndex, boolean ascending, int offset, int size) {
+        sync();
+        lock.readLock().lock();
+        try {
+            State s = state;
+            int[] required = new int[FACETS];
+            for (int f = 0; f < FACETS; f++) {
+                String value = filters[f];
+                Integer code = value == null || value.isBlank() ? null : s.dictionaries[f].codes.get(value);
+                required[f] = value == null || value.isBlank() ? ANY : code != null ? code : NONE;
+            }
+            int[] candidates = s.match(query);
+
+            long[][] counts = new long[FACETS][];
+            for (int f = 0; f < FACETS; f++) counts[f] = new long[s.dictionaries[f].size()];
+            long[] keys = new long[candidates.length];
+            int n = 0;
+            for (int doc : candidates) {
+                int failed = -1;
+                int misses = 0;
+                for (int f = 0; f < FACETS; f++) {
+                    if (required[f] != ANY && s.codes[f][doc] != required[f]) {
+                        failed = f;
+                        misses++;
+                    }
+                }
+                if (misses == 0) {
+                    for (int f = 0; f < FACETS; f++) counts[f][s.codes[f][doc]]++;
+                    keys[n++] = ((long) (byRiskIndex ? s.riskIndex[doc] : s.days[doc]) << 32) | doc;
+                } else if (misses == 1) {
+                    counts[failed][s.codes[failed][doc]]++;
+                }
+            }
+            Arrays.sort(keys, 0, n);
+
+            List<Long> ids = new ArrayList<>(Math.max(0, Math.min(size, n - offset)));
+            for (int i = offset; i < n && i < offset + size; i++) {
+                int doc = (int) keys[ascending ? i : n - 1 - i];
+                ids.add(s.ids[doc]);
+            }
+            List<Map<String, Long>> facets = new ArrayList<>(FACETS);
+            for (int f = 0; f < FACETS; f++) facets.add(s.dictionaries[f].toMap(counts[f], f == YEAR));
+            return new Hits(n, ids, facets);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Facet counts over every alert, as maintained incrementally.
+     */
+    public List<Map<String, Long>> facets() {
+        sync();
+        lock.readLock().lock();
+        try {
+            List<Map<String, Long>> facets = new ArrayList<>(FACETS);
+            for (int f = 0; f < FACETS; f++) {
+                Dictionary d = state.dictionaries[f];
+                facets.add(d.toMap(Arrays.stream(d.counts, 0, d.size()).asLongStream().toArray(), f == YEAR));
+            }
+            return facets;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Drops the index; the next search rebuilds it from the table.
+     */
+    public void invalidate() {
+        lock.writeLock().lock();
+        try {
+            version = -1;
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    private void sync() {
+        // Read before scanning: a write during the scan leaves an older version and is picked up next time
+        long current = clock.current(DataTable.ALERT);
+        lock.readLock().lock();
+        try {
+            if (current == version) return;
+        } finally {
+            lock.readLock().unlock();
+        }
+        lock.writeLock().lock();
+        try {
+            if (current == version) return;
+            long startNanos = System.nanoTime();
+            State s = state;
+            if (version < 0 || s.dead > Math.max(COMPACT_MIN_DEAD, s.live.cardinality())) {
+                State fresh = new State();
+                alertMapper.scanAll(ctx -> fresh.add(ctx.getResultObject()));
+                state = fresh;
+                log.info("Alert search index built: {} alerts, {} terms in {} ms", fresh.live.cardinality(),
+                        fresh.postings.size(), (System.nanoTime() - startNanos) / 1_000_000);
+            } else {
+                int changed = update(s);
+                log.debug("Alert search index updated: {} alerts re-read in {} ms", changed,
+                        (System.nanoTime() - startNanos) / 1_000_000);
+            }
+            version = current;
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    private int update(State s) {
+        BitSet unchanged = new BitSet(s.docs);
+        List<Long> changed = new ArrayList<>();
+        alertMapper.scanRevisions(ctx -> {
+            Alert a = ctx.getResultObject();
+            Integer doc = s.docById.get(a.getId());
+            if (doc != null && s.revisions[doc] == revision(a)) {
+                unchanged.set(doc);
+            } else {
+                changed.add(a.getId());
+            }
+        });
+        // Deleted rows and the old numbers of changed ones
+        for (int doc = s.live.nextSetBit(0); doc >= 0; doc = s.live.nextSetBit(doc + 1)) {
+            if (!unchanged.get(doc)) s.remove(doc);
+        }
+        for (int i = 0; i < changed.size(); i += ID_BATCH) {
+            for (Alert a : alertMapper.findByIds(changed.subList(i, Math.min(changed.size(), i + ID_BATCH)))) {
+                s.add(a);
+            }
+        }
+        return changed.size();
+    }
+
+    private static int revision(Alert a) {
+        return a.getRevision() != null ? a.getRevision() : 0;
+    }
+
+    /**
+     * Ascending alert numbers of one term; a number is added at most once, always at the end.
+     */
+    private static final class Postings {
+        int[] docs = new int[4];
+        int size;
+
+        void add(int doc) {
+            if (size > 0 && docs[size - 1] == doc) return;
+            if (size == docs.length) docs = Arrays.copyOf(docs, size * 2);
+            docs[size++] = doc;
+        }
+    }
+
+    /**
+     * Facet values numbered in order of first sight, with live counts.
+     */
+    private static final class Dictionary {
+        final Map<String, Integer> codes = new HashMap<>();
+        final List<String> values = new ArrayList<>();
+        int[] counts = new int[8];
+
+        int add(String value) {
+            Integer code = codes.get(value);
+            if (code == null) {
+                code = values.size();
+                codes.put(value, code);
+                values.add(value);
+                if (code == counts.length) counts = Arrays.copyOf(counts, code * 2);
+            }
+            counts[code]++;
+            return code;
+        }
+
+        int size() {
+            return values.size();
+        }
+
+        /**
+         * Non-zero counts, by value for years and largest first otherwise.
+         */
+        Map<String, Long> toMap(long[] counts, boolean byValue) {
+            Integer[] order = new Integer[counts.length];
+            for (int i = 0; i < order.length; i++) order[i] = i;
+            Arrays.sort(order, byValue
+                    ? (a, b) -> values.get(a).compareTo(values.get(b))
+                    : (a, b) -> counts[a] != counts[b] ? Long.compare(counts[b], counts[a]) : values.get(a).compareTo(values.get(b)));
+            Map<String, Long> map = new LinkedHashMap<>();
+            for (int code : order) {
+                if (counts[code] > 0) map.put(values.get(code), counts[code]);
+            }
+            return map;
+        }
+    }
+
+    private static final class State {
+        final Map<String, Postings> postings = new HashMap<>();
+        final Map<Long, Integer> docById = new HashMap<>();
+        final Dictionary[] dictionaries = {new Dictionary(), new Dictionary(), new Dictionary()};
+        final BitSet live = new BitSet();
+        long[] ids = new long[256];
+        int[] revisions = new int[256];
+        int[] days = new int[256];
+        /** risk_index x 100 */
+        int[] riskIndex = new int[256];
+        int[][] codes = new int[FACETS][256];
+        int docs;
+        int dead;
+
+        void add(Alert a) {
+            if (docs == ids.length) grow();
+            int doc = docs++;
+            ids[doc] = a.getId();
+            revisions[doc] = revision(a);
+            days[doc] = (int) a.getDate().toEpochDay();
+            riskIndex[doc] = a.getRiskIndex() != null ? a.getRiskIndex().movePointRight(2).intValue() : 0;
+            codes[LEVEL][doc] = dictionaries[LEVEL].add(a.getLevel());
+            codes[TRIGGER_TYPE][doc] = dictionaries[TRIGGER_TYPE].add(a.getTriggerType());
+            codes[YEAR][doc] = dictionaries[YEAR].add(String.valueOf(a.getDate().getYear()));
+            live.set(doc);
+            docById.put(a.getId(), doc);
+
+            for (String text : new String[]{a.getSummary(), a.getSummaryEn(), a.getTriggerFactor(),
+                    a.getTriggerFactorZh(), a.getTriggerType(), a.getAiReport()}) {
+                CjkBigramTokenizer.tokenize(text, term -> postings.computeIfAbsent(term, t -> new Postings()).add(doc));
+            }
+        }
+
+        void remove(int doc) {
+            live.clear(doc);
+            for (int f = 0; f < FACETS; f++) dictionaries[f].counts[codes[f][doc]]--;
+            docById.remove(ids[doc], doc);
+            dead++;
+        }
+
+        private void grow() {
+            int capacity = ids.length * 2;
+            ids = Arrays.copyOf(ids, capacity);
+            revisions = Arrays.copyOf(revisions, capacity);
+            days = Arrays.copyOf(days, capacity);
+            riskIndex = Arrays.copyOf(riskIndex, capacity);
+            for (int f = 0; f < FACETS; f++) codes[f] = Arrays.copyOf(codes[f], capacity);
+        }
+
+        /**
+         * @return live alerts containing every term of the query, ascending; every live alert for a blank query
+         */
+        int[] match(String query) {
+            Set<String> terms = new LinkedHashSet<>(CjkBigramTokenizer.tokenize(query));
+            if (terms.isEmpty()) return live.stream().toArray();
+            List<int[]> lists = new ArrayList<>(terms.size());
+            for (String term : terms) {
+                int[] list = CjkBigramTokenizer.isSingleCjk(term) ? containing(term) : docsOf(postings.get(term));
+                if (list.length == 0) return list;
+                lists.add(list);
+            }
+            lists.sort((a, b) -> Integer.compare(a.length, b.length));
+            int[] result = lists.get(0);
+            int n = 0;
+            for (int doc : result) {
+                if (live.get(doc)) result[n++] = doc;
+            }
+            for (int i = 1; i < lists.size() && n > 0; i++) {
+                n = intersect(result, n, lists.get(i));
+            }
+            return Arrays.copyOf(result, n);
+        }
+
+        /**
+         * One CJK character is indexed inside bigrams, so it matches the union of the terms holding it.
+         */
+        private int[] containing(String character) {
+            BitSet union = new BitSet(docs);
+            postings.forEach((term, list) -> {
+                if (term.contains(character)) {
+                    for (int i = 0; i < list.size; i++) union.set(list.docs[i]);
+                }
+            });
+            return union.stream().toArray();
+        }
+
+        private static int[] docsOf(Postings list) {
+            return list == null ? new int[0] : Arrays.copyOf(list.docs, list.size);
+        }
+
+        /**
+         * Keeps the first n entries of a that are also in b, in place; both ascending.
+         */
+        private static int intersect(int[] a, int n, int[] b) {
+            int kept = 0;
+            int j = 0;
+            for (int i = 0; i < n && j < b.length; i++) {
+                // Gallop: b is usually the longer list
+                int step = 1;
+                while (j + step < b.length && b[j + step] < a[i]) step <<= 1;
+                j = lowerBound(b, j + (step >> 1), Math.min(b.length, j + step + 1), a[i]);
+                if (j < b.length && b[j] == a[i]) a[kept++] = a[i];
+            }
+            return kept;
+        }
+
+        private static int lowerBound(int[] b, int from, int to, int key) {
+            while (from < to) {
+                int mid = (from + to) >>> 1;
+                if (b[mid] < key) from = mid + 1;
+                else to = mid;
+            }
+            return from;
+        }
+    }
+}
@@ -0,0 +1,88 @@
+package com.example.oilrisk_alert.search;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.Consumer;
+
+/**
+ * Splits mixed Chinese/English text into index terms:
+ * <ul>
+ *     <li>runs of letters and digits outside CJK scripts are lower-cased words; anything else
+ *     (spaces, punctuation, underscores) separates them, so {@code vix_index} is {@code vix} and
+ *     {@code index}</li>
+ *     <li>runs of CJK characters become overlapping bigrams ({@code 中东紧张} is {@code 中东},
+ *     {@code 东紧}, {@code 紧张}); a run of one character is kept as that character</li>
+ * </ul>
+ * Queries go through the same split, so requiring every query term finds words anywhere and CJK
+ * phrases of two characters or more without a dictionary.
+ */
+public final class CjkBigramTokenizer {
+
+    private CjkBigramTokenizer() {
+    }
+
+    public static List<String> tokenize(String text) {
+        List<String> terms = new ArrayList<>();
+        tokenize(text, terms::add);
+        return terms;
+    }
+
+    public static void tokenize(String text, Consumer<String> sink) {
+        if (text == null) return;
+        StringBuilder word = new StringBuilder();
+        int cjkStart = -1;
+        int cjkPrev = -1;
+        int i = 0;
+        while (i < text.length()) {
+            int cp = text.codePointAt(i);
+            int next = i + Character.charCount(cp);
+            if (isCjk(cp)) {
+                flushWord(word, sink);
+                if (cjkStart < 0) {
+                    cjkStart = i;
+                } else {
+                    sink.accept(text.substring(cjkPrev, next));
+                }
+                cjkPrev = i;
+            } else {
+                flushCjkRun(text, cjkStart, cjkPrev, sink);
+                cjkStart = -1;
+                if (Character.isLetterOrDigit(cp)) {
+                    word.appendCodePoint(Character.toLowerCase(cp));
+                } else {
+                    flushWord(word, sink);
+                }
+            }
+            i = next;
+        }
+        flushCjkRun(text, cjkStart, cjkPrev, sink);
+        flushWord(word, sink);
+    }
+
+    /**
+     * @return whether a term is one CJK character, which only matches inside bigrams
+     */
+    public static boolean isSingleCjk(String term) {
+        return term.codePointCount(0, term.length()) == 1 && isCjk(term.codePointAt(0));
+    }
+
+    private static void flushCjkRun(String text, int start, int last, Consumer<String> sink) {
+        // A run of two or more has already been emitted as bigrams
+        if (start >= 0 && start == last) {
+            sink.accept(text.substring(start, start + Character.charCount(text.codePointAt(start))));
+        }
+    }
+
+    private static void flushWord(StringBuilder word, Consumer<String> sink) {
+        if (!word.isEmpty()) {
+            sink.accept(word.toString());
+            word.setLength(0);
+        }
+    }
+
+    static boolean isCjk(int cp) {
+        Character.UnicodeScript script = Character.UnicodeScript.of(cp);
+        return script == Character.UnicodeScript.HAN || script == Character.UnicodeScript.HIRAGANA
+                || script == Character.UnicodeScript.KATAKANA || script == Character.UnicodeScript.HANGUL;
+    }
+}
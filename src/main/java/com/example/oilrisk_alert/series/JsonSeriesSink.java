@@ -0,0 +1,99 @@
+package com.example.oilrisk_alert.series;
+
+import tools.jackson.core.JsonGenerator;
+
+import java.time.LocalDate;
+import java.util.function.Consumer;
+
+/**
+ * Writes a series as a JSON object of arrays, dates as ISO strings and values as raw doubles;
+ * tables become arrays of objects.
+ */
+public class JsonSeriesSink implements SeriesSink {
+
+    private final JsonGenerator gen;
+    private SeriesColumn[] columns;
+    private int column;
+
+    public JsonSeriesSink(JsonGenerator gen) {
+        this.gen = gen;
+    }
+
+    @Override
+    public void begin(int rows, SeriesColumn... columns) {
+        this.columns = columns;
+        gen.writeStartObject();
+    }
+
+    @Override
+    public void startColumn() {
+        gen.writeName(columns[column++].getName());
+        gen.writeStartArray();
+    }
+
+    @Override
+    public void writeDate(LocalDate date) {
+        gen.writeString(date.toString());
+    }
+
+    @Override
+    public void writeValue(double value) {
+        gen.writeNumber(value);
+    }
+
+    @Override
+    public void endColumn() {
+        gen.writeEndArray();
+    }
+
+    @Override
+    public void writeTable(String name, int rows, SeriesColumn[] columns, Consumer<SeriesRow> scan) {
+        gen.writeName(name);
+        gen.writeStartArray();
+        scan.accept(new SeriesRow() {
+            private int field;
+
+            @Override
+            public void date(LocalDate date) {
+                name().writeString(date.toString());
+                next();
+            }
+
+            @Override
+            public void value(double value) {
+                name().writeNumber(value);
+                next();
+            }
+
+            @Override
+            public void category(String value) {
+                name().writeString(value);
+                next();
+            }
+
+            private JsonGenerator name() {
+                if (field == 0) gen.writeStartObject();
+                gen.writeName(columns[field].getName());
+                return gen;
+            }
+
+            private void next() {
+                if (++field == columns.length) {
+                    gen.writeEndObject();
+                    field = 0;
+                }
+            }
+        });
+        gen.writeEndArray();
+    }
+
+    @Override
+    public JsonGenerator fields() {
+        return gen;
+    }
+
+    @Override
+    public void end() {
+        gen.writeEndObject();
+    }
+}
@@ -0,0 +1,70 @@
+package com.example.oilrisk_alert.series;
+
+import java.util.List;
+
+/**
+ * A row-aligned column of a series response: dates, fixed-scale decimals, or strings from a
+ * small fixed set.
+ */
+public final class SeriesColumn {
+
+    public enum Type {
+        DATE(1), DECIMAL(2), CATEGORY(3);
+
+        private final int code;
+
+        Type(int code) {
+            this.code = code;
+        }
+
+        public int getCode() {
+            return code;
+        }
+    }
+
+    private final String name;
+    private final Type type;
+    private final int scale;
+    private final List<String> categories;
+
+    private SeriesColumn(String name, Type type, int scale, List<String> categories) {
+        this.name = name;
+        this.type = type;
+        this.scale = scale;
+        this.categories = categories;
+    }
+
+    public static SeriesColumn date(String name) {
+        return new SeriesColumn(name, Type.DATE, 0, List.of());
+    }
+
+    /**
+     * @param scale decimal places kept by binary encodings
+     */
+    public static SeriesColumn decimal(String name, int scale) {
+        return new SeriesColumn(name, Type.DECIMAL, scale, List.of());
+    }
+
+    /**
+     * @param categories every value the column can hold; binary encodings send the index
+     */
+    public static SeriesColumn category(String name, List<String> categories) {
+        return new SeriesColumn(name, Type.CATEGORY, 0, List.copyOf(categories));
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    public Type getType() {
+        return type;
+    }
+
+    public int getScale() {
+        return scale;
+    }
+
+    public List<String> getCategories() {
+        return categories;
+    }
+}
@@ -0,0 +1,15 @@
+package com.example.oilrisk_alert.series;
+
+import java.time.LocalDate;
+
+/**
+ * Receives the fields of one record of a {@link SeriesSink#writeTable} table, in column order.
+ */
+public interface SeriesRow {
+
+    void date(LocalDate date);
+
+    void value(double value);
+
+    void category(String value);
+}
@@ -0,0 +1,43 @@
+package com.example.oilrisk_alert.series;
+
+import tools.jackson.core.JsonGenerator;
+
+import java.time.LocalDate;
+import java.util.function.Consumer;
+
+/**
+ * Target of a streamed series response. Producers call {@link #begin}, then for each declared
+ * column in order {@link #startColumn}, one write per row and {@link #endColumn}; then any record
+ * tables, then non-columnar fields on {@link #fields()} and finally {@link #end()}.
+ */
+public interface SeriesSink {
+
+    /**
+     * @param rows    values every column will hold
+     * @param columns columns in the order they will be written
+     */
+    void begin(int rows, SeriesColumn... columns);
+
+    void startColumn();
+
+    void writeDate(LocalDate date);
+
+    void writeValue(double value);
+
+    void endColumn();
+
+    /**
+     * Writes a list of records such as alert markers. {@code scan} must feed exactly {@code rows}
+     * records, each with every column in order, and may be invoked more than once (binary
+     * encodings take one pass per column).
+     */
+    void writeTable(String name, int rows, SeriesColumn[] columns, Consumer<SeriesRow> scan);
+
+    /**
+     * Generator positioned inside the data object, for fields that are neither columns nor
+     * tables. Only valid after the last table.
+     */
+    JsonGenerator fields();
+
+    void end();
+}
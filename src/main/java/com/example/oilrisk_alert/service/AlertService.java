@@ -1,13 +1,32 @@
 package com.example.oilrisk_alert.service;
 
 import com.example.oilrisk_alert.dto.AlertQueryDTO;
+import com.example.oilrisk_alert.dto.AlertSearchDTO;
 import com.example.oilrisk_alert.vo.AlertDetailVO;
+import com.example.oilrisk_alert.vo.AlertSearchVO;
 import com.example.oilrisk_alert.vo.AlertVO;
 import com.example.oilrisk_alert.vo.PageVO;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
 
 public interface AlertService {
 
     PageVO<AlertVO> getAlerts(AlertQueryDTO query);
 
     AlertDetailVO getAlertDetail(Long id);
+
+    /**
+     * Full-text search over summaries, trigger factor/type and AI report, with level, trigger
+     * type and year facets.
+     */
+    AlertSearchVO search(AlertSearchDTO query);
+
+    /**
+     * Opens a stream that receives every alert raised by live ingest.
+     */
+    SseEmitter subscribe();
+
+    /**
+     * Recompiles alert rules from the database; returns the number of active rules.
+     */
+    int reloadRules();
 }
@@ -1,9 +1,18 @@
 package com.example.oilrisk_alert.service;
 
 import com.example.oilrisk_alert.dto.BacktestRequestDTO;
+import com.example.oilrisk_alert.series.SeriesSink;
 import com.example.oilrisk_alert.vo.BacktestResultVO;
 
+import java.util.function.Consumer;
+
 public interface BacktestService {
 
     BacktestResultVO runBacktest(BacktestRequestDTO request);
+
+    /**
+     * Validates eagerly, then returns a writer that emits the {@link BacktestResultVO} fields,
+     * reading single-pass results column by column from the database.
+     */
+    Consumer<SeriesSink> streamBacktest(BacktestRequestDTO request);
 }
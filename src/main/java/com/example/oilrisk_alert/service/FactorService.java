@@ -1,8 +1,10 @@
 package com.example.oilrisk_alert.service;
 
 import com.example.oilrisk_alert.dto.WeightDTO;
+import com.example.oilrisk_alert.vo.FactorCorrelationVO;
 import com.example.oilrisk_alert.vo.FactorVO;
 import com.example.oilrisk_alert.vo.RadarScoreVO;
+import com.example.oilrisk_alert.vo.RadarTimeseriesVO;
 import com.example.oilrisk_alert.vo.WeightUpdateResultVO;
 
 import java.time.LocalDate;
@@ -12,7 +14,16 @@ public interface FactorService {
 
     List<RadarScoreVO> getRadarScores(LocalDate date);
 
+    RadarTimeseriesVO getRadarTimeseries(LocalDate start, LocalDate end);
+
     List<FactorVO> getExplain(LocalDate date);
 
+    /**
+     * Factor-factor and factor-risk_index correlation and cumulative SHAP over [start, end];
+     * rolling correlation over {@code window} dates (null for the default). Ranges of more than
+     * {@code factor.correlation.max-dates} risk_index dates are rejected with 400.
+     */
+    FactorCorrelationVO getCorrelation(LocalDate start, LocalDate end, Integer window);
+
     WeightUpdateResultVO updateWeights(WeightDTO dto);
 }
@@ -0,0 +1,20 @@
+package com.example.oilrisk_alert.service;
+
+import com.example.oilrisk_alert.dto.ObservationDTO;
+import com.example.oilrisk_alert.vo.IngestResultVO;
+import com.example.oilrisk_alert.vo.ObservationResultVO;
+
+import java.nio.file.Path;
+
+public interface IngestService {
+
+    IngestResultVO ingestCsv(Path csvPath);
+
+    ObservationResultVO ingestObservation(ObservationDTO dto);
+
+    /**
+     * Replays stored market_data into the risk engine unless it already holds history, so the
+     * first live observation does not pay for the replay.
+     */
+    void primeEngine();
+}
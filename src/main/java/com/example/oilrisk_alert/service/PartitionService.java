@@ -0,0 +1,41 @@
+package com.example.oilrisk_alert.service;
+
+import com.example.oilrisk_alert.entity.ArchiveBoundary;
+import com.example.oilrisk_alert.vo.ArchiveResultVO;
+
+import java.time.LocalDate;
+
+public interface PartitionService {
+
+    /**
+     * Adds date partitions to risk_index and risk_factor up to {@code partition.ahead} periods
+     * past today. A no-op on tables that are not partitioned.
+     */
+    void ensurePartitions();
+
+    /**
+     * Moves risk_factor rows dated before the cutoff, rounded down to a period start, to
+     * risk_factor_archive. On a partitioned table only whole partitions that end on or before the
+     * cutoff move, and they are dropped afterwards instead of deleted row by row.
+     */
+    ArchiveResultVO archiveFactors(LocalDate before);
+
+    /**
+     * Moves risk_factor rows dated from {@code since} up to the archive boundary, written after
+     * their dates were archived, into risk_factor_archive where reads of those dates go, and marks
+     * the archived span as rewritten. Runs in the writing transaction; a no-op when {@code since}
+     * is not below the boundary.
+     */
+    void rearchiveFactors(LocalDate since);
+
+    /**
+     * @return the date before which risk_factor rows are read from the archive, or null when
+     * nothing is archived
+     */
+    LocalDate getFactorsArchivedBefore();
+
+    /**
+     * @return the risk_factor archive_boundary row, or null when nothing is archived
+     */
+    ArchiveBoundary getFactorArchiveBoundary();
+}
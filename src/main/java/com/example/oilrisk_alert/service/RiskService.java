@@ -1,13 +1,21 @@
 package com.example.oilrisk_alert.service;
 
+import com.example.oilrisk_alert.series.SeriesSink;
 import com.example.oilrisk_alert.vo.RiskCurrentVO;
 import com.example.oilrisk_alert.vo.TimeseriesVO;
 
 import java.time.LocalDate;
+import java.util.function.Consumer;
 
 public interface RiskService {
 
     RiskCurrentVO getCurrentRisk();
 
     TimeseriesVO getTimeseries(LocalDate start, LocalDate end);
+
+    /**
+     * Same content as {@link #getTimeseries}, written straight from mapper result handlers.
+     * The returned writer emits the {@link TimeseriesVO} fields onto the sink.
+     */
+    Consumer<SeriesSink> streamTimeseries(LocalDate start, LocalDate end);
 }
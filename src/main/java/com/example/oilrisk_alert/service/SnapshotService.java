@@ -0,0 +1,23 @@
+package com.example.oilrisk_alert.service;
+
+import com.example.oilrisk_alert.vo.SnapshotResultVO;
+
+import java.nio.file.Path;
+
+public interface SnapshotService {
+
+    /**
+     * Dumps market_data, risk_index, risk_factor and alert (including ai_report) to a binary snapshot.
+     */
+    SnapshotResultVO export(Path path);
+
+    /**
+     * Replaces the four tables with the snapshot contents in one transaction.
+     */
+    SnapshotResultVO restore(Path path);
+
+    /**
+     * Restores only when the snapshot holds later data than the database; returns null when skipped.
+     */
+    SnapshotResultVO restoreIfNewer(Path path);
+}
@@ -1,23 +1,37 @@
 package com.example.oilrisk_alert.service.impl;
 
+import com.example.oilrisk_alert.cluster.ClusterBus;
+import com.example.oilrisk_alert.cluster.ClusterMessage;
 import com.example.oilrisk_alert.common.BusinessException;
 import com.example.oilrisk_alert.dto.AlertQueryDTO;
+import com.example.oilrisk_alert.dto.AlertSearchDTO;
+import com.example.oilrisk_alert.engine.AlertRaisedEvent;
+import com.example.oilrisk_alert.engine.AlertRuleEngine;
 import com.example.oilrisk_alert.entity.Alert;
 import com.example.oilrisk_alert.mapper.AlertMapper;
+import com.example.oilrisk_alert.metrics.StreamingMetrics;
+import com.example.oilrisk_alert.search.AlertSearchIndex;
 import com.example.oilrisk_alert.service.AlertService;
 import com.example.oilrisk_alert.vo.AlertDetailVO;
+import com.example.oilrisk_alert.vo.AlertSearchVO;
 import com.example.oilrisk_alert.vo.AlertVO;
 import com.example.oilrisk_alert.vo.PageVO;
 import com.example.oilrisk_alert.vo.TriggerRuleVO;
 import tools.jackson.databind.ObjectMapper;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.context.event.EventListener;
+import org.springframework.http.MediaType;
 import org.springframework.stereotype.Service;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
 
 import java.util.ArrayList;
 import java.util.Collections;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.Set;
+import java.util.concurrent.CopyOnWriteArrayList;
 
 @Slf4j
 @Service
@@ -26,6 +40,12 @@ public class AlertServiceImpl implements AlertService {
 
     private final AlertMapper alertMapper;
     private final ObjectMapper objectMapper;
+    private final AlertRuleEngine alertRuleEngine;
+    private final StreamingMetrics streamingMetrics;
+    private final ClusterBus clusterBus;
+    private final AlertSearchIndex alertSearchIndex;
+
+    private final List<SseEmitter> subscribers = new CopyOnWriteArrayList<>();
 
     private static final Set<String> VALID_LEVELS = Set.of("Low", "Medium", "High");
     private static final Set<String> VALID_SORT_FIELDS = Set.of("date", "riskIndex", "risk_index");
@@ -51,18 +71,7 @@ public class AlertServiceImpl implements AlertService {
 
         List<AlertVO> voList = new ArrayList<>(records.size());
         for (Alert alert : records) {
-            AlertVO vo = new AlertVO();
-            vo.setId(alert.getId());
-            vo.setDate(alert.getDate().toString());
-            vo.setLevel(alert.getLevel());
-            vo.setRiskIndex(alert.getRiskIndex());
-            vo.setTriggerType(alert.getTriggerType());
-            vo.setTriggerFactor(alert.getTriggerFactor());
-            vo.setTriggerFactorZh(alert.getTriggerFactorZh());
-            vo.setSummary(alert.getSummary());
-            vo.setSummaryEn(alert.getSummaryEn());
-            vo.setAiReport(alert.getAiReport());
-            voList.add(vo);
+            voList.add(toAlertVO(alert));
         }
 
         PageVO<AlertVO> pageVO = new PageVO<>();
@@ -108,4 +117,100 @@ public class AlertServiceImpl implements AlertService {
 
         return vo;
     }
+
+    @Override
+    public AlertSearchVO search(AlertSearchDTO query) {
+        boolean byRiskIndex = "riskIndex".equals(query.getSort()) || "risk_index".equals(query.getSort());
+        boolean ascending = "asc".equals(query.getOrder());
+        int page = Math.max(1, query.getPage());
+        int size = Math.max(1, Math.min(100, query.getSize()));
+
+        String[] filters = new String[3];
+        filters[AlertSearchIndex.LEVEL] = query.getLevel();
+        filters[AlertSearchIndex.TRIGGER_TYPE] = query.getTriggerType();
+        filters[AlertSearchIndex.YEAR] = query.getYear() != null ? query.getYear().toString() : null;
+        AlertSearchIndex.Hits hits = alertSearchIndex.search(query.getQ(), filters, byRiskIndex, ascending,
+                (page - 1) * size, size);
+
+        // Rows come back in any order; one deleted since the search is left out
+        List<AlertVO> records = new ArrayList<>(hits.ids().size());
+        if (!hits.ids().isEmpty()) {
+            Map<Long, Alert> byId = new HashMap<>();
+            for (Alert alert : alertMapper.findByIds(hits.ids())) {
+                byId.put(alert.getId(), alert);
+            }
+            for (Long id : hits.ids()) {
+                Alert alert = byId.get(id);
+                if (alert != null) records.add(toAlertVO(alert));
+            }
+        }
+
+        AlertSearchVO vo = new AlertSearchVO();
+        vo.setTotal(hits.total());
+        vo.setPage(page);
+        vo.setSize(size);
+        vo.setRecords(records);
+        vo.setLevels(hits.facets().get(AlertSearchIndex.LEVEL));
+        vo.setTriggerTypes(hits.facets().get(AlertSearchIndex.TRIGGER_TYPE));
+        vo.setYears(hits.facets().get(AlertSearchIndex.YEAR));
+        return vo;
+    }
+
+    @Override
+    public SseEmitter subscribe() {
+        SseEmitter emitter = new SseEmitter(0L);
+        subscribers.add(emitter);
+        streamingMetrics.alertSubscriberAdded();
+        emitter.onCompletion(() -> removeSubscriber(emitter));
+        emitter.onTimeout(() -> removeSubscriber(emitter));
+        emitter.onError(e -> removeSubscriber(emitter));
+        return emitter;
+    }
+
+    private void removeSubscriber(SseEmitter emitter) {
+        if (subscribers.remove(emitter)) {
+            streamingMetrics.alertSubscriberRemoved();
+        }
+    }
+
+    @Override
+    public int reloadRules() {
+        return alertRuleEngine.reload();
+    }
+
+    /**
+     * Subscribers may be connected to any instance, so alerts go out over the cluster bus.
+     */
+    @EventListener
+    public void onAlertRaised(AlertRaisedEvent event) {
+        clusterBus.publish(ClusterBus.TOPIC_ALERT, objectMapper.writeValueAsString(toAlertVO(event.getAlert())));
+    }
+
+    @EventListener(condition = "#message.topic == 'alert'")
+    public void onClusterAlert(ClusterMessage message) {
+        if (subscribers.isEmpty()) return;
+        String json = message.getPayload();
+        for (SseEmitter emitter : subscribers) {
+            try {
+                emitter.send(SseEmitter.event().name("alert").data(json, MediaType.APPLICATION_JSON));
+            } catch (Exception e) {
+                removeSubscriber(emitter);
+            }
+        }
+    }
+
+    private AlertVO toAlertVO(Alert alert) {
+        AlertVO vo = new AlertVO();
+        vo.setId(alert.getId());
+        vo.setDate(alert.getDate().toString());
+        vo.setLevel(alert.getLevel());
+        vo.setRiskIndex(alert.getRiskIndex());
+        vo.setTriggerType(alert.getTriggerType());
+        vo.setTriggerFactor(alert.getTriggerFactor());
+        vo.setTriggerFactorZh(alert.getTriggerFactorZh());
+        vo.setSummary(alert.getSummary());
+        vo.setSummaryEn(alert.getSummaryEn());
+        vo.setAiReport(alert.getAiReport());
+        return vo;
+    }
 }
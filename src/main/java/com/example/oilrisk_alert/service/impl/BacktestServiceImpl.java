@@ -5,25 +5,139 @@ import com.example.oilrisk_alert.common.RiskLevel;
 import com.example.oilrisk_alert.dto.BacktestRequestDTO;
 import com.example.oilrisk_alert.entity.RiskIndex;
 import com.example.oilrisk_alert.mapper.RiskMapper;
+import com.example.oilrisk_alert.series.SeriesColumn;
+import com.example.oilrisk_alert.series.SeriesSink;
 import com.example.oilrisk_alert.service.BacktestService;
+import com.example.oilrisk_alert.vo.BacktestFoldVO;
 import com.example.oilrisk_alert.vo.BacktestResultVO;
 import lombok.RequiredArgsConstructor;
+import org.springframework.context.annotation.Lazy;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+import tools.jackson.core.JsonGenerator;
 
 import java.math.BigDecimal;
 import java.math.RoundingMode;
+import java.time.LocalDate;
 import java.util.*;
+import java.util.function.Consumer;
+import java.util.stream.IntStream;
 
+@Lazy
 @Service
 @RequiredArgsConstructor
 public class BacktestServiceImpl implements BacktestService {
 
     private final RiskMapper riskMapper;
+    private final TransactionTemplate transactionTemplate;
 
     private static final Set<String> VALID_MODELS = Set.of("XGBoost", "ARIMA", "LSTM");
+    private static final SeriesColumn[] COLUMNS = {
+            SeriesColumn.date("dates"), SeriesColumn.decimal("actual", 2), SeriesColumn.decimal("predicted", 2)};
 
     @Override
     public BacktestResultVO runBacktest(BacktestRequestDTO request) {
+        validate(request);
+
+        List<RiskIndex> data = riskMapper.findByDateRange(
+                request.getStartDate(), request.getEndDate());
+        if (data.isEmpty()) {
+            throw new BusinessException(404, "No data found for the given date range");
+        }
+
+        double perturbationRange = perturbationRange(request.getModel());
+        if (request.getTrainWindow() != null) {
+            return runWalkForward(request, data, perturbationRange);
+        }
+
+        List<String> dates = new ArrayList<>(data.size());
+        List<BigDecimal> actual = new ArrayList<>(data.size());
+        List<BigDecimal> predicted = new ArrayList<>(data.size());
+        SinglePass pass = new SinglePass(request.getModel(), perturbationRange);
+        for (RiskIndex ri : data) {
+            dates.add(ri.getDate().toString());
+            actual.add(ri.getOilPrice());
+            predicted.add(BigDecimal.valueOf(pass.next(ri)).setScale(2, RoundingMode.HALF_UP));
+        }
+
+        BacktestResultVO result = new BacktestResultVO();
+        result.setDates(dates);
+        result.setActual(actual);
+        result.setPredicted(predicted);
+        result.setMae(pass.mae());
+        result.setHitRate(pass.hitRate());
+        result.setFalseAlarmRate(pass.falseAlarmRate());
+        result.setDirectionAccuracy(pass.directionAccuracy());
+        return result;
+    }
+
+    @Override
+    public Consumer<SeriesSink> streamBacktest(BacktestRequestDTO request) {
+        validate(request);
+        if (request.getTrainWindow() != null) {
+            // Walk-forward folds need random access to the whole range, so it is built as usual
+            BacktestResultVO result = runBacktest(request);
+            return sink -> writeResult(result, sink);
+        }
+
+        LocalDate start = request.getStartDate();
+        LocalDate end = request.getEndDate();
+        int rows = riskMapper.countByDateRange(start, end);
+        if (rows == 0) {
+            throw new BusinessException(404, "No data found for the given date range");
+        }
+        String model = request.getModel();
+        double perturbationRange = perturbationRange(model);
+        return sink -> {
+            TransactionTemplate readOnly = new TransactionTemplate(transactionTemplate.getTransactionManager());
+            readOnly.setReadOnly(true);
+            readOnly.executeWithoutResult(status -> {
+                // One pass per column; predictions are deterministic so nothing is carried over
+                sink.begin(rows, COLUMNS);
+                sink.startColumn();
+                scanRows(start, end, rows, ri -> sink.writeDate(ri.getDate()));
+                sink.endColumn();
+                sink.startColumn();
+                scanRows(start, end, rows, ri -> sink.writeValue(ri.getOilPrice().doubleValue()));
+                sink.endColumn();
+                sink.startColumn();
+                SinglePass pass = new SinglePass(model, perturbationRange);
+                scanRows(start, end, rows, ri -> sink.writeValue(pass.next(ri)));
+                sink.endColumn();
+                writeMetrics(sink.fields(), pass.hitRate(), pass.falseAlarmRate(), pass.mae(),
+                        pass.directionAccuracy(), null);
+                sink.end();
+            });
+        };
+    }
+
+    private static void writeResult(BacktestResultVO result, SeriesSink sink) {
+        int rows = result.getDates().size();
+        sink.begin(rows, COLUMNS);
+        sink.startColumn();
+        result.getDates().forEach(date -> sink.writeDate(LocalDate.parse(date)));
+        sink.endColumn();
+        sink.startColumn();
+        result.getActual().forEach(value -> sink.writeValue(value.doubleValue()));
+        sink.endColumn();
+        sink.startColumn();
+        result.getPredicted().forEach(value -> sink.writeValue(value.doubleValue()));
+        sink.endColumn();
+        writeMetrics(sink.fields(), result.getHitRate(), result.getFalseAlarmRate(), result.getMae(),
+                result.getDirectionAccuracy(), result.getFolds());
+        sink.end();
+    }
+
+    private static void writeMetrics(JsonGenerator gen, BigDecimal hitRate, BigDecimal falseAlarmRate,
+                                     BigDecimal mae, BigDecimal directionAccuracy, List<BacktestFoldVO> folds) {
+        gen.writeNumberProperty("hitRate", hitRate);
+        gen.writeNumberProperty("falseAlarmRate", falseAlarmRate);
+        gen.writeNumberProperty("mae", mae);
+        gen.writeNumberProperty("directionAccuracy", directionAccuracy);
+        gen.writePOJOProperty("folds", folds);
+    }
+
+    private void validate(BacktestRequestDTO request) {
         if (request.getStartDate() == null || request.getEndDate() == null) {
             throw new BusinessException(400, "startDate and endDate are required");
         }
@@ -33,41 +147,199 @@ public class BacktestServiceImpl implements BacktestService {
         if (request.getModel() == null || !VALID_MODELS.contains(request.getModel())) {
             throw new BusinessException(400, "model must be one of: XGBoost, ARIMA, LSTM");
         }
+    }
 
-        List<RiskIndex> data = riskMapper.findByDateRange(
-                request.getStartDate(), request.getEndDate());
-        if (data.isEmpty()) {
-            throw new BusinessException(404, "No data found for the given date range");
-        }
-
-        double perturbationRange = switch (request.getModel()) {
+    private static double perturbationRange(String model) {
+        return switch (model) {
             case "XGBoost" -> 0.05;
             case "ARIMA" -> 0.08;
             case "LSTM" -> 0.06;
             default -> 0.05;
         };
+    }
 
-        List<String> dates = new ArrayList<>(data.size());
-        List<BigDecimal> actual = new ArrayList<>(data.size());
-        List<BigDecimal> predicted = new ArrayList<>(data.size());
-        int hitCount = 0;
+    private void scanRows(LocalDate start, LocalDate end, int rows, Consumer<RiskIndex> action) {
+        riskMapper.scanByDateRange(start, end, context -> {
+            if (context.getResultCount() > rows) {
+                context.stop();
+                return;
+            }
+            action.accept(context.getResultObject());
+        });
+    }
+
+    /**
+     * Rolling-origin evaluation: each fold fits on the trainWindow observations before its
+     * origin and forecasts the next horizon observations, then the origin advances by step.
+     * Folds only read slices of the shared primitive arrays, so they run in parallel.
+     */
+    private BacktestResultVO runWalkForward(BacktestRequestDTO request, List<RiskIndex> data,
+                                            double perturbationRange) {
+        int n = data.size();
+        int trainWindow = request.getTrainWindow();
+        int step = request.getStep() != null ? request.getStep() : 1;
+        int horizon = request.getHorizon() != null ? request.getHorizon() : 1;
+        if (trainWindow < 2 || step < 1 || horizon < 1) {
+            throw new BusinessException(400, "trainWindow must be >= 2, step and horizon must be >= 1");
+        }
+        if (trainWindow + horizon > n) {
+            throw new BusinessException(400,
+                    "trainWindow + horizon exceeds available data (" + n + " points)");
+        }
+
+        double[] prices = new double[n];
+        double[] risks = new double[n];
+        for (int i = 0; i < n; i++) {
+            BigDecimal price = data.get(i).getOilPrice();
+            // Folds fit on log returns, which need a positive price on every date
+            if (price == null || price.signum() <= 0) {
+                throw new BusinessException(400, "Walk-forward backtest needs a positive oil price, "
+                        + data.get(i).getDate() + " has " + price);
+            }
+            prices[i] = price.doubleValue();
+            risks[i] = data.get(i).getRiskIndex().doubleValue();
+        }
+
+        int foldCount = (n - trainWindow - horizon) / step + 1;
+        String model = request.getModel();
+        Fold[] folds = IntStream.range(0, foldCount)
+                .parallel()
+                .mapToObj(k -> runFold(data, prices, risks, trainWindow + k * step,
+                        trainWindow, horizon, model, perturbationRange))
+                .toArray(Fold[]::new);
+
+        // Later origins overwrite earlier ones, so each date keeps its most recent forecast
+        double[] latestForecast = new double[n];
+        Arrays.fill(latestForecast, Double.NaN);
         double totalAbsError = 0;
+        int hitCount = 0;
         int directionMatch = 0;
+        int points = 0;
+        List<BacktestFoldVO> foldVOs = new ArrayList<>(foldCount);
+        for (Fold fold : folds) {
+            System.arraycopy(fold.predicted, 0, latestForecast, fold.origin, fold.predicted.length);
+            totalAbsError += fold.totalAbsError;
+            hitCount += fold.hitCount;
+            directionMatch += fold.directionMatch;
+            points += fold.predicted.length;
+            foldVOs.add(toFoldVO(data, fold, trainWindow));
+        }
 
-        for (int i = 0; i < data.size(); i++) {
-            RiskIndex ri = data.get(i);
-            dates.add(ri.getDate().toString());
+        List<String> dates = new ArrayList<>();
+        List<BigDecimal> actual = new ArrayList<>();
+        List<BigDecimal> predicted = new ArrayList<>();
+        for (int i = 0; i < n; i++) {
+            if (Double.isNaN(latestForecast[i])) continue;
+            dates.add(data.get(i).getDate().toString());
+            actual.add(data.get(i).getOilPrice());
+            predicted.add(BigDecimal.valueOf(latestForecast[i]).setScale(2, RoundingMode.HALF_UP));
+        }
+
+        double hitRate = (double) hitCount / points;
+        BacktestResultVO result = new BacktestResultVO();
+        result.setDates(dates);
+        result.setActual(actual);
+        result.setPredicted(predicted);
+        result.setMae(BigDecimal.valueOf(totalAbsError / points).setScale(2, RoundingMode.HALF_UP));
+        result.setHitRate(BigDecimal.valueOf(hitRate).setScale(4, RoundingMode.HALF_UP));
+        result.setFalseAlarmRate(BigDecimal.valueOf(1.0 - hitRate).setScale(4, RoundingMode.HALF_UP));
+        result.setDirectionAccuracy(BigDecimal.valueOf((double) directionMatch / points)
+                .setScale(4, RoundingMode.HALF_UP));
+        result.setFolds(foldVOs);
+        return result;
+    }
+
+    private Fold runFold(List<RiskIndex> data, double[] prices, double[] risks, int origin,
+                         int trainWindow, int horizon, String model, double perturbationRange) {
+        // Fit: mean log-return of price and mean step change of risk over the training slice
+        int trainStart = origin - trainWindow;
+        double priceDrift = 0;
+        double riskDrift = 0;
+        for (int i = trainStart + 1; i < origin; i++) {
+            priceDrift += Math.log(prices[i] / prices[i - 1]);
+            riskDrift += risks[i] - risks[i - 1];
+        }
+        priceDrift /= trainWindow - 1;
+        riskDrift /= trainWindow - 1;
+
+        Fold fold = new Fold(origin, new double[horizon]);
+        double lastPrice = prices[origin - 1];
+        double lastRisk = risks[origin - 1];
+        double prevActual = lastPrice;
+        double prevPredicted = lastPrice;
+        for (int h = 0; h < horizon; h++) {
+            int t = origin + h;
+            Random random = new Random(data.get(t).getDate().hashCode() + model.hashCode());
+            double perturbation = 1.0 + (random.nextDouble() * 2 - 1) * perturbationRange;
+            double predictedPrice = lastPrice * Math.exp(priceDrift * (h + 1)) * perturbation;
+            fold.predicted[h] = predictedPrice;
+            fold.totalAbsError += Math.abs(predictedPrice - prices[t]);
+
+            double riskPerturbation = 1.0 + (random.nextDouble() * 2 - 1) * perturbationRange;
+            double predictedRisk = Math.max(0, Math.min(100,
+                    (lastRisk + riskDrift * (h + 1)) * riskPerturbation));
+            if (RiskLevel.fromIndex(BigDecimal.valueOf(risks[t]))
+                    == RiskLevel.fromIndex(BigDecimal.valueOf(predictedRisk))) {
+                fold.hitCount++;
+            }
+
+            double actualChange = prices[t] - prevActual;
+            double predictedChange = predictedPrice - prevPredicted;
+            if ((actualChange >= 0 && predictedChange >= 0)
+                    || (actualChange < 0 && predictedChange < 0)) {
+                fold.directionMatch++;
+            }
+            prevActual = prices[t];
+            prevPredicted = predictedPrice;
+        }
+        return fold;
+    }
+
+    private BacktestFoldVO toFoldVO(List<RiskIndex> data, Fold fold, int trainWindow) {
+        int horizon = fold.predicted.length;
+        BacktestFoldVO vo = new BacktestFoldVO();
+        vo.setTrainStart(data.get(fold.origin - trainWindow).getDate().toString());
+        vo.setTrainEnd(data.get(fold.origin - 1).getDate().toString());
+        vo.setTestStart(data.get(fold.origin).getDate().toString());
+        vo.setTestEnd(data.get(fold.origin + horizon - 1).getDate().toString());
+        vo.setMae(BigDecimal.valueOf(fold.totalAbsError / horizon).setScale(2, RoundingMode.HALF_UP));
+        vo.setHitRate(BigDecimal.valueOf((double) fold.hitCount / horizon)
+                .setScale(4, RoundingMode.HALF_UP));
+        vo.setDirectionAccuracy(BigDecimal.valueOf((double) fold.directionMatch / horizon)
+                .setScale(4, RoundingMode.HALF_UP));
+        return vo;
+    }
+
+    /**
+     * Single-pass model state: each prediction only depends on the current row and the previous
+     * actual/predicted pair, so rows can be fed one at a time from a cursor.
+     */
+    private static final class SinglePass {
+        final String model;
+        final double perturbationRange;
+        int count;
+        int hitCount;
+        int directionMatch;
+        double totalAbsError;
+        double prevActual;
+        double prevPredicted;
 
+        SinglePass(String model, double perturbationRange) {
+            this.model = model;
+            this.perturbationRange = perturbationRange;
+        }
+
+        /**
+         * @return predicted price rounded to cents
+         */
+        double next(RiskIndex ri) {
             double actualPrice = ri.getOilPrice().doubleValue();
-            actual.add(ri.getOilPrice());
 
             // Date-seeded random for reproducibility
-            Random random = new Random(
-                    ri.getDate().hashCode() + request.getModel().hashCode());
+            Random random = new Random(ri.getDate().hashCode() + model.hashCode());
             double perturbation = 1.0 + (random.nextDouble() * 2 - 1) * perturbationRange;
             double predictedPrice = actualPrice * perturbation;
-            predicted.add(BigDecimal.valueOf(predictedPrice)
-                    .setScale(2, RoundingMode.HALF_UP));
+            double rounded = BigDecimal.valueOf(predictedPrice).setScale(2, RoundingMode.HALF_UP).doubleValue();
 
             // MAE contribution
             totalAbsError += Math.abs(predictedPrice - actualPrice);
@@ -75,20 +347,13 @@ public class BacktestServiceImpl implements BacktestService {
             // Hit rate: compare risk levels (perturb risk_index with same seed)
             double actualRisk = ri.getRiskIndex().doubleValue();
             double riskPerturbation = 1.0 + (random.nextDouble() * 2 - 1) * perturbationRange;
-            double predictedRisk = Math.max(0, Math.min(100,
-                    actualRisk * riskPerturbation));
-
-            String actualLevel = RiskLevel.fromIndex(ri.getRiskIndex()).getLabel();
-            String predictedLevel = RiskLevel.fromIndex(
-                    BigDecimal.valueOf(predictedRisk)).getLabel();
-            if (actualLevel.equals(predictedLevel)) {
+            double predictedRisk = Math.max(0, Math.min(100, actualRisk * riskPerturbation));
+            if (RiskLevel.fromIndex(ri.getRiskIndex()) == RiskLevel.fromIndex(BigDecimal.valueOf(predictedRisk))) {
                 hitCount++;
             }
 
-            // Direction accuracy (i > 0)
-            if (i > 0) {
-                double prevActual = data.get(i - 1).getOilPrice().doubleValue();
-                double prevPredicted = predicted.get(i - 1).doubleValue();
+            // Direction accuracy against the previous (rounded) prediction
+            if (count > 0) {
                 double actualChange = actualPrice - prevActual;
                 double predictedChange = predictedPrice - prevPredicted;
                 if ((actualChange >= 0 && predictedChange >= 0)
@@ -96,24 +361,40 @@ public class BacktestServiceImpl implements BacktestService {
                     directionMatch++;
                 }
             }
+            prevActual = actualPrice;
+            prevPredicted = rounded;
+            count++;
+            return rounded;
         }
 
-        int n = data.size();
-        double mae = totalAbsError / n;
-        double hitRate = (double) hitCount / n;
-        double falseAlarmRate = 1.0 - hitRate;
-        double directionAccuracy = n > 1 ? (double) directionMatch / (n - 1) : 0;
+        BigDecimal mae() {
+            return BigDecimal.valueOf(totalAbsError / count).setScale(2, RoundingMode.HALF_UP);
+        }
 
-        BacktestResultVO result = new BacktestResultVO();
-        result.setDates(dates);
-        result.setActual(actual);
-        result.setPredicted(predicted);
-        result.setMae(BigDecimal.valueOf(mae).setScale(2, RoundingMode.HALF_UP));
-        result.setHitRate(BigDecimal.valueOf(hitRate).setScale(4, RoundingMode.HALF_UP));
-        result.setFalseAlarmRate(BigDecimal.valueOf(falseAlarmRate)
-                .setScale(4, RoundingMode.HALF_UP));
-        result.setDirectionAccuracy(BigDecimal.valueOf(directionAccuracy)
-                .setScale(4, RoundingMode.HALF_UP));
-        return result;
+        BigDecimal hitRate() {
+            return BigDecimal.valueOf((double) hitCount / count).setScale(4, RoundingMode.HALF_UP);
+        }
+
+        BigDecimal falseAlarmRate() {
+            return BigDecimal.valueOf(1.0 - (double) hitCount / count).setScale(4, RoundingMode.HALF_UP);
+        }
+
+        BigDecimal directionAccuracy() {
+            double accuracy = count > 1 ? (double) directionMatch / (count - 1) : 0;
+            return BigDecimal.valueOf(accuracy).setScale(4, RoundingMode.HALF_UP);
+        }
+    }
+
+    private static final class Fold {
+        final int origin;
+        final double[] predicted;
+        double totalAbsError;
+        int hitCount;
+        int directionMatch;
+
+        Fold(int origin, double[] predicted) {
+            this.origin = origin;
+            this.predicted = predicted;
+        }
     }
 }
@@ -1,23 +1,37 @@
 package com.example.oilrisk_alert.service.impl;
 
+import com.example.oilrisk_alert.cache.RadarEntry;
+import com.example.oilrisk_alert.cache.RadarScoreCache;
+import com.example.oilrisk_alert.cluster.WeightsSync;
+import com.example.oilrisk_alert.columnar.ColumnarArchive;
+import com.example.oilrisk_alert.columnar.ColumnarTable;
 import com.example.oilrisk_alert.common.BusinessException;
 import com.example.oilrisk_alert.common.RiskLevel;
 import com.example.oilrisk_alert.config.WeightsConfig;
 import com.example.oilrisk_alert.dto.WeightDTO;
+import com.example.oilrisk_alert.engine.CorrelationKernels;
+import com.example.oilrisk_alert.engine.FactorColumns;
+import com.example.oilrisk_alert.engine.RadarSeriesAccumulator;
+import com.example.oilrisk_alert.entity.ArchiveBoundary;
 import com.example.oilrisk_alert.entity.RiskFactor;
 import com.example.oilrisk_alert.entity.RiskIndex;
 import com.example.oilrisk_alert.mapper.FactorMapper;
 import com.example.oilrisk_alert.mapper.RiskMapper;
 import com.example.oilrisk_alert.service.FactorService;
+import com.example.oilrisk_alert.service.PartitionService;
+import com.example.oilrisk_alert.vo.FactorCorrelationVO;
 import com.example.oilrisk_alert.vo.FactorVO;
 import com.example.oilrisk_alert.vo.RadarScoreVO;
+import com.example.oilrisk_alert.vo.RadarTimeseriesVO;
 import com.example.oilrisk_alert.vo.WeightUpdateResultVO;
 import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
 
 import java.math.BigDecimal;
 import java.math.RoundingMode;
 import java.time.LocalDate;
+import java.time.temporal.ChronoUnit;
 import java.util.*;
 import java.util.stream.Collectors;
 
@@ -25,12 +39,21 @@ import java.util.stream.Collectors;
 @RequiredArgsConstructor
 public class FactorServiceImpl implements FactorService {
 
+    private static final int INITIAL_SERIES_CAPACITY = 4096;
+    private static final int DEFAULT_CORRELATION_WINDOW = 90;
+    private static final int MAX_SERIES_POINTS = 1000;
+
     private final FactorMapper factorMapper;
     private final RiskMapper riskMapper;
     private final WeightsConfig weightsConfig;
+    private final RadarScoreCache radarScoreCache;
+    private final WeightsSync weightsSync;
+    private final PartitionService partitionService;
+    private final ColumnarArchive columnarArchive;
 
-    private static final List<String> CATEGORY_ORDER = List.of(
-            "SUPPLY_DEMAND", "MACRO", "FINANCIAL", "GEOPOLITICAL", "SENTIMENT");
+    /** Every date of a correlation request is held as value, SHAP and normalised columns */
+    @Value("${factor.correlation.max-dates:20000}")
+    private int maxCorrelationDates = 20000;
 
     @Override
     public List<RadarScoreVO> getRadarScores(LocalDate date) {
@@ -41,68 +64,187 @@ public class FactorServiceImpl implements FactorService {
             throw new BusinessException(404, "No factor data available");
         }
 
-        List<RiskFactor> factors = factorMapper.findByDate(date);
-        if (factors.isEmpty()) {
-            throw new BusinessException(404, "No factor data for date: " + date);
-        }
-
-        Map<String, List<RiskFactor>> grouped = factors.stream()
-                .collect(Collectors.groupingBy(RiskFactor::getCategory));
-
-        Map<String, Double> rawScores = new LinkedHashMap<>();
-        Map<String, List<FactorVO>> topFactorsMap = new LinkedHashMap<>();
-
-        for (String category : CATEGORY_ORDER) {
-            List<RiskFactor> catFactors = grouped.getOrDefault(category, Collections.emptyList());
-            if (catFactors.isEmpty()) {
-                rawScores.put(category, 0.0);
-                topFactorsMap.put(category, Collections.emptyList());
-                continue;
+        RadarEntry entry = radarScoreCache.get(date, d -> {
+            List<RiskFactor> factors = findByDate(d);
+            if (factors.isEmpty()) {
+                throw new BusinessException(404, "No factor data for date: " + d);
             }
+            return RadarEntry.of(factors);
+        });
 
-            double avgAbsShap = catFactors.stream()
-                    .mapToDouble(f -> Math.abs(f.getShapValue().doubleValue()))
-                    .average()
-                    .orElse(0.0);
-
-            double weight = weightsConfig.getWeight(category);
-            rawScores.put(category, avgAbsShap * weight);
-
-            List<FactorVO> top3 = catFactors.stream()
-                    .sorted(Comparator.comparingDouble(
-                            (RiskFactor f) -> Math.abs(f.getShapValue().doubleValue())).reversed())
-                    .limit(3)
-                    .map(this::toFactorVO)
-                    .collect(Collectors.toList());
-            topFactorsMap.put(category, top3);
+        // Only the weight multiply and normalisation depend on the request
+        List<String> categories = RadarEntry.CATEGORIES;
+        double[] rawScores = new double[categories.size()];
+        double maxRaw = 0;
+        for (int c = 0; c < rawScores.length; c++) {
+            rawScores[c] = entry.getAvgAbsShap(c) * weightsConfig.getWeight(categories.get(c));
+            maxRaw = Math.max(maxRaw, rawScores[c]);
         }
-
-        double maxRaw = rawScores.values().stream()
-                .mapToDouble(Double::doubleValue).max().orElse(1.0);
         if (maxRaw == 0) maxRaw = 1.0;
 
-        List<RadarScoreVO> result = new ArrayList<>();
-        for (String category : CATEGORY_ORDER) {
-            Double raw = rawScores.get(category);
-            if (raw == null) continue;
-
+        List<RadarScoreVO> result = new ArrayList<>(rawScores.length);
+        for (int c = 0; c < rawScores.length; c++) {
+            String category = categories.get(c);
             RadarScoreVO vo = new RadarScoreVO();
             vo.setCategory(category);
             vo.setCategoryZh(WeightsConfig.getCategoryZh(category));
-            vo.setScore(BigDecimal.valueOf(raw / maxRaw * 100).setScale(1, RoundingMode.HALF_UP));
-            vo.setTopFactors(topFactorsMap.getOrDefault(category, Collections.emptyList()));
+            vo.setScore(BigDecimal.valueOf(rawScores[c] / maxRaw * 100).setScale(1, RoundingMode.HALF_UP));
+            vo.setTopFactors(entry.getTopFactors(c));
             result.add(vo);
         }
 
         return result;
     }
 
+    @Override
+    public RadarTimeseriesVO getRadarTimeseries(LocalDate start, LocalDate end) {
+        // Same defaults as the risk index timeseries: last 2 years
+        if (end == null) {
+            end = LocalDate.now();
+        }
+        if (start == null) {
+            start = end.minusYears(2);
+        }
+        if (start.isAfter(end)) {
+            throw new BusinessException(400, "start must not be after end");
+        }
+
+        List<String> categories = RadarEntry.CATEGORIES;
+        double[] weights = new double[categories.size()];
+        for (int c = 0; c < weights.length; c++) {
+            weights[c] = weightsConfig.getWeight(categories.get(c));
+        }
+
+        // One pass over the range; only the current date's sums and the output columns are held
+        int capacity = (int) Math.min(ChronoUnit.DAYS.between(start, end) + 1, INITIAL_SERIES_CAPACITY);
+        List<String> dates = new ArrayList<>(capacity);
+        double[][] columns = new double[categories.size()][capacity];
+        RadarSeriesAccumulator accumulator = new RadarSeriesAccumulator(weights, (date, scores) -> {
+            int i = dates.size();
+            if (i == columns[0].length) {
+                for (int c = 0; c < columns.length; c++) {
+                    columns[c] = Arrays.copyOf(columns[c], i * 2);
+                }
+            }
+            for (int c = 0; c < columns.length; c++) {
+                columns[c][i] = scores[c];
+            }
+            dates.add(date.toString());
+        });
+        // Archived dates all precede the partitioned table's, so the two scans stay in date order
+        ArchiveBoundary boundary = partitionService.getFactorArchiveBoundary();
+        LocalDate archivedBefore = boundary != null ? boundary.getArchivedBefore() : null;
+        LocalDate hotStart = start;
+        if (archivedBefore != null && start.isBefore(archivedBefore)) {
+            LocalDate archiveEnd = end.isBefore(archivedBefore) ? end : archivedBefore.minusDays(1);
+            ColumnarTable archive = columnarArchive.factors(boundary);
+            if (archive != null) {
+                scanColumnar(archive, start, archiveEnd, accumulator);
+            } else {
+                factorMapper.scanArchivedByDateRange(start, archiveEnd, accumulator);
+            }
+            hotStart = archivedBefore;
+        }
+        if (!hotStart.isAfter(end)) {
+            factorMapper.scanByDateRange(hotStart, end, accumulator);
+        }
+        accumulator.finish();
+
+        for (int c = 0; c < columns.length; c++) {
+            columns[c] = Arrays.copyOf(columns[c], dates.size());
+        }
+
+        RadarTimeseriesVO vo = new RadarTimeseriesVO();
+        vo.setCategories(categories);
+        vo.setCategoriesZh(categories.stream().map(WeightsConfig::getCategoryZh).toList());
+        vo.setDates(dates);
+        vo.setScores(columns);
+        return vo;
+    }
+
     @Override
     public List<FactorVO> getExplain(LocalDate date) {
-        List<RiskFactor> factors = factorMapper.findByDate(date);
+        List<RiskFactor> factors = findByDate(date);
         return factors.stream().map(this::toFactorVO).collect(Collectors.toList());
     }
 
+    @Override
+    public FactorCorrelationVO getCorrelation(LocalDate start, LocalDate end, Integer window) {
+        if (end == null) {
+            end = LocalDate.now();
+        }
+        if (start == null) {
+            start = end.minusYears(2);
+        }
+        if (start.isAfter(end)) {
+            throw new BusinessException(400, "start must not be after end");
+        }
+        int w = window != null ? window : DEFAULT_CORRELATION_WINDOW;
+        if (w < 2) {
+            throw new BusinessException(400, "window must be at least 2");
+        }
+        int rangeDates = riskMapper.countByDateRange(start, end);
+        if (rangeDates > maxCorrelationDates) {
+            throw new BusinessException(400, "Range has " + rangeDates + " dates, more than the "
+                    + maxCorrelationDates + " a correlation request may span");
+        }
+
+        FactorColumns columns = loadColumns(start, end);
+        int n = columns.rows();
+        int f = columns.factorCount();
+        double[][] z = CorrelationKernels.normalize(columns.values(), n);
+        double[] y = CorrelationKernels.normalize(columns.riskIndex(), n);
+        double[][] matrix = CorrelationKernels.gram(z, n);
+        double[] riskCorrelation = CorrelationKernels.correlationWith(z, y, n);
+
+        // Series points from the first full window to the last date, at most MAX_SERIES_POINTS
+        int first = w - 1;
+        int points = n > first ? Math.min(MAX_SERIES_POINTS, n - first) : 0;
+        int[] ends = new int[points];
+        for (int k = 0; k < points; k++) {
+            ends[k] = points == 1 ? n - 1 : first + (int) ((long) k * (n - 1 - first) / (points - 1));
+        }
+        double[][] rolling = CorrelationKernels.rolling(z, y, n, w, ends);
+        double[][] cumulative = CorrelationKernels.cumulative(columns.shap(), n, ends);
+        double[][] totals = CorrelationKernels.cumulative(columns.shap(), n, n > 0 ? new int[]{n - 1} : new int[0]);
+
+        Integer[] order = new Integer[f];
+        for (int i = 0; i < f; i++) order[i] = i;
+        Arrays.sort(order, Comparator.comparingDouble((Integer i) -> n > 0 ? -Math.abs(totals[i][0]) : 0));
+
+        FactorCorrelationVO vo = new FactorCorrelationVO();
+        vo.setFactors(new ArrayList<>(f));
+        vo.setFactorsZh(new ArrayList<>(f));
+        vo.setCategories(new ArrayList<>(f));
+        vo.setObservations(n);
+        vo.setWindow(w);
+        vo.setMatrix(new double[f][f]);
+        vo.setRiskCorrelation(new double[f]);
+        vo.setShapTotals(new double[f]);
+        vo.setRollingRiskCorrelation(new double[f][]);
+        vo.setCumulativeShap(new double[f][]);
+        for (int i = 0; i < f; i++) {
+            int c = order[i];
+            String[] fields = columns.factorFields(c);
+            vo.getFactors().add(fields[0]);
+            vo.getFactorsZh().add(fields[1]);
+            vo.getCategories().add(fields[2]);
+            for (int j = 0; j < f; j++) {
+                vo.getMatrix()[i][j] = round(matrix[c][order[j]], 4);
+            }
+            vo.getRiskCorrelation()[i] = round(riskCorrelation[c], 4);
+            vo.getShapTotals()[i] = n > 0 ? round(totals[c][0], 6) : 0;
+            vo.getRollingRiskCorrelation()[i] = roundAll(rolling[c], 4);
+            vo.getCumulativeShap()[i] = roundAll(cumulative[c], 6);
+        }
+        List<String> dates = new ArrayList<>(points);
+        for (int row : ends) {
+            dates.add(LocalDate.ofEpochDay(columns.day(row)).toString());
+        }
+        vo.setDates(dates);
+        return vo;
+    }
+
     @Override
     public WeightUpdateResultVO updateWeights(WeightDTO dto) {
         validateWeights(dto);
@@ -112,6 +254,7 @@ public class FactorServiceImpl implements FactorService {
         weightsConfig.setFinancial(dto.getFinancial());
         weightsConfig.setGeopolitical(dto.getGeopolitical());
         weightsConfig.setSentiment(dto.getSentiment());
+        weightsSync.broadcast();
 
         RiskIndex latest = riskMapper.findLatest();
         if (latest == null) {
@@ -150,6 +293,115 @@ public class FactorServiceImpl implements FactorService {
         return result;
     }
 
+    private List<RiskFactor> findByDate(LocalDate date) {
+        ArchiveBoundary boundary = partitionService.getFactorArchiveBoundary();
+        if (boundary == null || !date.isBefore(boundary.getArchivedBefore())) {
+            return factorMapper.findByDate(date);
+        }
+        ColumnarTable archive = columnarArchive.factors(boundary);
+        if (archive == null) {
+            return factorMapper.findArchivedByDate(date);
+        }
+        // Same order as the mapper: largest |SHAP| first
+        List<RiskFactor> factors = new ArrayList<>();
+        archive.scan(date, date, (day, key, value, shap) ->
+                factors.add(ColumnarArchive.toRiskFactor(archive, day, key, value, shap)));
+        factors.sort(Comparator.comparingDouble((RiskFactor f) -> Math.abs(f.getShapValue().doubleValue())).reversed());
+        return factors;
+    }
+
+    /**
+     * Factor rows then risk_index rows of [start, end] into primitive columns, archived dates
+     * from the columnar copy when it is current.
+     */
+    private FactorColumns loadColumns(LocalDate start, LocalDate end) {
+        FactorColumns columns = new FactorColumns();
+        ArchiveBoundary boundary = partitionService.getFactorArchiveBoundary();
+        LocalDate archivedBefore = boundary != null ? boundary.getArchivedBefore() : null;
+        LocalDate hotStart = start;
+        LocalDate indexStart = start;
+        if (archivedBefore != null && start.isBefore(archivedBefore)) {
+            LocalDate archiveEnd = end.isBefore(archivedBefore) ? end : archivedBefore.minusDays(1);
+            ColumnarTable archive = columnarArchive.factors(boundary);
+            if (archive != null) {
+                // Columns are added on a key's first row, so factors absent from the range are left out
+                int[] column = new int[archive.dictionarySize()];
+                Arrays.fill(column, -1);
+                archive.scan(start, archiveEnd, (day, key, value, shap) -> {
+                    if (column[key] < 0) {
+                        String[] entry = archive.entry(key);
+                        column[key] = columns.factor(entry[ColumnarArchive.FACTOR_NAME],
+                                entry[ColumnarArchive.FACTOR_NAME_ZH], entry[ColumnarArchive.FACTOR_CATEGORY]);
+                    }
+                    columns.add(day, column[key], value, shap);
+                    return true;
+                });
+            } else {
+                factorMapper.scanArchivedRows(start, archiveEnd, context -> addRow(columns, context.getResultObject()));
+            }
+            hotStart = archivedBefore;
+            ColumnarTable coldIndex = columnarArchive.riskIndex(boundary);
+            if (coldIndex != null) {
+                coldIndex.scan(start, archiveEnd, (day, key, riskIndex, oilPrice) -> {
+                    columns.addRiskIndex(day, riskIndex);
+                    return true;
+                });
+                indexStart = archivedBefore;
+            }
+        }
+        if (!hotStart.isAfter(end)) {
+            factorMapper.scanRowsByDateRange(hotStart, end, context -> addRow(columns, context.getResultObject()));
+        }
+        if (!indexStart.isAfter(end)) {
+            riskMapper.scanByDateRange(indexStart, end, context -> {
+                RiskIndex r = context.getResultObject();
+                columns.addRiskIndex((int) r.getDate().toEpochDay(),
+                        r.getRiskIndex() != null ? r.getRiskIndex().doubleValue() : Double.NaN);
+            });
+        }
+        return columns;
+    }
+
+    private static void addRow(FactorColumns columns, RiskFactor f) {
+        columns.add((int) f.getDate().toEpochDay(),
+                columns.factor(f.getFactorName(), f.getFactorNameZh(), f.getCategory()),
+                f.getValue() != null ? f.getValue().doubleValue() : Double.NaN,
+                f.getShapValue() != null ? f.getShapValue().doubleValue() : Double.NaN);
+    }
+
+    private static double round(double value, int decimals) {
+        double scale = Math.pow(10, decimals);
+        return Math.round(value * scale) / scale;
+    }
+
+    private static double[] roundAll(double[] values, int decimals) {
+        double[] rounded = new double[values.length];
+        for (int i = 0; i < values.length; i++) rounded[i] = round(values[i], decimals);
+        return rounded;
+    }
+
+    /**
+     * Feeds archived rows to the accumulator straight from the mapped columns; a LocalDate is
+     * created once per date, not per row.
+     */
+    private static void scanColumnar(ColumnarTable archive, LocalDate start, LocalDate end,
+                                     RadarSeriesAccumulator accumulator) {
+        int[] category = new int[archive.dictionarySize()];
+        for (int k = 0; k < category.length; k++) {
+            category[k] = RadarEntry.CATEGORIES.indexOf(archive.entry(k)[ColumnarArchive.FACTOR_CATEGORY]);
+        }
+        int[] lastDay = {Integer.MIN_VALUE};
+        LocalDate[] date = new LocalDate[1];
+        archive.scan(start, end, (day, key, value, shap) -> {
+            if (day != lastDay[0]) {
+                lastDay[0] = day;
+                date[0] = LocalDate.ofEpochDay(day);
+            }
+            accumulator.add(date[0], category[key], shap);
+            return true;
+        });
+    }
+
     private void validateWeights(WeightDTO dto) {
         if (dto.getSupplyDemand() < 0 || dto.getSupplyDemand() > 2) {
             throw new BusinessException(400, "supplyDemand weight must be between 0 and 2");
@@ -0,0 +1,282 @@
+package com.example.oilrisk_alert.service.impl;
+
+import com.example.oilrisk_alert.cache.RadarScoreCache;
+import com.example.oilrisk_alert.common.BusinessException;
+import com.example.oilrisk_alert.dto.ObservationDTO;
+import com.example.oilrisk_alert.engine.AlertRaisedEvent;
+import com.example.oilrisk_alert.engine.RiskEngine;
+import com.example.oilrisk_alert.engine.RiskSnapshot;
+import com.example.oilrisk_alert.entity.Alert;
+import com.example.oilrisk_alert.entity.MarketData;
+import com.example.oilrisk_alert.entity.RiskFactor;
+import com.example.oilrisk_alert.entity.RiskIndex;
+import com.example.oilrisk_alert.ingest.CsvObservationReader;
+import com.example.oilrisk_alert.ingest.Granularity;
+import com.example.oilrisk_alert.ingest.MarketObservation;
+import com.example.oilrisk_alert.ingest.MarketSeries;
+import com.example.oilrisk_alert.ingest.ObservationAggregator;
+import com.example.oilrisk_alert.mapper.AlertMapper;
+import com.example.oilrisk_alert.mapper.FactorMapper;
+import com.example.oilrisk_alert.mapper.MarketDataMapper;
+import com.example.oilrisk_alert.mapper.RiskMapper;
+import com.example.oilrisk_alert.service.IngestService;
+import com.example.oilrisk_alert.service.PartitionService;
+import com.example.oilrisk_alert.vo.AlertVO;
+import com.example.oilrisk_alert.vo.FactorVO;
+import com.example.oilrisk_alert.vo.IngestResultVO;
+import com.example.oilrisk_alert.vo.ObservationResultVO;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class IngestServiceImpl implements IngestService {
+
+    private final RiskMapper riskMapper;
+    private final FactorMapper factorMapper;
+    private final AlertMapper alertMapper;
+    private final MarketDataMapper marketDataMapper;
+    private final RiskEngine riskEngine;
+    private final TransactionTemplate transactionTemplate;
+    private final ApplicationEventPublisher eventPublisher;
+    private final RadarScoreCache radarScoreCache;
+    private final PartitionService partitionService;
+
+    @Value("${ingest.granularity:MONTHLY}")
+    private Granularity granularity = Granularity.MONTHLY;
+
+    @Value("${ingest.batch-size:500}")
+    private int batchSize = 500;
+
+    @Value("${ingest.date-min:2015-01-01}")
+    private String dateMin = "2015-01-01";
+
+    @Value("${ingest.date-max:2025-12-31}")
+    private String dateMax = "2025-12-31";
+
+    @Override
+    public IngestResultVO ingestCsv(Path csvPath) {
+        if (!Files.isRegularFile(csvPath)) {
+            throw new BusinessException(404, "CSV file not found: " + csvPath);
+        }
+        long startNanos = System.nanoTime();
+
+        // A full replay rebuilds the engine from scratch, so re-ingesting the same file is idempotent
+        IngestResultVO result = new IngestResultVO();
+        WriteBuffer buffer = new WriteBuffer();
+        synchronized (riskEngine) {
+            riskEngine.reset();
+            ObservationAggregator aggregator = new ObservationAggregator(granularity, obs -> {
+                buffer.add(riskEngine.append(obs));
+                if (buffer.size() >= batchSize) {
+                    buffer.flush(result);
+                }
+            });
+            try {
+                result.setSourceRows(new CsvObservationReader(
+                        LocalDate.parse(dateMin), LocalDate.parse(dateMax)).read(csvPath, aggregator));
+            } catch (IOException e) {
+                throw new BusinessException("Failed to read CSV: " + e.getMessage());
+            }
+            buffer.flush(result);
+        }
+
+        result.setElapsedMillis((System.nanoTime() - startNanos) / 1_000_000);
+        log.info("Ingested {} ({} rows, {}): risk_index={}, risk_factor={}, alert={} in {} ms",
+                csvPath, result.getSourceRows(), granularity, result.getRiskIndexRows(),
+                result.getRiskFactorRows(), result.getAlertRows(), result.getElapsedMillis());
+        return result;
+    }
+
+    @Override
+    public ObservationResultVO ingestObservation(ObservationDTO dto) {
+        if (dto.getDate() == null) {
+            throw new BusinessException(400, "date is required");
+        }
+        MarketObservation obs = new MarketObservation();
+        obs.setDate(dto.getDate());
+        Arrays.fill(obs.getValues(), Double.NaN);
+        if (dto.getValues() != null) {
+            for (Map.Entry<String, Double> e : dto.getValues().entrySet()) {
+                MarketSeries series = parseSeries(e.getKey());
+                if (e.getValue() != null) {
+                    obs.set(series, e.getValue());
+                }
+            }
+        }
+
+        RiskSnapshot snapshot;
+        synchronized (riskEngine) {
+            catchUpEngine();
+            RiskIndex latest = riskMapper.findLatest();
+            if (latest != null) {
+                // Seeded and restored histories may have risk rows without the market_data to replay
+                if (riskEngine.size() == 0) {
+                    throw new BusinessException(409, "No market_data to score against the stored history"
+                            + " (latest " + latest.getDate() + "); ingest the CSV first");
+                }
+                if (!obs.getDate().isAfter(latest.getDate())) {
+                    throw new BusinessException(409, "Observation " + obs.getDate()
+                            + " must be after the latest stored date " + latest.getDate());
+                }
+            }
+            snapshot = riskEngine.append(obs);
+            WriteBuffer buffer = new WriteBuffer();
+            buffer.add(snapshot);
+            try {
+                buffer.flush(new IngestResultVO());
+            } catch (RuntimeException e) {
+                // The engine holds an observation that was never stored; replay stored history next time
+                riskEngine.reset();
+                throw e;
+            }
+        }
+        // Live observations notify subscribers; CSV replays only rebuild history
+        if (snapshot.getAlert() != null) {
+            LocalDate date = snapshot.getAlert().getDate();
+            for (Alert stored : alertMapper.findByDateRange(date, date)) {
+                eventPublisher.publishEvent(new AlertRaisedEvent(stored));
+            }
+        }
+        return toObservationResultVO(snapshot);
+    }
+
+    @Override
+    public void primeEngine() {
+        synchronized (riskEngine) {
+            catchUpEngine();
+        }
+    }
+
+    /**
+     * Brings the engine up to the latest stored market_data. Other instances append observations
+     * this engine has not seen: when it is behind, the newer rows are appended; when it is ahead
+     * or empty, stored history is replayed from scratch.
+     */
+    private void catchUpEngine() {
+        LocalDate stored = marketDataMapper.findLatestDate();
+        LocalDate engine = riskEngine.getLastDate();
+        if (Objects.equals(stored, engine)) return;
+        if (engine != null && stored != null && engine.isBefore(stored)) {
+            int before = riskEngine.size();
+            marketDataMapper.scanAfter(engine, ctx -> riskEngine.append(MarketObservation.fromMarketData(ctx.getResultObject())));
+            log.info("Risk engine caught up with {} stored observations after {}", riskEngine.size() - before, engine);
+            return;
+        }
+        riskEngine.reset();
+        warmUpEngine();
+    }
+
+    /**
+     * Replays market_data so the engine's streaming statistics cover the stored history.
+     */
+    private void warmUpEngine() {
+        marketDataMapper.scanAll(ctx -> riskEngine.append(MarketObservation.fromMarketData(ctx.getResultObject())));
+        log.info("Risk engine warmed up from {} stored observations", riskEngine.size());
+    }
+
+    private MarketSeries parseSeries(String key) {
+        try {
+            MarketSeries series = MarketSeries.valueOf(key.trim().toUpperCase());
+            if (series.isRaw()) {
+                return series;
+            }
+        } catch (IllegalArgumentException ignored) {
+        }
+        throw new BusinessException(400, "Unknown market series: " + key);
+    }
+
+    private ObservationResultVO toObservationResultVO(RiskSnapshot snapshot) {
+        ObservationResultVO vo = new ObservationResultVO();
+        vo.setDate(snapshot.getRiskIndex().getDate().toString());
+        vo.setRiskIndex(snapshot.getRiskIndex().getRiskIndex());
+        vo.setRiskLevel(snapshot.getRiskIndex().getRiskLevel());
+
+        List<FactorVO> factors = new ArrayList<>(snapshot.getFactors().size());
+        for (RiskFactor f : snapshot.getFactors()) {
+            FactorVO fv = new FactorVO();
+            fv.setName(f.getFactorName());
+            fv.setNameZh(f.getFactorNameZh());
+            fv.setShap(f.getShapValue());
+            fv.setCategory(f.getCategory());
+            factors.add(fv);
+        }
+        vo.setFactors(factors);
+
+        Alert alert = snapshot.getAlert();
+        if (alert != null) {
+            AlertVO av = new AlertVO();
+            av.setDate(alert.getDate().toString());
+            av.setLevel(alert.getLevel());
+            av.setRiskIndex(alert.getRiskIndex());
+            av.setTriggerType(alert.getTriggerType());
+            av.setTriggerFactor(alert.getTriggerFactor());
+            av.setTriggerFactorZh(alert.getTriggerFactorZh());
+            av.setSummary(alert.getSummary());
+            av.setSummaryEn(alert.getSummaryEn());
+            vo.setAlert(av);
+        }
+        return vo;
+    }
+
+    /**
+     * Bounded buffer of engine output; each flush is one multi-row upsert per table in one transaction.
+     */
+    private class WriteBuffer {
+        private final List<MarketData> marketData = new ArrayList<>();
+        private final List<RiskIndex> riskIndices = new ArrayList<>();
+        private final List<RiskFactor> riskFactors = new ArrayList<>();
+        private final List<Alert> alerts = new ArrayList<>();
+
+        void add(RiskSnapshot snapshot) {
+            marketData.add(snapshot.getObservation().toMarketData());
+            riskIndices.add(snapshot.getRiskIndex());
+            riskFactors.addAll(snapshot.getFactors());
+            if (snapshot.getAlert() != null) {
+                alerts.add(snapshot.getAlert());
+            }
+        }
+
+        int size() {
+            return riskIndices.size();
+        }
+
+        void flush(IngestResultVO result) {
+            if (riskIndices.isEmpty()) return;
+            LocalDate earliest = riskIndices.stream().map(RiskIndex::getDate).min(LocalDate::compareTo).orElseThrow();
+            transactionTemplate.executeWithoutResult(status -> {
+                marketDataMapper.upsertBatch(marketData);
+                riskMapper.upsertBatch(riskIndices);
+                factorMapper.upsertBatch(riskFactors);
+                if (!alerts.isEmpty()) {
+                    alertMapper.upsertBatch(alerts);
+                }
+                // Archived dates are read from the archive only, so rewritten ones move back there
+                partitionService.rearchiveFactors(earliest);
+            });
+            radarScoreCache.putAll(riskFactors);
+            result.setRiskIndexRows(result.getRiskIndexRows() + riskIndices.size());
+            result.setRiskFactorRows(result.getRiskFactorRows() + riskFactors.size());
+            result.setAlertRows(result.getAlertRows() + alerts.size());
+            marketData.clear();
+            riskIndices.clear();
+            riskFactors.clear();
+            alerts.clear();
+        }
+    }
+}
@@ -0,0 +1,224 @@
+package com.example.oilrisk_alert.service.impl;
+
+import com.example.oilrisk_alert.cache.DataTable;
+import com.example.oilrisk_alert.cache.DataVersionClock;
+import com.example.oilrisk_alert.cluster.ClusterBus;
+import com.example.oilrisk_alert.columnar.ColumnarArchive;
+import com.example.oilrisk_alert.common.BusinessException;
+import com.example.oilrisk_alert.common.PartitionGranularity;
+import com.example.oilrisk_alert.entity.ArchiveBoundary;
+import com.example.oilrisk_alert.entity.TablePartition;
+import com.example.oilrisk_alert.mapper.FactorMapper;
+import com.example.oilrisk_alert.mapper.RiskMapper;
+import com.example.oilrisk_alert.service.PartitionService;
+import com.example.oilrisk_alert.vo.ArchiveResultVO;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.Consumer;
+
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class PartitionServiceImpl implements PartitionService {
+
+    private static final String MAX_PARTITION = "pmax";
+    private static final String MAINTENANCE_LEASE = "partition-maintenance";
+    private static final Duration MAINTENANCE_TTL = Duration.ofMinutes(30);
+
+    private final FactorMapper factorMapper;
+    private final RiskMapper riskMapper;
+    private final DataVersionClock dataVersionClock;
+    private final ClusterBus clusterBus;
+    private final TransactionTemplate transactionTemplate;
+    private final ColumnarArchive columnarArchive;
+
+    @Value("${partition.granularity:YEARLY}")
+    private PartitionGranularity granularity = PartitionGranularity.YEARLY;
+
+    @Value("${partition.ahead:2}")
+    private int ahead = 2;
+
+    /** Months of risk_factor kept in the partitioned table; 0 disables scheduled archival */
+    @Value("${archive.factor-retain-months:0}")
+    private int retainMonths;
+
+    // Boundary as of a risk_factor data version; archival writes bump the version
+    private volatile ArchiveBoundary boundary;
+    private volatile long boundaryVersion = -1;
+
+    @Override
+    public void ensurePartitions() {
+        ensurePartitions("risk_index", riskMapper.findPartitions(), riskMapper::addPartitions);
+        ensurePartitions("risk_factor", factorMapper.findPartitions(), factorMapper::addPartitions);
+    }
+
+    private void ensurePartitions(String table, List<TablePartition> partitions,
+                                  Consumer<List<TablePartition>> addPartitions) {
+        if (partitions.size() < 2) return;
+        TablePartition last = partitions.get(partitions.size() - 1);
+        if (last.getLessThan() != null || !MAX_PARTITION.equals(last.getName())) {
+            log.warn("{} has no {} partition; not adding partitions", table, MAX_PARTITION);
+            return;
+        }
+        LocalDate bound = partitions.get(partitions.size() - 2).getLessThan();
+        LocalDate target = granularity.floor(LocalDate.now());
+        for (int i = 0; i <= ahead; i++) {
+            target = granularity.next(target);
+        }
+
+        List<TablePartition> added = new ArrayList<>();
+        while (bound.isBefore(target)) {
+            LocalDate periodStart = granularity.floor(bound);
+            TablePartition partition = new TablePartition();
+            partition.setName(granularity.partitionName(periodStart));
+            partition.setLessThan(granularity.next(periodStart));
+            added.add(partition);
+            bound = partition.getLessThan();
+        }
+        if (!added.isEmpty()) {
+            addPartitions.accept(added);
+            log.info("Added {} partitions to {} up to {}", added.size(), table, bound);
+        }
+    }
+
+    @Override
+    public ArchiveResultVO archiveFactors(LocalDate before) {
+        if (before == null) {
+            throw new BusinessException(400, "before is required");
+        }
+        if (before.isAfter(LocalDate.now())) {
+            throw new BusinessException(400, "before must not be in the future");
+        }
+        long startNanos = System.nanoTime();
+        ArchiveResultVO result = new ArchiveResultVO();
+        result.setTable("risk_factor");
+
+        List<TablePartition> partitions = factorMapper.findPartitions();
+        if (partitions.isEmpty()) {
+            archiveRange(granularity.floor(before), result);
+        } else {
+            archivePartitions(partitions, before, result);
+        }
+        invalidateBoundary();
+        columnarArchive.sync(getFactorArchiveBoundary());
+
+        LocalDate boundary = getFactorsArchivedBefore();
+        result.setArchivedBefore(boundary != null ? boundary.toString() : null);
+        result.setElapsedMillis((System.nanoTime() - startNanos) / 1_000_000);
+        log.info("Archived {} risk_factor rows ({} partitions), archive now holds dates before {}, in {} ms",
+                result.getRows(), result.getPartitions().size(), boundary, result.getElapsedMillis());
+        return result;
+    }
+
+    /**
+     * Copy, move the boundary, then drop: readers switch to the archive only once it holds the
+     * rows, and the drop (DDL, which commits on its own) comes last so a failure leaves a copy.
+     */
+    private void archivePartitions(List<TablePartition> partitions, LocalDate before, ArchiveResultVO result) {
+        for (TablePartition partition : partitions) {
+            LocalDate lessThan = partition.getLessThan();
+            if (lessThan == null || lessThan.isAfter(before)) break;
+            result.setRows(result.getRows() + factorMapper.archivePartition(partition.getName()));
+            factorMapper.updateArchivedBefore(lessThan, System.currentTimeMillis());
+            factorMapper.dropPartition(partition.getName());
+            result.getPartitions().add(partition.getName());
+        }
+    }
+
+    private void archiveRange(LocalDate cutoff, ArchiveResultVO result) {
+        LocalDate current = factorMapper.findArchivedBefore();
+        if (current != null && !cutoff.isAfter(current)) return;
+        transactionTemplate.executeWithoutResult(status -> {
+            result.setRows(factorMapper.archiveBefore(cutoff));
+            factorMapper.updateArchivedBefore(cutoff, System.currentTimeMillis());
+            factorMapper.deleteBefore(cutoff);
+        });
+    }
+
+    @Override
+    public void rearchiveFactors(LocalDate since) {
+        LocalDate archivedBefore = factorMapper.findArchivedBefore();
+        if (archivedBefore == null || !since.isBefore(archivedBefore)) return;
+        factorMapper.archiveBetween(since, archivedBefore);
+        factorMapper.deleteBetween(since, archivedBefore);
+        factorMapper.bumpArchiveGeneration(since);
+        invalidateBoundary();
+    }
+
+    /**
+     * The data version is bumped at commit, so until then the cached boundary looks current; drop
+     * it now for reads in this transaction and again at completion in case it rolls back.
+     */
+    private void invalidateBoundary() {
+        boundaryVersion = -1;
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCompletion(int status) {
+                    boundaryVersion = -1;
+                }
+            });
+        }
+    }
+
+    @Override
+    public LocalDate getFactorsArchivedBefore() {
+        ArchiveBoundary current = getFactorArchiveBoundary();
+        return current != null ? current.getArchivedBefore() : null;
+    }
+
+    @Override
+    public ArchiveBoundary getFactorArchiveBoundary() {
+        long version = dataVersionClock.current(DataTable.RISK_FACTOR);
+        if (version != boundaryVersion) {
+            boundary = factorMapper.findArchiveBoundary();
+            boundaryVersion = version;
+        }
+        return boundary;
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void onReady() {
+        maintain(false);
+        columnarArchive.sync(getFactorArchiveBoundary());
+    }
+
+    /**
+     * Nightly: partitions ahead of the data, then archival of factor rows older than
+     * {@code archive.factor-retain-months}. One instance runs it, whichever takes the lease; every
+     * instance then catches its local columnar copy up with the boundary.
+     */
+    @Scheduled(cron = "${partition.maintenance-cron:0 30 3 * * *}")
+    public void scheduledMaintenance() {
+        maintain(retainMonths > 0);
+        columnarArchive.sync(getFactorArchiveBoundary());
+    }
+
+    private void maintain(boolean archive) {
+        String token = clusterBus.tryAcquireLease(MAINTENANCE_LEASE, MAINTENANCE_TTL);
+        if (token == null) return;
+        try {
+            ensurePartitions();
+            if (archive) {
+                archiveFactors(LocalDate.now().minusMonths(retainMonths));
+            }
+        } catch (RuntimeException e) {
+            log.warn("Partition maintenance failed: {}", e.getMessage());
+        } finally {
+            clusterBus.releaseLease(MAINTENANCE_LEASE, token);
+        }
+    }
+}
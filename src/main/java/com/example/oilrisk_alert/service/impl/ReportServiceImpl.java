@@ -1,14 +1,19 @@
 package com.example.oilrisk_alert.service.impl;
 
+import com.example.oilrisk_alert.cluster.ClusterBus;
+import com.example.oilrisk_alert.cluster.ClusterMessage;
 import com.example.oilrisk_alert.common.BusinessException;
 import com.example.oilrisk_alert.entity.Alert;
 import com.example.oilrisk_alert.mapper.AlertMapper;
+import com.example.oilrisk_alert.metrics.StreamingMetrics;
 import com.example.oilrisk_alert.service.ReportService;
 import tools.jackson.databind.JsonNode;
 import tools.jackson.databind.ObjectMapper;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Lazy;
+import org.springframework.context.event.EventListener;
 import org.springframework.http.MediaType;
 import org.springframework.stereotype.Service;
 import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
@@ -17,19 +22,37 @@ import java.net.URI;
 import java.net.http.HttpClient;
 import java.net.http.HttpRequest;
 import java.net.http.HttpResponse;
+import java.time.Duration;
 import java.util.Iterator;
 import java.util.List;
 import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
 import java.util.concurrent.atomic.AtomicBoolean;
 import java.util.stream.Stream;
 
 @Slf4j
+@Lazy
 @Service
 @RequiredArgsConstructor
 public class ReportServiceImpl implements ReportService {
 
+    private static final long EMITTER_TIMEOUT_MS = 30_000L;
+    // Generation stops when its emitter times out, so the lease only has to outlive that
+    private static final Duration REPORT_LEASE = Duration.ofMillis(EMITTER_TIMEOUT_MS * 2);
+    // A waiting request gives up early enough to still answer on its own emitter
+    private static final long AWAIT_REPORT_MS = EMITTER_TIMEOUT_MS - 5_000L;
+
     private final AlertMapper alertMapper;
     private final ObjectMapper objectMapper;
+    private final StreamingMetrics streamingMetrics;
+    private final ClusterBus clusterBus;
+    private final Map<Long, CompletableFuture<Void>> pendingReports = new ConcurrentHashMap<>();
+
+    // Created on the first LLM call and shared: every HttpClient starts its own selector thread
+    private volatile HttpClient httpClient;
 
     @Value("${llm.api.key:}")
     private String apiKey;
@@ -47,8 +70,13 @@ public class ReportServiceImpl implements ReportService {
             throw new BusinessException(404, "Alert not found: " + alertId);
         }
 
-        SseEmitter emitter = new SseEmitter(30_000L);
+        SseEmitter emitter = new SseEmitter(EMITTER_TIMEOUT_MS);
         AtomicBoolean completed = new AtomicBoolean(false);
+        AtomicBoolean counted = new AtomicBoolean(true);
+        streamingMetrics.reportStreamOpened();
+        Runnable closeStream = () -> {
+            if (counted.compareAndSet(true, false)) streamingMetrics.reportStreamClosed();
+        };
 
         emitter.onTimeout(() -> {
             completed.set(true);
@@ -57,19 +85,88 @@ public class ReportServiceImpl implements ReportService {
         });
         emitter.onCompletion(() -> {
             completed.set(true);
+            closeStream.run();
         });
+        emitter.onError(e -> closeStream.run());
 
-        if (alert.getAiReport() != null && !alert.getAiReport().isEmpty()) {
+        boolean cached = alert.getAiReport() != null && !alert.getAiReport().isEmpty();
+        streamingMetrics.reportCache(cached);
+        if (cached) {
             streamCachedReport(emitter, alert.getAiReport(), completed);
+            return emitter;
+        }
+
+        // One generation per alert across all instances; other requests wait for its result
+        String lease = clusterBus.tryAcquireLease(leaseName(alertId), REPORT_LEASE);
+        if (lease == null) {
+            awaitReport(emitter, alertId, completed);
         } else if (apiKey == null || apiKey.isEmpty()) {
-            streamMockReport(emitter, alert, completed);
+            streamMockReport(emitter, alert, completed, lease);
         } else {
-            streamLlmReport(emitter, alert, completed);
+            streamLlmReport(emitter, alert, completed, lease);
         }
 
         return emitter;
     }
 
+    @EventListener(condition = "#message.topic == 'report'")
+    public void onReportFinished(ClusterMessage message) {
+        CompletableFuture<Void> pending = pendingReports.remove(Long.valueOf(message.getPayload()));
+        if (pending != null) pending.complete(null);
+    }
+
+    private HttpClient httpClient() {
+        HttpClient client = httpClient;
+        if (client == null) {
+            synchronized (this) {
+                client = httpClient;
+                if (client == null) {
+                    client = HttpClient.newHttpClient();
+                    httpClient = client;
+                }
+            }
+        }
+        return client;
+    }
+
+    private static String leaseName(Long alertId) {
+        return "report:" + alertId;
+    }
+
+    private void finishGeneration(Long alertId, String lease) {
+        clusterBus.releaseLease(leaseName(alertId), lease);
+        clusterBus.publish(ClusterBus.TOPIC_REPORT, alertId.toString());
+    }
+
+    /**
+     * Streams the report another request is generating once it is stored. The stored text is
+     * checked again after registering, in case generation finished in between.
+     */
+    private void awaitReport(SseEmitter emitter, Long alertId, AtomicBoolean completed) {
+        CompletableFuture<Void> finished = pendingReports.computeIfAbsent(alertId, id -> new CompletableFuture<>());
+        new Thread(() -> {
+            try {
+                Alert stored = alertMapper.findById(alertId);
+                if (stored.getAiReport() == null || stored.getAiReport().isEmpty()) {
+                    try {
+                        finished.get(AWAIT_REPORT_MS, TimeUnit.MILLISECONDS);
+                    } catch (TimeoutException e) {
+                        // No completion message came; don't leave the future for later waiters
+                        pendingReports.remove(alertId, finished);
+                    }
+                    stored = alertMapper.findById(alertId);
+                }
+                if (stored.getAiReport() != null && !stored.getAiReport().isEmpty()) {
+                    streamCachedReport(emitter, stored.getAiReport(), completed);
+                } else if (!completed.get()) {
+                    emitter.completeWithError(new BusinessException(503, "Report generation failed, retry later"));
+                }
+            } catch (Exception e) {
+                if (!completed.get()) emitter.completeWithError(e);
+            }
+        }).start();
+    }
+
     private void streamCachedReport(SseEmitter emitter, String text, AtomicBoolean completed) {
         new Thread(() -> {
             try {
@@ -90,7 +187,7 @@ public class ReportServiceImpl implements ReportService {
         }).start();
     }
 
-    private void streamMockReport(SseEmitter emitter, Alert alert, AtomicBoolean completed) {
+    private void streamMockReport(SseEmitter emitter, Alert alert, AtomicBoolean completed, String lease) {
         new Thread(() -> {
             try {
                 String mockText = String.format(
@@ -119,11 +216,13 @@ public class ReportServiceImpl implements ReportService {
                 }
             } catch (Exception e) {
                 if (!completed.get()) emitter.completeWithError(e);
+            } finally {
+                finishGeneration(alert.getId(), lease);
             }
         }).start();
     }
 
-    private void streamLlmReport(SseEmitter emitter, Alert alert, AtomicBoolean completed) {
+    private void streamLlmReport(SseEmitter emitter, Alert alert, AtomicBoolean completed, String lease) {
         new Thread(() -> {
             try {
                 String systemPrompt = "你是原油市场风险分析专家。请根据提供的预警信息，生成200字左右的中文风险分析报告。";
@@ -142,7 +241,10 @@ public class ReportServiceImpl implements ReportService {
                         "stream", true
                 ));
 
-                HttpClient client = HttpClient.newHttpClient();
+                long startNanos = System.nanoTime();
+                long firstTokenNanos = 0;
+                int tokenCount = 0;
+                HttpClient client = httpClient();
                 HttpRequest request = HttpRequest.newBuilder()
                         .uri(URI.create(apiUrl))
                         .header("Content-Type", "application/json")
@@ -166,6 +268,7 @@ public class ReportServiceImpl implements ReportService {
                             JsonNode content = node.at("/choices/0/delta/content");
                             if (!content.isMissingNode() && !content.isNull()) {
                                 String token = content.asText();
+                                if (tokenCount++ == 0) firstTokenNanos = System.nanoTime();
                                 fullText.append(token);
                                 sendToken(emitter, token);
                             }
@@ -174,6 +277,11 @@ public class ReportServiceImpl implements ReportService {
                     }
                 }
 
+                if (tokenCount > 0) {
+                    streamingMetrics.recordLlmStream(firstTokenNanos - startNanos,
+                            System.nanoTime() - firstTokenNanos, tokenCount);
+                }
+
                 String report = fullText.toString();
                 if (!report.isEmpty()) {
                     alertMapper.updateAiReport(alert.getId(), report);
@@ -189,6 +297,8 @@ public class ReportServiceImpl implements ReportService {
                     if (!completed.get()) emitter.completeWithError(e);
                 } catch (Exception ignored) {
                 }
+            } finally {
+                finishGeneration(alert.getId(), lease);
             }
         }).start();
     }
@@ -1,22 +1,34 @@
 package com.example.oilrisk_alert.service.impl;
 
+import com.example.oilrisk_alert.columnar.ColumnarArchive;
+import com.example.oilrisk_alert.columnar.ColumnarTable;
 import com.example.oilrisk_alert.common.BusinessException;
+import com.example.oilrisk_alert.common.RiskLevel;
 import com.example.oilrisk_alert.entity.Alert;
+import com.example.oilrisk_alert.entity.ArchiveBoundary;
 import com.example.oilrisk_alert.entity.RiskFactor;
 import com.example.oilrisk_alert.entity.RiskIndex;
 import com.example.oilrisk_alert.mapper.AlertMapper;
 import com.example.oilrisk_alert.mapper.FactorMapper;
 import com.example.oilrisk_alert.mapper.RiskMapper;
+import com.example.oilrisk_alert.series.SeriesColumn;
+import com.example.oilrisk_alert.series.SeriesSink;
+import com.example.oilrisk_alert.service.PartitionService;
 import com.example.oilrisk_alert.service.RiskService;
 import com.example.oilrisk_alert.util.LttbUtil;
+import com.example.oilrisk_alert.util.StreamingLttb;
 import com.example.oilrisk_alert.vo.*;
 import lombok.RequiredArgsConstructor;
+import org.apache.ibatis.session.ResultContext;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
 
 import java.math.BigDecimal;
 import java.time.LocalDate;
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.List;
+import java.util.function.Consumer;
 
 @Service
 @RequiredArgsConstructor
@@ -25,8 +37,15 @@ public class RiskServiceImpl implements RiskService {
     private final RiskMapper riskMapper;
     private final FactorMapper factorMapper;
     private final AlertMapper alertMapper;
+    private final TransactionTemplate transactionTemplate;
+    private final PartitionService partitionService;
+    private final ColumnarArchive columnarArchive;
 
     private static final int LTTB_THRESHOLD = 2000;
+    private static final SeriesColumn[] ALERT_COLUMNS = {
+            SeriesColumn.date("date"),
+            SeriesColumn.category("level", Arrays.stream(RiskLevel.values()).map(RiskLevel::getLabel).toList()),
+            SeriesColumn.decimal("riskIndex", 2)};
 
     @Override
     public RiskCurrentVO getCurrentRisk() {
@@ -66,7 +85,7 @@ public class RiskServiceImpl implements RiskService {
             start = end.minusYears(2);
         }
 
-        List<RiskIndex> riskData = riskMapper.findByDateRange(start, end);
+        List<RiskIndex> riskData = findByDateRange(start, end);
         List<Alert> alertData = alertMapper.findByDateRange(start, end);
 
         // Prepare raw data arrays
@@ -129,4 +148,126 @@ public class RiskServiceImpl implements RiskService {
 
         return vo;
     }
+
+    @Override
+    public Consumer<SeriesSink> streamTimeseries(LocalDate start, LocalDate end) {
+        LocalDate to = end != null ? end : LocalDate.now();
+        LocalDate from = start != null ? start : to.minusYears(2);
+        return sink -> {
+            // All passes read one snapshot, so the columns line up
+            TransactionTemplate readOnly = new TransactionTemplate(transactionTemplate.getTransactionManager());
+            readOnly.setReadOnly(true);
+            readOnly.executeWithoutResult(status -> writeTimeseries(from, to, sink));
+        };
+    }
+
+    /**
+     * Each column is its own pass over risk_index, so only the LTTB buckets in flight and the
+     * selected row indices (at most 2 x LTTB_THRESHOLD) are held, whatever the range size.
+     * Dates covered by the columnar archive are read from its mapped files.
+     */
+    private void writeTimeseries(LocalDate start, LocalDate end, SeriesSink sink) {
+        ColumnarTable cold = coldRiskIndex(start);
+        LocalDate hotStart = cold != null ? cold.getBefore() : start;
+        int coldRows = cold != null ? cold.count(start, end) : 0;
+        int rows = coldRows + (hotStart.isAfter(end) ? 0 : riskMapper.countByDateRange(hotStart, end));
+        int[] keep = null;
+        if (rows > LTTB_THRESHOLD) {
+            StreamingLttb lttb = new StreamingLttb(rows, LTTB_THRESHOLD);
+            scanRows(cold, start, end, rows, null, (date, oilPrice, riskIndex) -> lttb.add(oilPrice, riskIndex));
+            keep = lttb.finish();
+        }
+
+        sink.begin(keep != null ? keep.length : rows, SeriesColumn.date("dates"),
+                SeriesColumn.decimal("oilPrice", 2), SeriesColumn.decimal("riskIndex", 2));
+        sink.startColumn();
+        scanRows(cold, start, end, rows, keep, (date, oilPrice, riskIndex) -> sink.writeDate(date));
+        sink.endColumn();
+        sink.startColumn();
+        scanRows(cold, start, end, rows, keep, (date, oilPrice, riskIndex) -> sink.writeValue(oilPrice));
+        sink.endColumn();
+        sink.startColumn();
+        scanRows(cold, start, end, rows, keep, (date, oilPrice, riskIndex) -> sink.writeValue(riskIndex));
+        sink.endColumn();
+
+        int alerts = alertMapper.countByDateRange(start, end);
+        sink.writeTable("alerts", alerts, ALERT_COLUMNS, row ->
+                alertMapper.scanMarkersByDateRange(start, end, context -> {
+                    if (context.getResultCount() > alerts) {
+                        context.stop();
+                        return;
+                    }
+                    Alert alert = context.getResultObject();
+                    row.date(alert.getDate());
+                    row.category(alert.getLevel());
+                    row.value(alert.getRiskIndex().doubleValue());
+                }));
+        sink.end();
+    }
+
+    @FunctionalInterface
+    private interface RowAction {
+        void accept(LocalDate date, double oilPrice, double riskIndex);
+    }
+
+    /**
+     * Feeds the first {@code rows} rows of the range to {@code action}, or only those whose
+     * position is listed in {@code keep} (ascending) when it is not null. Rows before
+     * {@code cold.getBefore()} come from the columnar archive when {@code cold} is not null.
+     */
+    private void scanRows(ColumnarTable cold, LocalDate start, LocalDate end, int rows, int[] keep,
+                          RowAction action) {
+        int[] position = {0};
+        int[] next = {0};
+        LocalDate hotStart = start;
+        if (cold != null) {
+            cold.scan(start, end, (day, key, riskIndex, oilPrice) -> {
+                int p = position[0]++;
+                if (p >= rows || (keep != null && next[0] == keep.length)) return false;
+                if (keep == null || keep[next[0]] == p) {
+                    action.accept(LocalDate.ofEpochDay(day), oilPrice, riskIndex);
+                    next[0]++;
+                }
+                return true;
+            });
+            hotStart = cold.getBefore();
+        }
+        if (hotStart.isAfter(end) || position[0] >= rows || (keep != null && next[0] == keep.length)) return;
+        riskMapper.scanByDateRange(hotStart, end, (ResultContext<? extends RiskIndex> context) -> {
+            int p = position[0]++;
+            if (p >= rows || (keep != null && next[0] == keep.length)) {
+                context.stop();
+                return;
+            }
+            if (keep == null || keep[next[0]] == p) {
+                RiskIndex ri = context.getResultObject();
+                action.accept(ri.getDate(), ri.getOilPrice().doubleValue(), ri.getRiskIndex().doubleValue());
+                next[0]++;
+            }
+        });
+    }
+
+    private List<RiskIndex> findByDateRange(LocalDate start, LocalDate end) {
+        ColumnarTable cold = coldRiskIndex(start);
+        if (cold == null) {
+            return riskMapper.findByDateRange(start, end);
+        }
+        List<RiskIndex> rows = new ArrayList<>();
+        cold.scan(start, end, (day, key, riskIndex, oilPrice) ->
+                rows.add(ColumnarArchive.toRiskIndex(cold, day, key, riskIndex, oilPrice)));
+        if (!cold.getBefore().isAfter(end)) {
+            rows.addAll(riskMapper.findByDateRange(cold.getBefore(), end));
+        }
+        return rows;
+    }
+
+    /**
+     * @return the columnar copy of risk_index when it is current and covers dates from
+     * {@code start}, otherwise null
+     */
+    private ColumnarTable coldRiskIndex(LocalDate start) {
+        ArchiveBoundary boundary = partitionService.getFactorArchiveBoundary();
+        if (boundary == null || !start.isBefore(boundary.getArchivedBefore())) return null;
+        return columnarArchive.riskIndex(boundary);
+    }
 }
@@ -0,0 +1,244 @@
+package com.example.oilrisk_alert.service.impl;
+
+import com.example.oilrisk_alert.cache.RadarScoreCache;
+import com.example.oilrisk_alert.common.BusinessException;
+import com.example.oilrisk_alert.engine.RiskEngine;
+import com.example.oilrisk_alert.entity.Alert;
+import com.example.oilrisk_alert.entity.MarketData;
+import com.example.oilrisk_alert.entity.RiskFactor;
+import com.example.oilrisk_alert.entity.RiskIndex;
+import com.example.oilrisk_alert.mapper.AlertMapper;
+import com.example.oilrisk_alert.mapper.FactorMapper;
+import com.example.oilrisk_alert.mapper.MarketDataMapper;
+import com.example.oilrisk_alert.mapper.RiskMapper;
+import com.example.oilrisk_alert.service.SnapshotService;
+import com.example.oilrisk_alert.snapshot.SnapshotHeader;
+import com.example.oilrisk_alert.snapshot.SnapshotReader;
+import com.example.oilrisk_alert.snapshot.SnapshotSection;
+import com.example.oilrisk_alert.snapshot.SnapshotWriter;
+import com.example.oilrisk_alert.vo.SnapshotResultVO;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.apache.ibatis.session.ResultHandler;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.Consumer;
+
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class SnapshotServiceImpl implements SnapshotService {
+
+    private final RiskMapper riskMapper;
+    private final FactorMapper factorMapper;
+    private final AlertMapper alertMapper;
+    private final MarketDataMapper marketDataMapper;
+    private final RiskEngine riskEngine;
+    private final TransactionTemplate transactionTemplate;
+
+    @Value("${ingest.batch-size:500}")
+    private int batchSize = 500;
+
+    @Override
+    public SnapshotResultVO export(Path path) {
+        long startNanos = System.nanoTime();
+        SnapshotResultVO result = new SnapshotResultVO();
+        RiskIndex latest = riskMapper.findLatest();
+        LocalDate lastDate = latest != null ? latest.getDate() : null;
+
+        // Write next to the target and move into place, so a crash never leaves a truncated snapshot
+        Path tmp = path.resolveSibling(path.getFileName() + ".tmp");
+        try {
+            if (path.getParent() != null) {
+                Files.createDirectories(path.getParent());
+            }
+            try (OutputStream os = Files.newOutputStream(tmp);
+                 SnapshotWriter writer = new SnapshotWriter(os, lastDate)) {
+                writer.beginSection(SnapshotSection.MARKET_DATA);
+                marketDataMapper.scanAll(ctx -> {
+                    write(() -> writer.write(ctx.getResultObject()));
+                    result.setMarketDataRows(result.getMarketDataRows() + 1);
+                });
+                writer.endSection();
+
+                writer.beginSection(SnapshotSection.RISK_INDEX);
+                riskMapper.scanAll(ctx -> {
+                    write(() -> writer.write(ctx.getResultObject()));
+                    result.setRiskIndexRows(result.getRiskIndexRows() + 1);
+                });
+                writer.endSection();
+
+                // Archived factor rows first: their dates all precede the partitioned table's
+                writer.beginSection(SnapshotSection.RISK_FACTOR);
+                ResultHandler<RiskFactor> factors = ctx -> {
+                    write(() -> writer.write(ctx.getResultObject()));
+                    result.setRiskFactorRows(result.getRiskFactorRows() + 1);
+                };
+                factorMapper.scanArchivedAll(factors);
+                factorMapper.scanAll(factors);
+                writer.endSection();
+
+                writer.beginSection(SnapshotSection.ALERT);
+                alertMapper.scanAll(ctx -> {
+                    write(() -> writer.write(ctx.getResultObject()));
+                    result.setAlertRows(result.getAlertRows() + 1);
+                });
+                writer.endSection();
+            }
+            Files.move(tmp, path, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+            result.setBytes(Files.size(path));
+        } catch (IOException | UncheckedIOException e) {
+            throw new BusinessException("Failed to write snapshot: " + e.getMessage());
+        }
+
+        result.setPath(path.toString());
+        result.setLastDate(lastDate != null ? lastDate.toString() : null);
+        result.setElapsedMillis((System.nanoTime() - startNanos) / 1_000_000);
+        log.info("Exported snapshot {} ({} bytes, last date {}) in {} ms",
+                path, result.getBytes(), lastDate, result.getElapsedMillis());
+        return result;
+    }
+
+    @Override
+    public SnapshotResultVO restore(Path path) {
+        if (!Files.isRegularFile(path)) {
+            throw new BusinessException(404, "Snapshot not found: " + path);
+        }
+        long startNanos = System.nanoTime();
+        SnapshotResultVO result = new SnapshotResultVO();
+
+        synchronized (riskEngine) {
+            transactionTemplate.executeWithoutResult(status -> {
+                // Restored ids may be indexed with other text on any instance, so every restored
+                // alert gets a revision none of them holds and is re-read by each index's next sync
+                Integer maxRevision = alertMapper.findMaxRevision();
+                int revision = maxRevision == null ? 0 : maxRevision + 1;
+                alertMapper.deleteAll();
+                // Everything comes back into risk_factor; the next archival run moves old rows again
+                factorMapper.deleteArchivedBefore();
+                factorMapper.deleteArchive();
+                factorMapper.deleteAll();
+                riskMapper.deleteAll();
+                marketDataMapper.deleteAll();
+                try (InputStream is = Files.newInputStream(path);
+                     SnapshotReader reader = new SnapshotReader(is)) {
+                    SnapshotHeader header = reader.getHeader();
+                    result.setLastDate(header.getLastDate() != null ? header.getLastDate().toString() : null);
+
+                    reader.beginSection(SnapshotSection.MARKET_DATA);
+                    BatchInserter<MarketData> marketData = new BatchInserter<>(marketDataMapper::upsertBatch);
+                    while (reader.next()) marketData.add(reader.readMarketData());
+                    result.setMarketDataRows(marketData.finish());
+
+                    reader.beginSection(SnapshotSection.RISK_INDEX);
+                    BatchInserter<RiskIndex> riskIndices = new BatchInserter<>(riskMapper::upsertBatch);
+                    while (reader.next()) riskIndices.add(reader.readRiskIndex());
+                    result.setRiskIndexRows(riskIndices.finish());
+
+                    reader.beginSection(SnapshotSection.RISK_FACTOR);
+                    BatchInserter<RiskFactor> riskFactors = new BatchInserter<>(factorMapper::upsertBatch);
+                    while (reader.next()) riskFactors.add(reader.readRiskFactor());
+                    result.setRiskFactorRows(riskFactors.finish());
+
+                    reader.beginSection(SnapshotSection.ALERT);
+                    BatchInserter<Alert> alerts = new BatchInserter<>(list -> alertMapper.insertBatch(list, revision));
+                    while (reader.next()) alerts.add(reader.readAlert());
+                    result.setAlertRows(alerts.finish());
+                } catch (IOException e) {
+                    throw new BusinessException("Failed to read snapshot: " + e.getMessage());
+                }
+            });
+            // Streaming statistics are rebuilt from market_data on the next observation
+            riskEngine.reset();
+        }
+
+        try {
+            result.setBytes(Files.size(path));
+        } catch (IOException ignored) {
+        }
+        result.setPath(path.toString());
+        result.setElapsedMillis((System.nanoTime() - startNanos) / 1_000_000);
+        log.info("Restored snapshot {}: market_data={}, risk_index={}, risk_factor={}, alert={} in {} ms",
+                path, result.getMarketDataRows(), result.getRiskIndexRows(),
+                result.getRiskFactorRows(), result.getAlertRows(), result.getElapsedMillis());
+        return result;
+    }
+
+    @Override
+    public SnapshotResultVO restoreIfNewer(Path path) {
+        if (!Files.isRegularFile(path)) {
+            return null;
+        }
+        LocalDate snapshotDate;
+        try (InputStream is = Files.newInputStream(path);
+             SnapshotReader reader = new SnapshotReader(is)) {
+            snapshotDate = reader.getHeader().getLastDate();
+        } catch (IOException e) {
+            log.warn("Ignoring unreadable snapshot {}: {}", path, e.getMessage());
+            return null;
+        }
+        RiskIndex latest = riskMapper.findLatest();
+        if (snapshotDate == null || (latest != null && !latest.getDate().isBefore(snapshotDate))) {
+            log.info("Snapshot {} (last date {}) is not newer than the database, skipping restore",
+                    path, snapshotDate);
+            return null;
+        }
+        return restore(path);
+    }
+
+    private interface IoAction {
+        void run() throws IOException;
+    }
+
+    private static void write(IoAction action) {
+        try {
+            action.run();
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    /**
+     * Collects rows and hands them to a multi-row insert every batchSize rows.
+     */
+    private class BatchInserter<T> {
+        private final Consumer<List<T>> sink;
+        private final List<T> buffer = new ArrayList<>();
+        private int count;
+
+        BatchInserter(Consumer<List<T>> sink) {
+            this.sink = sink;
+        }
+
+        void add(T row) {
+            buffer.add(row);
+            if (buffer.size() >= batchSize) {
+                flush();
+            }
+        }
+
+        int finish() {
+            flush();
+            return count;
+        }
+
+        private void flush() {
+            if (buffer.isEmpty()) return;
+            sink.accept(buffer);
+            count += buffer.size();
+            buffer.clear();
+        }
+    }
+}
@@ -0,0 +1,13 @@
+package com.example.oilrisk_alert.snapshot;
+
+import lombok.Data;
+
+import java.time.LocalDate;
+
+@Data
+public class SnapshotHeader {
+    private int version;
+    private long createdAt;
+    /** Latest risk_index date in the snapshot, null for an empty one */
+    private LocalDate lastDate;
+}
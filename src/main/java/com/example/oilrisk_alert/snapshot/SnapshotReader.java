@@ -0,0 +1,174 @@
+package com.example.oilrisk_alert.snapshot;
+
+import com.example.oilrisk_alert.entity.Alert;
+import com.example.oilrisk_alert.entity.MarketData;
+import com.example.oilrisk_alert.entity.RiskFactor;
+import com.example.oilrisk_alert.entity.RiskIndex;
+
+import java.io.BufferedInputStream;
+import java.io.Closeable;
+import java.io.DataInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.math.BigDecimal;
+import java.math.BigInteger;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.zip.GZIPInputStream;
+
+/**
+ * Reads files produced by {@link SnapshotWriter}.
+ */
+public class SnapshotReader implements Closeable {
+
+    private final DataInputStream in;
+    private final SnapshotHeader header;
+    private final List<String> dictionary = new ArrayList<>();
+    private long lastEpochDay;
+
+    public SnapshotReader(InputStream is) throws IOException {
+        in = new DataInputStream(new BufferedInputStream(new GZIPInputStream(is, 1 << 16), 1 << 16));
+        if (in.readInt() != SnapshotWriter.MAGIC) {
+            throw new IOException("Not a snapshot file");
+        }
+        header = new SnapshotHeader();
+        header.setVersion(in.readInt());
+        if (header.getVersion() != SnapshotWriter.VERSION) {
+            throw new IOException("Unsupported snapshot version " + header.getVersion());
+        }
+        header.setCreatedAt(in.readLong());
+        int lastDay = in.readInt();
+        header.setLastDate(lastDay != Integer.MIN_VALUE ? LocalDate.ofEpochDay(lastDay) : null);
+    }
+
+    public SnapshotHeader getHeader() {
+        return header;
+    }
+
+    public void beginSection(SnapshotSection expected) throws IOException {
+        int ordinal = in.readUnsignedByte();
+        if (ordinal != expected.ordinal()) {
+            throw new IOException("Expected section " + expected + " but found " + ordinal);
+        }
+        lastEpochDay = 0;
+    }
+
+    /**
+     * @return true when another row of the current section follows
+     */
+    public boolean next() throws IOException {
+        return in.readByte() != 0;
+    }
+
+    public MarketData readMarketData() throws IOException {
+        MarketData m = new MarketData();
+        m.setDate(readDate());
+        int presence = in.readUnsignedShort();
+        m.setCpi(readDouble(presence, 0));
+        m.setOilPrice(readDouble(presence, 1));
+        m.setBrentChg(readDouble(presence, 2));
+        m.setInventory(readDouble(presence, 3));
+        m.setOpecOutput(readDouble(presence, 4));
+        m.setVix(readDouble(presence, 5));
+        m.setGeoTotal(readDouble(presence, 6));
+        m.setRussiaUkraine(readDouble(presence, 7));
+        m.setMiddleEast(readDouble(presence, 8));
+        m.setGpr(readDouble(presence, 9));
+        m.setSentiment(readDouble(presence, 10));
+        m.setUsdIndex(readDouble(presence, 11));
+        return m;
+    }
+
+    public RiskIndex readRiskIndex() throws IOException {
+        RiskIndex r = new RiskIndex();
+        r.setDate(readDate());
+        r.setRiskIndex(readDecimal());
+        r.setRiskLevel(readString());
+        r.setOilPrice(readDecimal());
+        return r;
+    }
+
+    public RiskFactor readRiskFactor() throws IOException {
+        RiskFactor f = new RiskFactor();
+        f.setDate(readDate());
+        f.setFactorName(readString());
+        f.setFactorNameZh(readString());
+        f.setCategory(readString());
+        f.setValue(readDecimal());
+        f.setShapValue(readDecimal());
+        return f;
+    }
+
+    public Alert readAlert() throws IOException {
+        Alert a = new Alert();
+        a.setId(readVarLong());
+        a.setDate(readDate());
+        a.setLevel(readString());
+        a.setRiskIndex(readDecimal());
+        a.setTriggerType(readString());
+        a.setTriggerFactor(readString());
+        a.setTriggerFactorZh(readString());
+        a.setSummary(readString());
+        a.setSummaryEn(readString());
+        a.setDetail(readString());
+        a.setAiReport(readString());
+        return a;
+    }
+
+    @Override
+    public void close() throws IOException {
+        in.close();
+    }
+
+    private Double readDouble(int presence, int bit) throws IOException {
+        return (presence & (1 << bit)) != 0 ? in.readDouble() : null;
+    }
+
+    private LocalDate readDate() throws IOException {
+        lastEpochDay += unZigZag(readVarLong());
+        return LocalDate.ofEpochDay(lastEpochDay);
+    }
+
+    private BigDecimal readDecimal() throws IOException {
+        byte scale = in.readByte();
+        if (scale == -1) {
+            return null;
+        }
+        return new BigDecimal(BigInteger.valueOf(unZigZag(readVarLong())), scale);
+    }
+
+    private String readString() throws IOException {
+        long code = readVarLong();
+        if (code == 0) {
+            return null;
+        }
+        if (code > 1) {
+            return dictionary.get((int) (code - 2));
+        }
+        byte[] bytes = new byte[(int) readVarLong()];
+        in.readFully(bytes);
+        String s = new String(bytes, StandardCharsets.UTF_8);
+        if (s.length() <= SnapshotWriter.MAX_DICT_LENGTH) {
+            dictionary.add(s);
+        }
+        return s;
+    }
+
+    private long readVarLong() throws IOException {
+        long result = 0;
+        for (int shift = 0; shift < 64; shift += 7) {
+            int b = in.readUnsignedByte();
+            result |= (long) (b & 0x7F) << shift;
+            if ((b & 0x80) == 0) {
+                return result;
+            }
+        }
+        throw new IOException("Malformed varint");
+    }
+
+    private static long unZigZag(long v) {
+        return (v >>> 1) ^ -(v & 1);
+    }
+}
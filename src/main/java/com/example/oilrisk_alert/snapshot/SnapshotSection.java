@@ -0,0 +1,11 @@
+package com.example.oilrisk_alert.snapshot;
+
+/**
+ * Table sections of a snapshot file, written and restored in this order.
+ */
+public enum SnapshotSection {
+    MARKET_DATA,
+    RISK_INDEX,
+    RISK_FACTOR,
+    ALERT
+}
@@ -0,0 +1,44 @@
+package com.example.oilrisk_alert.snapshot;
+
+import com.example.oilrisk_alert.service.SnapshotService;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.ApplicationArguments;
+import org.springframework.boot.ApplicationRunner;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.stereotype.Component;
+
+import java.nio.file.Path;
+
+/**
+ * Bulk-loads snapshot.path when it is newer than the database. Runs before the CSV ingest runner so
+ * a replay starts from the restored state.
+ */
+@Slf4j
+@Component
+@Order(Ordered.HIGHEST_PRECEDENCE)
+@RequiredArgsConstructor
+public class SnapshotStartupRunner implements ApplicationRunner {
+
+    private final SnapshotService snapshotService;
+
+    @Value("${snapshot.path:}")
+    private String snapshotPath;
+
+    @Value("${snapshot.restore-on-startup:false}")
+    private boolean restoreOnStartup;
+
+    @Override
+    public void run(ApplicationArguments args) {
+        if (!restoreOnStartup || snapshotPath == null || snapshotPath.isEmpty()) {
+            return;
+        }
+        try {
+            snapshotService.restoreIfNewer(Path.of(snapshotPath));
+        } catch (Exception e) {
+            log.error("Startup restore of {} failed", snapshotPath, e);
+        }
+    }
+}
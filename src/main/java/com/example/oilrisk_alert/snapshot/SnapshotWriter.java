@@ -0,0 +1,159 @@
+package com.example.oilrisk_alert.snapshot;
+
+import com.example.oilrisk_alert.entity.Alert;
+import com.example.oilrisk_alert.entity.MarketData;
+import com.example.oilrisk_alert.entity.RiskFactor;
+import com.example.oilrisk_alert.entity.RiskIndex;
+
+import java.io.BufferedOutputStream;
+import java.io.Closeable;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * Writes the compact binary snapshot format (gzip-wrapped):
+ * <pre>
+ * header : magic "ORSN", version, createdAt millis, lastDate epoch day (MIN_VALUE if none)
+ * section: ordinal byte, then rows each prefixed with 1, terminated by 0
+ * </pre>
+ * Dates are zig-zag varint deltas from the previous row of the section, decimals are a scale byte
+ * plus a zig-zag varint unscaled value, and short strings (factor names, levels, trigger types) are
+ * dictionary-encoded so a repeated value costs one or two bytes. created_at is not kept.
+ */
+public class SnapshotWriter implements Closeable {
+
+    static final int MAGIC = 0x4F52534E;
+    static final int VERSION = 1;
+    static final int MAX_DICT_LENGTH = 64;
+
+    private final DataOutputStream out;
+    private final Map<String, Integer> dictionary = new HashMap<>();
+    private long lastEpochDay;
+
+    public SnapshotWriter(OutputStream os, LocalDate lastDate) throws IOException {
+        out = new DataOutputStream(new BufferedOutputStream(new GZIPOutputStream(os, 1 << 16), 1 << 16));
+        out.writeInt(MAGIC);
+        out.writeInt(VERSION);
+        out.writeLong(System.currentTimeMillis());
+        out.writeInt(lastDate != null ? (int) lastDate.toEpochDay() : Integer.MIN_VALUE);
+    }
+
+    public void beginSection(SnapshotSection section) throws IOException {
+        out.writeByte(section.ordinal());
+        lastEpochDay = 0;
+    }
+
+    public void endSection() throws IOException {
+        out.writeByte(0);
+    }
+
+    public void write(MarketData m) throws IOException {
+        out.writeByte(1);
+        writeDate(m.getDate());
+        Double[] values = {m.getCpi(), m.getOilPrice(), m.getBrentChg(), m.getInventory(),
+                m.getOpecOutput(), m.getVix(), m.getGeoTotal(), m.getRussiaUkraine(),
+                m.getMiddleEast(), m.getGpr(), m.getSentiment(), m.getUsdIndex()};
+        int presence = 0;
+        for (int i = 0; i < values.length; i++) {
+            if (values[i] != null) presence |= 1 << i;
+        }
+        out.writeShort(presence);
+        for (Double v : values) {
+            if (v != null) out.writeDouble(v);
+        }
+    }
+
+    public void write(RiskIndex r) throws IOException {
+        out.writeByte(1);
+        writeDate(r.getDate());
+        writeDecimal(r.getRiskIndex());
+        writeString(r.getRiskLevel());
+        writeDecimal(r.getOilPrice());
+    }
+
+    public void write(RiskFactor f) throws IOException {
+        out.writeByte(1);
+        writeDate(f.getDate());
+        writeString(f.getFactorName());
+        writeString(f.getFactorNameZh());
+        writeString(f.getCategory());
+        writeDecimal(f.getValue());
+        writeDecimal(f.getShapValue());
+    }
+
+    public void write(Alert a) throws IOException {
+        out.writeByte(1);
+        writeVarLong(a.getId());
+        writeDate(a.getDate());
+        writeString(a.getLevel());
+        writeDecimal(a.getRiskIndex());
+        writeString(a.getTriggerType());
+        writeString(a.getTriggerFactor());
+        writeString(a.getTriggerFactorZh());
+        writeString(a.getSummary());
+        writeString(a.getSummaryEn());
+        writeString(a.getDetail());
+        writeString(a.getAiReport());
+    }
+
+    @Override
+    public void close() throws IOException {
+        out.close();
+    }
+
+    private void writeDate(LocalDate date) throws IOException {
+        long epochDay = date.toEpochDay();
+        writeVarLong(zigZag(epochDay - lastEpochDay));
+        lastEpochDay = epochDay;
+    }
+
+    private void writeDecimal(BigDecimal value) throws IOException {
+        if (value == null) {
+            out.writeByte(-1);
+            return;
+        }
+        out.writeByte(value.scale());
+        writeVarLong(zigZag(value.unscaledValue().longValueExact()));
+    }
+
+    /**
+     * 0 = null, 1 = literal (added to the dictionary when short), n + 2 = dictionary entry n.
+     */
+    private void writeString(String s) throws IOException {
+        if (s == null) {
+            writeVarLong(0);
+            return;
+        }
+        Integer ref = dictionary.get(s);
+        if (ref != null) {
+            writeVarLong(ref + 2L);
+            return;
+        }
+        byte[] bytes = s.getBytes(StandardCharsets.UTF_8);
+        writeVarLong(1);
+        writeVarLong(bytes.length);
+        out.write(bytes);
+        if (s.length() <= MAX_DICT_LENGTH) {
+            dictionary.put(s, dictionary.size());
+        }
+    }
+
+    private void writeVarLong(long v) throws IOException {
+        while ((v & ~0x7FL) != 0) {
+            out.writeByte((int) ((v & 0x7F) | 0x80));
+            v >>>= 7;
+        }
+        out.writeByte((int) v);
+    }
+
+    private static long zigZag(long v) {
+        return (v << 1) ^ (v >> 63);
+    }
+}
@@ -0,0 +1,140 @@
+package com.example.oilrisk_alert.util;
+
+import java.util.Arrays;
+
+/**
+ * LTTB point selection over a row stream of known length, for two series sharing the row index
+ * as x axis. Picks exactly the indices {@link LttbUtil#downsample} would pick for each series and
+ * returns their union, but only buffers the bucket being decided and the one after it, so memory
+ * is O(length / threshold) instead of O(length).
+ */
+public class StreamingLttb {
+
+    private final int length;
+    private final int buckets;
+    private final double bucketSize;
+
+    // Rows [bufferStart, row) of both series
+    private double[] bufferA = new double[16];
+    private double[] bufferB = new double[16];
+    private int bufferStart;
+    private int row;
+
+    private int bucket;
+    private double prevAX, prevAY, prevBX, prevBY;
+
+    private int[] selected;
+    private int selectedCount;
+
+    /**
+     * @param length    total rows that will be added, must exceed threshold
+     * @param threshold target points per series, at least 3
+     */
+    public StreamingLttb(int length, int threshold) {
+        if (threshold < 3 || length <= threshold) {
+            throw new IllegalArgumentException("length must exceed threshold and threshold must be >= 3");
+        }
+        this.length = length;
+        this.buckets = threshold - 2;
+        this.bucketSize = (double) (length - 2) / buckets;
+        this.selected = new int[2 * threshold];
+    }
+
+    public void add(double a, double b) {
+        if (row == 0) {
+            prevAX = prevBX = 0;
+            prevAY = a;
+            prevBY = b;
+            select(0);
+        }
+        int i = row - bufferStart;
+        if (i == bufferA.length) {
+            bufferA = Arrays.copyOf(bufferA, i * 2);
+            bufferB = Arrays.copyOf(bufferB, i * 2);
+        }
+        bufferA[i] = a;
+        bufferB[i] = b;
+        row++;
+        while (bucket < buckets && row >= rowsNeeded(bucket)) {
+            process(bucket++);
+        }
+    }
+
+    /**
+     * @return ascending row indices to keep; valid once all {@code length} rows were added
+     */
+    public int[] finish() {
+        if (row != length) {
+            throw new IllegalStateException("Expected " + length + " rows, got " + row);
+        }
+        select(length - 1);
+        return Arrays.copyOf(selected, selectedCount);
+    }
+
+    private int bucketStart(int i) {
+        return (int) Math.floor(i * bucketSize) + 1;
+    }
+
+    private int nextBucketEnd(int i) {
+        int start = bucketStart(i + 1);
+        int end = Math.min(bucketStart(i + 2), length);
+        return end == start ? start + 1 : end;
+    }
+
+    private int rowsNeeded(int i) {
+        return Math.max(Math.min(bucketStart(i + 1), length - 1), nextBucketEnd(i));
+    }
+
+    private void process(int i) {
+        int start = bucketStart(i);
+        int end = Math.min(bucketStart(i + 1), length - 1);
+        int nextStart = bucketStart(i + 1);
+        int nextEnd = nextBucketEnd(i);
+
+        double avgX = 0, avgA = 0, avgB = 0;
+        for (int j = nextStart; j < nextEnd; j++) {
+            avgX += j;
+            avgA += bufferA[j - bufferStart];
+            avgB += bufferB[j - bufferStart];
+        }
+        int nextCount = nextEnd - nextStart;
+        avgX /= nextCount;
+        avgA /= nextCount;
+        avgB /= nextCount;
+
+        int maxA = start, maxB = start;
+        double maxAreaA = -1, maxAreaB = -1;
+        for (int j = start; j < end; j++) {
+            double a = bufferA[j - bufferStart];
+            double b = bufferB[j - bufferStart];
+            double areaA = Math.abs((prevAX - avgX) * (a - prevAY) - (prevAX - j) * (avgA - prevAY)) * 0.5;
+            double areaB = Math.abs((prevBX - avgX) * (b - prevBY) - (prevBX - j) * (avgB - prevBY)) * 0.5;
+            if (areaA > maxAreaA) {
+                maxAreaA = areaA;
+                maxA = j;
+            }
+            if (areaB > maxAreaB) {
+                maxAreaB = areaB;
+                maxB = j;
+            }
+        }
+        prevAX = maxA;
+        prevAY = bufferA[maxA - bufferStart];
+        prevBX = maxB;
+        prevBY = bufferB[maxB - bufferStart];
+        select(Math.min(maxA, maxB));
+        select(Math.max(maxA, maxB));
+
+        // Rows before the next bucket are never read again
+        int drop = nextStart - bufferStart;
+        int keep = row - nextStart;
+        System.arraycopy(bufferA, drop, bufferA, 0, keep);
+        System.arraycopy(bufferB, drop, bufferB, 0, keep);
+        bufferStart = nextStart;
+    }
+
+    private void select(int index) {
+        if (selectedCount > 0 && selected[selectedCount - 1] == index) return;
+        selected[selectedCount++] = index;
+    }
+}
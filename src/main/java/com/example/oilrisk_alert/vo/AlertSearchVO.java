@@ -0,0 +1,21 @@
+package com.example.oilrisk_alert.vo;
+
+import lombok.Data;
+
+import java.util.List;
+import java.util.Map;
+
+/**
+ * One page of search matches and facet counts. A facet counts the matches under every filter
+ * but its own, so the level counts stay complete while filtering by level.
+ */
+@Data
+public class AlertSearchVO {
+    private long total;
+    private int page;
+    private int size;
+    private List<AlertVO> records;
+    private Map<String, Long> levels;
+    private Map<String, Long> triggerTypes;
+    private Map<String, Long> years;
+}
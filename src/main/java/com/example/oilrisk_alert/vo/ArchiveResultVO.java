@@ -0,0 +1,15 @@
+package com.example.oilrisk_alert.vo;
+
+import lombok.Data;
+
+import java.util.ArrayList;
+import java.util.List;
+
+@Data
+public class ArchiveResultVO {
+    private String table;
+    private String archivedBefore;
+    private int rows;
+    private List<String> partitions = new ArrayList<>();
+    private long elapsedMillis;
+}
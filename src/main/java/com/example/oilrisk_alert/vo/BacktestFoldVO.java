@@ -0,0 +1,16 @@
+package com.example.oilrisk_alert.vo;
+
+import lombok.Data;
+
+import java.math.BigDecimal;
+
+@Data
+public class BacktestFoldVO {
+    private String trainStart;
+    private String trainEnd;
+    private String testStart;
+    private String testEnd;
+    private BigDecimal mae;
+    private BigDecimal hitRate;
+    private BigDecimal directionAccuracy;
+}
@@ -14,4 +14,5 @@ public class BacktestResultVO {
     private BigDecimal falseAlarmRate;
     private BigDecimal mae;
     private BigDecimal directionAccuracy;
+    private List<BacktestFoldVO> folds;
 }
@@ -0,0 +1,27 @@
+package com.example.oilrisk_alert.vo;
+
+import lombok.Data;
+
+import java.util.List;
+
+/**
+ * Factor correlations over a date range, factors ordered by |cumulative SHAP|, largest first.
+ * {@code matrix[i][j]} correlates the values of factors i and j and {@code riskCorrelation[i]}
+ * factor i with risk_index, both over the whole range. The series are sampled at {@code dates}:
+ * {@code rollingRiskCorrelation[i][k]} covers the {@code window} dates ending at dates[k] and
+ * {@code cumulativeShap[i][k]} sums factor i's SHAP from the start of the range to dates[k].
+ */
+@Data
+public class FactorCorrelationVO {
+    private List<String> factors;
+    private List<String> factorsZh;
+    private List<String> categories;
+    private int observations;
+    private int window;
+    private double[][] matrix;
+    private double[] riskCorrelation;
+    private double[] shapTotals;
+    private List<String> dates;
+    private double[][] rollingRiskCorrelation;
+    private double[][] cumulativeShap;
+}
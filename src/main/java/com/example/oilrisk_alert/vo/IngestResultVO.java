@@ -0,0 +1,12 @@
+package com.example.oilrisk_alert.vo;
+
+import lombok.Data;
+
+@Data
+public class IngestResultVO {
+    private int sourceRows;
+    private int riskIndexRows;
+    private int riskFactorRows;
+    private int alertRows;
+    private long elapsedMillis;
+}
@@ -0,0 +1,15 @@
+package com.example.oilrisk_alert.vo;
+
+import lombok.Data;
+
+import java.math.BigDecimal;
+import java.util.List;
+
+@Data
+public class ObservationResultVO {
+    private String date;
+    private BigDecimal riskIndex;
+    private String riskLevel;
+    private List<FactorVO> factors;
+    private AlertVO alert;
+}
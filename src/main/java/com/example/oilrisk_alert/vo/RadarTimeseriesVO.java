@@ -0,0 +1,16 @@
+package com.example.oilrisk_alert.vo;
+
+import lombok.Data;
+
+import java.util.List;
+
+/**
+ * Columnar radar scores: {@code scores[c][i]} is category {@code categories[c]} on {@code dates[i]}.
+ */
+@Data
+public class RadarTimeseriesVO {
+    private List<String> categories;
+    private List<String> categoriesZh;
+    private List<String> dates;
+    private double[][] scores;
+}
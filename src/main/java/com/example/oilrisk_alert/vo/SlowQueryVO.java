@@ -0,0 +1,18 @@
+package com.example.oilrisk_alert.vo;
+
+import lombok.Data;
+
+@Data
+public class SlowQueryVO {
+    private String statement;
+    private String sql;
+    private long count;
+    private long slowCount;
+    private double avgMillis;
+    private double maxMillis;
+    private double totalMillis;
+    /** Bound parameters of the slowest execution */
+    private String maxParams;
+    private String lastSeen;
+    private String explain;
+}
@@ -0,0 +1,15 @@
+package com.example.oilrisk_alert.vo;
+
+import lombok.Data;
+
+@Data
+public class SnapshotResultVO {
+    private String path;
+    private String lastDate;
+    private int marketDataRows;
+    private int riskIndexRows;
+    private int riskFactorRows;
+    private int alertRows;
+    private long bytes;
+    private long elapsedMillis;
+}
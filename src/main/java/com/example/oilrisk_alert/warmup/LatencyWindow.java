@@ -0,0 +1,40 @@
+package com.example.oilrisk_alert.warmup;
+
+import java.util.Arrays;
+
+/**
+ * The last {@code capacity} latencies, for a rolling percentile over a warmup run.
+ */
+class LatencyWindow {
+
+    private final long[] samples;
+    private final long[] sorted;
+    private int next;
+    private int size;
+
+    LatencyWindow(int capacity) {
+        samples = new long[capacity];
+        sorted = new long[capacity];
+    }
+
+    void add(long nanos) {
+        samples[next] = nanos;
+        next = (next + 1) % samples.length;
+        if (size < samples.length) size++;
+    }
+
+    boolean isFull() {
+        return size == samples.length;
+    }
+
+    /**
+     * Nearest-rank percentile of the samples held, in nanoseconds; 0 when empty.
+     */
+    long percentile(double p) {
+        if (size == 0) return 0;
+        System.arraycopy(samples, 0, sorted, 0, size);
+        Arrays.sort(sorted, 0, size);
+        int rank = (int) Math.ceil(p / 100 * size);
+        return sorted[Math.max(0, rank - 1)];
+    }
+}
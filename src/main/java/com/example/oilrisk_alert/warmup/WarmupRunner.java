@@ -0,0 +1,241 @@
+package com.example.oilrisk_alert.warmup;
+
+import com.example.oilrisk_alert.columnar.ColumnarArchive;
+import com.example.oilrisk_alert.common.StreamingResult;
+import com.example.oilrisk_alert.service.IngestService;
+import com.example.oilrisk_alert.service.PartitionService;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.ApplicationArguments;
+import org.springframework.boot.ApplicationRunner;
+import org.springframework.boot.web.server.context.WebServerApplicationContext;
+import org.springframework.context.ApplicationContext;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.stereotype.Component;
+import tools.jackson.databind.JsonNode;
+import tools.jackson.databind.ObjectMapper;
+
+import java.lang.management.ManagementFactory;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Cold-start warmup. Spring Boot reports readiness ({@code /actuator/health/readiness}) only after
+ * every ApplicationRunner has returned, so traffic is routed here once this has run:
+ * <ol>
+ *     <li>preload: the risk engine's streaming state ({@link IngestService#primeEngine}) and the
+ *     local columnar copy of the archived span</li>
+ *     <li>exercise: {@code warmup.iterations} rounds of the read endpoints over loopback HTTP, which
+ *     parses the mapper statements, builds the Jackson serializers, JIT-compiles the hot paths,
+ *     fills the radar cache and pulls recent pages into the database cache</li>
+ * </ol>
+ * Ordered after the snapshot restore and the loadtest history so it warms the data they load.
+ * Time-to-first-good-p99 is JVM uptime when the p99 of the last {@code warmup.window} requests
+ * first got down to {@code warmup.target-p99-ms}, or to within 25% of the final window's p99 when
+ * no target is set. It is logged and exposed as {@code warmup.time.to.good.p99}.
+ */
+@Slf4j
+@Component
+@Order(Ordered.HIGHEST_PRECEDENCE + 2)
+@RequiredArgsConstructor
+public class WarmupRunner implements ApplicationRunner {
+
+    private static final double STEADY_TOLERANCE = 1.25;
+
+    private final IngestService ingestService;
+    private final PartitionService partitionService;
+    private final ColumnarArchive columnarArchive;
+    private final ApplicationContext context;
+    private final ObjectMapper objectMapper;
+    private final MeterRegistry registry;
+
+    @Value("${warmup.enabled:true}")
+    private boolean enabled = true;
+
+    @Value("${warmup.iterations:20}")
+    private int iterations = 20;
+
+    @Value("${warmup.window:50}")
+    private int window = 50;
+
+    @Value("${warmup.target-p99-ms:0}")
+    private double targetP99Millis;
+
+    @Value("${warmup.max-seconds:120}")
+    private int maxSeconds = 120;
+
+    private volatile Report report;
+
+    /**
+     * @param timeToGoodP99Millis JVM uptime at the first good window, -1 if none was
+     */
+    public record Report(int requests, int errors, long durationMillis, double p99Millis,
+                         double goodP99Millis, long timeToGoodP99Millis) {
+    }
+
+    private record Call(String method, String path, String accept, String body) {
+    }
+
+    @Override
+    public void run(ApplicationArguments args) {
+        if (!enabled) return;
+        long startNanos = System.nanoTime();
+        long startUptime = ManagementFactory.getRuntimeMXBean().getUptime();
+        try {
+            preload();
+        } catch (Exception e) {
+            log.warn("Warmup preload failed: {}", e.toString());
+        }
+        Integer port = port();
+        if (port == null || iterations <= 0) {
+            log.info("Warmup preloaded in {} ms; no web server, endpoints not exercised",
+                    (System.nanoTime() - startNanos) / 1_000_000);
+            return;
+        }
+        try {
+            report = exercise("http://localhost:" + port, startNanos, startUptime);
+        } catch (Exception e) {
+            log.warn("Warmup stopped: {}", e.toString());
+            return;
+        }
+        Gauge.builder("warmup.duration", report, Report::durationMillis)
+                .baseUnit("milliseconds").register(registry);
+        Gauge.builder("warmup.time.to.good.p99", report, Report::timeToGoodP99Millis)
+                .description("JVM uptime when warmup p99 first reached its good level, -1 if it did not")
+                .baseUnit("milliseconds").register(registry);
+    }
+
+    /**
+     * @return the last run's measurements, null before a run that exercised the endpoints
+     */
+    public Report getReport() {
+        return report;
+    }
+
+    private void preload() {
+        long t0 = System.nanoTime();
+        ingestService.primeEngine();
+        long t1 = System.nanoTime();
+        // Also done on ApplicationReadyEvent, where it is then a no-op
+        columnarArchive.sync(partitionService.getFactorArchiveBoundary());
+        long t2 = System.nanoTime();
+        log.info("Warmup preload: risk engine {} ms, columnar archive {} ms",
+                (t1 - t0) / 1_000_000, (t2 - t1) / 1_000_000);
+    }
+
+    private Integer port() {
+        if (context instanceof WebServerApplicationContext web && web.getWebServer() != null) {
+            int port = web.getWebServer().getPort();
+            return port > 0 ? port : null;
+        }
+        return null;
+    }
+
+    private Report exercise(String baseUrl, long startNanos, long startUptime) throws Exception {
+        HttpClient client = HttpClient.newBuilder()
+                .version(HttpClient.Version.HTTP_1_1)
+                .connectTimeout(Duration.ofSeconds(5))
+                .build();
+        List<Call> calls = calls(client, baseUrl);
+        long deadline = startNanos + maxSeconds * 1_000_000_000L;
+        int capacity = iterations * calls.size();
+        long[] latencies = new long[capacity];
+        long[] completed = new long[capacity];
+        long[] firstRound = new long[calls.size()];
+        int n = 0;
+        int errors = 0;
+        // The first round always runs, even when the preload used up max-seconds
+        for (int round = 0; round < iterations && (round == 0 || System.nanoTime() < deadline); round++) {
+            for (int c = 0; c < calls.size(); c++) {
+                long t0 = System.nanoTime();
+                if (send(client, baseUrl, calls.get(c)).statusCode() >= 500) errors++;
+                long t1 = System.nanoTime();
+                if (round == 0) firstRound[c] = t1 - t0;
+                latencies[n] = t1 - t0;
+                completed[n++] = t1;
+            }
+        }
+
+        int size = Math.min(window, n);
+        LatencyWindow rolling = new LatencyWindow(size);
+        for (int i = n - size; i < n; i++) rolling.add(latencies[i]);
+        long p99 = rolling.percentile(99);
+        long good = targetP99Millis > 0 ? (long) (targetP99Millis * 1_000_000) : (long) (p99 * STEADY_TOLERANCE);
+
+        rolling = new LatencyWindow(size);
+        long timeToGood = -1;
+        for (int i = 0; i < n && timeToGood < 0; i++) {
+            rolling.add(latencies[i]);
+            if (rolling.isFull() && rolling.percentile(99) <= good) {
+                timeToGood = startUptime + (completed[i] - startNanos) / 1_000_000;
+            }
+        }
+
+        long durationMillis = (System.nanoTime() - startNanos) / 1_000_000;
+        for (int c = 0; c < calls.size(); c++) {
+            log.debug("Warmup {} {}: first {} ms, last {} ms", calls.get(c).method(), calls.get(c).path(),
+                    firstRound[c] / 1_000_000, latencies[n - calls.size() + c] / 1_000_000);
+        }
+        Report result = new Report(n, errors, durationMillis, p99 / 1e6, good / 1e6, timeToGood);
+        log.info("Warmup: {} requests ({} errors) in {} ms; p99 of the last {} {} ms; time to first good p99 "
+                        + "(<= {} ms): {}", n, errors, durationMillis, size, String.format("%.2f", result.p99Millis()),
+                String.format("%.2f", result.goodP99Millis()),
+                timeToGood < 0 ? "not reached" : timeToGood + " ms after JVM start");
+        return result;
+    }
+
+    /**
+     * The read endpoints, over the year before the latest risk date and over ten years (so
+     * archived dates are read too). Dates and the alert id come from the endpoints themselves.
+     */
+    private List<Call> calls(HttpClient client, String baseUrl) throws Exception {
+        JsonNode current = objectMapper.readTree(send(client, baseUrl,
+                new Call("GET", "/api/risk/current", null, null)).body());
+        String latest = current.path("data").path("date").asString(null);
+        LocalDate last = latest != null ? LocalDate.parse(latest) : LocalDate.now();
+        JsonNode alerts = objectMapper.readTree(send(client, baseUrl,
+                new Call("GET", "/api/alerts?page=1&size=1", null, null)).body());
+        long alertId = alerts.path("data").path("records").path(0).path("id").asLong(1);
+        LocalDate yearAgo = last.minusYears(1);
+        LocalDate decadeAgo = last.minusYears(10);
+
+        List<Call> calls = new ArrayList<>();
+        calls.add(new Call("GET", "/api/risk/current", null, null));
+        calls.add(new Call("GET", "/api/factors/timeseries?start=" + yearAgo + "&end=" + last, null, null));
+        calls.add(new Call("GET", "/api/factors/timeseries?start=" + decadeAgo + "&end=" + last, null, null));
+        calls.add(new Call("GET", "/api/factors/timeseries?start=" + decadeAgo + "&end=" + last,
+                StreamingResult.SERIES_FRAME_VALUE, null));
+        calls.add(new Call("GET", "/api/alerts?page=1&size=20", null, null));
+        calls.add(new Call("GET", "/api/alerts/" + alertId, null, null));
+        calls.add(new Call("GET", "/api/alerts/search?q=%E9%A3%8E%E9%99%A9+risk&level=High", null, null));
+        calls.add(new Call("GET", "/api/risk/radar?date=" + last, null, null));
+        calls.add(new Call("GET", "/api/risk/radar/timeseries?start=" + decadeAgo + "&end=" + last, null, null));
+        calls.add(new Call("GET", "/api/explain/" + last, null, null));
+        calls.add(new Call("POST", "/api/predict/backtest", null, String.format(
+                "{\"startDate\":\"%s\",\"endDate\":\"%s\",\"model\":\"XGBoost\"}", yearAgo, last)));
+        return calls;
+    }
+
+    private static HttpResponse<byte[]> send(HttpClient client, String baseUrl, Call call) throws Exception {
+        HttpRequest.Builder builder = HttpRequest.newBuilder(URI.create(baseUrl + call.path()))
+                .timeout(Duration.ofSeconds(60));
+        if (call.accept() != null) {
+            builder.header("Accept", call.accept());
+        }
+        if ("POST".equals(call.method())) {
+            builder.header("Content-Type", "application/json")
+                    .POST(HttpRequest.BodyPublishers.ofString(call.body()));
+        }
+        return client.send(builder.build(), HttpResponse.BodyHandlers.ofByteArray());
+    }
+}
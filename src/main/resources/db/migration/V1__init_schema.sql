@@ -2,10 +2,6 @@
 -- Schema for OilRisk-Alert (MySQL)
 -- ============================================
 
-DROP TABLE IF EXISTS alert;
-DROP TABLE IF EXISTS risk_factor;
-DROP TABLE IF EXISTS risk_index;
-
 CREATE TABLE risk_index (
     id BIGINT AUTO_INCREMENT PRIMARY KEY,
     `date` DATE NOT NULL UNIQUE,
@@ -23,7 +19,8 @@ CREATE TABLE risk_factor (
     category VARCHAR(20) NOT NULL,
     `value` DECIMAL(10,4),
     shap_value DECIMAL(10,6),
-    created_at TIMESTAMP DEFAULT CURRENT_TIMESTAMP
+    created_at TIMESTAMP DEFAULT CURRENT_TIMESTAMP,
+    UNIQUE KEY uk_risk_factor_date_name (`date`, factor_name)
 ) ENGINE=InnoDB DEFAULT CHARSET=utf8mb4;
 
 CREATE TABLE alert (
@@ -38,5 +35,24 @@ CREATE TABLE alert (
     summary_en VARCHAR(500),
     detail TEXT,
     ai_report TEXT DEFAULT NULL,
+    created_at TIMESTAMP DEFAULT CURRENT_TIMESTAMP,
+    UNIQUE KEY uk_alert_date (`date`)
+) ENGINE=InnoDB DEFAULT CHARSET=utf8mb4;
+
+-- Aggregated raw market series, replayed to rebuild the incremental risk engine
+CREATE TABLE market_data (
+    `date` DATE NOT NULL PRIMARY KEY,
+    cpi DOUBLE,
+    oil_price DOUBLE,
+    brent_chg DOUBLE,
+    inventory DOUBLE,
+    opec_output DOUBLE,
+    vix DOUBLE,
+    geo_total DOUBLE,
+    russia_ukraine DOUBLE,
+    middle_east DOUBLE,
+    gpr DOUBLE,
+    sentiment DOUBLE,
+    usd_index DOUBLE,
     created_at TIMESTAMP DEFAULT CURRENT_TIMESTAMP
 ) ENGINE=InnoDB DEFAULT CHARSET=utf8mb4;
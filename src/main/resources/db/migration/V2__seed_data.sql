@@ -3,11 +3,6 @@
 -- Generated from Final_Oil_Dataset_Cleaned.csv
 -- ============================================
 
--- Clear existing data
-TRUNCATE TABLE alert;
-TRUNCATE TABLE risk_factor;
-TRUNCATE TABLE risk_index;
-
 -- risk_index data
 INSERT INTO risk_index (date, risk_index, risk_level, oil_price) VALUES
 ('2015-01-01', 34.23, 'Low', 50.30),
@@ -1583,4 +1578,3 @@ INSERT INTO alert (date, level, risk_index, trigger_type, trigger_factor, trigge
 ('2025-10-01', 'High', 67.01, 'THRESHOLD', 'middle_east_tension', '中东紧张指数', '风险指数达67.01，中东紧张指数异常，触发高风险预警', 'Risk index at 67.01, middle_east_tension abnormal, high risk alert triggered', '[{"ruleType": "ANOMALY", "factor": "gpr_index", "factorZh": "地缘政治风险指数", "currentValue": 154.43, "threshold": 131.26, "description": "地缘政治风险指数当前值154.43，SHAP贡献0.0392"}, {"ruleType": "THRESHOLD", "factor": "russia_ukraine_risk", "factorZh": "俄乌风险指数", "currentValue": 3.0, "threshold": 2.55, "description": "俄乌风险指数当前值3.00，SHAP贡献0.0545"}, {"ruleType": "THRESHOLD", "factor": "middle_east_tension", "factorZh": "中东紧张指数", "currentValue": 2.0, "threshold": 1.7, "description": "中东紧张指数当前值2.00，SHAP贡献0.0785"}]'),
 ('2025-11-01', 'High', 67.67, 'THRESHOLD', 'middle_east_tension', '中东紧张指数', '风险指数达67.67，中东紧张指数异常，触发高风险预警', 'Risk index at 67.67, middle_east_tension abnormal, high risk alert triggered', '[{"ruleType": "THRESHOLD", "factor": "russia_ukraine_risk", "factorZh": "俄乌风险指数", "currentValue": 3.0, "threshold": 2.55, "description": "俄乌风险指数当前值3.00，SHAP贡献0.0545"}, {"ruleType": "THRESHOLD", "factor": "middle_east_tension", "factorZh": "中东紧张指数", "currentValue": 2.0, "threshold": 1.7, "description": "中东紧张指数当前值2.00，SHAP贡献0.0785"}, {"ruleType": "TREND", "factor": "news_sentiment", "factorZh": "新闻情绪指数", "currentValue": 0.14, "threshold": 0.12, "description": "新闻情绪指数当前值0.14，SHAP贡献-0.0331"}]'),
 ('2025-12-01', 'Medium', 60.64, 'THRESHOLD', 'middle_east_tension', '中东紧张指数', '中东紧张指数触发中等风险预警，风险指数60.64', 'middle_east_tension triggers medium risk alert, risk index 60.64', '[{"ruleType": "THRESHOLD", "factor": "russia_ukraine_risk", "factorZh": "俄乌风险指数", "currentValue": 3.0, "threshold": 2.55, "description": "俄乌风险指数当前值3.00，SHAP贡献0.0545"}, {"ruleType": "THRESHOLD", "factor": "middle_east_tension", "factorZh": "中东紧张指数", "currentValue": 2.0, "threshold": 1.7, "description": "中东紧张指数当前值2.00，SHAP贡献0.0785"}, {"ruleType": "THRESHOLD", "factor": "news_sentiment", "factorZh": "新闻情绪指数", "currentValue": 0.15, "threshold": 0.13, "description": "新闻情绪指数当前值0.15，SHAP贡献-0.0367"}]');
-
@@ -0,0 +1,25 @@
+-- ============================================
+-- Alert rules (see AlertRuleEngine)
+-- ============================================
+CREATE TABLE alert_rule (
+    id BIGINT AUTO_INCREMENT PRIMARY KEY,
+    rule_type VARCHAR(20) NOT NULL,
+    source_series VARCHAR(30) NOT NULL,
+    factor_name VARCHAR(50) NOT NULL,
+    factor_name_zh VARCHAR(50) NOT NULL,
+    med_threshold DECIMAL(12,4) NOT NULL,
+    high_threshold DECIMAL(12,4) NOT NULL,
+    enabled BOOLEAN NOT NULL DEFAULT TRUE,
+    created_at TIMESTAMP DEFAULT CURRENT_TIMESTAMP
+) ENGINE=InnoDB DEFAULT CHARSET=utf8mb4;
+
+-- alert_rule data
+INSERT INTO alert_rule (rule_type, source_series, factor_name, factor_name_zh, med_threshold, high_threshold) VALUES
+('THRESHOLD', 'VIX', 'vix_index', 'VIX恐慌指数', 20.0, 30.0),
+('THRESHOLD', 'MIDDLE_EAST', 'middle_east_tension', '中东紧张指数', 3.0, 6.0),
+('THRESHOLD', 'RUSSIA_UKRAINE', 'russia_ukraine_risk', '俄乌风险指数', 3.0, 6.0),
+('THRESHOLD', 'GEO_TOTAL', 'geo_event_score', '地缘政治事件综合评分', 5.0, 8.0),
+('THRESHOLD', 'GPR', 'gpr_index', '地缘政治风险指数', 120.0, 200.0),
+('ANOMALY', 'VIX', 'vix_index', 'VIX恐慌指数', 0.30, 0.60),
+('ANOMALY', 'MIDDLE_EAST', 'middle_east_tension', '中东紧张指数', 0.50, 1.00),
+('TREND', 'GPR', 'gpr_index', '地缘政治风险指数', 30.0, 60.0);
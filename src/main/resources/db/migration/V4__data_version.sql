@@ -0,0 +1,14 @@
+-- ============================================
+-- Per-table data versions (see DataVersionClock)
+-- ============================================
+CREATE TABLE data_version (
+    table_name VARCHAR(32) PRIMARY KEY,
+    version BIGINT NOT NULL
+) ENGINE=InnoDB DEFAULT CHARSET=utf8mb4;
+
+-- 0 = not yet initialised; the first instance to start moves it to a timestamp so versions
+-- never repeat when a database is recreated
+INSERT INTO data_version (table_name, version) VALUES
+('risk_index', 0),
+('risk_factor', 0),
+('alert', 0);
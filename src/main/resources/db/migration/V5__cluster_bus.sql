@@ -0,0 +1,18 @@
+-- ============================================
+-- Cluster bus (see JdbcClusterBus)
+-- ============================================
+CREATE TABLE cluster_message (
+    id BIGINT AUTO_INCREMENT PRIMARY KEY,
+    topic VARCHAR(32) NOT NULL,
+    payload TEXT NOT NULL,
+    origin VARCHAR(64) NOT NULL,
+    created_at TIMESTAMP NOT NULL DEFAULT CURRENT_TIMESTAMP,
+    INDEX idx_cluster_message_topic (topic, id),
+    INDEX idx_cluster_message_created (created_at)
+) ENGINE=InnoDB DEFAULT CHARSET=utf8mb4;
+
+CREATE TABLE cluster_lease (
+    name VARCHAR(64) PRIMARY KEY,
+    owner VARCHAR(100) NOT NULL,
+    expires_at TIMESTAMP NOT NULL
+) ENGINE=InnoDB DEFAULT CHARSET=utf8mb4;
@@ -0,0 +1,23 @@
+-- ============================================
+-- risk_factor archive (see PartitionService)
+-- ============================================
+
+-- Same columns, in the same order, as risk_factor, so archival is INSERT ... SELECT *.
+-- Compressed on MySQL by the vendor migration that partitions risk_factor.
+CREATE TABLE risk_factor_archive (
+    id BIGINT NOT NULL,
+    `date` DATE NOT NULL,
+    factor_name VARCHAR(50) NOT NULL,
+    factor_name_zh VARCHAR(50) NOT NULL,
+    category VARCHAR(20) NOT NULL,
+    `value` DECIMAL(10,4),
+    shap_value DECIMAL(10,6),
+    created_at TIMESTAMP NULL,
+    PRIMARY KEY (`date`, factor_name)
+) ENGINE=InnoDB DEFAULT CHARSET=utf8mb4;
+
+-- Dates before archived_before live in the table's archive; no row = nothing archived
+CREATE TABLE archive_boundary (
+    table_name VARCHAR(32) PRIMARY KEY,
+    archived_before DATE NOT NULL
+) ENGINE=InnoDB DEFAULT CHARSET=utf8mb4;
@@ -0,0 +1,7 @@
+-- ============================================
+-- Archive generation (see ColumnarArchive)
+-- ============================================
+
+-- Bumped whenever rows below archived_before change in place (re-ingest of old dates), so
+-- local copies of the archived span can tell an append-only move of the boundary from a rewrite
+ALTER TABLE archive_boundary ADD COLUMN generation BIGINT NOT NULL DEFAULT 0;
@@ -0,0 +1,7 @@
+-- ============================================
+-- Alert revision (see AlertSearchIndex)
+-- ============================================
+
+-- Incremented by every in-place change of a row, so the in-process search index can tell which
+-- rows to re-read from a scan of (id, revision) instead of re-reading every alert's text
+ALTER TABLE alert ADD COLUMN revision INT NOT NULL DEFAULT 0;
@@ -0,0 +1,111 @@
+package com.example.oilrisk_alert;
+
+import com.example.oilrisk_alert.dto.AlertSearchDTO;
+import com.example.oilrisk_alert.entity.Alert;
+import com.example.oilrisk_alert.mapper.AlertMapper;
+import com.example.oilrisk_alert.service.AlertService;
+import com.example.oilrisk_alert.vo.AlertSearchVO;
+import com.example.oilrisk_alert.vo.AlertVO;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+
+import java.util.List;
+import java.util.Locale;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Not transactional: the index follows committed alert versions, and a rolled-back write would
+ * leave it holding rows the database no longer has.
+ */
+@SpringBootTest
+class AlertSearchTest {
+
+    @Autowired
+    private AlertService alertService;
+
+    @Autowired
+    private AlertMapper alertMapper;
+
+    private AlertSearchVO search(String q, String level, int size) {
+        AlertSearchDTO query = new AlertSearchDTO();
+        query.setQ(q);
+        query.setLevel(level);
+        query.setSize(size);
+        return alertService.search(query);
+    }
+
+    private static String text(AlertVO a) {
+        return String.join(" ", a.getSummary(), a.getSummaryEn(), a.getTriggerFactor(), a.getTriggerFactorZh(),
+                a.getTriggerType(), a.getAiReport() != null ? a.getAiReport() : "").toLowerCase(Locale.ROOT);
+    }
+
+    @Test
+    void testSearch_blankQueryFacetsMatchTable() {
+        AlertSearchVO all = search(null, null, 100);
+        assertEquals(alertMapper.countByLevel(null), all.getTotal());
+        for (String level : List.of("Low", "Medium", "High")) {
+            assertEquals(alertMapper.countByLevel(level), all.getLevels().getOrDefault(level, 0L));
+        }
+        assertEquals(all.getTotal(), all.getYears().values().stream().mapToLong(Long::longValue).sum());
+        List<String> dates = all.getRecords().stream().map(AlertVO::getDate).toList();
+        assertEquals(dates.stream().sorted((a, b) -> b.compareTo(a)).toList(), dates);
+    }
+
+    @Test
+    void testSearch_chineseAndEnglishTerms() {
+        AlertSearchVO zh = search("中东紧张", null, 100);
+        assertTrue(zh.getTotal() > 0);
+        zh.getRecords().forEach(a -> assertTrue(text(a).contains("中东紧张"), a.getSummary()));
+
+        AlertSearchVO en = search("crude_inventory", null, 100);
+        assertTrue(en.getTotal() > 0);
+        en.getRecords().forEach(a -> assertTrue(text(a).contains("crude") && text(a).contains("inventory")));
+
+        // One character matches inside every bigram that holds it
+        Set<Long> phrase = search("原油", null, 100).getRecords().stream().map(AlertVO::getId).collect(Collectors.toSet());
+        Set<Long> single = search("油", null, 100).getRecords().stream().map(AlertVO::getId).collect(Collectors.toSet());
+        assertFalse(phrase.isEmpty());
+        assertTrue(single.containsAll(phrase));
+
+        assertEquals(0, search("nosuchterm", null, 10).getTotal());
+    }
+
+    @Test
+    void testSearch_filterKeepsOtherLevelCounts() {
+        AlertSearchVO all = search("风险", null, 10);
+        AlertSearchVO high = search("风险", "High", 100);
+        assertEquals(all.getLevels().get("High").longValue(), high.getTotal());
+        assertEquals(all.getLevels(), high.getLevels());
+        high.getRecords().forEach(a -> assertEquals("High", a.getLevel()));
+
+        AlertSearchDTO query = new AlertSearchDTO();
+        query.setQ("风险");
+        query.setSort("riskIndex");
+        query.setOrder("asc");
+        query.setSize(100);
+        List<AlertVO> records = alertService.search(query).getRecords();
+        for (int i = 1; i < records.size(); i++) {
+            assertTrue(records.get(i - 1).getRiskIndex().compareTo(records.get(i).getRiskIndex()) <= 0);
+        }
+    }
+
+    @Test
+    void testSearch_followsCommittedChanges() {
+        Alert alert = alertMapper.findById(search(null, null, 1).getRecords().get(0).getId());
+        String original = alert.getAiReport();
+        try {
+            alertMapper.updateAiReport(alert.getId(), "斑马条纹测试报告 zebra");
+            assertEquals(List.of(alert.getId()),
+                    search("zebra", null, 10).getRecords().stream().map(AlertVO::getId).toList());
+            assertEquals(1, search("条纹测试", null, 10).getTotal());
+        } finally {
+            alertMapper.updateAiReport(alert.getId(), original);
+        }
+        assertEquals(0, search("zebra", null, 10).getTotal());
+        assertEquals(alertMapper.countByLevel(null), search(null, null, 1).getTotal());
+    }
+}
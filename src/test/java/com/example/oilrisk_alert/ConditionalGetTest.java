@@ -0,0 +1,153 @@
+package com.example.oilrisk_alert;
+
+import com.example.oilrisk_alert.cache.DataTable;
+import com.example.oilrisk_alert.cache.DataVersionClock;
+import com.example.oilrisk_alert.cluster.ClusterBus;
+import com.example.oilrisk_alert.common.StreamingResult;
+import com.example.oilrisk_alert.entity.Alert;
+import com.example.oilrisk_alert.entity.RiskIndex;
+import com.example.oilrisk_alert.mapper.AlertMapper;
+import com.example.oilrisk_alert.mapper.DataVersionMapper;
+import com.example.oilrisk_alert.mapper.RiskMapper;
+import com.example.oilrisk_alert.metrics.MapperMetricsInterceptor;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.webmvc.test.autoconfigure.AutoConfigureMockMvc;
+import org.springframework.http.HttpHeaders;
+import org.springframework.test.context.transaction.TestTransaction;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@SpringBootTest
+@AutoConfigureMockMvc
+@Transactional
+class ConditionalGetTest {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private RiskMapper riskMapper;
+
+    @Autowired
+    private AlertMapper alertMapper;
+
+    @Autowired
+    private DataVersionMapper dataVersionMapper;
+
+    @Autowired
+    private DataVersionClock clock;
+
+    @Autowired
+    private ClusterBus clusterBus;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Test
+    void testIfNoneMatch_answers304WithoutQuerying() throws Exception {
+        String etag = etag("/api/risk/current");
+        assertTrue(etag.startsWith("W/\""));
+        long queries = findLatestCount();
+
+        for (String ifNoneMatch : new String[]{etag, etag.substring(2), "\"other\", " + etag}) {
+            MvcResult result = mockMvc.perform(get("/api/risk/current").header(HttpHeaders.IF_NONE_MATCH, ifNoneMatch))
+                    .andExpect(status().isNotModified())
+                    .andReturn();
+            assertEquals(0, result.getResponse().getContentLength());
+            assertEquals(etag, result.getResponse().getHeader(HttpHeaders.ETAG));
+        }
+        assertEquals(queries, findLatestCount());
+    }
+
+    @Test
+    void testEtag_committedWriteInvalidatesOnlyItsTable() throws Exception {
+        String alerts = etag("/api/alerts");
+        String radar = etag("/api/risk/radar");
+        long stored = storedVersion("alert");
+
+        Alert alert = alertMapper.findById(1L);
+        alertMapper.updateAiReport(alert.getId(), alert.getAiReport());
+        // Not committed yet, so readers elsewhere still see the old data under the old tag
+        assertEquals(alerts, etag("/api/alerts"));
+
+        TestTransaction.flagForCommit();
+        TestTransaction.end();
+
+        assertNotEquals(alerts, etag("/api/alerts"));
+        assertEquals(radar, etag("/api/risk/radar"));
+        assertEquals(stored + 1, storedVersion("alert"));
+        mockMvc.perform(get("/api/alerts").header(HttpHeaders.IF_NONE_MATCH, alerts))
+                .andExpect(status().isOk());
+    }
+
+    @Test
+    void testEtag_rolledBackWriteKeepsTag() throws Exception {
+        String before = etag("/api/factors/timeseries");
+
+        RiskIndex ri = new RiskIndex();
+        ri.setDate(LocalDate.of(1990, 1, 1));
+        ri.setOilPrice(BigDecimal.valueOf(20));
+        ri.setRiskIndex(BigDecimal.valueOf(10));
+        ri.setRiskLevel("Low");
+        riskMapper.upsertBatch(List.of(ri));
+        TestTransaction.end();
+
+        assertEquals(before, etag("/api/factors/timeseries"));
+    }
+
+    @Test
+    void testClock_versionsAreDurable() {
+        // A fresh clock (a restarted or second instance) starts from the stored versions
+        DataVersionClock restarted = new DataVersionClock(dataVersionMapper, clusterBus);
+        for (DataTable table : DataTable.values()) {
+            assertEquals(clock.current(table), restarted.current(table));
+            assertTrue(restarted.current(table) > 0);
+        }
+    }
+
+    @Test
+    void testEtag_perRepresentation() throws Exception {
+        String json = etag("/api/factors/timeseries");
+        MvcResult frame = mockMvc.perform(get("/api/factors/timeseries")
+                        .header(HttpHeaders.ACCEPT, StreamingResult.SERIES_FRAME_VALUE))
+                .andExpect(status().isOk())
+                .andReturn();
+        assertNotEquals(json, frame.getResponse().getHeader(HttpHeaders.ETAG));
+
+        mockMvc.perform(get("/api/factors/timeseries").header(HttpHeaders.IF_NONE_MATCH, json)
+                        .header(HttpHeaders.ACCEPT, StreamingResult.SERIES_FRAME_VALUE))
+                .andExpect(status().isOk());
+    }
+
+    private String etag(String path) throws Exception {
+        MvcResult result = mockMvc.perform(get(path)).andExpect(status().isOk()).andReturn();
+        assertEquals("no-cache", result.getResponse().getHeader(HttpHeaders.CACHE_CONTROL));
+        return result.getResponse().getHeader(HttpHeaders.ETAG);
+    }
+
+    private long storedVersion(String tableName) {
+        return dataVersionMapper.findAll().stream()
+                .filter(row -> row.getTableName().equals(tableName))
+                .findFirst().orElseThrow().getVersion();
+    }
+
+    private long findLatestCount() {
+        Timer timer = meterRegistry.find(MapperMetricsInterceptor.METRIC)
+                .tag("statement", "RiskMapper.findLatest")
+                .timer();
+        return timer == null ? 0 : timer.count();
+    }
+}
@@ -2,8 +2,10 @@ package com.example.oilrisk_alert;
 
 import com.example.oilrisk_alert.common.BusinessException;
 import com.example.oilrisk_alert.service.FactorService;
+import com.example.oilrisk_alert.vo.FactorCorrelationVO;
 import com.example.oilrisk_alert.vo.FactorVO;
 import com.example.oilrisk_alert.vo.RadarScoreVO;
+import com.example.oilrisk_alert.vo.RadarTimeseriesVO;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.context.SpringBootTest;
@@ -16,7 +18,7 @@ import java.util.stream.Collectors;
 
 import static org.junit.jupiter.api.Assertions.*;
 
-@SpringBootTest
+@SpringBootTest(properties = "factor.correlation.max-dates=100")
 @Transactional
 class FactorServiceTest {
 
@@ -54,4 +56,90 @@ class FactorServiceTest {
         assertNotNull(result);
         assertTrue(result.isEmpty());
     }
+
+    @Test
+    void testGetRadarTimeseries_matchesSingleDateRadar() {
+        LocalDate start = LocalDate.of(2024, 1, 1);
+        LocalDate end = LocalDate.of(2024, 6, 30);
+        RadarTimeseriesVO series = factorService.getRadarTimeseries(start, end);
+
+        assertEquals(5, series.getCategories().size());
+        assertEquals(5, series.getScores().length);
+        assertFalse(series.getDates().isEmpty());
+        for (double[] column : series.getScores()) {
+            assertEquals(series.getDates().size(), column.length);
+        }
+        assertEquals(series.getDates().stream().sorted().toList(), series.getDates());
+
+        int i = series.getDates().indexOf("2024-04-01");
+        assertTrue(i >= 0);
+        List<RadarScoreVO> radar = factorService.getRadarScores(LocalDate.of(2024, 4, 1));
+        for (RadarScoreVO r : radar) {
+            int c = series.getCategories().indexOf(r.getCategory());
+            assertEquals(r.getScore().doubleValue(), series.getScores()[c][i], 1e-9);
+        }
+    }
+
+    @Test
+    void testGetRadarTimeseries_startAfterEnd_throws400() {
+        BusinessException ex = assertThrows(BusinessException.class,
+                () -> factorService.getRadarTimeseries(LocalDate.of(2024, 2, 1), LocalDate.of(2024, 1, 1)));
+        assertEquals(400, ex.getCode());
+    }
+
+    @Test
+    void testGetCorrelation_shapesAndOrdering() {
+        LocalDate start = LocalDate.of(2024, 1, 1);
+        LocalDate end = LocalDate.of(2024, 6, 30);
+        FactorCorrelationVO vo = factorService.getCorrelation(start, end, 5);
+
+        int f = vo.getFactors().size();
+        assertTrue(f > 0);
+        assertTrue(vo.getObservations() > 5);
+        assertEquals(f, vo.getMatrix().length);
+        for (int i = 0; i < f; i++) {
+            assertEquals(f, vo.getMatrix()[i].length);
+            for (int j = 0; j < f; j++) {
+                assertEquals(vo.getMatrix()[i][j], vo.getMatrix()[j][i]);
+                assertTrue(Math.abs(vo.getMatrix()[i][j]) <= 1);
+            }
+            assertTrue(Math.abs(vo.getRiskCorrelation()[i]) <= 1);
+            assertEquals(vo.getDates().size(), vo.getRollingRiskCorrelation()[i].length);
+            assertEquals(vo.getDates().size(), vo.getCumulativeShap()[i].length);
+            // The last cumulative point is the total
+            assertEquals(vo.getShapTotals()[i], vo.getCumulativeShap()[i][vo.getDates().size() - 1], 1e-6);
+            if (i > 0) {
+                assertTrue(Math.abs(vo.getShapTotals()[i - 1]) >= Math.abs(vo.getShapTotals()[i]));
+            }
+        }
+        assertEquals(vo.getObservations() - 4, vo.getDates().size());
+        assertEquals(vo.getDates().stream().sorted().toList(), vo.getDates());
+        assertTrue(vo.getDates().get(vo.getDates().size() - 1).compareTo(end.toString()) <= 0);
+    }
+
+    @Test
+    void testGetCorrelation_invalidArguments_throw400() {
+        assertEquals(400, assertThrows(BusinessException.class,
+                () -> factorService.getCorrelation(LocalDate.of(2024, 2, 1), LocalDate.of(2024, 1, 1), null)).getCode());
+        assertEquals(400, assertThrows(BusinessException.class,
+                () -> factorService.getCorrelation(null, null, 1)).getCode());
+    }
+
+    @Test
+    void testGetCorrelation_rangeOverMaxDates_throws400() {
+        // 132 seeded monthly dates
+        BusinessException ex = assertThrows(BusinessException.class,
+                () -> factorService.getCorrelation(LocalDate.of(2015, 1, 1), LocalDate.of(2025, 12, 31), null));
+        assertEquals(400, ex.getCode());
+        assertTrue(ex.getMessage().contains("132"), ex.getMessage());
+        assertEquals(100, factorService.getCorrelation(LocalDate.of(2015, 1, 1), LocalDate.of(2023, 4, 1), null)
+                .getObservations());
+    }
+
+    @Test
+    void testGetCorrelation_emptyRange() {
+        FactorCorrelationVO vo = factorService.getCorrelation(LocalDate.of(1999, 1, 1), LocalDate.of(1999, 2, 1), null);
+        assertEquals(0, vo.getObservations());
+        assertTrue(vo.getDates().isEmpty());
+    }
 }
@@ -0,0 +1,200 @@
+package com.example.oilrisk_alert;
+
+import com.example.oilrisk_alert.common.BusinessException;
+import com.example.oilrisk_alert.dto.ObservationDTO;
+import com.example.oilrisk_alert.engine.RiskEngine;
+import com.example.oilrisk_alert.mapper.FactorMapper;
+import com.example.oilrisk_alert.mapper.RiskMapper;
+import com.example.oilrisk_alert.service.IngestService;
+import com.example.oilrisk_alert.vo.IngestResultVO;
+import com.example.oilrisk_alert.vo.ObservationResultVO;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@SpringBootTest
+@Transactional
+class IngestServiceTest {
+
+    @Autowired
+    private IngestService ingestService;
+
+    @Autowired
+    private RiskMapper riskMapper;
+
+    @Autowired
+    private FactorMapper factorMapper;
+
+    @Autowired
+    private RiskEngine riskEngine;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @TempDir
+    Path tempDir;
+
+    private Path writeCsv() throws IOException {
+        List<String> lines = new ArrayList<>();
+        String[] header = new String[140];
+        Arrays.fill(header, "col");
+        header[0] = "Date";
+        lines.add(String.join(",", header));
+        LocalDate start = LocalDate.of(2025, 1, 1);
+        for (int d = 0; d < 90; d += 3) {
+            String[] row = new String[140];
+            Arrays.fill(row, "");
+            row[0] = start.plusDays(d).toString();
+            row[1] = String.valueOf(3.0 + d * 0.01);   // cpi
+            row[3] = String.valueOf(70 + d % 7);       // oil price
+            row[8] = "\"1,200\"";                      // inventory, quoted with thousands separator
+            row[35] = String.valueOf(15 + d % 20);     // vix
+            row[90] = String.valueOf(d % 9);           // middle east
+            row[123] = String.valueOf(-0.2 + d * 0.005); // sentiment
+            lines.add(String.join(",", row));
+        }
+        Path csv = tempDir.resolve("oil.csv");
+        Files.write(csv, lines);
+        return csv;
+    }
+
+    @Test
+    void testIngestCsv_aggregatesMonthlyAndUpserts() throws IOException {
+        Path csv = writeCsv();
+
+        IngestResultVO first = ingestService.ingestCsv(csv);
+        IngestResultVO second = ingestService.ingestCsv(csv);
+
+        assertEquals(30, first.getSourceRows());
+        assertEquals(3, first.getRiskIndexRows());
+        assertEquals(30, first.getRiskFactorRows());
+        assertEquals(first.getRiskIndexRows(), second.getRiskIndexRows());
+
+        // Re-ingest is idempotent: one row per date, ten factors per date
+        assertEquals(3, riskMapper.findByDateRange(
+                LocalDate.of(2025, 1, 1), LocalDate.of(2025, 3, 1)).size());
+        assertEquals(10, factorMapper.findByDate(LocalDate.of(2025, 2, 1)).size());
+    }
+
+    @Test
+    void testIngestCsv_missingFile_throws404() {
+        BusinessException ex = assertThrows(BusinessException.class,
+                () -> ingestService.ingestCsv(tempDir.resolve("missing.csv")));
+        assertEquals(404, ex.getCode());
+    }
+
+    @Test
+    void testIngestObservation_appendsIncrementally() throws IOException {
+        ingestService.ingestCsv(writeCsv());
+
+        ObservationDTO dto = new ObservationDTO();
+        dto.setDate(LocalDate.of(2026, 1, 1));
+        dto.setValues(Map.of("VIX", 45.0, "OIL_PRICE", 88.0));
+        ObservationResultVO result = ingestService.ingestObservation(dto);
+
+        assertEquals("2026-01-01", result.getDate());
+        assertEquals(10, result.getFactors().size());
+        assertEquals(1, riskMapper.findByDateRange(
+                LocalDate.of(2026, 1, 1), LocalDate.of(2026, 1, 1)).size());
+        assertEquals(10, factorMapper.findByDate(LocalDate.of(2026, 1, 1)).size());
+    }
+
+    @Test
+    void testIngestObservation_catchesUpWithObservationsStoredElsewhere() throws IOException {
+        ingestService.ingestCsv(writeCsv());
+        ObservationDTO first = new ObservationDTO();
+        first.setDate(LocalDate.of(2026, 1, 1));
+        first.setValues(Map.of("VIX", 45.0));
+        ingestService.ingestObservation(first);
+        // Replaying the CSV leaves this engine at 2025-03-01, as on an instance that missed 2026-01-01
+        ingestService.ingestCsv(writeCsv());
+
+        ObservationDTO second = new ObservationDTO();
+        second.setDate(LocalDate.of(2026, 2, 1));
+        second.setValues(Map.of("VIX", 30.0));
+        ingestService.ingestObservation(second);
+
+        assertEquals(5, riskEngine.size());
+        assertEquals(LocalDate.of(2026, 2, 1), riskEngine.getLastDate());
+    }
+
+    @Test
+    void testIngestObservation_failedWrite_canBeRetried() throws IOException {
+        ingestService.ingestCsv(writeCsv());
+        ObservationDTO dto = new ObservationDTO();
+        dto.setDate(LocalDate.of(2026, 1, 1));
+        // Too large for risk_index.oil_price, so the write fails after the engine has scored it
+        dto.setValues(Map.of("OIL_PRICE", 1e9));
+        // A savepoint stands in for the rollback the test transaction would otherwise absorb
+        TransactionTemplate nested = new TransactionTemplate(transactionManager);
+        nested.setPropagationBehavior(TransactionDefinition.PROPAGATION_NESTED);
+        assertThrows(RuntimeException.class,
+                () -> nested.executeWithoutResult(status -> ingestService.ingestObservation(dto)));
+
+        dto.setValues(Map.of("OIL_PRICE", 88.0));
+        ObservationResultVO result = ingestService.ingestObservation(dto);
+
+        assertEquals("2026-01-01", result.getDate());
+        assertEquals(4, riskEngine.size());
+    }
+
+    @Test
+    void testIngestObservation_notAfterStoredHistory_throws409() throws IOException {
+        ingestService.ingestCsv(writeCsv());
+        // The engine ends at 2025-03-01, the seeded risk_index at 2025-12-01
+        LocalDate stored = LocalDate.of(2025, 6, 1);
+        BigDecimal before = riskMapper.findByDateRange(stored, stored).get(0).getRiskIndex();
+
+        ObservationDTO dto = new ObservationDTO();
+        dto.setDate(stored);
+        dto.setValues(Map.of("VIX", 45.0));
+
+        BusinessException ex = assertThrows(BusinessException.class,
+                () -> ingestService.ingestObservation(dto));
+        assertEquals(409, ex.getCode());
+        assertEquals(before, riskMapper.findByDateRange(stored, stored).get(0).getRiskIndex());
+    }
+
+    @Test
+    void testIngestObservation_seededHistoryWithoutMarketData_throws409() {
+        // The seed has risk_index rows but no market_data, so the engine stays empty
+        riskEngine.reset();
+
+        ObservationDTO dto = new ObservationDTO();
+        dto.setDate(LocalDate.of(2030, 1, 1));
+        dto.setValues(Map.of("VIX", 45.0));
+
+        BusinessException ex = assertThrows(BusinessException.class,
+                () -> ingestService.ingestObservation(dto));
+        assertEquals(409, ex.getCode());
+        assertEquals(0, riskEngine.size());
+    }
+
+    @Test
+    void testIngestObservation_unknownSeries_throws400() {
+        ObservationDTO dto = new ObservationDTO();
+        dto.setDate(LocalDate.of(2030, 1, 1));
+        dto.setValues(Map.of("NOT_A_SERIES", 1.0));
+
+        BusinessException ex = assertThrows(BusinessException.class,
+                () -> ingestService.ingestObservation(dto));
+        assertEquals(400, ex.getCode());
+    }
+}
@@ -0,0 +1,119 @@
+package com.example.oilrisk_alert;
+
+import com.example.oilrisk_alert.cluster.ClusterBus;
+import com.example.oilrisk_alert.cluster.ClusterMessage;
+import com.example.oilrisk_alert.cluster.JdbcClusterBus;
+import com.example.oilrisk_alert.mapper.ClusterMapper;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.transaction.TestTransaction;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Two JdbcClusterBus nodes sharing the test database.
+ */
+@SpringBootTest
+@Transactional
+class JdbcClusterBusTest {
+
+    @Autowired
+    private ClusterMapper clusterMapper;
+
+    private final List<ClusterMessage> receivedA = new ArrayList<>();
+    private final List<ClusterMessage> receivedB = new ArrayList<>();
+
+    @Test
+    void testPublish_deliveredLocallyAtOnceAndRemotelyOnPoll() {
+        JdbcClusterBus a = node("a", receivedA);
+        JdbcClusterBus b = node("b", receivedB);
+
+        a.publish(ClusterBus.TOPIC_WEIGHTS, "{\"v\":1}");
+        assertEquals(1, receivedA.size());
+        assertTrue(receivedA.get(0).isLocal());
+
+        a.poll();
+        b.poll();
+        assertEquals(1, receivedB.size());
+        assertFalse(receivedB.get(0).isLocal());
+        assertEquals("a", receivedB.get(0).getOrigin());
+        assertEquals("{\"v\":1}", receivedB.get(0).getPayload());
+
+        // Nothing is delivered twice, and a node never hears its own messages back
+        a.poll();
+        b.poll();
+        assertEquals(1, receivedA.size());
+        assertEquals(1, receivedB.size());
+        assertEquals("{\"v\":1}", b.latest(ClusterBus.TOPIC_WEIGHTS));
+    }
+
+    @Test
+    void testStart_skipsMessagesPublishedBefore() {
+        JdbcClusterBus a = node("a", receivedA);
+        for (int i = 0; i < 3; i++) a.publish(ClusterBus.TOPIC_REPORT, "old-" + i);
+        a.poll();
+
+        JdbcClusterBus b = node("b", receivedB);
+        b.poll();
+        assertTrue(receivedB.isEmpty(), receivedB::toString);
+
+        a.publish(ClusterBus.TOPIC_REPORT, "new");
+        a.poll();
+        b.poll();
+        assertEquals(1, receivedB.size());
+        assertEquals("new", receivedB.get(0).getPayload());
+    }
+
+    @Test
+    void testCleanup_keepsLatestPerTopic() {
+        JdbcClusterBus a = node("a", receivedA);
+        a.publish(ClusterBus.TOPIC_WEIGHTS, "1");
+        a.publish(ClusterBus.TOPIC_WEIGHTS, "2");
+        a.publish(ClusterBus.TOPIC_REPORT, "7");
+        a.poll();
+
+        // Offset in the future: every message counts as expired
+        clusterMapper.deleteExpired(60);
+
+        assertEquals("2", a.latest(ClusterBus.TOPIC_WEIGHTS));
+        assertEquals("7", a.latest(ClusterBus.TOPIC_REPORT));
+        assertEquals(2, clusterMapper.findAfter(0, 100).size());
+    }
+
+    @Test
+    void testLease_exclusiveUntilReleasedOrExpired() throws Exception {
+        // H2 fixes CURRENT_TIMESTAMP per transaction, so let each statement commit on its own
+        TestTransaction.end();
+        JdbcClusterBus a = node("a", receivedA);
+        JdbcClusterBus b = node("b", receivedB);
+
+        String token = a.tryAcquireLease("report:lease-test", Duration.ofMinutes(1));
+        assertNotNull(token);
+        assertNull(b.tryAcquireLease("report:lease-test", Duration.ofMinutes(1)));
+        assertNull(a.tryAcquireLease("report:lease-test", Duration.ofMinutes(1)));
+
+        a.releaseLease("report:lease-test", token);
+        String expiring = b.tryAcquireLease("report:lease-test", Duration.ofSeconds(1));
+        assertNotNull(expiring);
+
+        Thread.sleep(2100);
+        String taken = a.tryAcquireLease("report:lease-test", Duration.ofMinutes(1));
+        assertNotNull(taken);
+        // The expired holder's release must not drop the new lease
+        b.releaseLease("report:lease-test", expiring);
+        assertNull(b.tryAcquireLease("report:lease-test", Duration.ofMinutes(1)));
+        a.releaseLease("report:lease-test", taken);
+    }
+
+    private JdbcClusterBus node(String id, List<ClusterMessage> received) {
+        JdbcClusterBus bus = new JdbcClusterBus(clusterMapper, event -> received.add((ClusterMessage) event), id);
+        bus.start();
+        return bus;
+    }
+}
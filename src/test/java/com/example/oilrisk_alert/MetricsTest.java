@@ -0,0 +1,44 @@
+package com.example.oilrisk_alert;
+
+import com.example.oilrisk_alert.metrics.MapperMetricsInterceptor;
+import com.example.oilrisk_alert.service.RiskService;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.transaction.annotation.Transactional;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@SpringBootTest
+@Transactional
+class MetricsTest {
+
+    @Autowired
+    private RiskService riskService;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Test
+    void testMapperStatementsAreTimedPerStatement() {
+        riskService.getCurrentRisk();
+
+        Timer findLatest = meterRegistry.find(MapperMetricsInterceptor.METRIC)
+                .tag("statement", "RiskMapper.findLatest")
+                .tag("command", "SELECT")
+                .timer();
+        assertNotNull(findLatest);
+        assertTrue(findLatest.count() >= 1);
+        assertNotNull(meterRegistry.find(MapperMetricsInterceptor.METRIC)
+                .tag("statement", "FactorMapper.findTopByDateOrderByAbsShap").timer());
+    }
+
+    @Test
+    void testStreamingGaugesRegistered() {
+        assertNotNull(meterRegistry.find("report.streams.active").gauge());
+        assertNotNull(meterRegistry.find("alert.subscribers.active").gauge());
+        assertNotNull(meterRegistry.find("report.cache").tag("result", "hit").counter());
+    }
+}
@@ -0,0 +1,253 @@
+package com.example.oilrisk_alert;
+
+import com.example.oilrisk_alert.columnar.ColumnarArchive;
+import com.example.oilrisk_alert.columnar.ColumnarTable;
+import com.example.oilrisk_alert.common.BusinessException;
+import com.example.oilrisk_alert.common.StreamingResult;
+import com.example.oilrisk_alert.entity.ArchiveBoundary;
+import com.example.oilrisk_alert.mapper.FactorMapper;
+import com.example.oilrisk_alert.series.SeriesSink;
+import com.example.oilrisk_alert.service.FactorService;
+import com.example.oilrisk_alert.service.IngestService;
+import com.example.oilrisk_alert.service.PartitionService;
+import com.example.oilrisk_alert.service.RiskService;
+import com.example.oilrisk_alert.vo.ArchiveResultVO;
+import com.example.oilrisk_alert.vo.FactorVO;
+import com.example.oilrisk_alert.vo.RadarTimeseriesVO;
+import com.example.oilrisk_alert.vo.TimeseriesVO;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.transaction.annotation.Transactional;
+import tools.jackson.databind.JsonNode;
+import tools.jackson.databind.ObjectMapper;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.function.Consumer;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@SpringBootTest
+@Transactional
+class PartitionServiceTest {
+
+    private static final LocalDate OLD_DATE = LocalDate.of(2016, 6, 1);
+
+    @Autowired
+    private PartitionService partitionService;
+
+    @Autowired
+    private FactorService factorService;
+
+    @Autowired
+    private FactorMapper factorMapper;
+
+    @Autowired
+    private RiskService riskService;
+
+    @Autowired
+    private ColumnarArchive columnarArchive;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Autowired
+    private IngestService ingestService;
+
+    @TempDir
+    Path tempDir;
+
+    @Test
+    void testArchiveFactors_movesRowsBeforeYearBoundary() {
+        int before = factorMapper.findByDate(OLD_DATE).size();
+        assertTrue(before > 0);
+
+        // H2 has no partitions, so the range is archived up to the start of the year
+        ArchiveResultVO result = partitionService.archiveFactors(LocalDate.of(2017, 3, 15));
+
+        assertEquals("2017-01-01", result.getArchivedBefore());
+        assertTrue(result.getRows() >= 24 * before);
+        assertTrue(result.getPartitions().isEmpty());
+        assertEquals(LocalDate.of(2017, 1, 1), partitionService.getFactorsArchivedBefore());
+        assertTrue(factorMapper.findByDate(OLD_DATE).isEmpty());
+        assertEquals(before, factorMapper.findArchivedByDate(OLD_DATE).size());
+        assertFalse(factorMapper.findByDate(LocalDate.of(2017, 1, 1)).isEmpty());
+    }
+
+    @Test
+    void testArchiveFactors_readsUnchanged() {
+        LocalDate start = LocalDate.of(2015, 6, 1);
+        LocalDate end = LocalDate.of(2018, 6, 1);
+        List<FactorVO> explain = factorService.getExplain(OLD_DATE);
+        RadarTimeseriesVO series = factorService.getRadarTimeseries(start, end);
+
+        partitionService.archiveFactors(LocalDate.of(2017, 1, 1));
+
+        assertEquals(names(explain), names(factorService.getExplain(OLD_DATE)));
+        RadarTimeseriesVO archived = factorService.getRadarTimeseries(start, end);
+        assertEquals(series.getDates(), archived.getDates());
+        assertEquals(series.getCategories(), archived.getCategories());
+        for (int c = 0; c < series.getScores().length; c++) {
+            assertArrayEquals(series.getScores()[c], archived.getScores()[c], 1e-12);
+        }
+    }
+
+    @Test
+    void testArchiveFactors_columnarCopyServesArchivedReads() throws Exception {
+        LocalDate start = LocalDate.of(2015, 1, 1);
+        LocalDate end = LocalDate.of(2025, 12, 31);
+        List<FactorVO> explain = factorService.getExplain(OLD_DATE);
+        RadarTimeseriesVO series = factorService.getRadarTimeseries(start, end);
+        TimeseriesVO timeseries = riskService.getTimeseries(start, end);
+        JsonNode streamed = stream(riskService.streamTimeseries(start, end));
+
+        partitionService.archiveFactors(LocalDate.of(2017, 1, 1));
+        ArchiveBoundary boundary = partitionService.getFactorArchiveBoundary();
+        ColumnarTable factors = columnarArchive.factors(boundary);
+        assertNotNull(factors);
+        assertEquals(24, columnarArchive.riskIndex(boundary).getRows());
+        assertEquals(24 * factorMapper.findArchivedByDate(OLD_DATE).size(), factors.getRows());
+
+        assertEquals(names(explain), names(factorService.getExplain(OLD_DATE)));
+        RadarTimeseriesVO archived = factorService.getRadarTimeseries(start, end);
+        assertEquals(series.getDates(), archived.getDates());
+        for (int c = 0; c < series.getScores().length; c++) {
+            assertArrayEquals(series.getScores()[c], archived.getScores()[c], 1e-12);
+        }
+        assertEquals(timeseries, riskService.getTimeseries(start, end));
+        assertEquals(streamed, stream(riskService.streamTimeseries(start, end)));
+    }
+
+    @Test
+    void testColumnarCopy_reingestedArchivedDatesAreRebuilt() throws IOException {
+        LocalDate start = LocalDate.of(2016, 1, 1);
+        LocalDate end = LocalDate.of(2016, 12, 1);
+        ingestService.ingestCsv(writeCsv(7));
+        List<String> expected = names(factorService.getExplain(OLD_DATE));
+        RadarTimeseriesVO expectedSeries = factorService.getRadarTimeseries(start, end);
+        TimeseriesVO expectedTimeseries = riskService.getTimeseries(start, end);
+
+        ingestService.ingestCsv(writeCsv(1));
+        partitionService.archiveFactors(LocalDate.of(2017, 1, 1));
+        ArchiveBoundary archived = partitionService.getFactorArchiveBoundary();
+        assertNotNull(columnarArchive.factors(archived));
+        assertNotEquals(expectedTimeseries, riskService.getTimeseries(start, end));
+
+        // The re-ingest makes the old copy stale; reads fall back to the tables until it is rebuilt
+        ingestService.ingestCsv(writeCsv(7));
+        ArchiveBoundary rewritten = partitionService.getFactorArchiveBoundary();
+        assertTrue(rewritten.getGeneration() > archived.getGeneration());
+        assertNull(columnarArchive.factors(rewritten));
+
+        columnarArchive.sync(rewritten);
+        assertNotNull(columnarArchive.factors(rewritten));
+        assertEquals(expected, names(factorService.getExplain(OLD_DATE)));
+        assertRadarEquals(expectedSeries, factorService.getRadarTimeseries(start, end));
+        assertEquals(expectedTimeseries, riskService.getTimeseries(start, end));
+
+        // Dates at or after the boundary are not archived and leave the copy alone
+        factorMapper.bumpArchiveGeneration(LocalDate.of(2017, 1, 1));
+        assertEquals(rewritten, factorMapper.findArchiveBoundary());
+    }
+
+    @Test
+    void testReingest_archivedDatesAreServedFromTheArchive() throws IOException {
+        LocalDate start = LocalDate.of(2016, 1, 1);
+        LocalDate end = LocalDate.of(2016, 12, 1);
+        // Expected: what reads return for the changed values while the dates are not archived
+        ingestService.ingestCsv(writeCsv(7));
+        List<String> expected = names(factorService.getExplain(OLD_DATE));
+        RadarTimeseriesVO expectedSeries = factorService.getRadarTimeseries(start, end);
+
+        ingestService.ingestCsv(writeCsv(1));
+        partitionService.archiveFactors(LocalDate.of(2017, 1, 1));
+        assertNotEquals(expected, names(factorService.getExplain(OLD_DATE)));
+
+        ingestService.ingestCsv(writeCsv(7));
+
+        assertTrue(factorMapper.findByDate(OLD_DATE).isEmpty());
+        assertEquals(10, factorMapper.findArchivedByDate(OLD_DATE).size());
+        assertEquals(expected, names(factorService.getExplain(OLD_DATE)));
+        assertRadarEquals(expectedSeries, factorService.getRadarTimeseries(start, end));
+    }
+
+    @Test
+    void testArchiveFactors_earlierCutoffIsNoop() {
+        partitionService.archiveFactors(LocalDate.of(2017, 1, 1));
+        ArchiveResultVO result = partitionService.archiveFactors(LocalDate.of(2016, 1, 1));
+
+        assertEquals(0, result.getRows());
+        assertEquals("2017-01-01", result.getArchivedBefore());
+    }
+
+    @Test
+    void testArchiveFactors_futureCutoff_throws() {
+        BusinessException ex = assertThrows(BusinessException.class,
+                () -> partitionService.archiveFactors(LocalDate.now().plusDays(1)));
+        assertEquals(400, ex.getCode());
+    }
+
+    @Test
+    void testEnsurePartitions_unpartitionedTablesUntouched() {
+        assertTrue(factorMapper.findPartitions().isEmpty());
+        partitionService.ensurePartitions();
+        assertTrue(factorMapper.findPartitions().isEmpty());
+    }
+
+    /**
+     * Daily rows through 2016 (monthly after aggregation); {@code step} reorders vix and middle east.
+     */
+    private Path writeCsv(int step) throws IOException {
+        List<String> lines = new ArrayList<>();
+        String[] header = new String[140];
+        Arrays.fill(header, "col");
+        header[0] = "Date";
+        lines.add(String.join(",", header));
+        LocalDate start = LocalDate.of(2016, 1, 1);
+        for (int d = 0; d < 366; d += 3) {
+            String[] row = new String[140];
+            Arrays.fill(row, "");
+            row[0] = start.plusDays(d).toString();
+            row[1] = String.valueOf(2.0 + d * 0.002);       // cpi
+            row[3] = String.valueOf(40 + d % 11);           // oil price
+            row[8] = String.valueOf(1200 + d % 13);         // inventory
+            row[35] = String.valueOf(15 + d * step % 20);   // vix
+            row[90] = String.valueOf(d * step % 9);         // middle east
+            row[123] = String.valueOf(-0.2 + d * 0.001);    // sentiment
+            lines.add(String.join(",", row));
+        }
+        Path csv = tempDir.resolve("oil-" + step + ".csv");
+        Files.write(csv, lines);
+        return csv;
+    }
+
+    private static void assertRadarEquals(RadarTimeseriesVO expected, RadarTimeseriesVO actual) {
+        assertEquals(expected.getDates(), actual.getDates());
+        for (int c = 0; c < expected.getScores().length; c++) {
+            assertArrayEquals(expected.getScores()[c], actual.getScores()[c], 1e-12);
+        }
+    }
+
+    private JsonNode stream(Consumer<SeriesSink> data) throws Exception {
+        MockHttpServletResponse response = new MockHttpServletResponse();
+        StreamingResult.writeSuccess(objectMapper, new MockHttpServletRequest(), response, data);
+        return objectMapper.readTree(response.getContentAsByteArray());
+    }
+
+    private static List<String> names(List<FactorVO> factors) {
+        List<String> names = new ArrayList<>();
+        for (FactorVO f : factors) {
+            names.add(f.getName() + "=" + f.getShap());
+        }
+        return names;
+    }
+}
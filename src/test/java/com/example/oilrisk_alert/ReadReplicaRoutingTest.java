@@ -0,0 +1,144 @@
+package com.example.oilrisk_alert;
+
+import com.example.oilrisk_alert.cache.DataTable;
+import com.example.oilrisk_alert.cache.DataVersionClock;
+import com.example.oilrisk_alert.datasource.ReplicaLagMonitor;
+import com.example.oilrisk_alert.entity.DataVersion;
+import com.example.oilrisk_alert.mapper.AlertMapper;
+import com.example.oilrisk_alert.mapper.DataVersionMapper;
+import org.flywaydb.core.Flyway;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Routing between two H2 databases standing in for a primary and its replica. Nothing replicates
+ * between them: tests copy rows by hand and give the copies different contents, so each read
+ * shows which database answered.
+ */
+@SpringBootTest(properties = {
+        "spring.datasource.url=" + ReadReplicaRoutingTest.PRIMARY_URL,
+        "datasource.replica.enabled=true",
+        "datasource.replica.url=" + ReadReplicaRoutingTest.REPLICA_URL,
+        "datasource.replica.username=sa",
+        "datasource.replica.lag-poll-ms=3600000"
+})
+class ReadReplicaRoutingTest {
+
+    static final String PRIMARY_URL = "jdbc:h2:mem:routing-primary;MODE=MySQL;DB_CLOSE_DELAY=-1;NON_KEYWORDS=VALUE,DATE";
+    static final String REPLICA_URL = "jdbc:h2:mem:routing-replica;MODE=MySQL;DB_CLOSE_DELAY=-1;NON_KEYWORDS=VALUE,DATE";
+    private static final long ALERT_ID = 1L;
+
+    @Autowired
+    private AlertMapper alertMapper;
+
+    @Autowired
+    private DataVersionMapper dataVersionMapper;
+
+    @Autowired
+    private DataVersionClock clock;
+
+    @Autowired
+    private ReplicaLagMonitor lagMonitor;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    @BeforeAll
+    static void migrateReplica() {
+        Flyway.configure().dataSource(REPLICA_URL, "sa", "").load().migrate();
+    }
+
+    @BeforeEach
+    void setUp() throws SQLException {
+        execute(PRIMARY_URL, "UPDATE alert SET ai_report = ? WHERE id = ?", "primary", ALERT_ID);
+        replicate("replica", 0);
+    }
+
+    @Test
+    void testAnnotatedRead_usesCaughtUpReplica() {
+        assertEquals("replica", alertMapper.findById(ALERT_ID).getAiReport());
+    }
+
+    @Test
+    void testReadYourWrites_primaryUntilReplicaAppliesWrite() throws SQLException {
+        alertMapper.updateAiReport(ALERT_ID, "generated");
+        assertEquals("generated", alertMapper.findById(ALERT_ID).getAiReport());
+
+        // The replica reports a version but has not reached the write yet
+        lagMonitor.refresh();
+        assertEquals("generated", alertMapper.findById(ALERT_ID).getAiReport());
+
+        replicate("generated on replica", 0);
+        assertEquals("generated on replica", alertMapper.findById(ALERT_ID).getAiReport());
+    }
+
+    @Test
+    void testTransactions_readOnlyNeedsEveryTableFresh() {
+        assertEquals("replica", readInTransaction(true));
+        assertEquals("primary", readInTransaction(false));
+
+        // A risk_index write the replica has not applied keeps read-only transactions on the
+        // primary; reads of alert alone may still use the replica
+        dataVersionMapper.increment(DataTable.RISK_INDEX.getTableName());
+        clock.refresh();
+        assertEquals("primary", readInTransaction(true));
+        assertEquals("replica", alertMapper.findById(ALERT_ID).getAiReport());
+    }
+
+    @Test
+    void testReadFromPrimary_holdsInReadOnlyTransaction() throws SQLException {
+        replicate("replica", 5);
+        long primaryVersion = clock.current(DataTable.ALERT);
+
+        TransactionTemplate readOnly = new TransactionTemplate(transactionTemplate.getTransactionManager());
+        readOnly.setReadOnly(true);
+        long read = readOnly.execute(status -> dataVersionMapper.findAll().stream()
+                .filter(row -> row.getTableName().equals(DataTable.ALERT.getTableName()))
+                .mapToLong(DataVersion::getVersion)
+                .findFirst().orElseThrow());
+        assertEquals(primaryVersion, read);
+    }
+
+    private String readInTransaction(boolean readOnly) {
+        TransactionTemplate template = new TransactionTemplate(transactionTemplate.getTransactionManager());
+        template.setReadOnly(readOnly);
+        template.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+        return template.execute(status -> alertMapper.findById(ALERT_ID).getAiReport());
+    }
+
+    /**
+     * Brings the replica's data versions to the primary's (plus {@code ahead}) with the given
+     * report text on the test alert, then lets the monitor see it.
+     */
+    private void replicate(String report, long ahead) throws SQLException {
+        execute(REPLICA_URL, "UPDATE alert SET ai_report = ? WHERE id = ?", report, ALERT_ID);
+        clock.refresh();
+        for (DataTable table : DataTable.values()) {
+            execute(REPLICA_URL, "UPDATE data_version SET version = ? WHERE table_name = ?",
+                    clock.current(table) + ahead, table.getTableName());
+        }
+        lagMonitor.refresh();
+    }
+
+    private static void execute(String url, String sql, Object... args) throws SQLException {
+        try (Connection connection = DriverManager.getConnection(url, "sa", "");
+             PreparedStatement ps = connection.prepareStatement(sql)) {
+            for (int i = 0; i < args.length; i++) {
+                ps.setObject(i + 1, args[i]);
+            }
+            ps.executeUpdate();
+        }
+    }
+}
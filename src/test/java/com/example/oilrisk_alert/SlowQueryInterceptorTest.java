@@ -0,0 +1,140 @@
+package com.example.oilrisk_alert;
+
+import com.example.oilrisk_alert.entity.RiskIndex;
+import com.example.oilrisk_alert.mapper.AlertMapper;
+import com.example.oilrisk_alert.mapper.RiskMapper;
+import com.example.oilrisk_alert.metrics.SlowQueryInterceptor;
+import com.example.oilrisk_alert.vo.SlowQueryVO;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@SpringBootTest(properties = {
+        "mybatis.slow-query.threshold-ms=0",
+        "mybatis.slow-query.explain=true"
+})
+@Transactional
+class SlowQueryInterceptorTest {
+
+    @Autowired
+    private SlowQueryInterceptor slowQueryInterceptor;
+
+    @Autowired
+    private RiskMapper riskMapper;
+
+    @Autowired
+    private AlertMapper alertMapper;
+
+    @BeforeEach
+    void setUp() {
+        slowQueryInterceptor.reset();
+    }
+
+    private SlowQueryVO find(String statement) {
+        return slowQueryInterceptor.top(100).stream()
+                .filter(q -> q.getStatement().equals(statement))
+                .findFirst().orElse(null);
+    }
+
+    @Test
+    void testStatementsAreAggregatedPerIdWithBoundParams() {
+        LocalDate start = LocalDate.of(2024, 1, 1);
+        riskMapper.findByDateRange(start, LocalDate.of(2024, 6, 1));
+        riskMapper.findByDateRange(start, LocalDate.of(2024, 12, 1));
+
+        SlowQueryVO q = find("RiskMapper.findByDateRange");
+        assertNotNull(q);
+        assertEquals(2, q.getCount());
+        assertEquals(2, q.getSlowCount());
+        assertTrue(q.getSql().startsWith("SELECT"));
+        assertTrue(q.getMaxParams().contains("2024-01-01"));
+    }
+
+    @Test
+    void testDynamicSqlVariantsShareTheirStatement() {
+        alertMapper.findPage(0, 10, null, "date", "desc");
+        alertMapper.findPage(0, 10, "High", "riskIndex", "asc");
+
+        List<SlowQueryVO> entries = slowQueryInterceptor.top(100).stream()
+                .filter(q -> q.getStatement().equals("AlertMapper.findPage"))
+                .toList();
+        assertEquals(1, entries.size());
+        assertEquals(2, entries.get(0).getCount());
+    }
+
+    @Test
+    void testFastStatementsAreCountedWithoutSql() {
+        slowQueryInterceptor.setThresholdMillis(60_000);
+        try {
+            riskMapper.findLatest();
+            riskMapper.findLatest();
+        } finally {
+            slowQueryInterceptor.setThresholdMillis(0);
+        }
+
+        SlowQueryVO q = find("RiskMapper.findLatest");
+        assertNotNull(q);
+        assertEquals(2, q.getCount());
+        assertEquals(0, q.getSlowCount());
+        assertNull(q.getSql());
+        assertNull(q.getMaxParams());
+    }
+
+    @Test
+    void testBatchInsertsOfAnySizeShareOneStatement() {
+        riskMapper.upsertBatch(riskRows(LocalDate.of(1990, 1, 1), 2));
+        riskMapper.upsertBatch(riskRows(LocalDate.of(1991, 1, 1), 3000));
+
+        SlowQueryVO q = find("RiskMapper.upsertBatch");
+        assertNotNull(q);
+        assertEquals(2, q.getCount());
+        assertTrue(q.getSql().contains("(?, ?, ?, ?), ..."), q.getSql());
+    }
+
+    private static List<RiskIndex> riskRows(LocalDate start, int count) {
+        List<RiskIndex> rows = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            RiskIndex ri = new RiskIndex();
+            ri.setDate(start.plusDays(i));
+            ri.setRiskIndex(new BigDecimal("50.00"));
+            ri.setRiskLevel("Medium");
+            ri.setOilPrice(new BigDecimal("70.00"));
+            rows.add(ri);
+        }
+        return rows;
+    }
+
+    @Test
+    void testExplainCapturedOncePerStatement() throws InterruptedException {
+        riskMapper.findLatest();
+
+        SlowQueryVO q = null;
+        for (int i = 0; i < 50 && (q == null || q.getExplain() == null); i++) {
+            Thread.sleep(100);
+            q = find("RiskMapper.findLatest");
+        }
+        assertNotNull(q);
+        assertNotNull(q.getExplain());
+        assertFalse(q.getExplain().startsWith("EXPLAIN failed"), q.getExplain());
+    }
+
+    @Test
+    void testTopIsOrderedByTotalTimeAndLimited() {
+        riskMapper.findLatest();
+        alertMapper.countByLevel(null);
+        riskMapper.findByDateRange(LocalDate.of(2015, 1, 1), LocalDate.of(2025, 1, 1));
+
+        List<SlowQueryVO> top = slowQueryInterceptor.top(2);
+        assertEquals(2, top.size());
+        assertTrue(top.get(0).getTotalMillis() >= top.get(1).getTotalMillis());
+    }
+}
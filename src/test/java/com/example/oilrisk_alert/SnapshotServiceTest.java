@@ -0,0 +1,110 @@
+package com.example.oilrisk_alert;
+
+import com.example.oilrisk_alert.common.BusinessException;
+import com.example.oilrisk_alert.entity.Alert;
+import com.example.oilrisk_alert.entity.RiskFactor;
+import com.example.oilrisk_alert.mapper.AlertMapper;
+import com.example.oilrisk_alert.mapper.FactorMapper;
+import com.example.oilrisk_alert.mapper.RiskMapper;
+import com.example.oilrisk_alert.service.SnapshotService;
+import com.example.oilrisk_alert.vo.SnapshotResultVO;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.nio.file.Path;
+import java.time.LocalDate;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@SpringBootTest
+@Transactional
+class SnapshotServiceTest {
+
+    @Autowired
+    private SnapshotService snapshotService;
+
+    @Autowired
+    private RiskMapper riskMapper;
+
+    @Autowired
+    private FactorMapper factorMapper;
+
+    @Autowired
+    private AlertMapper alertMapper;
+
+    @TempDir
+    Path tempDir;
+
+    @Test
+    void testExportAndRestore_roundTripsAllRowsAndAiReport() {
+        LocalDate date = LocalDate.of(2024, 4, 1);
+        Alert first = alertMapper.findById(1L);
+        alertMapper.updateAiReport(first.getId(), "cached report");
+        List<RiskFactor> factorsBefore = factorMapper.findByDate(date);
+
+        Path path = tempDir.resolve("snapshot.bin");
+        SnapshotResultVO exported = snapshotService.export(path);
+        assertTrue(exported.getRiskIndexRows() > 0);
+        assertTrue(exported.getAlertRows() > 0);
+        assertTrue(exported.getBytes() > 0);
+
+        alertMapper.deleteAll();
+        factorMapper.deleteAll();
+        riskMapper.deleteAll();
+        assertNull(riskMapper.findLatest());
+
+        SnapshotResultVO restored = snapshotService.restore(path);
+        assertEquals(exported.getRiskIndexRows(), restored.getRiskIndexRows());
+        assertEquals(exported.getRiskFactorRows(), restored.getRiskFactorRows());
+        assertEquals(exported.getAlertRows(), restored.getAlertRows());
+        assertEquals(exported.getLastDate(), riskMapper.findLatest().getDate().toString());
+
+        Alert restoredAlert = alertMapper.findById(first.getId());
+        assertEquals(first.getDate(), restoredAlert.getDate());
+        assertEquals(first.getDetail(), restoredAlert.getDetail());
+        assertEquals("cached report", restoredAlert.getAiReport());
+
+        List<RiskFactor> factorsAfter = factorMapper.findByDate(date);
+        assertEquals(factorsBefore.size(), factorsAfter.size());
+        for (int i = 0; i < factorsBefore.size(); i++) {
+            assertEquals(factorsBefore.get(i).getFactorName(), factorsAfter.get(i).getFactorName());
+            assertEquals(0, factorsBefore.get(i).getShapValue().compareTo(factorsAfter.get(i).getShapValue()));
+        }
+    }
+
+    @Test
+    void testRestore_movesAlertsPastEveryIndexedRevision() {
+        alertMapper.updateAiReport(1L, "cached report");
+        int before = alertMapper.findMaxRevision();
+        Path path = tempDir.resolve("snapshot.bin");
+        snapshotService.export(path);
+
+        snapshotService.restore(path);
+
+        List<Alert> restored = alertMapper.findByIds(List.of(1L, 2L));
+        assertEquals(2, restored.size());
+        for (Alert a : restored) {
+            assertEquals(before + 1, a.getRevision());
+        }
+    }
+
+    @Test
+    void testRestoreIfNewer_skipsWhenDatabaseIsCurrent() {
+        Path path = tempDir.resolve("snapshot.bin");
+        snapshotService.export(path);
+
+        assertNull(snapshotService.restoreIfNewer(path));
+        assertNull(snapshotService.restoreIfNewer(tempDir.resolve("missing.bin")));
+    }
+
+    @Test
+    void testRestore_missingFile_throws404() {
+        BusinessException ex = assertThrows(BusinessException.class,
+                () -> snapshotService.restore(tempDir.resolve("missing.bin")));
+        assertEquals(404, ex.getCode());
+    }
+}
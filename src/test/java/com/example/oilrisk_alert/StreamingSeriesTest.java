@@ -0,0 +1,309 @@
+package com.example.oilrisk_alert;
+
+import com.example.oilrisk_alert.common.Result;
+import com.example.oilrisk_alert.common.StreamingResult;
+import com.example.oilrisk_alert.dto.BacktestRequestDTO;
+import com.example.oilrisk_alert.entity.RiskIndex;
+import com.example.oilrisk_alert.mapper.RiskMapper;
+import com.example.oilrisk_alert.service.BacktestService;
+import com.example.oilrisk_alert.series.SeriesSink;
+import com.example.oilrisk_alert.service.RiskService;
+import com.example.oilrisk_alert.vo.AlertTimeseriesVO;
+import com.example.oilrisk_alert.vo.BacktestResultVO;
+import com.example.oilrisk_alert.vo.TimeseriesVO;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.transaction.annotation.Transactional;
+import tools.jackson.databind.JsonNode;
+import tools.jackson.databind.ObjectMapper;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.function.Consumer;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@SpringBootTest
+@Transactional
+class StreamingSeriesTest {
+
+    @Autowired
+    private RiskService riskService;
+
+    @Autowired
+    private BacktestService backtestService;
+
+    @Autowired
+    private RiskMapper riskMapper;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Test
+    void testStreamTimeseries_matchesTimeseriesVO() throws Exception {
+        LocalDate start = LocalDate.of(2015, 1, 1);
+        LocalDate end = LocalDate.of(2025, 12, 31);
+
+        JsonNode streamed = stream(riskService.streamTimeseries(start, end));
+
+        assertEquals(200, streamed.get("code").asInt());
+        assertEquals("ok", streamed.get("message").asString());
+        assertFalse(streamed.get("data").get("dates").isEmpty());
+        assertSameNumbers(objectMapper.valueToTree(Result.success(riskService.getTimeseries(start, end))), streamed);
+    }
+
+    @Test
+    void testStreamTimeseries_downsampledLikeTimeseriesVO() throws Exception {
+        // Above the 2000-point LTTB threshold, so the streaming path takes its selection pass
+        LocalDate start = LocalDate.of(1990, 1, 1);
+        Random random = new Random(3);
+        List<RiskIndex> rows = new ArrayList<>();
+        double price = 60;
+        for (int i = 0; i < 2600; i++) {
+            price = Math.max(10, price + random.nextGaussian());
+            RiskIndex ri = new RiskIndex();
+            ri.setDate(start.plusDays(i));
+            ri.setOilPrice(BigDecimal.valueOf(price).setScale(2, RoundingMode.HALF_UP));
+            ri.setRiskIndex(BigDecimal.valueOf(random.nextDouble() * 100).setScale(2, RoundingMode.HALF_UP));
+            ri.setRiskLevel("Low");
+            rows.add(ri);
+        }
+        riskMapper.upsertBatch(rows);
+        LocalDate end = start.plusDays(rows.size() - 1);
+
+        JsonNode streamed = stream(riskService.streamTimeseries(start, end));
+
+        int points = streamed.get("data").get("dates").size();
+        assertTrue(points < rows.size() && points >= 2000);
+        assertSameNumbers(objectMapper.valueToTree(Result.success(riskService.getTimeseries(start, end))), streamed);
+    }
+
+    @Test
+    void testStreamBacktest_matchesBacktestResultVO() throws Exception {
+        for (String model : List.of("XGBoost", "ARIMA", "LSTM")) {
+            BacktestRequestDTO request = new BacktestRequestDTO();
+            request.setStartDate(LocalDate.of(2015, 1, 1));
+            request.setEndDate(LocalDate.of(2025, 12, 31));
+            request.setModel(model);
+
+            JsonNode streamed = stream(backtestService.streamBacktest(request));
+
+            assertSameNumbers(objectMapper.valueToTree(Result.success(backtestService.runBacktest(request))), streamed);
+        }
+    }
+
+    @Test
+    void testFrame_timeseriesDecodesToSameValues() throws Exception {
+        LocalDate start = LocalDate.of(2015, 1, 1);
+        LocalDate end = LocalDate.of(2025, 12, 31);
+        TimeseriesVO vo = riskService.getTimeseries(start, end);
+
+        MockHttpServletResponse response = write(riskService.streamTimeseries(start, end),
+                StreamingResult.SERIES_FRAME_VALUE + ", application/json;q=0.5");
+        assertEquals(StreamingResult.SERIES_FRAME_VALUE, response.getContentType());
+        Frame frame = Frame.decode(response.getContentAsByteArray());
+
+        assertEquals(vo.getDates(), frame.dates("dates"));
+        assertDecimals(vo.getOilPrice(), frame.values("oilPrice"));
+        assertDecimals(vo.getRiskIndex(), frame.values("riskIndex"));
+        Table alerts = frame.tables.get("alerts");
+        assertEquals(vo.getAlerts().stream().map(AlertTimeseriesVO::getDate).toList(), alerts.dates("date"));
+        assertEquals(vo.getAlerts().stream().map(AlertTimeseriesVO::getLevel).toList(), alerts.categories("level"));
+        assertDecimals(vo.getAlerts().stream().map(AlertTimeseriesVO::getRiskIndex).toList(), alerts.values("riskIndex"));
+        assertEquals("{}", frame.fields);
+
+        byte[] json = write(riskService.streamTimeseries(start, end), null).getContentAsByteArray();
+        assertTrue(response.getContentAsByteArray().length < json.length * 0.6);
+    }
+
+    @Test
+    void testFrame_backtestDecodesToSameValues() throws Exception {
+        BacktestRequestDTO request = new BacktestRequestDTO();
+        request.setStartDate(LocalDate.of(2015, 1, 1));
+        request.setEndDate(LocalDate.of(2025, 12, 31));
+        request.setModel("ARIMA");
+        BacktestResultVO vo = backtestService.runBacktest(request);
+
+        byte[] body = write(backtestService.streamBacktest(request), StreamingResult.SERIES_FRAME_VALUE)
+                .getContentAsByteArray();
+        Frame frame = Frame.decode(body);
+
+        assertEquals(vo.getDates(), frame.dates("dates"));
+        assertDecimals(vo.getActual(), frame.values("actual"));
+        assertDecimals(vo.getPredicted(), frame.values("predicted"));
+        JsonNode fields = objectMapper.readTree(frame.fields);
+        assertEquals(vo.getMae().doubleValue(), fields.get("mae").asDouble(), 1e-9);
+        assertTrue(fields.get("folds").isNull());
+
+        byte[] json = write(backtestService.streamBacktest(request), null).getContentAsByteArray();
+        assertTrue(body.length < json.length * 0.6, body.length + " vs " + json.length);
+    }
+
+    @Test
+    void testFrame_onlyWhenAccepted() throws Exception {
+        LocalDate day = LocalDate.of(2024, 4, 1);
+        for (String accept : new String[]{null, "*/*", "application/json",
+                StreamingResult.SERIES_FRAME_VALUE + ";q=0"}) {
+            MockHttpServletResponse response = write(riskService.streamTimeseries(day, day), accept);
+            assertEquals("application/json;charset=UTF-8", response.getContentType(), String.valueOf(accept));
+            assertEquals("Accept", response.getHeader("Vary"));
+        }
+    }
+
+    private JsonNode stream(Consumer<SeriesSink> data) throws Exception {
+        MockHttpServletResponse response = write(data, null);
+        assertEquals("application/json;charset=UTF-8", response.getContentType());
+        return objectMapper.readTree(response.getContentAsByteArray());
+    }
+
+    private MockHttpServletResponse write(Consumer<SeriesSink> data, String accept) throws Exception {
+        MockHttpServletRequest request = new MockHttpServletRequest();
+        if (accept != null) request.addHeader("Accept", accept);
+        MockHttpServletResponse response = new MockHttpServletResponse();
+        StreamingResult.writeSuccess(objectMapper, request, response, data);
+        return response;
+    }
+
+    private static void assertDecimals(List<BigDecimal> expected, double[] actual) {
+        assertEquals(expected.size(), actual.length);
+        for (int i = 0; i < actual.length; i++) {
+            assertEquals(expected.get(i).doubleValue(), actual[i], 1e-9);
+        }
+    }
+
+    private static void assertSameNumbers(JsonNode expected, JsonNode actual) {
+        if (expected.isNumber()) {
+            assertTrue(actual.isNumber(), "expected number, got " + actual);
+            assertEquals(expected.asDouble(), actual.asDouble(), 1e-9);
+        } else if (expected.isArray()) {
+            assertEquals(expected.size(), actual.size());
+            for (int i = 0; i < expected.size(); i++) {
+                assertSameNumbers(expected.get(i), actual.get(i));
+            }
+        } else if (expected.isObject()) {
+            assertEquals(expected.propertyNames(), actual.propertyNames());
+            for (Map.Entry<String, JsonNode> e : expected.properties()) {
+                assertSameNumbers(e.getValue(), actual.get(e.getKey()));
+            }
+        } else {
+            assertEquals(expected, actual);
+        }
+    }
+
+    /**
+     * Reference decoder for the FrameSeriesSink layout.
+     */
+    private static final class Frame {
+        final Map<String, Table> tables = new LinkedHashMap<>();
+        String fields;
+
+        static Frame decode(byte[] body) {
+            ByteBuffer buf = ByteBuffer.wrap(body).order(ByteOrder.LITTLE_ENDIAN);
+            assertEquals("ORSF", ascii(buf, 4));
+            assertEquals(1, buf.get());
+            int columnCount = buf.get() & 0xff;
+            buf.getShort();
+            Frame frame = new Frame();
+            frame.tables.put("", Table.read(buf, columnCount, buf.getInt()));
+            while (buf.remaining() >= 4 && body[buf.position()] == 'O') {
+                assertEquals("ORST", ascii(buf, 4));
+                columnCount = buf.get() & 0xff;
+                int nameLength = buf.get() & 0xff;
+                buf.getShort();
+                int rows = buf.getInt();
+                String name = utf8(buf, nameLength);
+                frame.tables.put(name, Table.read(buf, columnCount, rows));
+            }
+            frame.fields = utf8(buf, buf.remaining());
+            return frame;
+        }
+
+        List<String> dates(String name) {
+            return tables.get("").dates(name);
+        }
+
+        double[] values(String name) {
+            return tables.get("").values(name);
+        }
+
+        private static String ascii(ByteBuffer buf, int length) {
+            byte[] bytes = new byte[length];
+            buf.get(bytes);
+            return new String(bytes, StandardCharsets.US_ASCII);
+        }
+
+        private static String utf8(ByteBuffer buf, int length) {
+            byte[] bytes = new byte[length];
+            buf.get(bytes);
+            return new String(bytes, StandardCharsets.UTF_8);
+        }
+    }
+
+    private static final class Table {
+        final Map<String, int[]> raw = new LinkedHashMap<>();
+        final Map<String, Integer> types = new LinkedHashMap<>();
+        final Map<String, Integer> scales = new LinkedHashMap<>();
+        final Map<String, List<String>> categories = new LinkedHashMap<>();
+
+        static Table read(ByteBuffer buf, int columnCount, int rows) {
+            Table table = new Table();
+            String[] names = new String[columnCount];
+            for (int c = 0; c < columnCount; c++) {
+                int type = buf.get();
+                int scale = buf.get();
+                names[c] = Frame.utf8(buf, buf.get() & 0xff);
+                table.types.put(names[c], type);
+                table.scales.put(names[c], scale);
+                if (type == 3) {
+                    List<String> values = new ArrayList<>();
+                    int count = buf.get() & 0xff;
+                    for (int i = 0; i < count; i++) values.add(Frame.utf8(buf, buf.get() & 0xff));
+                    table.categories.put(names[c], values);
+                }
+            }
+            while (buf.position() % 4 != 0) buf.get();
+            for (String name : names) {
+                int[] values = new int[rows];
+                for (int i = 0; i < rows; i++) values[i] = buf.getInt();
+                table.raw.put(name, values);
+            }
+            return table;
+        }
+
+        List<String> dates(String name) {
+            assertEquals(1, types.get(name));
+            int[] deltas = raw.get(name);
+            List<String> dates = new ArrayList<>(deltas.length);
+            long day = 0;
+            for (int i = 0; i < deltas.length; i++) {
+                day = i == 0 ? deltas[0] : day + deltas[i];
+                dates.add(LocalDate.ofEpochDay(day).toString());
+            }
+            return dates;
+        }
+
+        double[] values(String name) {
+            assertEquals(2, types.get(name));
+            double scale = Math.pow(10, scales.get(name));
+            return Arrays.stream(raw.get(name)).mapToDouble(v -> v / scale).toArray();
+        }
+
+        List<String> categories(String name) {
+            assertEquals(3, types.get(name));
+            return Arrays.stream(raw.get(name)).mapToObj(i -> categories.get(name).get(i)).toList();
+        }
+    }
+}
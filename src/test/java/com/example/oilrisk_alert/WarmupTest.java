@@ -0,0 +1,39 @@
+package com.example.oilrisk_alert;
+
+import com.example.oilrisk_alert.warmup.WarmupRunner;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.availability.ApplicationAvailability;
+import org.springframework.boot.availability.ReadinessState;
+import org.springframework.boot.test.context.SpringBootTest;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT,
+        properties = {"warmup.enabled=true", "warmup.iterations=3", "warmup.window=10"})
+class WarmupTest {
+
+    @Autowired
+    private WarmupRunner warmupRunner;
+
+    @Autowired
+    private ApplicationAvailability availability;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Test
+    void testWarmup_exercisesEndpointsBeforeReadiness() {
+        WarmupRunner.Report report = warmupRunner.getReport();
+        assertNotNull(report);
+        assertEquals(33, report.requests());
+        assertEquals(0, report.errors());
+        // Without a target the final window is good by definition, so it is always reached
+        assertTrue(report.timeToGoodP99Millis() > 0);
+        assertTrue(report.p99Millis() > 0);
+        assertEquals(ReadinessState.ACCEPTING_TRAFFIC, availability.getReadinessState());
+        assertEquals(report.timeToGoodP99Millis(),
+                meterRegistry.get("warmup.time.to.good.p99").gauge().value());
+    }
+}
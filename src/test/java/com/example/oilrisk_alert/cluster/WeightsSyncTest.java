@@ -0,0 +1,69 @@
+package com.example.oilrisk_alert.cluster;
+
+import com.example.oilrisk_alert.config.WeightsConfig;
+import org.junit.jupiter.api.Test;
+import tools.jackson.databind.ObjectMapper;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class WeightsSyncTest {
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+
+    @Test
+    void testConcurrentUpdates_convergeOnOneWinner() {
+        List<String> sentA = new ArrayList<>();
+        List<String> sentB = new ArrayList<>();
+        WeightsConfig configA = new WeightsConfig();
+        WeightsConfig configB = new WeightsConfig();
+        WeightsSync a = new WeightsSync(capturing("a", sentA), configA, objectMapper);
+        WeightsSync b = new WeightsSync(capturing("b", sentB), configB, objectMapper);
+
+        configA.setMacro(1.5);
+        a.broadcast();
+        configB.setMacro(0.5);
+        b.broadcast();
+
+        // Each node receives the other's update
+        b.apply(sentA.get(0));
+        a.apply(sentB.get(0));
+
+        assertEquals(configA, configB);
+    }
+
+    @Test
+    void testApply_ignoresOlderUpdate() {
+        List<String> sent = new ArrayList<>();
+        WeightsConfig source = new WeightsConfig();
+        WeightsSync origin = new WeightsSync(capturing("a", sent), source, objectMapper);
+        source.setSentiment(0.2);
+        origin.broadcast();
+        source.setSentiment(1.8);
+        origin.broadcast();
+
+        WeightsConfig target = new WeightsConfig();
+        WeightsSync replica = new WeightsSync(capturing("b", new ArrayList<>()), target, objectMapper);
+        replica.apply(sent.get(1));
+        replica.apply(sent.get(0));
+
+        assertEquals(1.8, target.getSentiment());
+    }
+
+    private static ClusterBus capturing(String nodeId, List<String> sent) {
+        return new InMemoryClusterBus(event -> {
+        }) {
+            @Override
+            public String getNodeId() {
+                return nodeId;
+            }
+
+            @Override
+            public void publish(String topic, String payload) {
+                sent.add(payload);
+            }
+        };
+    }
+}
@@ -0,0 +1,133 @@
+package com.example.oilrisk_alert.columnar;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ColumnarTableTest {
+
+    private static final LocalDate START = LocalDate.of(2000, 1, 1);
+    private static final String[] KEYS = {"crude_inventory\t原油库存变化\tSUPPLY_DEMAND", "vix_index\tVIX\tFINANCIAL", "gpr_index\tGPR\tGEOPOLITICAL"};
+
+    @TempDir
+    Path dir;
+
+    private record Row(int day, String key, double a, double b) {
+    }
+
+    @Test
+    void testScan_roundTripsAcrossBlocksAndAppends() throws IOException {
+        List<Row> rows = rows(10_000, 7);
+        TableState first;
+        try (ColumnarTableWriter writer = new ColumnarTableWriter(dir, null, null)) {
+            for (Row r : rows.subList(0, 6_000)) append(writer, r);
+            first = writer.commit();
+        }
+        try (ColumnarTableWriter writer = new ColumnarTableWriter(dir, first,
+                LocalDate.ofEpochDay(rows.get(5_999).day))) {
+            for (Row r : rows.subList(6_000, rows.size())) append(writer, r);
+            TableState state = writer.commit();
+            ColumnarTable table = ColumnarTable.open(dir, state, LocalDate.ofEpochDay(rows.get(rows.size() - 1).day + 1));
+
+            assertEquals(rows.size(), table.getRows());
+            assertEquals(KEYS.length, table.dictionarySize());
+            assertEquals(rows, scan(table, START, LocalDate.ofEpochDay(rows.get(rows.size() - 1).day)));
+
+            Random random = new Random(3);
+            int lastDay = rows.get(rows.size() - 1).day;
+            for (int i = 0; i < 50; i++) {
+                int from = (int) START.toEpochDay() + random.nextInt(lastDay - (int) START.toEpochDay());
+                int to = from + random.nextInt(400);
+                List<Row> expected = rows.stream().filter(r -> r.day >= from && r.day <= to).toList();
+                LocalDate start = LocalDate.ofEpochDay(from);
+                LocalDate end = LocalDate.ofEpochDay(to);
+                assertEquals(expected, scan(table, start, end), start + ".." + end);
+                assertEquals(expected.size(), table.count(start, end));
+            }
+        }
+    }
+
+    @Test
+    void testOpen_ignoresUncommittedAppend() throws IOException {
+        List<Row> rows = rows(100, 11);
+        TableState committed;
+        try (ColumnarTableWriter writer = new ColumnarTableWriter(dir, null, null)) {
+            for (Row r : rows) append(writer, r);
+            committed = writer.commit();
+        }
+        // Appended and flushed to the files, but the state is never committed
+        try (ColumnarTableWriter writer = new ColumnarTableWriter(dir, committed, null)) {
+            for (Row r : rows(5_000, 12)) append(writer, new Row(r.day + 100_000, "new\tkey\tMACRO", r.a, r.b));
+        }
+        ColumnarTable table = ColumnarTable.open(dir, committed, null);
+        assertEquals(rows, scan(table, START, LocalDate.ofEpochDay(rows.get(rows.size() - 1).day)));
+        assertEquals(KEYS.length, table.dictionarySize());
+
+        // The next writer truncates the leftovers before appending
+        try (ColumnarTableWriter writer = new ColumnarTableWriter(dir, committed, null)) {
+            Row extra = new Row(rows.get(rows.size() - 1).day + 1, KEYS[0], 1.5, Double.NaN);
+            append(writer, extra);
+            ColumnarTable appended = ColumnarTable.open(dir, writer.commit(), null);
+            List<Row> expected = new ArrayList<>(rows);
+            expected.add(extra);
+            assertEquals(expected, scan(appended, START, LocalDate.ofEpochDay(extra.day)));
+        }
+    }
+
+    @Test
+    void testScan_visitorCanStop() throws IOException {
+        try (ColumnarTableWriter writer = new ColumnarTableWriter(dir, null, null)) {
+            for (Row r : rows(100, 5)) append(writer, r);
+            ColumnarTable table = ColumnarTable.open(dir, writer.commit(), null);
+            int[] seen = {0};
+            table.scan(START, START.plusYears(10), (day, key, a, b) -> ++seen[0] < 3);
+            assertEquals(3, seen[0]);
+        }
+    }
+
+    @Test
+    void testAppend_outOfOrder_throws() throws IOException {
+        try (ColumnarTableWriter writer = new ColumnarTableWriter(dir, null, null)) {
+            writer.append(START.plusDays(1), KEYS[0], 1, 1);
+            assertThrows(IllegalStateException.class, () -> writer.append(START, KEYS[0], 1, 1));
+        }
+    }
+
+    /**
+     * Decimal-like values that mostly repeat or drift per key, with some nulls, several rows per date.
+     */
+    private static List<Row> rows(int n, long seed) {
+        Random random = new Random(seed);
+        double[] level = {100, 20, 0.5};
+        List<Row> rows = new ArrayList<>(n);
+        int day = (int) START.toEpochDay();
+        for (int i = 0; i < n; i++) {
+            int k = i % KEYS.length;
+            if (k == 0) day += random.nextInt(3);
+            if (random.nextInt(4) > 0) {
+                level[k] = Math.round((level[k] + random.nextGaussian()) * 10_000) / 10_000.0;
+            }
+            double b = random.nextInt(20) == 0 ? Double.NaN : Math.round(random.nextGaussian() * 1e6) / 1e6;
+            rows.add(new Row(day, KEYS[k], level[k], b));
+        }
+        return rows;
+    }
+
+    private static void append(ColumnarTableWriter writer, Row r) throws IOException {
+        writer.append(LocalDate.ofEpochDay(r.day), r.key, r.a, r.b);
+    }
+
+    private static List<Row> scan(ColumnarTable table, LocalDate start, LocalDate end) {
+        List<Row> rows = new ArrayList<>();
+        table.scan(start, end, (day, key, a, b) -> rows.add(new Row(day, String.join("\t", table.entry(key)), a, b)));
+        return rows;
+    }
+}
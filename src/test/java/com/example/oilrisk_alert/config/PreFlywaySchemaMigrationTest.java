@@ -0,0 +1,97 @@
+package com.example.oilrisk_alert.config;
+
+import org.flywaydb.core.Flyway;
+import org.junit.jupiter.api.Test;
+
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class PreFlywaySchemaMigrationTest {
+
+    private static final String URL = "jdbc:h2:mem:preflyway;MODE=MySQL;DB_CLOSE_DELAY=-1;NON_KEYWORDS=VALUE,DATE";
+
+    // The tables of the old schema.sql: no unique keys on risk_factor or alert, no alert_rule
+    private static final String[] OLD_SCHEMA = {
+            """
+            CREATE TABLE risk_index (
+                id BIGINT AUTO_INCREMENT PRIMARY KEY,
+                `date` DATE NOT NULL UNIQUE,
+                risk_index DECIMAL(5,2) NOT NULL,
+                risk_level VARCHAR(10) NOT NULL,
+                oil_price DECIMAL(8,2),
+                created_at TIMESTAMP DEFAULT CURRENT_TIMESTAMP
+            )""",
+            """
+            CREATE TABLE risk_factor (
+                id BIGINT AUTO_INCREMENT PRIMARY KEY,
+                `date` DATE NOT NULL,
+                factor_name VARCHAR(50) NOT NULL,
+                factor_name_zh VARCHAR(50) NOT NULL,
+                category VARCHAR(20) NOT NULL,
+                `value` DECIMAL(10,4),
+                shap_value DECIMAL(10,6),
+                created_at TIMESTAMP DEFAULT CURRENT_TIMESTAMP
+            )""",
+            """
+            CREATE TABLE alert (
+                id BIGINT AUTO_INCREMENT PRIMARY KEY,
+                `date` DATE NOT NULL,
+                level VARCHAR(10) NOT NULL,
+                risk_index DECIMAL(5,2) NOT NULL,
+                trigger_type VARCHAR(20) NOT NULL,
+                trigger_factor VARCHAR(50),
+                trigger_factor_zh VARCHAR(50),
+                summary VARCHAR(500),
+                summary_en VARCHAR(500),
+                detail TEXT,
+                ai_report TEXT DEFAULT NULL,
+                created_at TIMESTAMP DEFAULT CURRENT_TIMESTAMP
+            )""",
+            // Rows written twice by the upserts while the keys were missing
+            "INSERT INTO risk_factor (`date`, factor_name, factor_name_zh, category, `value`, shap_value) VALUES "
+                    + "('2020-01-01', 'vix_index', 'VIX', 'FINANCIAL', 20, 0.1), "
+                    + "('2020-01-01', 'vix_index', 'VIX', 'FINANCIAL', 25, 0.2), "
+                    + "('2020-01-01', 'gpr_index', 'GPR', 'GEOPOLITICAL', 100, 0.3)",
+            "INSERT INTO alert (`date`, level, risk_index, trigger_type) VALUES "
+                    + "('2020-01-01', 'Medium', 45, 'COMPOSITE'), ('2020-01-01', 'High', 65, 'COMPOSITE')"
+    };
+
+    @Test
+    void testMigrate_adoptsOldSchemaDatabase() throws SQLException {
+        try (Connection c = DriverManager.getConnection(URL, "sa", ""); Statement st = c.createStatement()) {
+            for (String sql : OLD_SCHEMA) st.execute(sql);
+
+            Flyway.configure()
+                    .dataSource(URL, "sa", "")
+                    .locations("classpath:db/migration")
+                    .baselineOnMigrate(true)
+                    .baselineVersion("2")
+                    .javaMigrations(new PreFlywaySchemaMigration())
+                    .load()
+                    .migrate();
+
+            assertEquals(8, scalar(st, "SELECT COUNT(*) FROM alert_rule"));
+            assertEquals(0, scalar(st, "SELECT COUNT(*) FROM market_data"));
+            // The newest duplicate is kept
+            assertEquals(2, scalar(st, "SELECT COUNT(*) FROM risk_factor"));
+            assertEquals(25, scalar(st, "SELECT `value` FROM risk_factor WHERE factor_name = 'vix_index'"));
+            assertEquals(65, scalar(st, "SELECT risk_index FROM alert"));
+            assertThrows(SQLException.class, () -> st.execute("INSERT INTO alert (`date`, level, risk_index, trigger_type)"
+                    + " VALUES ('2020-01-01', 'Low', 10, 'COMPOSITE')"));
+            assertEquals("10", Flyway.configure().dataSource(URL, "sa", "").locations("classpath:db/migration")
+                    .javaMigrations(new PreFlywaySchemaMigration()).load().info().current().getVersion().getVersion());
+        }
+    }
+
+    private static long scalar(Statement st, String sql) throws SQLException {
+        try (ResultSet rs = st.executeQuery(sql)) {
+            rs.next();
+            return rs.getLong(1);
+        }
+    }
+}
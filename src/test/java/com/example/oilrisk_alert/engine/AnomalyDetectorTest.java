@@ -0,0 +1,104 @@
+package com.example.oilrisk_alert.engine;
+
+import com.example.oilrisk_alert.common.RiskLevel;
+import org.junit.jupiter.api.Test;
+
+import java.util.Arrays;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class AnomalyDetectorTest {
+
+    @Test
+    void streamingMedian_exactForFewValuesAndCloseAfter() {
+        StreamingMedians medians = new StreamingMedians(2);
+        assertTrue(Double.isNaN(medians.median(0)));
+        double[] first = {5, 1, 4, 2};
+        for (int i = 0; i < first.length; i++) {
+            medians.add(0, first[i]);
+            double[] seen = Arrays.copyOf(first, i + 1);
+            Arrays.sort(seen);
+            double exact = seen.length % 2 == 1 ? seen[seen.length / 2]
+                    : (seen[seen.length / 2 - 1] + seen[seen.length / 2]) / 2;
+            assertEquals(exact, medians.median(0), 1e-12);
+        }
+
+        // Skewed values in sketch 1 leave sketch 0 alone
+        Random random = new Random(3);
+        double[] values = new double[20000];
+        for (int i = 0; i < values.length; i++) {
+            values[i] = Math.exp(random.nextGaussian());
+            medians.add(1, values[i]);
+        }
+        Arrays.sort(values);
+        assertEquals(values[values.length / 2], medians.median(1), 0.02);
+        assertEquals(3, medians.median(0), 1e-12);
+        assertEquals(20000, medians.count(1));
+    }
+
+    @Test
+    void stationaryNoise_rarelyFlagged() {
+        AnomalyDetector detector = new AnomalyDetector(1);
+        Random random = new Random(1);
+        int flagged = 0;
+        for (int i = 0; i < 5000; i++) {
+            if (detector.update(0, 10 + random.nextGaussian(), "f", "因子") != null) flagged++;
+        }
+        assertTrue(flagged < 25, "flagged " + flagged);
+    }
+
+    @Test
+    void outlier_flaggedBySeverity() {
+        AnomalyDetector detector = new AnomalyDetector(1);
+        Random random = new Random(2);
+        for (int i = 0; i < 200; i++) {
+            detector.update(0, 10 + random.nextGaussian(), "f", "因子");
+        }
+        RuleMatch medium = detector.update(0, 14.2, "f", "因子");
+        assertNotNull(medium);
+        assertEquals("ANOMALY", medium.getRuleType());
+        assertEquals(RiskLevel.MEDIUM, medium.getSeverity());
+        assertTrue(medium.getThreshold() > 13 && medium.getThreshold() < 14.2);
+
+        RuleMatch high = detector.update(0, -20, "f", "因子");
+        assertEquals(RiskLevel.HIGH, high.getSeverity());
+        assertTrue(high.getThreshold() < 10);
+    }
+
+    @Test
+    void levelShift_flaggedAsChangePoint() {
+        AnomalyDetector detector = new AnomalyDetector(1);
+        Random random = new Random(4);
+        for (int i = 0; i < 200; i++) {
+            detector.update(0, 10 + random.nextGaussian(), "f", "因子");
+        }
+        // A shift of 1.5 sigma is never an outlier on its own; CUSUM picks it up within a few values
+        RuleMatch change = null;
+        int steps = 0;
+        while (change == null && steps < 20) {
+            change = detector.update(0, 11.5 + random.nextGaussian() * 0.1, "f", "因子");
+            steps++;
+        }
+        assertNotNull(change);
+        assertEquals(RiskLevel.MEDIUM, change.getSeverity());
+        assertTrue(change.getDescription().contains("CUSUM"));
+        assertTrue(change.getDescription().contains("上移"));
+    }
+
+    @Test
+    void warmupAndDisabled_flagNothing() {
+        AnomalyDetector detector = new AnomalyDetector(1);
+        for (int i = 0; i < 23; i++) {
+            assertNull(detector.update(0, i % 2 == 0 ? 0 : 1, "f", "因子"));
+        }
+        assertNull(detector.update(0, 1000, "f", "因子"));
+        assertNotNull(detector.update(0, 1000, "f", "因子"));
+
+        detector.reset();
+        detector.setMinObservations(0);
+        detector.setEnabled(false);
+        for (int i = 0; i < 50; i++) detector.update(0, i % 2, "f", "因子");
+        assertNull(detector.update(0, 1000, "f", "因子"));
+    }
+}
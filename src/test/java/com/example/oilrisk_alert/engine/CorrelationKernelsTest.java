@@ -0,0 +1,98 @@
+package com.example.oilrisk_alert.engine;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class CorrelationKernelsTest {
+
+    private static double pearson(double[] a, double[] b, int from, int to) {
+        double ma = 0, mb = 0;
+        int n = to - from;
+        for (int i = from; i < to; i++) {
+            ma += a[i];
+            mb += b[i];
+        }
+        ma /= n;
+        mb /= n;
+        double cov = 0, va = 0, vb = 0;
+        for (int i = from; i < to; i++) {
+            cov += (a[i] - ma) * (b[i] - mb);
+            va += (a[i] - ma) * (a[i] - ma);
+            vb += (b[i] - mb) * (b[i] - mb);
+        }
+        return cov / Math.sqrt(va * vb);
+    }
+
+    private static double[][] columns(int f, int n, Random random) {
+        double[] base = new double[n];
+        for (int i = 0; i < n; i++) base[i] = random.nextGaussian();
+        double[][] x = new double[f][n];
+        for (int c = 0; c < f; c++) {
+            double weight = random.nextDouble() * 2 - 1;
+            for (int i = 0; i < n; i++) x[c][i] = 50 + 10 * (weight * base[i] + random.nextGaussian());
+        }
+        return x;
+    }
+
+    @Test
+    void gram_matchesPearsonAcrossTiles() {
+        // 19 factors and 2500 rows cross several factor and row blocks, with ragged edges
+        Random random = new Random(7);
+        int f = 19, n = 2500;
+        double[][] x = columns(f, n, random);
+        double[][] r = CorrelationKernels.gram(CorrelationKernels.normalize(x, n), n);
+        for (int i = 0; i < f; i++) {
+            assertEquals(1, r[i][i], 1e-12);
+            for (int j = 0; j < f; j++) {
+                assertEquals(pearson(x[i], x[j], 0, n), r[i][j], 1e-10);
+                assertEquals(r[i][j], r[j][i]);
+            }
+        }
+    }
+
+    @Test
+    void normalize_imputesMissingWithMeanAndZeroesConstants() {
+        double[] x = {1, Double.NaN, 3, 5};
+        double[] constant = {0.1 + 0.2, 0.3, 0.3, 0.3};
+        double[][] z = CorrelationKernels.normalize(new double[][]{x, constant}, 4);
+        assertEquals(0, z[0][1], 1e-15);
+        assertEquals(pearson(new double[]{1, 3, 3, 5}, new double[]{1, 3, 3, 5}, 0, 4),
+                CorrelationKernels.dot(z[0], z[0], 0, 4), 1e-12);
+        assertArrayEquals(new double[4], z[1]);
+        assertArrayEquals(new double[4], CorrelationKernels.normalize(new double[]{Double.NaN, 2, Double.NaN, Double.NaN}, 4));
+    }
+
+    @Test
+    void rolling_matchesPearsonPerWindow() {
+        Random random = new Random(11);
+        int f = 5, n = 600, window = 60;
+        double[][] x = columns(f, n, random);
+        double[] y = columns(1, n, random)[0];
+        // A factor flat inside some windows only
+        for (int i = 100; i < 300; i++) x[4][i] = 42;
+        // Six windows cover fewer rows than n and are summed one by one; 400 slide
+        int[] sparse = {59, 150, 299, 300, 400, 599};
+        int[] dense = new int[400];
+        for (int k = 0; k < dense.length; k++) dense[k] = 150 + k;
+        for (int[] ends : new int[][]{sparse, dense}) {
+            double[][] r = CorrelationKernels.rolling(CorrelationKernels.normalize(x, n),
+                    CorrelationKernels.normalize(y, n), n, window, ends);
+            for (int c = 0; c < f; c++) {
+                for (int k = 0; k < ends.length; k++) {
+                    int from = ends[k] - window + 1;
+                    double expected = c == 4 && from >= 100 && ends[k] < 300 ? 0 : pearson(x[c], y, from, ends[k] + 1);
+                    assertEquals(expected, r[c][k], 1e-8, "factor " + c + " window ending " + ends[k]);
+                }
+            }
+        }
+    }
+
+    @Test
+    void cumulative_skipsMissing() {
+        double[][] x = {{1, Double.NaN, 2, 3}};
+        assertArrayEquals(new double[]{1, 3, 6}, CorrelationKernels.cumulative(x, 4, new int[]{0, 2, 3})[0]);
+    }
+}
@@ -0,0 +1,173 @@
+package com.example.oilrisk_alert.engine;
+
+import com.example.oilrisk_alert.common.BusinessException;
+import com.example.oilrisk_alert.common.RiskLevel;
+import com.example.oilrisk_alert.entity.AlertRule;
+import com.example.oilrisk_alert.ingest.MarketObservation;
+import com.example.oilrisk_alert.ingest.MarketSeries;
+import org.junit.jupiter.api.Test;
+import tools.jackson.databind.ObjectMapper;
+
+import java.math.BigDecimal;
+
+import java.time.LocalDate;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class RiskEngineTest {
+
+    private MarketObservation observation(LocalDate date, Random random) {
+        MarketObservation o = new MarketObservation();
+        o.setDate(date);
+        for (MarketSeries s : MarketSeries.values()) {
+            if (s.isRaw()) o.set(s, 10 + random.nextGaussian() * 5);
+        }
+        return o;
+    }
+
+    private AlertRuleEngine ruleEngine(List<AlertRule> rules) {
+        AlertRuleEngine engine = new AlertRuleEngine(null);
+        engine.setRules(rules);
+        return engine;
+    }
+
+    private AlertRule rule(String type, MarketSeries series, String factor, double med, double high) {
+        AlertRule r = new AlertRule();
+        r.setRuleType(type);
+        r.setSourceSeries(series.name());
+        r.setFactorName(factor);
+        r.setFactorNameZh(factor);
+        r.setMedThreshold(BigDecimal.valueOf(med));
+        r.setHighThreshold(BigDecimal.valueOf(high));
+        return r;
+    }
+
+    @Test
+    void testOrderStatisticTree_percentileMatchesSortedArray() {
+        Random random = new Random(7);
+        OrderStatisticTree tree = new OrderStatisticTree();
+        double[] values = new double[1000];
+        for (int i = 0; i < values.length; i++) {
+            values[i] = Math.floor(random.nextDouble() * 100); // plenty of duplicates
+            tree.insert(values[i]);
+        }
+        Arrays.sort(values);
+
+        assertEquals(1000, tree.size());
+        for (int k = 0; k < values.length; k += 37) {
+            assertEquals(values[k], tree.select(k));
+        }
+        double idx = 0.85 * (values.length - 1);
+        int lo = (int) idx;
+        double expected = values[lo] * (1 - (idx - lo)) + values[lo + 1] * (idx - lo);
+        assertEquals(expected, tree.percentile(85), 1e-9);
+    }
+
+    @Test
+    void testWelfordStats_matchesTwoPassStatistics() {
+        double[] values = {3.5, 1.25, 9.0, -4.0, 7.75, 2.0};
+        WelfordStats stats = new WelfordStats();
+        for (double v : values) stats.add(v);
+
+        double mean = Arrays.stream(values).average().orElse(0);
+        double sq = Arrays.stream(values).map(v -> (v - mean) * (v - mean)).sum();
+        assertEquals(mean, stats.getMean(), 1e-12);
+        assertEquals(Math.sqrt(sq / (values.length - 1)), stats.getSampleStdev(), 1e-12);
+    }
+
+    @Test
+    void testAppend_producesBoundedIndexAndTenFactors() {
+        RiskEngine engine = new RiskEngine(new ObjectMapper(), ruleEngine(List.of()), new AnomalyDetector());
+        Random random = new Random(11);
+        LocalDate date = LocalDate.of(2020, 1, 1);
+        for (int i = 0; i < 48; i++) {
+            RiskSnapshot snapshot = engine.append(observation(date.plusMonths(i), random));
+            double index = snapshot.getRiskIndex().getRiskIndex().doubleValue();
+            assertTrue(index >= 0 && index <= 100);
+            assertEquals(10, snapshot.getFactors().size());
+            snapshot.getFactors().forEach(f ->
+                    assertTrue(Math.abs(f.getShapValue().doubleValue()) <= 0.15));
+        }
+        assertEquals(48, engine.size());
+        assertEquals(date.plusMonths(47), engine.getLastDate());
+    }
+
+    @Test
+    void testAppend_outOfOrder_throws() {
+        RiskEngine engine = new RiskEngine(new ObjectMapper(), ruleEngine(List.of()), new AnomalyDetector());
+        Random random = new Random(3);
+        engine.append(observation(LocalDate.of(2024, 2, 1), random));
+
+        BusinessException ex = assertThrows(BusinessException.class,
+                () -> engine.append(observation(LocalDate.of(2024, 1, 1), random)));
+        assertEquals(400, ex.getCode());
+    }
+
+    @Test
+    void testRuleEngine_thresholdAndAnomaly() {
+        AlertRuleEngine engine = ruleEngine(List.of(
+                rule("THRESHOLD", MarketSeries.VIX, "vix_index", 20, 30),
+                rule("ANOMALY", MarketSeries.GPR, "gpr_index", 0.3, 0.6)));
+        MarketObservation prev = new MarketObservation();
+        prev.set(MarketSeries.VIX, 18);
+        prev.set(MarketSeries.GPR, 100);
+        MarketObservation current = new MarketObservation();
+        current.set(MarketSeries.VIX, 25);
+        current.set(MarketSeries.GPR, 170);
+
+        // Without a previous observation only the THRESHOLD rule can fire
+        List<RuleMatch> first = engine.evaluate(current, null);
+        assertEquals(1, first.size());
+        assertEquals(RiskLevel.MEDIUM, first.get(0).getSeverity());
+        assertEquals(20, first.get(0).getThreshold());
+
+        List<RuleMatch> matches = engine.evaluate(current, prev);
+        assertEquals(2, matches.size());
+        assertEquals("gpr_index", matches.get(0).getFactor());
+        assertEquals(RiskLevel.HIGH, matches.get(0).getSeverity());
+        assertTrue(engine.evaluate(prev, null).isEmpty());
+    }
+
+    @Test
+    void testAppend_ruleMatchRaisesAlertWithRuleTrigger() {
+        RiskEngine engine = new RiskEngine(new ObjectMapper(),
+                ruleEngine(List.of(rule("THRESHOLD", MarketSeries.VIX, "vix_index", 20, 30))), new AnomalyDetector());
+        Random random = new Random(5);
+        LocalDate date = LocalDate.of(2021, 1, 1);
+        for (int i = 0; i < 12; i++) {
+            MarketObservation o = observation(date.plusMonths(i), random);
+            o.set(MarketSeries.VIX, 12);
+            engine.append(o);
+        }
+        MarketObservation spike = observation(date.plusMonths(12), random);
+        spike.set(MarketSeries.VIX, 45);
+        RiskSnapshot snapshot = engine.append(spike);
+
+        assertNotNull(snapshot.getAlert());
+        assertEquals("High", snapshot.getAlert().getLevel());
+        assertEquals("THRESHOLD", snapshot.getAlert().getTriggerType());
+        assertEquals("vix_index", snapshot.getAlert().getTriggerFactor());
+    }
+
+    @Test
+    void testAppend_factorOutlierRaisesAnomalyAlert() {
+        RiskEngine engine = new RiskEngine(new ObjectMapper(), ruleEngine(List.of()), new AnomalyDetector());
+        Random random = new Random(9);
+        LocalDate date = LocalDate.of(2018, 1, 1);
+        for (int i = 0; i < 36; i++) {
+            engine.append(observation(date.plusMonths(i), random));
+        }
+        MarketObservation spike = observation(date.plusMonths(36), random);
+        spike.set(MarketSeries.CPI, 200);
+        RiskSnapshot snapshot = engine.append(spike);
+
+        assertNotNull(snapshot.getAlert());
+        assertEquals("High", snapshot.getAlert().getLevel());
+        assertEquals("ANOMALY", snapshot.getAlert().getTriggerType());
+        assertEquals("cpi_expectation", snapshot.getAlert().getTriggerFactor());
+        assertTrue(snapshot.getAlert().getDetail().contains("稳健Z分数"));
+    }
+}
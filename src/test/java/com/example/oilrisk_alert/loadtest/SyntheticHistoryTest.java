@@ -0,0 +1,45 @@
+package com.example.oilrisk_alert.loadtest;
+
+import com.example.oilrisk_alert.engine.RiskSnapshot;
+import org.junit.jupiter.api.Test;
+import tools.jackson.databind.ObjectMapper;
+
+import java.time.LocalDate;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class SyntheticHistoryTest {
+
+    private static final LocalDate START = LocalDate.of(2000, 1, 1);
+
+    @Test
+    void testNext_sameSeedGivesSameHistory() {
+        SyntheticHistory a = new SyntheticHistory(START, 10, 7, new ObjectMapper());
+        SyntheticHistory b = new SyntheticHistory(START, 10, 7, new ObjectMapper());
+        for (int i = 0; i < 500; i++) {
+            RiskSnapshot sa = a.next();
+            RiskSnapshot sb = b.next();
+            assertEquals(sa.getRiskIndex(), sb.getRiskIndex());
+            assertEquals(sa.getFactors(), sb.getFactors());
+            assertEquals(sa.getAlert(), sb.getAlert());
+        }
+    }
+
+    @Test
+    void testNext_dailyRowsWithinModelBounds() {
+        SyntheticHistory history = new SyntheticHistory(START, 25, 42, new ObjectMapper());
+        int alerts = 0;
+        for (int i = 0; i < 2000; i++) {
+            RiskSnapshot s = history.next();
+            assertEquals(START.plusDays(i), s.getRiskIndex().getDate());
+            double index = s.getRiskIndex().getRiskIndex().doubleValue();
+            assertTrue(index >= 0 && index <= 100);
+            assertTrue(s.getRiskIndex().getOilPrice().doubleValue() >= 5);
+            assertEquals(25, s.getFactors().size());
+            s.getFactors().forEach(f -> assertTrue(Math.abs(f.getShapValue().doubleValue()) <= 0.15));
+            if (s.getAlert() != null) alerts++;
+        }
+        // Regime switching should produce some, but not constant, alerts
+        assertTrue(alerts > 0 && alerts < 2000);
+    }
+}
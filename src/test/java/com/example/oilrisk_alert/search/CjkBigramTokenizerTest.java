@@ -0,0 +1,29 @@
+package com.example.oilrisk_alert.search;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class CjkBigramTokenizerTest {
+
+    @Test
+    void mixedText_wordsAndBigrams() {
+        assertEquals(List.of("风险", "险指", "指数", "数达", "65", "91", "中东", "东紧", "紧张", "张指", "指数", "数异", "异常"),
+                CjkBigramTokenizer.tokenize("风险指数达65.91，中东紧张指数异常"));
+        assertEquals(List.of("risk", "index", "at", "65", "91", "crude", "inventory", "abnormal"),
+                CjkBigramTokenizer.tokenize("Risk index at 65.91, crude_inventory ABNORMAL"));
+        assertEquals(List.of("vix", "恐慌", "慌指", "指数"), CjkBigramTokenizer.tokenize("VIX恐慌指数"));
+    }
+
+    @Test
+    void singleCharacterRunsAndEmpty() {
+        assertEquals(List.of("油", "opec", "产"), CjkBigramTokenizer.tokenize("油 OPEC产"));
+        assertTrue(CjkBigramTokenizer.isSingleCjk("油"));
+        assertFalse(CjkBigramTokenizer.isSingleCjk("原油"));
+        assertFalse(CjkBigramTokenizer.isSingleCjk("a"));
+        assertTrue(CjkBigramTokenizer.tokenize(null).isEmpty());
+        assertTrue(CjkBigramTokenizer.tokenize(" ,。 ").isEmpty());
+    }
+}
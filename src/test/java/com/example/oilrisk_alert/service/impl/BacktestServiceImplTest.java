@@ -161,4 +161,78 @@ class BacktestServiceImplTest {
                 () -> backtestService.runBacktest(req));
         assertEquals(400, ex.getCode());
     }
+
+    private List<RiskIndex> buildLongTestData(int count) {
+        List<RiskIndex> data = new ArrayList<>();
+        LocalDate start = LocalDate.of(2020, 1, 1);
+        for (int i = 0; i < count; i++) {
+            RiskIndex ri = new RiskIndex();
+            ri.setDate(start.plusMonths(i));
+            ri.setOilPrice(BigDecimal.valueOf(60 + 10 * Math.sin(i / 3.0)));
+            ri.setRiskIndex(BigDecimal.valueOf(40 + 25 * Math.cos(i / 4.0)));
+            data.add(ri);
+        }
+        return data;
+    }
+
+    private BacktestRequestDTO walkForwardRequest(int trainWindow, int step, int horizon) {
+        BacktestRequestDTO req = new BacktestRequestDTO();
+        req.setStartDate(LocalDate.of(2020, 1, 1));
+        req.setEndDate(LocalDate.of(2022, 1, 1));
+        req.setModel("XGBoost");
+        req.setTrainWindow(trainWindow);
+        req.setStep(step);
+        req.setHorizon(horizon);
+        return req;
+    }
+
+    @Test
+    void testWalkForward_nonPositivePrice_throws400() {
+        List<RiskIndex> data = buildLongTestData(24);
+        data.get(5).setOilPrice(BigDecimal.ZERO);
+        when(riskMapper.findByDateRange(any(), any())).thenReturn(data);
+
+        BusinessException ex = assertThrows(BusinessException.class,
+                () -> backtestService.runBacktest(walkForwardRequest(12, 3, 3)));
+        assertEquals(400, ex.getCode());
+    }
+
+    @Test
+    void testWalkForward_generatesRollingFolds() {
+        when(riskMapper.findByDateRange(any(), any())).thenReturn(buildLongTestData(24));
+
+        BacktestResultVO result = backtestService.runBacktest(walkForwardRequest(12, 3, 3));
+
+        // origins 12, 15, 18, 21
+        assertEquals(4, result.getFolds().size());
+        assertEquals("2020-01-01", result.getFolds().get(0).getTrainStart());
+        assertEquals("2021-01-01", result.getFolds().get(0).getTestStart());
+        assertEquals("2021-12-01", result.getFolds().get(3).getTestEnd());
+        // Only out-of-sample dates are returned
+        assertEquals(12, result.getDates().size());
+        assertEquals("2021-01-01", result.getDates().get(0));
+        assertEquals(result.getDates().size(), result.getPredicted().size());
+        double sum = result.getHitRate().doubleValue() + result.getFalseAlarmRate().doubleValue();
+        assertEquals(1.0, sum, 0.0001);
+    }
+
+    @Test
+    void testWalkForward_reproducible() {
+        when(riskMapper.findByDateRange(any(), any())).thenReturn(buildLongTestData(36));
+
+        BacktestResultVO first = backtestService.runBacktest(walkForwardRequest(6, 1, 4));
+        BacktestResultVO second = backtestService.runBacktest(walkForwardRequest(6, 1, 4));
+
+        assertEquals(first.getPredicted(), second.getPredicted());
+        assertEquals(first.getFolds(), second.getFolds());
+    }
+
+    @Test
+    void testWalkForward_windowExceedsData_throws() {
+        when(riskMapper.findByDateRange(any(), any())).thenReturn(buildTestData());
+
+        BusinessException ex = assertThrows(BusinessException.class,
+                () -> backtestService.runBacktest(walkForwardRequest(4, 1, 3)));
+        assertEquals(400, ex.getCode());
+    }
 }
@@ -1,15 +1,22 @@
 package com.example.oilrisk_alert.service.impl;
 
+import com.example.oilrisk_alert.cache.DataVersionClock;
+import com.example.oilrisk_alert.cache.RadarScoreCache;
+import com.example.oilrisk_alert.cluster.ClusterBus;
+import com.example.oilrisk_alert.cluster.WeightsSync;
 import com.example.oilrisk_alert.common.BusinessException;
 import com.example.oilrisk_alert.config.WeightsConfig;
 import com.example.oilrisk_alert.dto.WeightDTO;
 import com.example.oilrisk_alert.entity.RiskFactor;
 import com.example.oilrisk_alert.entity.RiskIndex;
+import com.example.oilrisk_alert.mapper.DataVersionMapper;
 import com.example.oilrisk_alert.mapper.FactorMapper;
 import com.example.oilrisk_alert.mapper.RiskMapper;
+import com.example.oilrisk_alert.service.PartitionService;
 import com.example.oilrisk_alert.vo.FactorVO;
 import com.example.oilrisk_alert.vo.RadarScoreVO;
 import com.example.oilrisk_alert.vo.WeightUpdateResultVO;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.InjectMocks;
@@ -27,6 +34,9 @@ import java.util.stream.Collectors;
 import static org.junit.jupiter.api.Assertions.*;
 import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 
 @ExtendWith(MockitoExtension.class)
@@ -41,6 +51,16 @@ class FactorServiceImplTest {
     @Spy
     private WeightsConfig weightsConfig = new WeightsConfig();
 
+    @Spy
+    private RadarScoreCache radarScoreCache = new RadarScoreCache(new SimpleMeterRegistry(),
+            new DataVersionClock(mock(DataVersionMapper.class), mock(ClusterBus.class)));
+
+    @Mock
+    private WeightsSync weightsSync;
+
+    @Mock
+    private PartitionService partitionService;
+
     @InjectMocks
     private FactorServiceImpl factorService;
 
@@ -136,6 +156,30 @@ class FactorServiceImplTest {
         assertEquals(5, result.size());
     }
 
+    @Test
+    void testGetRadar_secondCallServedFromCache() {
+        when(factorMapper.findByDate(TEST_DATE)).thenReturn(buildTestFactors());
+
+        List<RadarScoreVO> first = factorService.getRadarScores(TEST_DATE);
+        List<RadarScoreVO> second = factorService.getRadarScores(TEST_DATE);
+
+        assertEquals(first, second);
+        verify(factorMapper, times(1)).findByDate(TEST_DATE);
+    }
+
+    @Test
+    void testGetRadar_weightChangeAppliesToCachedEntry() {
+        when(factorMapper.findByDate(TEST_DATE)).thenReturn(buildTestFactors());
+        factorService.getRadarScores(TEST_DATE);
+
+        weightsConfig.setSentiment(100.0);
+        List<RadarScoreVO> result = factorService.getRadarScores(TEST_DATE);
+
+        RadarScoreVO sentiment = result.stream()
+                .filter(r -> r.getCategory().equals("SENTIMENT")).findFirst().orElseThrow();
+        assertEquals(0, new BigDecimal("100.0").compareTo(sentiment.getScore()));
+    }
+
     @Test
     void testGetRadar_noData_throws404() {
         when(factorMapper.findLatestDate()).thenReturn(null);
@@ -196,6 +240,7 @@ class FactorServiceImplTest {
         assertNotNull(result.getTopFactors());
         // With higher weights on high-SHAP categories, index should increase
         assertTrue(result.getRiskIndex().doubleValue() > 55.0);
+        verify(weightsSync).broadcast();
     }
 
     @Test
@@ -1,8 +1,10 @@
 package com.example.oilrisk_alert.service.impl;
 
+import com.example.oilrisk_alert.cluster.InMemoryClusterBus;
 import com.example.oilrisk_alert.common.BusinessException;
 import com.example.oilrisk_alert.entity.Alert;
 import com.example.oilrisk_alert.mapper.AlertMapper;
+import com.example.oilrisk_alert.metrics.StreamingMetrics;
 import tools.jackson.databind.ObjectMapper;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
@@ -27,6 +29,13 @@ class ReportServiceImplTest {
     @Spy
     private ObjectMapper objectMapper = new ObjectMapper();
 
+    @Mock
+    private StreamingMetrics streamingMetrics;
+
+    @Spy
+    private InMemoryClusterBus clusterBus = new InMemoryClusterBus(event -> {
+    });
+
     @InjectMocks
     private ReportServiceImpl reportService;
 
@@ -0,0 +1,53 @@
+package com.example.oilrisk_alert.util;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.TreeSet;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class StreamingLttbTest {
+
+    @Test
+    void testFinish_matchesLttbUtilUnionForBothSeries() {
+        for (int[] shape : new int[][]{{2001, 2000}, {2500, 2000}, {10_000, 2000}, {12_345, 97}, {50, 3}}) {
+            int n = shape[0];
+            int threshold = shape[1];
+            Random random = new Random(n);
+            List<double[]> a = new ArrayList<>(n);
+            List<double[]> b = new ArrayList<>(n);
+            StreamingLttb lttb = new StreamingLttb(n, threshold);
+            double x = 80, y = 50;
+            for (int i = 0; i < n; i++) {
+                x += random.nextGaussian();
+                y = Math.max(0, Math.min(100, y + random.nextGaussian() * 3));
+                a.add(new double[]{i, x});
+                b.add(new double[]{i, y});
+                lttb.add(x, y);
+            }
+
+            TreeSet<Integer> expected = new TreeSet<>();
+            LttbUtil.downsample(a, threshold).forEach(p -> expected.add((int) p[0]));
+            LttbUtil.downsample(b, threshold).forEach(p -> expected.add((int) p[0]));
+
+            int[] actual = lttb.finish();
+            assertArrayEquals(expected.stream().mapToInt(Integer::intValue).toArray(), actual,
+                    "n=" + n + " threshold=" + threshold);
+        }
+    }
+
+    @Test
+    void testFinish_missingRows_throws() {
+        StreamingLttb lttb = new StreamingLttb(10, 3);
+        lttb.add(1, 1);
+        assertThrows(IllegalStateException.class, lttb::finish);
+    }
+
+    @Test
+    void testConstructor_lengthNotAboveThreshold_throws() {
+        assertThrows(IllegalArgumentException.class, () -> new StreamingLttb(2000, 2000));
+    }
+}
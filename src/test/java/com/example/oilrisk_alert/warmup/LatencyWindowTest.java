@@ -0,0 +1,25 @@
+package com.example.oilrisk_alert.warmup;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class LatencyWindowTest {
+
+    @Test
+    void testPercentile_coversOnlyTheLastSamples() {
+        LatencyWindow window = new LatencyWindow(100);
+        assertEquals(0, window.percentile(99));
+        window.add(1_000);
+        assertFalse(window.isFull());
+        for (int i = 1; i <= 99; i++) window.add(i);
+        assertTrue(window.isFull());
+        assertEquals(99, window.percentile(99));
+        assertEquals(1_000, window.percentile(100));
+
+        // The slow first sample drops out once 100 newer ones arrive
+        window.add(50);
+        assertEquals(99, window.percentile(100));
+        assertEquals(50, window.percentile(50));
+    }
+}